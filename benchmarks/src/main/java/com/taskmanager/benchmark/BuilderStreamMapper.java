@@ -0,0 +1,38 @@
+package com.taskmanager.benchmark;
+
+import com.taskmanager.entity.Task;
+import com.taskmanager.entity.TaskList;
+import com.taskmanager.model.response.TaskListResponse;
+import com.taskmanager.model.response.TaskResponse;
+import java.util.List;
+
+/**
+ * The previous response mapping: Lombok builders for every DTO and {@code stream().map().toList()} over the tasks.
+ * Kept here as the baseline the model package's mappers are measured against.
+ */
+final class BuilderStreamMapper {
+
+    private BuilderStreamMapper() {
+    }
+
+    static TaskListResponse toResponse(TaskList list) {
+        List<TaskResponse> tasks = list.getTasks().stream()
+                .map(BuilderStreamMapper::toResponse)
+                .toList();
+        return TaskListResponse.builder()
+                .id(list.getId())
+                .name(list.getName())
+                .version(list.getRevision())
+                .tasks(tasks)
+                .build();
+    }
+
+    static TaskResponse toResponse(Task task) {
+        return TaskResponse.builder()
+                .id(task.getId())
+                .name(task.getName())
+                .description(task.getDescription())
+                .version(task.getVersion())
+                .build();
+    }
+}
@@ -0,0 +1,28 @@
+package com.taskmanager.benchmark;
+
+import com.taskmanager.entity.Task;
+import com.taskmanager.entity.TaskList;
+import com.taskmanager.model.response.TaskListResponse;
+import com.taskmanager.model.response.TaskResponse;
+import java.util.List;
+
+/**
+ * Alternative mapping that keeps the stream pipeline but replaces the builders with the all-args constructors,
+ * isolating the cost of the builder objects from the cost of the stream.
+ */
+final class ConstructorStreamMapper {
+
+    private ConstructorStreamMapper() {
+    }
+
+    static TaskListResponse toResponse(TaskList list) {
+        List<TaskResponse> tasks = list.getTasks().stream()
+                .map(ConstructorStreamMapper::toResponse)
+                .toList();
+        return new TaskListResponse(list.getId(), list.getName(), list.getRevision(), tasks, null);
+    }
+
+    static TaskResponse toResponse(Task task) {
+        return new TaskResponse(task.getId(), task.getName(), task.getDescription(), task.getVersion());
+    }
+}
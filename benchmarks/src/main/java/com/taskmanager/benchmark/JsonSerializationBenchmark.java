@@ -0,0 +1,66 @@
+package com.taskmanager.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.taskmanager.model.response.TaskListResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Measures Jackson serialization of one {@link TaskListResponse}, comparing the reflective default
+ * with the Blackbird module, which replaces reflective property access with generated lambdas.
+ * Output goes to a discarding stream so only the serializer's own work and allocations are measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    private static final OutputStream DISCARD = StreamUtils.nonClosing(OutputStream.nullOutputStream());
+
+    @Param({"10", "1000", "100000"})
+    int taskCount;
+
+    TaskListResponse response;
+
+    ObjectWriter reflectiveWriter;
+
+    ObjectWriter blackbirdWriter;
+
+    @Setup
+    public void setUp() {
+        response = TaskListResponse.from(TaskListFixtures.listWithTasks(taskCount));
+        ObjectMapper reflective = JsonMapper.builder().build();
+        ObjectMapper blackbird = JsonMapper.builder().addModule(new BlackbirdModule()).build();
+        reflectiveWriter = reflective.writerFor(TaskListResponse.class);
+        blackbirdWriter = blackbird.writerFor(TaskListResponse.class);
+    }
+
+    @Benchmark
+    public void reflective() throws IOException {
+        reflectiveWriter.writeValue(DISCARD, response);
+    }
+
+    @Benchmark
+    public void blackbird() throws IOException {
+        blackbirdWriter.writeValue(DISCARD, response);
+    }
+}
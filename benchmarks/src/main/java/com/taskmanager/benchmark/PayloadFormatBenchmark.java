@@ -0,0 +1,84 @@
+package com.taskmanager.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.taskmanager.model.response.TaskListResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Measures writing one {@link TaskListResponse} in each response format the service offers, as is and gzipped
+ * the way the container compresses it. Output goes to a discarding stream; the encoded sizes are printed once
+ * per trial so the time spent can be weighed against the bytes saved.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PayloadFormatBenchmark {
+
+    private static final OutputStream DISCARD = StreamUtils.nonClosing(OutputStream.nullOutputStream());
+
+    @Param({"json", "smile", "cbor"})
+    String format;
+
+    @Param({"none", "gzip"})
+    String compression;
+
+    @Param({"1000", "10000", "100000"})
+    int taskCount;
+
+    TaskListResponse response;
+
+    ObjectWriter writer;
+
+    @Setup
+    public void setUp() throws IOException {
+        response = TaskListResponse.from(TaskListFixtures.listWithTasks(taskCount));
+        JsonFactory factory = switch (format) {
+            case "smile" -> new SmileFactory();
+            case "cbor" -> new CBORFactory();
+            default -> new JsonFactory();
+        };
+        writer = new ObjectMapper(factory).writerFor(TaskListResponse.class);
+
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        write(encoded);
+        System.out.printf("%n%s, %s, %d tasks: %d bytes%n", format, compression, taskCount, encoded.size());
+    }
+
+    @Benchmark
+    public void write() throws IOException {
+        write(DISCARD);
+    }
+
+    private void write(OutputStream out) throws IOException {
+        if ("gzip".equals(compression)) {
+            try (GZIPOutputStream gzip = new GZIPOutputStream(StreamUtils.nonClosing(out))) {
+                writer.writeValue(gzip, response);
+            }
+        } else {
+            writer.writeValue(out, response);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.taskmanager.benchmark;
+
+import com.taskmanager.entity.TaskList;
+import com.taskmanager.model.response.TaskListResponse;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures entity-to-DTO conversion of one task list, comparing {@link TaskListResponse#from(TaskList)}
+ * (constructors and a presized loop) with the alternative mappers in this package.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseMappingBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    int taskCount;
+
+    TaskList list;
+
+    @Setup
+    public void setUp() {
+        list = TaskListFixtures.listWithTasks(taskCount);
+    }
+
+    @Benchmark
+    public TaskListResponse modelFrom() {
+        return TaskListResponse.from(list);
+    }
+
+    @Benchmark
+    public TaskListResponse builderStream() {
+        return BuilderStreamMapper.toResponse(list);
+    }
+
+    @Benchmark
+    public TaskListResponse constructorStream() {
+        return ConstructorStreamMapper.toResponse(list);
+    }
+
+}
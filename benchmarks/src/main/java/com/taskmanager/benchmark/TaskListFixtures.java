@@ -0,0 +1,34 @@
+package com.taskmanager.benchmark;
+
+import com.taskmanager.entity.Task;
+import com.taskmanager.entity.TaskList;
+
+/**
+ * Builds detached {@link TaskList} entities for the benchmarks, shaped like what the read path loads from the database.
+ */
+final class TaskListFixtures {
+
+    private TaskListFixtures() {
+    }
+
+    /**
+     * Creates a task list with the given number of tasks, each with a name and description of realistic length.
+     *
+     * @param taskCount the number of tasks to add to the list
+     * @return the populated task list
+     */
+    static TaskList listWithTasks(int taskCount) {
+        TaskList list = new TaskList();
+        list.setId(1L);
+        list.setName("Benchmark list");
+        for (int i = 0; i < taskCount; i++) {
+            Task task = new Task();
+            task.setId((long) i + 1);
+            task.setName("Task " + i);
+            task.setDescription("Description of task " + i + " in the benchmark list");
+            task.setTaskList(list);
+            list.getTasks().add(task);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,68 @@
+package com.taskmanager.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The endpoints of {@code TaskManagerController} driven by the load test, with their share of the mixed workload.
+ * The weights model a read-heavy client: two thirds reads, the rest spread over the mutations so that the
+ * number of lists and tasks stays roughly stable over a run.
+ */
+public enum Endpoint {
+
+    GET_LISTS("GET /lists", 30),
+    GET_TASKS("GET /lists/{listId}/tasks", 30),
+    CREATE_LIST("POST /lists", 2),
+    DELETE_LIST("DELETE /lists/{listId}", 2),
+    ADD_TASK("POST /lists/{listId}/tasks", 6),
+    ADD_TASKS("POST /lists/{listId}/tasks:batch", 1),
+    UPDATE_TASK("PUT /tasks/{taskId}", 10),
+    DELETE_TASK("DELETE /lists/{listId}/tasks/{taskId}", 12),
+    MOVE_TASK("PUT /lists/{fromListId}/tasks/{taskId}/move/{toListId}", 5),
+    MOVE_TASKS("POST /lists/{fromListId}/tasks:move", 2);
+
+    private static final Endpoint[] VALUES = values();
+
+    private static final int TOTAL_WEIGHT = totalWeight();
+
+    private final String route;
+
+    private final int weight;
+
+    Endpoint(String route, int weight) {
+        this.route = route;
+        this.weight = weight;
+    }
+
+    /**
+     * Returns the HTTP method and path template of this endpoint, as shown in the report.
+     *
+     * @return the route of this endpoint
+     */
+    public String route() {
+        return route;
+    }
+
+    /**
+     * Picks the next endpoint of the mixed workload at random, proportionally to the weights.
+     *
+     * @return the endpoint to call next
+     */
+    public static Endpoint next() {
+        int value = ThreadLocalRandom.current().nextInt(TOTAL_WEIGHT);
+        for (Endpoint endpoint : VALUES) {
+            value -= endpoint.weight;
+            if (value < 0) {
+                return endpoint;
+            }
+        }
+        throw new IllegalStateException("Weights do not add up to " + TOTAL_WEIGHT);
+    }
+
+    private static int totalWeight() {
+        int total = 0;
+        for (Endpoint endpoint : values()) {
+            total += endpoint.weight;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,325 @@
+package com.taskmanager.loadtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.taskmanager.model.request.BulkMoveRequest;
+import com.taskmanager.model.request.TaskListRequest;
+import com.taskmanager.model.request.TaskRequest;
+import com.taskmanager.model.response.BulkMoveResponse;
+import com.taskmanager.model.response.TaskListResponse;
+import com.taskmanager.model.response.TaskResponse;
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import org.HdrHistogram.Histogram;
+
+/**
+ * One simulated client of the mixed workload. Each client owns a disjoint set of task lists and keeps track of
+ * their task ids, so its mutations always target existing tasks and never race with another client. Only lists
+ * created during the run are deleted again, so the seeded data set stays in place. Latencies of successful calls
+ * are recorded per endpoint in microseconds, once the warmup is over. Calls shed by the service's concurrency limit
+ * ({@code 503}) are counted apart from errors and, like errors, leave the client's lists unchanged.
+ */
+public class LoadClient implements Runnable {
+
+    private static final int BATCH_SIZE = 10;
+
+    private final TaskManagerClient client;
+
+    private final List<OwnedList> lists = new ArrayList<>();
+
+    private final Map<Endpoint, Histogram> latencies = new EnumMap<>(Endpoint.class);
+
+    private final Map<Endpoint, long[]> errors = new EnumMap<>(Endpoint.class);
+
+    private final Map<Endpoint, long[]> shed = new EnumMap<>(Endpoint.class);
+
+    private long measureFromNanos;
+
+    private long stopAtNanos;
+
+    private int seededLists;
+
+    /**
+     * Creates a client without lists; call {@link #seed} and {@link #measureBetween} before running it.
+     *
+     * @param client the shared API client
+     */
+    public LoadClient(TaskManagerClient client) {
+        this.client = client;
+        for (Endpoint endpoint : Endpoint.values()) {
+            latencies.put(endpoint, new Histogram(3));
+            errors.put(endpoint, new long[1]);
+            shed.put(endpoint, new long[1]);
+        }
+    }
+
+    /**
+     * Creates this client's task lists and fills them through the batch endpoint. Nothing is recorded.
+     *
+     * @param listCount    the number of lists to create
+     * @param tasksPerList the number of tasks per list
+     * @throws IOException          if a request fails
+     * @throws InterruptedException if the calling thread is interrupted
+     */
+    public void seed(int listCount, int tasksPerList) throws IOException, InterruptedException {
+        for (int i = 0; i < listCount; i++) {
+            OwnedList list = new OwnedList(read(seedCall(client.post("/lists", new TaskListRequest("Load list " + i))),
+                    new TypeReference<TaskListResponse>() { }).getId());
+            for (int added = 0; added < tasksPerList; added += TaskRequest.BATCH_MAX_SIZE) {
+                List<TaskRequest> batch = taskRequests(Math.min(TaskRequest.BATCH_MAX_SIZE, tasksPerList - added));
+                for (TaskResponse task : read(seedCall(client.post("/lists/" + list.id + "/tasks:batch", batch)),
+                        new TypeReference<List<TaskResponse>>() { })) {
+                    list.taskIds.add(task.getId());
+                }
+            }
+            lists.add(list);
+        }
+        seededLists = lists.size();
+    }
+
+    /**
+     * Sets the window of the run: calls start right away as warmup, latencies are recorded from
+     * {@code measureFromNanos} and the run ends at {@code stopAtNanos}, both {@link System#nanoTime()} instants.
+     *
+     * @param measureFromNanos the end of the warmup
+     * @param stopAtNanos      the end of the run
+     */
+    public void measureBetween(long measureFromNanos, long stopAtNanos) {
+        this.measureFromNanos = measureFromNanos;
+        this.stopAtNanos = stopAtNanos;
+    }
+
+    /**
+     * Calls randomly picked endpoints back to back until the end of the run.
+     */
+    @Override
+    public void run() {
+        try {
+            while (System.nanoTime() < stopAtNanos) {
+                execute(Endpoint.next());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns the latencies recorded per endpoint, in microseconds.
+     *
+     * @return the latency histograms of this client
+     */
+    public Map<Endpoint, Histogram> latencies() {
+        return latencies;
+    }
+
+    /**
+     * Returns the number of failed calls per endpoint recorded after the warmup.
+     *
+     * @param endpoint the endpoint
+     * @return the number of calls answered with an error status other than {@code 503} or not answered at all
+     */
+    public long errors(Endpoint endpoint) {
+        return errors.get(endpoint)[0];
+    }
+
+    /**
+     * Returns the number of calls per endpoint shed by the service after the warmup.
+     *
+     * @param endpoint the endpoint
+     * @return the number of calls answered with {@code 503 Service Unavailable}
+     */
+    public long shed(Endpoint endpoint) {
+        return shed.get(endpoint)[0];
+    }
+
+    private void execute(Endpoint endpoint) throws InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        OwnedList from = listWithTasks();
+        switch (endpoint) {
+            case GET_LISTS -> call(endpoint, client.get("/lists?limit=20&taskLimit=10"));
+            case GET_TASKS -> call(endpoint, client.get("/lists/" + anyList().id + "/tasks?limit=50"));
+            case CREATE_LIST -> createList();
+            case DELETE_LIST -> {
+                if (lists.size() <= seededLists) {
+                    createList();
+                    return;
+                }
+                if (call(endpoint, client.delete("/lists/" + lists.getLast().id)) != null) {
+                    lists.removeLast();
+                }
+            }
+            case ADD_TASK -> {
+                OwnedList list = anyList();
+                byte[] body = call(endpoint, client.post("/lists/" + list.id + "/tasks", taskRequests(1).getFirst()));
+                if (body != null) {
+                    list.taskIds.add(read(body, new TypeReference<TaskResponse>() { }).getId());
+                }
+            }
+            case ADD_TASKS -> {
+                OwnedList list = anyList();
+                byte[] body = call(endpoint, client.post("/lists/" + list.id + "/tasks:batch", taskRequests(BATCH_SIZE)));
+                if (body != null) {
+                    for (TaskResponse task : read(body, new TypeReference<List<TaskResponse>>() { })) {
+                        list.taskIds.add(task.getId());
+                    }
+                }
+            }
+            case UPDATE_TASK -> {
+                if (from == null) {
+                    execute(Endpoint.ADD_TASK);
+                    return;
+                }
+                Long taskId = from.taskIds.get(random.nextInt(from.taskIds.size()));
+                call(endpoint, client.put("/tasks/" + taskId, taskRequests(1).getFirst()));
+            }
+            case DELETE_TASK -> {
+                if (from == null) {
+                    execute(Endpoint.ADD_TASK);
+                    return;
+                }
+                Long taskId = from.removeRandomTask();
+                if (call(endpoint, client.delete("/lists/" + from.id + "/tasks/" + taskId)) == null) {
+                    from.taskIds.add(taskId);
+                }
+            }
+            case MOVE_TASK -> {
+                if (from == null) {
+                    execute(Endpoint.ADD_TASK);
+                    return;
+                }
+                OwnedList to = otherList(from);
+                Long taskId = from.removeRandomTask();
+                boolean moved = call(endpoint, client.put("/lists/" + from.id + "/tasks/" + taskId + "/move/" + to.id,
+                        null)) != null;
+                (moved ? to : from).taskIds.add(taskId);
+            }
+            case MOVE_TASKS -> {
+                if (from == null) {
+                    execute(Endpoint.ADD_TASK);
+                    return;
+                }
+                OwnedList to = otherList(from);
+                Set<Long> taskIds = new HashSet<>();
+                for (int i = 0; i < BATCH_SIZE; i++) {
+                    taskIds.add(from.taskIds.get(random.nextInt(from.taskIds.size())));
+                }
+                byte[] body = call(endpoint, client.post("/lists/" + from.id + "/tasks:move",
+                        new BulkMoveRequest(to.id, List.copyOf(taskIds), null)));
+                if (body != null) {
+                    List<Long> moved = read(body, new TypeReference<BulkMoveResponse>() { }).getMoved();
+                    from.taskIds.removeAll(new HashSet<>(moved));
+                    to.taskIds.addAll(moved);
+                }
+            }
+        }
+    }
+
+    private void createList() throws InterruptedException {
+        byte[] body = call(Endpoint.CREATE_LIST, client.post("/lists", new TaskListRequest("Load list")));
+        if (body != null) {
+            lists.add(new OwnedList(read(body, new TypeReference<TaskListResponse>() { }).getId()));
+        }
+    }
+
+    /**
+     * Sends a request of the workload, recording its latency or failure once the warmup is over.
+     *
+     * @return the response body, or {@code null} if the call failed
+     */
+    private byte[] call(Endpoint endpoint, HttpRequest request) throws InterruptedException {
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response;
+        try {
+            response = client.send(request);
+        } catch (IOException e) {
+            response = null;
+        }
+        boolean recorded = start >= measureFromNanos;
+        if (response == null || response.statusCode() >= 400) {
+            if (recorded) {
+                (response != null && response.statusCode() == 503 ? shed : errors).get(endpoint)[0]++;
+            }
+            return null;
+        }
+        if (recorded) {
+            latencies.get(endpoint).recordValue((System.nanoTime() - start) / 1_000);
+        }
+        return response.body();
+    }
+
+    private byte[] seedCall(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(request);
+        if (response.statusCode() >= 400) {
+            throw new IOException("Seeding failed with status " + response.statusCode() + ": " + request.uri());
+        }
+        return response.body();
+    }
+
+    private <T> T read(byte[] body, TypeReference<T> type) {
+        return client.read(body, type);
+    }
+
+    private OwnedList anyList() {
+        return lists.get(ThreadLocalRandom.current().nextInt(lists.size()));
+    }
+
+    private OwnedList otherList(OwnedList list) {
+        OwnedList other;
+        do {
+            other = anyList();
+        } while (other == list);
+        return other;
+    }
+
+    /**
+     * Returns a random list that has tasks, or {@code null} if none of this client's lists has any.
+     */
+    private OwnedList listWithTasks() {
+        int start = ThreadLocalRandom.current().nextInt(lists.size());
+        for (int i = 0; i < lists.size(); i++) {
+            OwnedList list = lists.get((start + i) % lists.size());
+            if (!list.taskIds.isEmpty()) {
+                return list;
+            }
+        }
+        return null;
+    }
+
+    private static List<TaskRequest> taskRequests(int count) {
+        List<TaskRequest> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int n = ThreadLocalRandom.current().nextInt(1_000_000);
+            requests.add(new TaskRequest("Load task " + n, "Description of load task " + n));
+        }
+        return requests;
+    }
+
+    /**
+     * A task list owned by this client, with the ids of the tasks it currently contains.
+     */
+    private static final class OwnedList {
+
+        private final Long id;
+
+        private final List<Long> taskIds = new ArrayList<>();
+
+        private OwnedList(Long id) {
+            this.id = id;
+        }
+
+        private Long removeRandomTask() {
+            int index = ThreadLocalRandom.current().nextInt(taskIds.size());
+            Long taskId = taskIds.get(index);
+            taskIds.set(index, taskIds.getLast());
+            taskIds.removeLast();
+            return taskId;
+        }
+    }
+}
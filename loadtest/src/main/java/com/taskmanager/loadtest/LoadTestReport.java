@@ -0,0 +1,158 @@
+package com.taskmanager.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Per-endpoint throughput and latency percentiles of a load test run, merged over all clients.
+ */
+public class LoadTestReport {
+
+    private static final double MICROS_PER_MILLI = 1_000.0;
+
+    private static final String[] PERCENTILES = {"p50", "p95", "p99", "p999"};
+
+    private static final double[] PERCENTILE_VALUES = {50.0, 95.0, 99.0, 99.9};
+
+    private final Map<Endpoint, Histogram> latencies = new EnumMap<>(Endpoint.class);
+
+    private final Map<Endpoint, Long> errors = new EnumMap<>(Endpoint.class);
+
+    private final Map<Endpoint, Long> shed = new EnumMap<>(Endpoint.class);
+
+    private final Duration duration;
+
+    /**
+     * Merges the recordings of all clients of a run.
+     *
+     * @param clients  the clients of the run
+     * @param duration the measured part of the run, excluding the warmup
+     */
+    public LoadTestReport(List<LoadClient> clients, Duration duration) {
+        this.duration = duration;
+        for (Endpoint endpoint : Endpoint.values()) {
+            Histogram merged = new Histogram(3);
+            long failed = 0;
+            long rejected = 0;
+            for (LoadClient client : clients) {
+                merged.add(client.latencies().get(endpoint));
+                failed += client.errors(endpoint);
+                rejected += client.shed(endpoint);
+            }
+            latencies.put(endpoint, merged);
+            errors.put(endpoint, failed);
+            shed.put(endpoint, rejected);
+        }
+    }
+
+    /**
+     * Prints one line per endpoint with the number of calls, requests per second, latency percentiles in
+     * milliseconds and the numbers of failed and shed calls, followed by the totals.
+     *
+     * @param out the stream to print to
+     */
+    public void print(PrintStream out) {
+        out.printf(Locale.ROOT, "%-58s %8s %8s %8s %8s %8s %8s %8s %7s %7s%n",
+                "Endpoint (latency in ms)", "calls", "req/s", "p50", "p95", "p99", "p99.9", "max", "errors", "shed");
+        long totalCalls = 0;
+        long totalErrors = 0;
+        long totalShed = 0;
+        for (Endpoint endpoint : Endpoint.values()) {
+            Histogram histogram = latencies.get(endpoint);
+            out.printf(Locale.ROOT, "%-58s %8d %8.1f %8.2f %8.2f %8.2f %8.2f %8.2f %7d %7d%n",
+                    endpoint.route(), histogram.getTotalCount(), requestsPerSecond(endpoint),
+                    millis(histogram, 50.0), millis(histogram, 95.0), millis(histogram, 99.0), millis(histogram, 99.9),
+                    histogram.getMaxValue() / MICROS_PER_MILLI, errors.get(endpoint), shed.get(endpoint));
+            totalCalls += histogram.getTotalCount();
+            totalErrors += errors.get(endpoint);
+            totalShed += shed.get(endpoint);
+        }
+        out.printf(Locale.ROOT, "%-58s %8d %8.1f %53d %7d%n", "Total", totalCalls,
+                totalCalls / (double) duration.toMillis() * 1_000, totalErrors, totalShed);
+    }
+
+    /**
+     * Writes the full percentile distribution of every endpoint, in milliseconds, as HdrHistogram {@code .hgrm}
+     * files that can be plotted with the HdrHistogram plotter.
+     *
+     * @param directory the directory to write to, created if missing
+     * @throws IOException if a file cannot be written
+     */
+    public void writeHistograms(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (Endpoint endpoint : Endpoint.values()) {
+            Path file = directory.resolve(endpoint.name().toLowerCase(Locale.ROOT) + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                latencies.get(endpoint).outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+        }
+    }
+
+    /**
+     * Compares the run against regression thresholds. Keys have the form {@code <scope>.<metric>}, where the scope
+     * is an {@link Endpoint} name or {@code default} for every endpoint without its own value, and the metric is
+     * one of {@code p50.ms}, {@code p95.ms}, {@code p99.ms}, {@code p999.ms} (upper bounds of the latency
+     * percentiles), {@code min.rps} (lower bound of the throughput), {@code max.error.rate} (upper bound of the
+     * share of failed calls) or {@code max.shed.rate} (upper bound of the share of shed calls).
+     *
+     * @param thresholds the regression thresholds
+     * @return a description of every crossed threshold, empty if the run passed
+     */
+    public List<String> check(Properties thresholds) {
+        List<String> violations = new ArrayList<>();
+        for (Endpoint endpoint : Endpoint.values()) {
+            Histogram histogram = latencies.get(endpoint);
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                Double limit = threshold(thresholds, endpoint, PERCENTILES[i] + ".ms");
+                double actual = millis(histogram, PERCENTILE_VALUES[i]);
+                if (limit != null && actual > limit) {
+                    violations.add(String.format(Locale.ROOT, "%s %s is %.2f ms, above %.2f ms",
+                            endpoint.route(), PERCENTILES[i], actual, limit));
+                }
+            }
+            Double minRps = threshold(thresholds, endpoint, "min.rps");
+            if (minRps != null && requestsPerSecond(endpoint) < minRps) {
+                violations.add(String.format(Locale.ROOT, "%s throughput is %.1f req/s, below %.1f req/s",
+                        endpoint.route(), requestsPerSecond(endpoint), minRps));
+            }
+            Double maxErrorRate = threshold(thresholds, endpoint, "max.error.rate");
+            long calls = histogram.getTotalCount() + errors.get(endpoint) + shed.get(endpoint);
+            double errorRate = calls == 0 ? 0 : errors.get(endpoint) / (double) calls;
+            if (maxErrorRate != null && errorRate > maxErrorRate) {
+                violations.add(String.format(Locale.ROOT, "%s error rate is %.4f, above %.4f",
+                        endpoint.route(), errorRate, maxErrorRate));
+            }
+            Double maxShedRate = threshold(thresholds, endpoint, "max.shed.rate");
+            double shedRate = calls == 0 ? 0 : shed.get(endpoint) / (double) calls;
+            if (maxShedRate != null && shedRate > maxShedRate) {
+                violations.add(String.format(Locale.ROOT, "%s shed rate is %.4f, above %.4f",
+                        endpoint.route(), shedRate, maxShedRate));
+            }
+        }
+        return violations;
+    }
+
+    private double requestsPerSecond(Endpoint endpoint) {
+        return latencies.get(endpoint).getTotalCount() / (double) duration.toMillis() * 1_000;
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+
+    private static Double threshold(Properties thresholds, Endpoint endpoint, String metric) {
+        String value = thresholds.getProperty(endpoint.name() + "." + metric,
+                thresholds.getProperty("default." + metric));
+        return value == null ? null : Double.valueOf(value.trim());
+    }
+}
@@ -0,0 +1,84 @@
+package com.taskmanager.loadtest;
+
+import com.taskmanager.TaskManagerApplication;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Boots the service on a random port against in-memory H2, seeds it, drives the mixed workload of {@link Endpoint}
+ * with concurrent {@link LoadClient}s and prints a {@link LoadTestReport}. Exits with status 1 if a regression
+ * threshold is crossed, which fails the {@code verify} phase of the load test module.
+ */
+public class LoadTestRunner {
+
+    private static final String[] APPLICATION_ARGS = {
+            "--server.port=0",
+            "--spring.jpa.show-sql=false",
+            "--logging.level.root=WARN",
+            "--logging.level.com.taskmanager=WARN",
+            "--logging.level.org.springframework.web=WARN"
+    };
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        List<String> violations;
+        try (ConfigurableApplicationContext context = SpringApplication.run(TaskManagerApplication.class,
+                APPLICATION_ARGS)) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            LoadTestReport report = run(settings, new TaskManagerClient(port));
+            report.print(System.out);
+            report.writeHistograms(settings.reportDir());
+            violations = report.check(loadThresholds(settings));
+        }
+
+        if (!violations.isEmpty()) {
+            System.out.println("Load test failed, " + violations.size() + " threshold(s) crossed:");
+            violations.forEach(violation -> System.out.println("  " + violation));
+            System.exit(1);
+        }
+        System.out.println("Load test passed");
+    }
+
+    private static LoadTestReport run(LoadTestSettings settings, TaskManagerClient client) throws Exception {
+        System.out.printf("Seeding %d lists with %d tasks each%n", settings.lists(), settings.tasksPerList());
+        List<LoadClient> clients = new ArrayList<>(settings.clients());
+        for (int i = 0; i < settings.clients(); i++) {
+            LoadClient loadClient = new LoadClient(client);
+            int lists = settings.lists() / settings.clients() + (i < settings.lists() % settings.clients() ? 1 : 0);
+            loadClient.seed(lists, settings.tasksPerList());
+            clients.add(loadClient);
+        }
+
+        long measureFrom = System.nanoTime() + settings.warmup().toNanos();
+        long stopAt = measureFrom + settings.duration().toNanos();
+        clients.forEach(loadClient -> loadClient.measureBetween(measureFrom, stopAt));
+
+        System.out.printf("Running %d clients: %d s warmup, %d s measured%n", settings.clients(),
+                settings.warmup().toSeconds(), settings.duration().toSeconds());
+        List<Thread> threads = new ArrayList<>(clients.size());
+        for (int i = 0; i < clients.size(); i++) {
+            threads.add(Thread.ofPlatform().name("load-client-" + i).start(clients.get(i)));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return new LoadTestReport(clients, settings.duration());
+    }
+
+    private static Properties loadThresholds(LoadTestSettings settings) throws IOException {
+        Properties thresholds = new Properties();
+        if (Files.exists(settings.thresholds())) {
+            try (Reader reader = Files.newBufferedReader(settings.thresholds())) {
+                thresholds.load(reader);
+            }
+        }
+        return thresholds;
+    }
+}
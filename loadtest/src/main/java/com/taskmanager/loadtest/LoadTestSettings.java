@@ -0,0 +1,37 @@
+package com.taskmanager.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings of a load test run, read from {@code loadtest.*} system properties.
+ *
+ * @param clients      number of concurrent clients, each on its own thread with its own lists
+ * @param warmup       time the workload runs before latencies are recorded
+ * @param duration     time latencies are recorded after the warmup
+ * @param lists        number of task lists seeded before the run, split evenly between the clients
+ * @param tasksPerList number of tasks seeded into each list
+ * @param thresholds   properties file with the regression thresholds, see {@link LoadTestReport#check}
+ * @param reportDir    directory the per-endpoint HdrHistogram percentile distributions are written to
+ */
+public record LoadTestSettings(int clients, Duration warmup, Duration duration, int lists, int tasksPerList,
+                               Path thresholds, Path reportDir) {
+
+    /**
+     * Reads the settings from system properties, falling back to defaults for a short run on a developer machine.
+     *
+     * @return the settings of this run
+     */
+    public static LoadTestSettings fromSystemProperties() {
+        int clients = Integer.getInteger("loadtest.clients", 8);
+        int lists = Math.max(Integer.getInteger("loadtest.lists", 64), 2 * clients);
+        return new LoadTestSettings(
+                clients,
+                Duration.ofSeconds(Integer.getInteger("loadtest.warmup.seconds", 10)),
+                Duration.ofSeconds(Integer.getInteger("loadtest.duration.seconds", 30)),
+                lists,
+                Integer.getInteger("loadtest.tasks.per.list", 100),
+                Path.of(System.getProperty("loadtest.thresholds", "thresholds.properties")),
+                Path.of(System.getProperty("loadtest.report.dir", "target/loadtest")));
+    }
+}
@@ -0,0 +1,125 @@
+package com.taskmanager.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Thin JSON-over-HTTP client of the task manager API, shared by all load test clients.
+ */
+public class TaskManagerClient {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient;
+
+    private final ObjectMapper objectMapper;
+
+    private final String baseUri;
+
+    /**
+     * Creates a client of the API served at the given port of the local host.
+     *
+     * @param port the port the service listens on
+     */
+    public TaskManagerClient(int port) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(REQUEST_TIMEOUT)
+                .build();
+        this.objectMapper = new ObjectMapper();
+        this.baseUri = "http://localhost:" + port + "/api/v1/task-manager";
+    }
+
+    /**
+     * Builds a {@code GET} request.
+     *
+     * @param path the path below the API base, including any query string
+     * @return the request
+     */
+    public HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    /**
+     * Builds a {@code POST} request with a JSON body.
+     *
+     * @param path the path below the API base
+     * @param body the object serialized as the request body
+     * @return the request
+     */
+    public HttpRequest post(String path, Object body) {
+        return request(path).POST(json(body)).build();
+    }
+
+    /**
+     * Builds a {@code PUT} request with a JSON body, or without a body if {@code body} is {@code null}.
+     *
+     * @param path the path below the API base
+     * @param body the object serialized as the request body, may be {@code null}
+     * @return the request
+     */
+    public HttpRequest put(String path, Object body) {
+        return request(path).PUT(body == null ? HttpRequest.BodyPublishers.noBody() : json(body)).build();
+    }
+
+    /**
+     * Builds a {@code DELETE} request.
+     *
+     * @param path the path below the API base
+     * @return the request
+     */
+    public HttpRequest delete(String path) {
+        return request(path).DELETE().build();
+    }
+
+    /**
+     * Sends a request and reads the whole response body.
+     *
+     * @param request the request to send
+     * @return the response
+     * @throws IOException          if the request could not be sent or the response not read
+     * @throws InterruptedException if the calling thread is interrupted while waiting for the response
+     */
+    public HttpResponse<byte[]> send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    /**
+     * Deserializes a JSON response body.
+     *
+     * @param body the response body
+     * @param type the type of the body
+     * @param <T>  the type of the body
+     * @return the deserialized body
+     */
+    public <T> T read(byte[] body, TypeReference<T> type) {
+        try {
+            return objectMapper.readValue(body, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUri + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json");
+    }
+
+    private HttpRequest.BodyPublisher json(Object body) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.taskmanager.config;
+
+import com.taskmanager.entity.TaskList;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Configuration of the Hibernate second-level cache.
+ * {@link TaskList}s are cached in a bounded Ehcache region whose entries expire a fixed time after they were written.
+ * The regions are created here rather than by Hibernate, so their size and time to live come from the application
+ * properties and their hit and miss counts can be published as {@code cache.gets} meters.
+ */
+@Configuration(proxyBeanMethods = false)
+public class CacheConfig {
+
+    /**
+     * Names of the cache regions, which Hibernate derives from the names of the cached entities.
+     */
+    static final List<String> REGIONS = List.of(TaskList.class.getName());
+
+    /**
+     * Creates the cache manager holding the second-level cache regions.
+     * Every application context gets its own manager, so contexts living side by side in tests do not share
+     * cached entities of different databases.
+     *
+     * @param maxEntries the maximum number of entries of each region
+     * @param timeToLive how long an entry stays in its region after it was written
+     * @return the cache manager, closed with the application context
+     */
+    @Bean(destroyMethod = "close")
+    CacheManager hibernateCacheManager(@Value("${taskmanager.cache.max-entries:10000}") long maxEntries,
+                                       @Value("${taskmanager.cache.time-to-live:10m}") Duration timeToLive) {
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(
+                EhcacheCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("urn:taskmanager:hibernate:" + UUID.randomUUID()),
+                new DefaultConfiguration(getClass().getClassLoader()));
+
+        javax.cache.configuration.Configuration<Object, Object> configuration =
+                Eh107Configuration.fromEhcacheCacheConfiguration(CacheConfigurationBuilder
+                        .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(maxEntries))
+                        .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(timeToLive)));
+        for (String region : REGIONS) {
+            cacheManager.createCache(region, configuration);
+            cacheManager.enableStatistics(region, true);
+        }
+        return cacheManager;
+    }
+
+    /**
+     * Hands the cache manager to Hibernate and makes a missing region fail at startup, so an entity annotated
+     * as cacheable without a configured region is noticed right away instead of getting an unbounded cache.
+     *
+     * @param hibernateCacheManager the cache manager holding the regions
+     * @return the customizer adding the second-level cache settings to the Hibernate properties
+     */
+    @Bean
+    HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    /**
+     * Publishes the size, hits, misses, puts and evictions of every region.
+     *
+     * @param hibernateCacheManager the cache manager holding the regions
+     * @return the binder registering the cache meters, tagged with the region name
+     */
+    @Bean
+    MeterBinder secondLevelCacheMetrics(CacheManager hibernateCacheManager) {
+        return registry -> {
+            for (String region : REGIONS) {
+                JCacheMetrics.monitor(registry, hibernateCacheManager.getCache(region),
+                        Tags.of("cache.manager", "hibernate"));
+            }
+        };
+    }
+}
@@ -0,0 +1,58 @@
+package com.taskmanager.config;
+
+import com.taskmanager.limit.ConcurrencyLimitInterceptor;
+import com.taskmanager.limit.ConcurrencyLimiter;
+import com.taskmanager.limit.GradientLimit;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Configuration of the adaptive concurrency limit in front of the task manager endpoints, enabled with
+ * {@code taskmanager.limits.enabled=true}.
+ * Reads and writes each get a {@link ConcurrencyLimiter} whose {@link GradientLimit} starts at
+ * {@code taskmanager.limits.<kind>.initial} and adapts between {@code min} and {@code max} as latency changes.
+ * Snapshot export and import are long streaming transfers, the event stream holds its connection open for as long
+ * as the client listens, and write-behind ingestion has a bounded buffer of its own, so those endpoints are not
+ * limited.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "taskmanager.limits.enabled", havingValue = "true")
+public class ConcurrencyLimitConfig implements WebMvcConfigurer {
+
+    private final ConcurrencyLimitInterceptor interceptor;
+
+    /**
+     * Creates the read and write limiters.
+     *
+     * @param meterRegistry the registry of the limiters' meters
+     * @param readInitial   the initial limit of reads
+     * @param readMin       the lowest limit of reads
+     * @param readMax       the highest limit of reads
+     * @param writeInitial  the initial limit of writes
+     * @param writeMin      the lowest limit of writes
+     * @param writeMax      the highest limit of writes
+     */
+    public ConcurrencyLimitConfig(MeterRegistry meterRegistry,
+                                  @Value("${taskmanager.limits.read.initial:20}") int readInitial,
+                                  @Value("${taskmanager.limits.read.min:4}") int readMin,
+                                  @Value("${taskmanager.limits.read.max:200}") int readMax,
+                                  @Value("${taskmanager.limits.write.initial:10}") int writeInitial,
+                                  @Value("${taskmanager.limits.write.min:2}") int writeMin,
+                                  @Value("${taskmanager.limits.write.max:100}") int writeMax) {
+        this.interceptor = new ConcurrencyLimitInterceptor(
+                new ConcurrencyLimiter("read", new GradientLimit(readInitial, readMin, readMax), meterRegistry),
+                new ConcurrencyLimiter("write", new GradientLimit(writeInitial, writeMin, writeMax), meterRegistry));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(interceptor)
+                .addPathPatterns("/api/v1/task-manager/**")
+                .excludePathPatterns("/api/v1/task-manager/snapshot", "/api/v1/task-manager/lists/events",
+                        "/api/v1/task-manager/lists/*/tasks:ingest", "/api/v1/task-manager/ingestions/*");
+    }
+}
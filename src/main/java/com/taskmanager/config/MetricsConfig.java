@@ -0,0 +1,27 @@
+package com.taskmanager.config;
+
+import com.taskmanager.metrics.SqlStatementCountingListener;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of the SQL statement metrics.
+ * The operation timers and the per-request statement counts live in {@code com.taskmanager.metrics};
+ * this configuration hooks their statement counter into Hibernate.
+ */
+@Configuration(proxyBeanMethods = false)
+public class MetricsConfig {
+
+    /**
+     * Registers the {@link SqlStatementCountingListener} on every Hibernate session.
+     *
+     * @return the customizer adding the session event listener to the Hibernate properties
+     */
+    @Bean
+    HibernatePropertiesCustomizer sqlStatementCountingCustomizer() {
+        return properties -> properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER,
+                SqlStatementCountingListener.class.getName());
+    }
+}
@@ -0,0 +1,43 @@
+package com.taskmanager.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Configuration of the binary response formats.
+ * Clients sending {@code Accept: application/cbor} or {@code Accept: application/x-jackson-smile} receive CBOR or
+ * Smile instead of JSON; anyone else still gets JSON, which stays first among the converters. Both mappers are built
+ * from the application's {@link Jackson2ObjectMapperBuilder}, so they serialize exactly the same properties as JSON.
+ * Spring MVC would otherwise register converters of its own whose mappers miss that configuration; beans of the same
+ * type take their place. Compression applies to all three formats, see {@code server.compression}.
+ */
+@Configuration(proxyBeanMethods = false)
+public class PayloadFormatConfig {
+
+    /**
+     * Creates the CBOR converter.
+     *
+     * @param builder the application's object mapper builder, a fresh one per injection point
+     * @return the converter for {@code application/cbor}
+     */
+    @Bean
+    MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    /**
+     * Creates the Smile converter.
+     *
+     * @param builder the application's object mapper builder, a fresh one per injection point
+     * @return the converter for {@code application/x-jackson-smile}
+     */
+    @Bean
+    MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
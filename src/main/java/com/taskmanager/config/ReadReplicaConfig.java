@@ -0,0 +1,103 @@
+package com.taskmanager.config;
+
+import com.taskmanager.routing.ReadFromPrimaryAspect;
+import com.taskmanager.routing.ReadWriteRoutingDataSource;
+import com.taskmanager.routing.StickyPrimaryPolicy;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Configuration of the opt-in read replica, enabled with {@code taskmanager.datasource.replica.enabled=true}.
+ * The primary keeps its {@code spring.datasource} settings; the replica gets a pool of its own from
+ * {@code taskmanager.datasource.replica} ({@code jdbc-url}, {@code username}, {@code password},
+ * {@code maximum-pool-size}). The application data source is a {@link ReadWriteRoutingDataSource} over both,
+ * behind a {@link LazyConnectionDataSourceProxy}, and a client's reads stay on the primary for
+ * {@code taskmanager.datasource.sticky-primary} after its writes.
+ * <p>
+ * Both pools are declared as plain {@link DataSource}s, since {@link VirtualThreadConfig} may decorate them.
+ * </p>
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "taskmanager.datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    /**
+     * Creates the pool of the primary from the {@code spring.datasource} settings.
+     *
+     * @param properties the {@code spring.datasource} settings
+     * @return the pool of the primary
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    DataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    /**
+     * Creates the pool of the replica from the {@code taskmanager.datasource.replica} settings.
+     *
+     * @return the pool of the replica
+     */
+    @Bean
+    @ConfigurationProperties("taskmanager.datasource.replica")
+    DataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    /**
+     * Creates the policy keeping a client's reads on the primary after its writes.
+     *
+     * @param window how long the reads stay on the primary
+     * @return the sticky primary policy
+     */
+    @Bean
+    StickyPrimaryPolicy stickyPrimaryPolicy(@Value("${taskmanager.datasource.sticky-primary:1s}") Duration window) {
+        return new StickyPrimaryPolicy(window);
+    }
+
+    /**
+     * Creates the aspect honouring {@link com.taskmanager.routing.ReadFromPrimary}.
+     *
+     * @return the aspect
+     */
+    @Bean
+    ReadFromPrimaryAspect readFromPrimaryAspect() {
+        return new ReadFromPrimaryAspect();
+    }
+
+    /**
+     * Creates the application data source, routing each transaction once it runs its first statement.
+     *
+     * @param primary             the pool of the primary
+     * @param replica             the pool of the replica
+     * @param stickyPrimaryPolicy the sticky primary policy
+     * @param meterRegistry       the registry of the route counters
+     * @return the routing data source
+     */
+    @Bean
+    @Primary
+    DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                          @Qualifier("replicaDataSource") DataSource replica,
+                          StickyPrimaryPolicy stickyPrimaryPolicy, MeterRegistry meterRegistry) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, replica, stickyPrimaryPolicy,
+                meterRegistry);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
@@ -0,0 +1,56 @@
+package com.taskmanager.config;
+
+import com.taskmanager.entity.TaskRepository;
+import com.taskmanager.search.InMemoryTaskSearchIndex;
+import com.taskmanager.search.PostgresTaskSearchIndex;
+import com.taskmanager.search.TaskSearchIndex;
+import com.taskmanager.shard.ShardedTaskSearchIndex;
+import com.taskmanager.shard.Shards;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.List;
+
+/**
+ * Configuration of the task search.
+ * PostgreSQL searches with its own full-text index; any other database (H2 in tests and local runs)
+ * falls back to the in-process {@link InMemoryTaskSearchIndex}. With sharding, PostgreSQL searches every shard and
+ * the in-process index is built from all of them.
+ */
+@Configuration(proxyBeanMethods = false)
+public class SearchConfig {
+
+    private static final String POSTGRESQL = "PostgreSQL";
+
+    /**
+     * Creates the search index matching the database behind the data source.
+     *
+     * @param dataSource     the application data source, inspected for its product name
+     * @param jdbcTemplate   the template used by the PostgreSQL search
+     * @param taskRepository the repository the in-process index is built from
+     * @param shards         the shards, if sharding is enabled
+     * @return the search index
+     * @throws MetaDataAccessException if the database product name cannot be read
+     */
+    @Bean
+    TaskSearchIndex taskSearchIndex(DataSource dataSource, JdbcTemplate jdbcTemplate, TaskRepository taskRepository,
+                                    ObjectProvider<Shards> shards) throws MetaDataAccessException {
+        String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        Shards sharded = shards.getIfAvailable();
+        if (POSTGRESQL.equals(product)) {
+            TaskSearchIndex index = new PostgresTaskSearchIndex(jdbcTemplate);
+            return sharded != null ? new ShardedTaskSearchIndex(index, sharded) : index;
+        }
+        if (sharded != null) {
+            return new InMemoryTaskSearchIndex(() -> sharded.gather(shard -> taskRepository.findAllRows()).stream()
+                    .flatMap(List::stream)
+                    .toList());
+        }
+        return new InMemoryTaskSearchIndex(taskRepository);
+    }
+}
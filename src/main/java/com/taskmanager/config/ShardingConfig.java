@@ -0,0 +1,197 @@
+package com.taskmanager.config;
+
+import com.taskmanager.entity.TaskListRepository;
+import com.taskmanager.entity.TaskRepository;
+import com.taskmanager.entity.TombstoneRepository;
+import com.taskmanager.service.ChangeRevisions;
+import com.taskmanager.service.TaskManagerService;
+import com.taskmanager.shard.CrossShardMoves;
+import com.taskmanager.shard.ShardInitializer;
+import com.taskmanager.shard.ShardRoutingAspect;
+import com.taskmanager.shard.ShardRoutingDataSource;
+import com.taskmanager.shard.ShardSchemaIntegrator;
+import com.taskmanager.shard.ShardedSequenceGenerator;
+import com.taskmanager.shard.Shards;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.internal.EntityManagerFactoryBuilderImpl;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration of the opt-in hash sharding, enabled with {@code taskmanager.sharding.enabled=true}.
+ * Task lists and their tasks are spread over several databases, see {@link Shards}: the home shard keeps the
+ * {@code spring.datasource} settings, and every URL of {@code taskmanager.sharding.urls} adds a shard with the same
+ * credentials and pool size. The application data source is a {@link ShardRoutingDataSource} over all of them, and
+ * the {@link ShardRoutingAspect} runs each operation on the shard of its data.
+ * <p>
+ * Sharding cannot be combined with the read replica, nor with the write-behind ingestion, whose batches write the
+ * tasks of many lists in one transaction.
+ * </p>
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "taskmanager.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    private static final String TASK_ID_SEQUENCE = "task_seq";
+
+    /**
+     * Checks that nothing incompatible with sharding is enabled.
+     *
+     * @param replicaEnabled whether the read replica is enabled
+     * @param ingestEnabled  whether the write-behind ingestion is enabled
+     * @throws IllegalStateException if either is
+     */
+    ShardingConfig(@Value("${taskmanager.datasource.replica.enabled:false}") boolean replicaEnabled,
+                   @Value("${taskmanager.ingest.enabled:false}") boolean ingestEnabled) {
+        if (replicaEnabled) {
+            throw new IllegalStateException("Sharding cannot be combined with the read replica");
+        }
+        if (ingestEnabled) {
+            throw new IllegalStateException("Sharding cannot be combined with the write-behind ingestion");
+        }
+    }
+
+    /**
+     * Creates the set of shards: the home shard and one per additional URL.
+     *
+     * @param urls the JDBC URLs of the shards besides the home shard
+     * @return the shards, closed with the application context
+     */
+    @Bean
+    Shards shards(@Value("${taskmanager.sharding.urls:}") List<String> urls) {
+        return new Shards(1 + urls.size());
+    }
+
+    /**
+     * Creates the pool of the home shard from the {@code spring.datasource} settings.
+     *
+     * @param properties the {@code spring.datasource} settings
+     * @return the pool of the home shard
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    DataSource homeShardDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("shard-" + ShardRoutingDataSource.HOME_SHARD);
+        return dataSource;
+    }
+
+    /**
+     * Creates the application data source, routing each connection to the shard bound to the current thread.
+     * The pools of the other shards are passed through the bean post-processors like the home shard's, so their
+     * decorations, such as the connection limit of {@link VirtualThreadConfig}, apply to every shard.
+     *
+     * @param homeShard     the pool of the home shard
+     * @param properties    the {@code spring.datasource} settings, whose credentials the other shards share
+     * @param urls          the JDBC URLs of the shards besides the home shard
+     * @param poolSize      the maximum size of every pool
+     * @param beanFactory   the factory applying the bean post-processors
+     * @param meterRegistry the registry of the connection counters
+     * @return the routing data source
+     */
+    @Bean
+    @Primary
+    DataSource dataSource(@Qualifier("homeShardDataSource") DataSource homeShard, DataSourceProperties properties,
+                          @Value("${taskmanager.sharding.urls:}") List<String> urls,
+                          @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                          ConfigurableListableBeanFactory beanFactory, MeterRegistry meterRegistry) {
+        List<DataSource> shards = new ArrayList<>();
+        shards.add(homeShard);
+        for (String url : urls) {
+            HikariDataSource pool = properties.initializeDataSourceBuilder().url(url.trim())
+                    .type(HikariDataSource.class).build();
+            pool.setPoolName("shard-" + shards.size());
+            pool.setMaximumPoolSize(poolSize);
+            shards.add((DataSource) beanFactory.initializeBean(pool, pool.getPoolName() + "DataSource"));
+        }
+        ShardRoutingDataSource routing = new ShardRoutingDataSource(shards, meterRegistry);
+        routing.afterPropertiesSet();
+        return routing;
+    }
+
+    /**
+     * Registers the {@link ShardSchemaIntegrator}, so the schema is managed on every shard, and passes the number of
+     * shards to the {@link ShardedSequenceGenerator}, so it keeps a pool of ids per shard.
+     *
+     * @param shards the shards
+     * @return the customizer adding the integrator and the number of shards to the Hibernate properties
+     */
+    @Bean
+    HibernatePropertiesCustomizer shardSchemaCustomizer(Shards shards) {
+        Integrator integrator = new ShardSchemaIntegrator(shards.count());
+        return properties -> {
+            properties.put(EntityManagerFactoryBuilderImpl.INTEGRATOR_PROVIDER,
+                    (IntegratorProvider) () -> List.of(integrator));
+            properties.put(ShardedSequenceGenerator.SHARD_COUNT_SETTING, shards.count());
+        };
+    }
+
+    /**
+     * Creates the initializer of the id allocation of every shard, which runs once the schema exists.
+     *
+     * @param shards               the shards
+     * @param jdbcTemplate         the template over the routing data source
+     * @param entityManagerFactory the factory whose dialect reads the task id sequence
+     * @param taskListRepository   the task list repository
+     * @param taskRepository       the task repository
+     * @param tombstoneRepository  the tombstone repository
+     * @param changeRevisions      the allocator of change revisions
+     * @return the initializer
+     */
+    @Bean
+    ShardInitializer shardInitializer(Shards shards, JdbcTemplate jdbcTemplate,
+                                      EntityManagerFactory entityManagerFactory,
+                                      TaskListRepository taskListRepository, TaskRepository taskRepository,
+                                      TombstoneRepository tombstoneRepository, ChangeRevisions changeRevisions) {
+        String nextTaskIdQuery = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices()
+                .getDialect().getSequenceSupport().getSequenceNextValString(TASK_ID_SEQUENCE);
+        return new ShardInitializer(shards, jdbcTemplate, nextTaskIdQuery, taskListRepository, taskRepository,
+                tombstoneRepository, changeRevisions);
+    }
+
+    /**
+     * Creates the coordinator of moves between lists on different shards.
+     *
+     * @param taskManagerService the service running each step of a move
+     * @param taskRepository     the task repository
+     * @param shards             the shards
+     * @return the coordinator
+     */
+    @Bean
+    CrossShardMoves crossShardMoves(TaskManagerService taskManagerService, TaskRepository taskRepository,
+                                    Shards shards) {
+        return new CrossShardMoves(taskManagerService, taskRepository, shards);
+    }
+
+    /**
+     * Creates the aspect running the operations of the service layer on their shards.
+     *
+     * @param shards          the shards
+     * @param crossShardMoves the coordinator of moves between shards
+     * @param taskRepository  the task repository
+     * @return the aspect
+     */
+    @Bean
+    ShardRoutingAspect shardRoutingAspect(Shards shards, ObjectProvider<CrossShardMoves> crossShardMoves,
+                                          ObjectProvider<TaskRepository> taskRepository) {
+        return new ShardRoutingAspect(shards, crossShardMoves, taskRepository);
+    }
+}
@@ -0,0 +1,40 @@
+package com.taskmanager.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of the opt-in virtual-thread execution mode.
+ * Enabled with {@code spring.threads.virtual.enabled=true}, which makes Spring Boot run Tomcat request
+ * handling, and therefore the {@code @Transactional} service calls made from it, on virtual threads.
+ * This configuration adds the matching connection bound: the pooled {@link HikariDataSource} is decorated
+ * with a {@link ConnectionLimitingDataSource} sized to the pool, so virtual threads queue on a semaphore
+ * instead of piling up on the pool.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    /**
+     * Decorates the Hikari data source once it is fully configured.
+     * Declared static so the post-processor is registered before the data source is created.
+     *
+     * @return the {@link BeanPostProcessor} applying the {@link ConnectionLimitingDataSource}
+     */
+    @Bean
+    static BeanPostProcessor connectionLimitingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari) {
+                    return new ConnectionLimitingDataSource(hikari, hikari.getMaximumPoolSize(),
+                            hikari.getConnectionTimeout());
+                }
+                return bean;
+            }
+        };
+    }
+}
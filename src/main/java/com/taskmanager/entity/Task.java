@@ -1,38 +1,55 @@
 package com.taskmanager.entity;
 
+import com.taskmanager.shard.ShardedSequence;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.SQLRestriction;
 
 /**
  * Represents a task in the task management system.
  * Each task has a name, description, and belongs to a {@link TaskList}.
+ * Deleted tasks stay behind as rows flagged {@link #deleted} until the {@link com.taskmanager.service.TaskPurger}
+ * removes them; the {@link SQLRestriction} hides them from every load and query. The tasks of a deleted list are
+ * not flagged, queries reading tasks across lists filter them out by their list.
  */
 @Entity
 @Table(
         name = "task",
         indexes = {
-                @Index(name = "idx_task_list_id", columnList = "task_list_id")
+                @Index(name = "idx_task_list_rank", columnList = "task_list_id, rank, id"),
+                @Index(name = "idx_task_change_revision", columnList = "change_revision"),
+                @Index(name = "idx_task_deleted", columnList = "deleted")
         }
 )
+@SQLRestriction("deleted = false")
 @Data
 @NoArgsConstructor
 public class Task {
 
+    /**
+     * Number of task ids Hibernate takes from {@code task_seq} at a time. The pooled optimizer hands out the block
+     * of ids up to the sequence value it fetched.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     /**
      * Unique identifier for the task.
+     * Generated from the pooled {@code task_seq} sequence rather than an identity column, so Hibernate
+     * knows the id before the insert and can group inserts into JDBC batches. With sharding enabled every shard
+     * keeps a pool of its own, so the id comes from the sequence of the shard the task is created on.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @ShardedSequence(sequenceName = "task_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     /**
@@ -54,4 +71,42 @@ public class Task {
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "task_list_id", nullable = false)
     private TaskList taskList;
+
+    /**
+     * Version of the task, incremented whenever its name, description or list changes.
+     * The set-based mutations of {@link TaskRepository} increment it themselves and can be made conditional on
+     * an expected version, which is how {@code If-Match} preconditions detect concurrent writers.
+     */
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long version;
+
+    /**
+     * Change revision of the last transaction that created, updated or moved the task, allocated by
+     * {@link com.taskmanager.service.ChangeRevisions}. Indexed, so the tasks changed since a sync token are read
+     * with one index range scan. Tasks that existed before change revisions were introduced have revision {@code 0}.
+     */
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long changeRevision;
+
+    /**
+     * Position of the task within its list: the tasks of a list are ordered by rank and then id.
+     * Ranks are sparse keys computed by {@link com.taskmanager.service.RankKeys}, so moving a task between two others
+     * only writes that task. Indexed together with the list and the id, so the ordered tasks of a list are read
+     * straight off the index. Tasks that existed before ranks were introduced have rank {@code 0} and keep their
+     * id order.
+     */
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long rank;
+
+    /**
+     * Whether the task was deleted and only waits to be purged. Set by a single conditional update, so a delete
+     * costs the same for any task; indexed, so the purger finds the flagged rows without a scan.
+     */
+    @Column(nullable = false)
+    @ColumnDefault("false")
+    private boolean deleted;
 }
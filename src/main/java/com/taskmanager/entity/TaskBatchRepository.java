@@ -0,0 +1,41 @@
+package com.taskmanager.entity;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Custom repository fragment for inserting and re-ranking many {@link Task} entities as JDBC batches.
+ * Implemented by {@link TaskBatchRepositoryImpl} and exposed through {@link TaskRepository}.
+ */
+public interface TaskBatchRepository {
+
+    /**
+     * Persists the given new tasks and flushes them as JDBC batch inserts.
+     * Ids are assigned from the task sequence before the inserts are executed.
+     * The tasks stay managed in the current persistence context.
+     *
+     * @param tasks the new tasks to insert
+     */
+    void insertAll(Collection<Task> tasks);
+
+    /**
+     * Inserts tasks with ids of their own, such as tasks copied from another shard, as plain JDBC batches and stamps
+     * the change revision. Pending changes are flushed before and the persistence context is cleared after the inserts.
+     *
+     * @param rows           the tasks to insert, with their ids, lists, versions and ranks
+     * @param changeRevision the change revision of the inserts
+     */
+    void insertRows(List<TaskRow> rows, long changeRevision);
+
+    /**
+     * Renumbers the ranks of the given tasks as JDBC batch updates and stamps the change revision, without
+     * changing their versions: the tasks keep their order, only the gaps between their ranks are restored.
+     * Pending changes are flushed before and the persistence context is cleared after the updates.
+     *
+     * @param taskIds        the ids of the tasks, in the order of their new ranks
+     * @param firstRank      the rank of the first task
+     * @param rankSpacing    the distance between the ranks of neighbouring tasks
+     * @param changeRevision the change revision of the renumbering
+     */
+    void updateRanks(List<Long> taskIds, long firstRank, long rankSpacing, long changeRevision);
+}
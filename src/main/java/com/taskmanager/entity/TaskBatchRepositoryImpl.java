@@ -0,0 +1,100 @@
+package com.taskmanager.entity;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Implementation of {@link TaskBatchRepository}.
+ * Sets the JDBC batch size on the current {@link Session} for the duration of the flush, so the
+ * inserts are batched regardless of the global {@code hibernate.jdbc.batch_size} setting.
+ * Rank updates and inserts of tasks with given ids bypass the entities and go to the connection of the session as
+ * plain JDBC batches.
+ */
+@RequiredArgsConstructor
+class TaskBatchRepositoryImpl implements TaskBatchRepository {
+
+    /**
+     * Number of insert statements sent to the database in one JDBC batch.
+     * Matches the allocation size of the task id sequence.
+     */
+    static final int JDBC_BATCH_SIZE = 50;
+
+    private final EntityManager entityManager;
+
+    @Override
+    public void insertAll(Collection<Task> tasks) {
+        Session session = entityManager.unwrap(Session.class);
+        Integer previousBatchSize = session.getJdbcBatchSize();
+        session.setJdbcBatchSize(JDBC_BATCH_SIZE);
+        try {
+            for (Task task : tasks) {
+                entityManager.persist(task);
+            }
+            entityManager.flush();
+        } finally {
+            session.setJdbcBatchSize(previousBatchSize);
+        }
+    }
+
+    @Override
+    public void insertRows(List<TaskRow> rows, long changeRevision) {
+        Session session = entityManager.unwrap(Session.class);
+        session.flush();
+        session.doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("insert into task (id, task_list_id, name, "
+                    + "description, version, rank, change_revision) values (?, ?, ?, ?, ?, ?, ?)")) {
+                int pending = 0;
+                for (TaskRow row : rows) {
+                    statement.setLong(1, row.getId());
+                    statement.setLong(2, row.getListId());
+                    statement.setString(3, row.getName());
+                    statement.setString(4, row.getDescription());
+                    statement.setLong(5, row.getVersion());
+                    statement.setLong(6, row.getRank());
+                    statement.setLong(7, changeRevision);
+                    statement.addBatch();
+                    if (++pending == JDBC_BATCH_SIZE) {
+                        statement.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    statement.executeBatch();
+                }
+            }
+        });
+        session.clear();
+    }
+
+    @Override
+    public void updateRanks(List<Long> taskIds, long firstRank, long rankSpacing, long changeRevision) {
+        Session session = entityManager.unwrap(Session.class);
+        session.flush();
+        session.doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "update task set rank = ?, change_revision = ? where id = ?")) {
+                long rank = firstRank;
+                int pending = 0;
+                for (Long taskId : taskIds) {
+                    statement.setLong(1, rank);
+                    statement.setLong(2, changeRevision);
+                    statement.setLong(3, taskId);
+                    statement.addBatch();
+                    rank += rankSpacing;
+                    if (++pending == JDBC_BATCH_SIZE) {
+                        statement.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    statement.executeBatch();
+                }
+            }
+        });
+        session.clear();
+    }
+}
@@ -6,19 +6,38 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.SQLRestriction;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Represents a list of tasks in the task management system.
  * Each {@link TaskList} can contain multiple {@link Task} entities.
+ * Lists are kept in the second-level cache, their tasks are not: no request path loads a task by id or
+ * initializes {@link #tasks}, and a cacheable task would make Hibernate hold on to every inserted task until
+ * the transaction completes, which bulk imports cannot afford. Neither are the revisions of a list, which change
+ * with every change to its tasks: they are mapped by {@link TaskListState} instead.
+ * Deleted lists stay behind as rows flagged {@link #deleted}, together with their tasks, until the
+ * {@link com.taskmanager.service.TaskPurger} removes them; the {@link SQLRestriction} hides them from every load
+ * and query.
  */
 @Entity
-@Table(name = "task_list")
+@Table(
+        name = "task_list",
+        indexes = {
+                @Index(name = "idx_task_list_deleted", columnList = "deleted")
+        }
+)
+@SQLRestriction("deleted = false")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 @NoArgsConstructor
 public class TaskList {
@@ -36,6 +55,15 @@ public class TaskList {
     @Column(nullable = false, length = 128)
     private String name;
 
+    /**
+     * Whether the list was deleted and only waits to be purged with its tasks. Set by a single update, so deleting
+     * a list costs the same however many tasks it holds; indexed, so the purger finds the flagged rows without a
+     * scan.
+     */
+    @Column(nullable = false)
+    @ColumnDefault("false")
+    private boolean deleted;
+
     /**
      * The tasks that belong to this task list.
      * - One {@link TaskList} can have many {@link Task} entities.
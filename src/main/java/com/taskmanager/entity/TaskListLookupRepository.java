@@ -0,0 +1,20 @@
+package com.taskmanager.entity;
+
+import java.util.Optional;
+
+/**
+ * Custom repository fragment for loading {@link TaskList}s without filling the second-level cache.
+ * Implemented by {@link TaskListLookupRepositoryImpl} and exposed through {@link TaskListRepository}.
+ */
+public interface TaskListLookupRepository {
+
+    /**
+     * Loads a task list from the second-level cache if it is there, and from the database otherwise, without putting
+     * the loaded list into the cache. For read-only transactions, which may run on the read replica: a list loaded
+     * from there could be stale, and in the cache it would outlive the replication lag.
+     *
+     * @param id the id of the task list
+     * @return the task list, or empty if it does not exist
+     */
+    Optional<TaskList> findByIdWithoutCaching(Long id);
+}
@@ -0,0 +1,23 @@
+package com.taskmanager.entity;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import java.util.Optional;
+
+/**
+ * Implementation of {@link TaskListLookupRepository}.
+ * Loads through the {@link Session} with {@link CacheMode#GET}, which reads the second-level cache but never adds to
+ * it.
+ */
+@RequiredArgsConstructor
+class TaskListLookupRepositoryImpl implements TaskListLookupRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Optional<TaskList> findByIdWithoutCaching(Long id) {
+        return entityManager.unwrap(Session.class).byId(TaskList.class).with(CacheMode.GET).loadOptional(id);
+    }
+}
@@ -1,16 +1,41 @@
 package com.taskmanager.entity;
 
+import com.taskmanager.model.response.ListChange;
+import com.taskmanager.model.snapshot.TaskListSnapshot;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for {@link TaskList} entities.
  * Extends {@link JpaRepository} to provide standard CRUD operations and
  * additional JPA features such as pagination and sorting.
+ * Deleted lists are hidden from every query by the restriction of {@link TaskList}, which native statements have
+ * to repeat; only the purge statements read them.
  */
-public interface TaskListRepository extends JpaRepository<TaskList, Long> {
+public interface TaskListRepository extends JpaRepository<TaskList, Long>, TaskListLookupRepository {
+
+    /**
+     * Query space the native revision bumps are synchronized on. No entity maps to it, so the bumps do not evict
+     * second-level cache regions; pending changes are still flushed before them.
+     */
+    String REVISION_QUERY_SPACE = "task_list_revision";
+
+    /**
+     * Query space the native purge statements of both repositories are synchronized on. Purged rows are no longer
+     * visible to any query, so like the revision bumps the purges leave the second-level cache alone.
+     */
+    String PURGE_QUERY_SPACE = "task_purge";
 
     /**
      * Fetches all {@link TaskList} entities along with their associated {@link Task} entities
@@ -18,10 +43,205 @@ public interface TaskListRepository extends JpaRepository<TaskList, Long> {
      * This method uses {@link EntityGraph} to eagerly load tasks and avoid the N+1 select problem.
      * Without this, JPA would lazily load the {@link Task} collection for each task list,
      * resulting in multiple additional queries and poor performance.
+     * The read endpoints use the {@link TaskListRow}/{@link TaskRow} projections instead, which skip entity hydration.
      *
      * @return a list of {@link TaskList} entities with their tasks loaded
      */
     @EntityGraph(attributePaths = "tasks")
     @Query("select tl from TaskList tl")
     List<TaskList> findAllWithTasks();
+
+    /**
+     * Fetches every task list as a {@link TaskListRow}, ordered by id.
+     * The constructor expression skips entity hydration and the persistence context.
+     *
+     * @return the rows of all task lists, in ascending id order
+     */
+    @Query("select new com.taskmanager.entity.TaskListRow(tl.id, tl.name, tl.revision) from TaskListState tl "
+            + "order by tl.id")
+    List<TaskListRow> findAllRows();
+
+    /**
+     * Fetches the next page of task lists ordered by id as {@link TaskListRow}s, without their tasks.
+     * This is a keyset (seek) query: it starts from the primary key index at {@code afterId},
+     * so every page costs the same regardless of how deep the client has paged.
+     *
+     * @param afterId the id of the last list of the previous page, {@code 0} for the first page
+     * @param limit   the maximum number of lists to return
+     * @return the rows of the task lists with an id greater than {@code afterId}, in ascending id order
+     */
+    @Query("select new com.taskmanager.entity.TaskListRow(tl.id, tl.name, tl.revision) from TaskListState tl "
+            + "where tl.id > :afterId order by tl.id")
+    List<TaskListRow> findPageAfter(@Param("afterId") long afterId, Limit limit);
+
+    /**
+     * Streams every task list as a {@link TaskListSnapshot}, ordered by id.
+     * The constructor expression bypasses the persistence context and the fetch size hint makes the
+     * JDBC driver read the result through a cursor, so memory stays flat regardless of the store size.
+     * Must be called inside a transaction and the returned {@link Stream} must be closed.
+     *
+     * @return a stream of snapshot records for all task lists
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.taskmanager.model.snapshot.TaskListSnapshot(tl.id, tl.name) from TaskList tl order by tl.id")
+    Stream<TaskListSnapshot> streamSnapshots();
+
+    /**
+     * Fetches the ids and revisions of the same page of task lists as {@link #findPageAfter(long, Limit)}.
+     * Served from the primary key index without touching tasks, so it is cheap enough to run on every
+     * conditional request.
+     *
+     * @param afterId the id of the last list of the previous page, {@code 0} for the first page
+     * @param limit   the maximum number of lists to return
+     * @return the ids and revisions of the lists with an id greater than {@code afterId}, in ascending id order
+     */
+    @Query("select tl.id as id, tl.revision as revision from TaskListState tl where tl.id > :afterId order by tl.id")
+    List<TaskListRevision> findRevisionsAfter(@Param("afterId") long afterId, Limit limit);
+
+    /**
+     * Fetches which of the given task list ids exist, with a single query over the primary key index.
+     *
+     * @param ids the ids of the task lists
+     * @return the ids of the task lists that exist
+     */
+    @Query("select tl.id from TaskList tl where tl.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Fetches the content revision of a single task list.
+     *
+     * @param id the id of the task list
+     * @return the revision, or empty if the list does not exist
+     */
+    @Query("select tl.revision from TaskListState tl where tl.id = :id")
+    Optional<Long> findRevisionById(@Param("id") Long id);
+
+    /**
+     * Increments the content revision of the given task lists and stamps the change revision with a single bulk
+     * update. Like the other revision bumps, it is a native statement synchronized on {@link #REVISION_QUERY_SPACE}:
+     * a JPQL update would make Hibernate evict the whole {@link TaskList} region of the second-level cache,
+     * although the revisions are not part of a cached list, see {@link TaskListState}.
+     * Deleted lists are skipped, so the count tells whether all the lists still exist; as the bump locks them, none
+     * of them can be deleted before the transaction completes.
+     *
+     * @param ids            the ids of the task lists whose content changed
+     * @param changeRevision the change revision of the change
+     * @return the number of task lists updated
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = REVISION_QUERY_SPACE))
+    @Query(value = "update task_list set revision = revision + 1, change_revision = :changeRevision "
+            + "where id in (:ids) and deleted = false", nativeQuery = true)
+    int incrementRevisions(@Param("ids") Collection<Long> ids, @Param("changeRevision") long changeRevision);
+
+    /**
+     * Stamps the change revision of newly inserted task lists, with a single native update synchronized on
+     * {@link #REVISION_QUERY_SPACE}. The insert of a {@link TaskList} leaves it at its default, as the change revision
+     * is mapped by {@link TaskListState} only.
+     *
+     * @param ids            the ids of the new task lists
+     * @param changeRevision the change revision of their creation
+     * @return the number of task lists updated
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = REVISION_QUERY_SPACE))
+    @Query(value = "update task_list set change_revision = :changeRevision where id in (:ids)", nativeQuery = true)
+    int stampChangeRevision(@Param("ids") Collection<Long> ids, @Param("changeRevision") long changeRevision);
+
+    /**
+     * Increments the content revision of a task list only if it still has the given revision, with a single
+     * native update synchronized on {@link #REVISION_QUERY_SPACE}. A successful update locks the list row until
+     * the end of the transaction, so no task can be added to the list, changed, or moved in or out of it
+     * until then, because all of these bump the revision too.
+     *
+     * @param id       the id of the task list
+     * @param revision the revision the task list must have
+     * @return the number of task lists updated, {@code 0} if the list does not exist or has another revision
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = REVISION_QUERY_SPACE))
+    @Query(value = "update task_list set revision = revision + 1 where id = :id and revision = :revision "
+            + "and deleted = false", nativeQuery = true)
+    int incrementRevisionIfCurrent(@Param("id") Long id, @Param("revision") long revision);
+
+    /**
+     * Flags a task list as deleted with one statement, without loading it or touching its tasks, which are purged
+     * with it later. The bulk update evicts the {@link TaskList} region of the second-level cache, so the deleted
+     * list is not served from it.
+     *
+     * @param id the id of the task list
+     * @return the number of task lists deleted, {@code 0} if the list does not exist
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update TaskList tl set tl.deleted = true where tl.id = :id and tl.deleted = false")
+    int markDeleted(@Param("id") Long id);
+
+    /**
+     * Increments the content revision of the task list that owns the given task and stamps the change revision,
+     * with a single bulk update.
+     *
+     * @param taskId         the id of the task whose content changed
+     * @param changeRevision the change revision of the change
+     * @return the number of task lists updated, {@code 0} if the task or its list does not exist
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = REVISION_QUERY_SPACE))
+    @Query(value = "update task_list set revision = revision + 1, change_revision = :changeRevision "
+            + "where id = (select t.task_list_id from task t where t.id = :taskId and t.deleted = false) "
+            + "and deleted = false", nativeQuery = true)
+    int incrementRevisionOfTaskOwner(@Param("taskId") Long taskId, @Param("changeRevision") long changeRevision);
+
+    /**
+     * Fetches the task lists changed within a range of change revisions, projected straight into
+     * {@link ListChange}s. Served by the {@code change_revision} index.
+     *
+     * @param after the change revision after which the range starts
+     * @param upTo  the last change revision of the range
+     * @param limit the maximum number of lists to return
+     * @return the changed lists, ordered by change revision and then id
+     */
+    @Query("""
+            select new com.taskmanager.model.response.ListChange(tl.id, tl.name, tl.revision, tl.changeRevision)
+            from TaskListState tl
+            where tl.changeRevision > :after and tl.changeRevision <= :upTo
+            order by tl.changeRevision, tl.id
+            """)
+    List<ListChange> findChanges(@Param("after") long after, @Param("upTo") long upTo, Limit limit);
+
+    /**
+     * Returns the highest change revision of any task list, answered from the {@code change_revision} index.
+     *
+     * @return the highest change revision, {@code 0} if there are none
+     */
+    @Query("select coalesce(max(tl.changeRevision), 0) from TaskListState tl")
+    long findMaxChangeRevision();
+
+    /**
+     * Fetches the ids of task lists flagged as deleted, from the {@code deleted} index.
+     *
+     * @param limit the maximum number of ids to return
+     * @return the ids of deleted lists, in ascending order
+     */
+    @Query(value = "select id from task_list where deleted = true order by id limit :limit", nativeQuery = true)
+    List<Long> findDeletedIds(@Param("limit") int limit);
+
+    /**
+     * Counts the task lists flagged as deleted, from the {@code deleted} index.
+     *
+     * @return the number of deleted lists waiting to be purged
+     */
+    @Query(value = "select count(*) from task_list where deleted = true", nativeQuery = true)
+    long countDeleted();
+
+    /**
+     * Removes a task list flagged as deleted. Its tasks must have been purged first, see
+     * {@link TaskRepository#purgeOfList(Long, int)}.
+     *
+     * @param id the id of the deleted task list
+     * @return the number of task lists removed, {@code 0} if the list was not deleted
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = PURGE_QUERY_SPACE))
+    @Query(value = "delete from task_list where id = :id and deleted = true", nativeQuery = true)
+    int purgeDeleted(@Param("id") Long id);
 }
@@ -0,0 +1,18 @@
+package com.taskmanager.entity;
+
+/**
+ * Projection of a {@link TaskList} onto its id and content revision.
+ * Enough to decide whether a cached representation of the list is still current.
+ */
+public interface TaskListRevision {
+
+    /**
+     * @return the id of the task list
+     */
+    Long getId();
+
+    /**
+     * @return the content revision of the task list
+     */
+    long getRevision();
+}
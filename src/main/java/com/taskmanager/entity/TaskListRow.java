@@ -0,0 +1,28 @@
+package com.taskmanager.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Flat read-only row of a {@link TaskList}, selected with a JPQL constructor expression.
+ * Used by the read endpoints so lists are copied straight into responses without entity hydration.
+ */
+@Data
+@AllArgsConstructor
+public class TaskListRow {
+
+    /**
+     * Identifier of the task list.
+     */
+    private Long id;
+
+    /**
+     * Name of the task list.
+     */
+    private String name;
+
+    /**
+     * Content revision of the task list, see {@link TaskListState#getRevision()}.
+     */
+    private long revision;
+}
@@ -0,0 +1,64 @@
+package com.taskmanager.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.SQLRestriction;
+
+/**
+ * The revisions of a {@link TaskList}, mapped onto the same row as the list but apart from it, so they stay out of
+ * the second-level cache. Every change to a task bumps the revisions of its list with a native statement, see
+ * {@link TaskListRepository}, which leaves the cache alone; a cached copy of the revisions would go stale with the
+ * first bump. Only ever read through queries, and never written through the entity, hence immutable.
+ */
+@Entity
+@Immutable
+@Table(
+        name = "task_list",
+        indexes = {
+                @Index(name = "idx_task_list_change_revision", columnList = "change_revision")
+        }
+)
+@SQLRestriction("deleted = false")
+@Data
+@NoArgsConstructor
+public class TaskListState {
+
+    /**
+     * Identifier of the task list.
+     */
+    @Id
+    private Long id;
+
+    /**
+     * Name of the task list, see {@link TaskList#getName()}. Mapped here too, so reads of lists with their revisions
+     * need no join.
+     */
+    @Column(nullable = false, length = 128)
+    private String name;
+
+    /**
+     * Revision of the list's content, incremented whenever one of its tasks is added, updated,
+     * moved in or out, or deleted. Used to derive ETags for conditional reads without loading tasks, and checked
+     * against the {@code If-Match} precondition of a list delete.
+     */
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long revision;
+
+    /**
+     * Change revision of the last transaction that created the list or changed its content, allocated by
+     * {@link com.taskmanager.service.ChangeRevisions}. Indexed, so the lists changed since a sync token are read
+     * with one index range scan. Set together with {@link #revision} by the same bumps, and stamped on new lists
+     * right after their insert.
+     */
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long changeRevision;
+}
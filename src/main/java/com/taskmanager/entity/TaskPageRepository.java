@@ -0,0 +1,21 @@
+package com.taskmanager.entity;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Custom repository fragment for reading the first tasks of a page of {@link TaskList}s.
+ * Implemented by {@link TaskPageRepositoryImpl} and exposed through {@link TaskRepository}.
+ */
+public interface TaskPageRepository {
+
+    /**
+     * Fetches at most {@code perListLimit} tasks of each of the given task lists as {@link TaskRow}s in a single query,
+     * so a page of lists is filled with one round trip instead of one query per list.
+     *
+     * @param listIds      the ids of the task lists whose tasks to fetch
+     * @param perListLimit the maximum number of tasks to return for each list
+     * @return the first tasks of each list, ordered by list id and then by position within the list
+     */
+    List<TaskRow> findFirstTasksOfLists(Collection<Long> listIds, int perListLimit);
+}
@@ -0,0 +1,72 @@
+package com.taskmanager.entity;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Implementation of {@link TaskPageRepository}.
+ * Where the database supports lateral joins, a lateral subquery reads the first tasks of each list from the
+ * {@code (task_list_id, rank, id)} index and stops at the limit, so the cost depends on the limit rather than on the
+ * size of the lists. Elsewhere, such as on H2, Hibernate would emulate the lateral join with a correlated subquery
+ * evaluated for every task of the table, so the tasks of the lists are numbered with a {@code row_number()} window
+ * partitioned by list instead, which reads every task of the lists once.
+ */
+@RequiredArgsConstructor
+class TaskPageRepositoryImpl implements TaskPageRepository {
+
+    private static final String LATERAL_QUERY = """
+            select new com.taskmanager.entity.TaskRow(first.id, tl.id, first.name, first.description, first.version,
+                                                   first.rank)
+            from TaskList tl
+            join lateral (
+                select t.id as id, t.name as name, t.description as description, t.version as version,
+                       t.rank as rank
+                from Task t
+                where t.taskList.id = tl.id
+                order by t.rank, t.id
+                limit :perListLimit
+            ) first
+            where tl.id in :listIds
+            order by tl.id, first.rank, first.id
+            """;
+
+    private static final String WINDOW_QUERY = """
+            select new com.taskmanager.entity.TaskRow(ranked.id, ranked.listId, ranked.name, ranked.description,
+                                                   ranked.version, ranked.rank)
+            from (
+                select t.id as id, t.taskList.id as listId, t.name as name, t.description as description,
+                       t.version as version, t.rank as rank,
+                       row_number() over (partition by t.taskList.id order by t.rank, t.id) as rn
+                from Task t
+                where t.taskList.id in :listIds
+            ) ranked
+            where ranked.rn <= :perListLimit
+            order by ranked.listId, ranked.rank, ranked.id
+            """;
+
+    private final EntityManager entityManager;
+
+    private volatile String query;
+
+    @Override
+    public List<TaskRow> findFirstTasksOfLists(Collection<Long> listIds, int perListLimit) {
+        return entityManager.createQuery(query(), TaskRow.class)
+                .setParameter("listIds", listIds)
+                .setParameter("perListLimit", perListLimit)
+                .getResultList();
+    }
+
+    private String query() {
+        String current = query;
+        if (current == null) {
+            boolean lateral = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices().getDialect().supportsLateral();
+            current = lateral ? LATERAL_QUERY : WINDOW_QUERY;
+            query = current;
+        }
+        return current;
+    }
+}
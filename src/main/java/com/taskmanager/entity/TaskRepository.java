@@ -1,12 +1,383 @@
 package com.taskmanager.entity;
 
+import com.taskmanager.model.response.TaskChange;
+import com.taskmanager.model.response.TaskResponse;
+import com.taskmanager.model.snapshot.TaskSnapshot;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for {@link Task} entities.
  * Extends {@link JpaRepository} to provide standard CRUD operations, pagination, and sorting
  * capabilities for {@link Task} objects.
  * This repository allows managing tasks independently of their {@link TaskList} associations.
+ * Batched inserts are provided by the {@link TaskBatchRepository} fragment, the first tasks of a page of lists by the
+ * {@link TaskPageRepository} fragment.
+ * Deleted tasks are hidden from every query by the restriction of {@link Task}. The tasks of a deleted list are not
+ * flagged themselves: queries within a list rely on the caller having found the list, queries across lists filter
+ * them out by their list.
  */
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskBatchRepository, TaskPageRepository {
+
+    /**
+     * Fetches every task of the existing lists as a {@link TaskRow}, ordered by list id and then by position within
+     * the list. The constructor expression skips entity hydration and the persistence context.
+     *
+     * @return the rows of all tasks, grouped by list
+     */
+    @Query("select new com.taskmanager.entity.TaskRow(t.id, t.taskList.id, t.name, t.description, t.version, t.rank) "
+            + "from Task t where t.taskList.deleted = false order by t.taskList.id, t.rank, t.id")
+    List<TaskRow> findAllRows();
+
+    /**
+     * Fetches the next page of tasks of a single task list in list order, projected into {@link TaskRow}s.
+     * This is a keyset (seek) query over the {@code (task_list_id, rank, id)} index, so every page costs the same
+     * regardless of its depth. The page continues after the current rank of the previous page's last task, so
+     * paging is not thrown off by a rebalance renumbering the list; only if that task has left the list does the
+     * page start after the rank it had.
+     *
+     * @param listId    the id of the task list
+     * @param afterRank the rank of the last task of the previous page, {@link Long#MIN_VALUE} for the first page
+     * @param afterId   the id of the last task of the previous page, {@code 0} for the first page
+     * @param limit     the maximum number of tasks to return
+     * @return the tasks of the list positioned after that task, in list order
+     */
+    @Query("""
+            select new com.taskmanager.entity.TaskRow(t.id, t.taskList.id, t.name, t.description, t.version, t.rank)
+            from Task t
+            where t.taskList.id = :listId
+              and t.rank >= coalesce((select a.rank from Task a where a.id = :afterId and a.taskList.id = :listId),
+                                     :afterRank)
+              and (t.rank > coalesce((select a.rank from Task a where a.id = :afterId and a.taskList.id = :listId),
+                                     :afterRank) or t.id > :afterId)
+            order by t.rank, t.id
+            """)
+    List<TaskRow> findPageOfList(@Param("listId") Long listId, @Param("afterRank") long afterRank,
+                                 @Param("afterId") long afterId, Limit limit);
+
+    /**
+     * Fetches the rank of a task of a task list.
+     *
+     * @param taskId the id of the task
+     * @param listId the id of the task list the task must belong to
+     * @return the rank, or empty if the task does not exist or belongs to another list
+     */
+    @Query("select t.rank from Task t where t.id = :taskId and t.taskList.id = :listId")
+    Optional<Long> findRankInList(@Param("taskId") Long taskId, @Param("listId") Long listId);
+
+    /**
+     * Fetches the rank of the first task of a task list, leaving out one task, from the start of the
+     * {@code (task_list_id, rank, id)} index.
+     *
+     * @param listId     the id of the task list
+     * @param excludedId the id of the task to leave out, usually the one being positioned
+     * @param limit      {@code Limit.of(1)}
+     * @return the rank of the first task, or an empty list if there is no other task
+     */
+    @Query("select t.rank from Task t where t.taskList.id = :listId and t.id <> :excludedId order by t.rank, t.id")
+    List<Long> findFirstRank(@Param("listId") Long listId, @Param("excludedId") Long excludedId, Limit limit);
+
+    /**
+     * Fetches the rank of the task following a given position in a task list, leaving out one task, with a seek
+     * on the {@code (task_list_id, rank, id)} index.
+     *
+     * @param listId     the id of the task list
+     * @param afterRank  the rank of the position
+     * @param afterId    the id of the task at the position
+     * @param excludedId the id of the task to leave out, usually the one being positioned
+     * @param limit      {@code Limit.of(1)}
+     * @return the rank of the following task, or an empty list if the position is the end of the list
+     */
+    @Query("""
+            select t.rank from Task t
+            where t.taskList.id = :listId and t.rank >= :afterRank and (t.rank > :afterRank or t.id > :afterId)
+              and t.id <> :excludedId
+            order by t.rank, t.id
+            """)
+    List<Long> findNextRank(@Param("listId") Long listId, @Param("afterRank") long afterRank,
+                            @Param("afterId") Long afterId, @Param("excludedId") Long excludedId, Limit limit);
+
+    /**
+     * Fetches the ids of all tasks of a task list in list order, from the {@code (task_list_id, rank, id)} index.
+     *
+     * @param listId the id of the task list
+     * @return the ids of the tasks, in list order
+     */
+    @Query("select t.id from Task t where t.taskList.id = :listId order by t.rank, t.id")
+    List<Long> findIdsInRankOrder(@Param("listId") Long listId);
+
+    /**
+     * Fetches a single task projected straight into a {@link TaskResponse}.
+     *
+     * @param taskId the id of the task
+     * @return the task, or empty if it does not exist
+     */
+    @Query("select new com.taskmanager.model.response.TaskResponse(t.id, t.name, t.description, t.version) "
+            + "from Task t where t.id = :taskId")
+    Optional<TaskResponse> findResponseById(@Param("taskId") Long taskId);
+
+    /**
+     * Replaces the name and description of a task with a single update, without loading it first,
+     * increments its version and stamps the change revision.
+     * Like the other conditional task mutations, it flushes pending changes before and clears the persistence
+     * context after the statement, so an enclosing transaction never sees a stale managed task.
+     *
+     * @param taskId      the id of the task
+     * @param name        the new name
+     * @param description the new description
+     * @param version        the version the task must have, or {@code null} to update it regardless
+     * @param changeRevision the change revision of the update
+     * @return the number of tasks updated, {@code 0} if the task does not exist or has another version
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Task t set t.name = :name, t.description = :description, t.version = t.version + 1,
+                              t.changeRevision = :changeRevision
+            where t.id = :taskId and (:version is null or t.version = :version)
+            """)
+    int updateContent(@Param("taskId") Long taskId, @Param("name") String name,
+                      @Param("description") String description, @Param("version") Long version,
+                      @Param("changeRevision") long changeRevision);
+
+    /**
+     * Flags a task as deleted only if it belongs to the given task list, with a single conditional update; the
+     * {@link com.taskmanager.service.TaskPurger} removes it later.
+     *
+     * @param listId  the id of the task list the task must belong to
+     * @param taskId  the id of the task
+     * @param version the version the task must have, or {@code null} to delete it regardless
+     * @return the number of tasks deleted, {@code 0} if the task does not exist, belongs to another list
+     *         or has another version
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Task t set t.deleted = true
+            where t.id = :taskId and t.taskList.id = :listId and t.deleted = false
+              and (:version is null or t.version = :version)
+            """)
+    int markDeletedInList(@Param("listId") Long listId, @Param("taskId") Long taskId, @Param("version") Long version);
+
+    /**
+     * Deletes a task only if it belongs to the given task list, with a single conditional delete. Used by moves
+     * between shards, whose copy of the task has the same id and may move back before a flagged row was purged.
+     *
+     * @param listId  the id of the task list the task must belong to
+     * @param taskId  the id of the task
+     * @param version the version the task must have, or {@code null} to delete it regardless
+     * @return the number of tasks deleted, {@code 0} if the task does not exist, belongs to another list
+     *         or has another version
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            delete from Task t
+            where t.id = :taskId and t.taskList.id = :listId and t.deleted = false
+              and (:version is null or t.version = :version)
+            """)
+    int deleteFromList(@Param("listId") Long listId, @Param("taskId") Long taskId, @Param("version") Long version);
+
+    /**
+     * Moves a task to another task list, or to another position within its list, with a single conditional update,
+     * increments its version and stamps the change revision.
+     * The task is only moved if it belongs to {@code fromListId}, has the expected version and the target list exists.
+     *
+     * @param taskId     the id of the task
+     * @param fromListId the id of the task list the task must belong to
+     * @param toListId   the id of the target task list, which may be {@code fromListId}
+     * @param rank           the rank of the task in the target list
+     * @param version        the version the task must have, or {@code null} to move it regardless
+     * @param changeRevision the change revision of the move
+     * @return the number of tasks moved, {@code 0} if any of the conditions does not hold
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Task t set t.taskList.id = :toListId, t.rank = :rank, t.version = t.version + 1,
+                              t.changeRevision = :changeRevision
+            where t.id = :taskId and t.taskList.id = :fromListId and (:version is null or t.version = :version)
+              and exists (select tl.id from TaskList tl where tl.id = :toListId)
+            """)
+    int moveToList(@Param("taskId") Long taskId, @Param("fromListId") Long fromListId,
+                   @Param("toListId") Long toListId, @Param("rank") long rank, @Param("version") Long version,
+                   @Param("changeRevision") long changeRevision);
+
+    /**
+     * Checks whether a task belongs to a task list, regardless of its version.
+     *
+     * @param taskId the id of the task
+     * @param listId the id of the task list
+     * @return {@code true} if the task exists and belongs to the list
+     */
+    boolean existsByIdAndTaskListId(Long taskId, Long listId);
+
+    /**
+     * Selects which of the given tasks belong to a task list, locking their rows until the end of the transaction
+     * so a following set-based move affects exactly these tasks.
+     *
+     * @param listId  the id of the task list the tasks must belong to
+     * @param taskIds the ids of the candidate tasks
+     * @return the ids of the candidates that belong to the list, in ascending order
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t.id from Task t where t.taskList.id = :listId and t.id in :taskIds order by t.id")
+    List<Long> lockIdsOfList(@Param("listId") Long listId, @Param("taskIds") Collection<Long> taskIds);
+
+    /**
+     * Selects the tasks of a task list whose name matches a {@code like} pattern, ignoring case,
+     * locking their rows until the end of the transaction.
+     *
+     * @param listId  the id of the task list
+     * @param pattern the lower-case {@code like} pattern, with {@code \} as escape character
+     * @param limit   the maximum number of tasks to return
+     * @return the ids of the matching tasks, in ascending order
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t.id from Task t where t.taskList.id = :listId and lower(t.name) like :pattern escape '\\' "
+            + "order by t.id")
+    List<Long> lockIdsOfListByName(@Param("listId") Long listId, @Param("pattern") String pattern, Limit limit);
+
+    /**
+     * Fetches those of the given tasks that belong to a task list as {@link TaskRow}s.
+     *
+     * @param listId  the id of the task list the tasks must belong to
+     * @param taskIds the ids of the candidate tasks
+     * @return the candidates that belong to the list, in ascending id order
+     */
+    @Query("select new com.taskmanager.entity.TaskRow(t.id, t.taskList.id, t.name, t.description, t.version, t.rank) "
+            + "from Task t where t.taskList.id = :listId and t.id in :taskIds order by t.id")
+    List<TaskRow> findRowsOfList(@Param("listId") Long listId, @Param("taskIds") Collection<Long> taskIds);
+
+    /**
+     * Fetches the tasks of a task list whose name matches a {@code like} pattern, ignoring case, as {@link TaskRow}s.
+     *
+     * @param listId  the id of the task list
+     * @param pattern the lower-case {@code like} pattern, with {@code \} as escape character
+     * @param limit   the maximum number of tasks to return
+     * @return the matching tasks, in ascending id order
+     */
+    @Query("select new com.taskmanager.entity.TaskRow(t.id, t.taskList.id, t.name, t.description, t.version, t.rank) "
+            + "from Task t where t.taskList.id = :listId and lower(t.name) like :pattern escape '\\' order by t.id")
+    List<TaskRow> findRowsOfListByName(@Param("listId") Long listId, @Param("pattern") String pattern, Limit limit);
+
+    /**
+     * Stamps a change revision on the given tasks without changing their versions, so syncs return them again.
+     *
+     * @param taskIds        the ids of the tasks; missing ones are skipped
+     * @param changeRevision the change revision to stamp
+     * @return the number of stamped tasks
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Task t set t.changeRevision = :changeRevision where t.id in :taskIds")
+    int stampChangeRevision(@Param("taskIds") Collection<Long> taskIds, @Param("changeRevision") long changeRevision);
+
+    /**
+     * Moves the given tasks to a task list with a single set-based update, increments their versions and stamps
+     * the change revision. The tasks are ranked in id order from {@code firstRank} on, {@code rankSpacing} apart
+     * per id, so a single statement still gives every task a rank of its own.
+     *
+     * @param taskIds        the ids of the tasks to move
+     * @param toListId       the id of the target task list
+     * @param firstRank      the rank of the task with id {@code firstId}
+     * @param firstId        the lowest id among {@code taskIds}
+     * @param rankSpacing    the rank difference per id difference
+     * @param changeRevision the change revision of the move
+     * @return the number of tasks moved
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Task t set t.taskList.id = :toListId, t.rank = :firstRank + (t.id - :firstId) * :rankSpacing,
+                              t.version = t.version + 1, t.changeRevision = :changeRevision
+            where t.id in :taskIds
+            """)
+    int moveAllToList(@Param("taskIds") Collection<Long> taskIds, @Param("toListId") Long toListId,
+                      @Param("firstRank") long firstRank, @Param("firstId") long firstId,
+                      @Param("rankSpacing") long rankSpacing, @Param("changeRevision") long changeRevision);
+
+    /**
+     * Fetches the tasks of the existing lists changed within a range of change revisions, projected straight into
+     * {@link TaskChange}s. Served by the {@code change_revision} index; the deletion of a list is synced by its
+     * tombstone alone.
+     *
+     * @param after the change revision after which the range starts
+     * @param upTo  the last change revision of the range
+     * @param limit the maximum number of tasks to return
+     * @return the changed tasks, ordered by change revision and then id
+     */
+    @Query("""
+            select new com.taskmanager.model.response.TaskChange(t.id, t.taskList.id, t.name, t.description, t.version,
+                                                               t.rank, t.changeRevision)
+            from Task t
+            where t.changeRevision > :after and t.changeRevision <= :upTo and t.taskList.deleted = false
+            order by t.changeRevision, t.id
+            """)
+    List<TaskChange> findChanges(@Param("after") long after, @Param("upTo") long upTo, Limit limit);
+
+    /**
+     * Streams every task of the existing lists as a {@link TaskSnapshot}, ordered by list id and then by position within the list,
+     * straight off the {@code (task_list_id, rank, id)} index; an import keeps that order.
+     * The constructor expression bypasses the persistence context and the fetch size hint makes the
+     * JDBC driver read the result through a cursor, so memory stays flat regardless of the store size.
+     * Must be called inside a transaction and the returned {@link Stream} must be closed.
+     *
+     * @return a stream of snapshot records for all tasks
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.taskmanager.model.snapshot.TaskSnapshot(t.id, t.taskList.id, t.name, t.description) "
+            + "from Task t where t.taskList.deleted = false order by t.taskList.id, t.rank, t.id")
+    Stream<TaskSnapshot> streamSnapshots();
+
+    /**
+     * Returns the highest change revision of any task, answered from the {@code change_revision} index.
+     *
+     * @return the highest change revision, {@code 0} if there are none
+     */
+    @Query("select coalesce(max(t.changeRevision), 0) from Task t")
+    long findMaxChangeRevision();
+
+    /**
+     * Removes a chunk of tasks flagged as deleted, found through the {@code deleted} index.
+     *
+     * @param limit the maximum number of tasks to remove
+     * @return the number of tasks removed
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = TaskListRepository.PURGE_QUERY_SPACE))
+    @Query(value = "delete from task where id in (select id from task where deleted = true order by id limit :limit)",
+            nativeQuery = true)
+    int purgeDeleted(@Param("limit") int limit);
+
+    /**
+     * Removes a chunk of the tasks of a task list, found through the {@code (task_list_id, rank, id)} index.
+     * Only used for lists flagged as deleted.
+     *
+     * @param listId the id of the deleted task list
+     * @param limit  the maximum number of tasks to remove
+     * @return the number of tasks removed, less than {@code limit} once the list has none left
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = TaskListRepository.PURGE_QUERY_SPACE))
+    @Query(value = "delete from task where id in (select id from task where task_list_id = :listId limit :limit)",
+            nativeQuery = true)
+    int purgeOfList(@Param("listId") Long listId, @Param("limit") int limit);
+
+    /**
+     * Counts the tasks waiting to be purged: those flagged as deleted and those of lists flagged as deleted.
+     *
+     * @return the number of deleted tasks waiting to be purged
+     */
+    @Query(value = """
+            select (select count(*) from task where deleted = true)
+                 + (select count(*) from task t join task_list l on l.id = t.task_list_id where l.deleted = true)
+            """, nativeQuery = true)
+    long countDeleted();
 }
@@ -0,0 +1,43 @@
+package com.taskmanager.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Flat read-only row of a {@link Task} with the id of its {@link TaskList}, selected with a JPQL constructor expression.
+ * Used by the read endpoints to group the tasks of several lists without loading entities.
+ */
+@Data
+@AllArgsConstructor
+public class TaskRow {
+
+    /**
+     * Identifier of the task.
+     */
+    private Long id;
+
+    /**
+     * Identifier of the task list the task belongs to.
+     */
+    private Long listId;
+
+    /**
+     * Name of the task.
+     */
+    private String name;
+
+    /**
+     * Description of the task.
+     */
+    private String description;
+
+    /**
+     * Version of the task, see {@link Task#getVersion()}.
+     */
+    private long version;
+
+    /**
+     * Rank of the task within its list, see {@link Task#getRank()}.
+     */
+    private long rank;
+}
@@ -0,0 +1,97 @@
+package com.taskmanager.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Record of a deleted {@link TaskList} or {@link Task}, so clients syncing changes since a revision learn about
+ * deletions. A deleted list implies the deletion of the tasks it held at that point; they get no tombstones of
+ * their own.
+ */
+@Entity
+@Table(
+        name = "tombstone",
+        indexes = {
+                @Index(name = "idx_tombstone_change_revision", columnList = "change_revision")
+        }
+)
+@Data
+@NoArgsConstructor
+public class Tombstone {
+
+    /**
+     * Kinds of deleted entities.
+     */
+    public enum Kind {
+
+        /**
+         * A deleted {@link TaskList}, together with its tasks.
+         */
+        LIST,
+
+        /**
+         * A deleted {@link Task}.
+         */
+        TASK
+    }
+
+    /**
+     * Unique identifier of the tombstone.
+     * Generated by the database on insert; tombstones are written one at a time, so the single statement of an
+     * identity insert is all a delete pays for its tombstone.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Kind of the deleted entity.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private Kind kind;
+
+    /**
+     * Identifier of the deleted entity.
+     */
+    @Column(nullable = false)
+    private Long entityId;
+
+    /**
+     * Identifier of the list a deleted task belonged to, {@code null} for deleted lists.
+     */
+    private Long listId;
+
+    /**
+     * Change revision of the deletion, allocated by {@link com.taskmanager.service.ChangeRevisions}.
+     */
+    @Column(nullable = false)
+    private long changeRevision;
+
+    /**
+     * Creates the tombstone of a deleted entity.
+     *
+     * @param kind           the kind of the deleted entity
+     * @param entityId       the id of the deleted entity
+     * @param listId         the id of the list a deleted task belonged to, {@code null} for lists
+     * @param changeRevision the change revision of the deletion
+     * @return the new tombstone
+     */
+    public static Tombstone of(Kind kind, Long entityId, Long listId, long changeRevision) {
+        Tombstone tombstone = new Tombstone();
+        tombstone.setKind(kind);
+        tombstone.setEntityId(entityId);
+        tombstone.setListId(listId);
+        tombstone.setChangeRevision(changeRevision);
+        return tombstone;
+    }
+}
@@ -0,0 +1,39 @@
+package com.taskmanager.entity;
+
+import com.taskmanager.model.response.Deletion;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.List;
+
+/**
+ * Repository interface for {@link Tombstone} entities.
+ */
+public interface TombstoneRepository extends JpaRepository<Tombstone, Long> {
+
+    /**
+     * Fetches the deletions within a range of change revisions, projected straight into {@link Deletion}s.
+     * Served by the {@code change_revision} index.
+     *
+     * @param after the change revision after which the range starts
+     * @param upTo  the last change revision of the range
+     * @param limit the maximum number of deletions to return
+     * @return the deletions, ordered by change revision and then id
+     */
+    @Query("""
+            select new com.taskmanager.model.response.Deletion(d.kind, d.entityId, d.listId, d.changeRevision)
+            from Tombstone d
+            where d.changeRevision > :after and d.changeRevision <= :upTo
+            order by d.changeRevision, d.id
+            """)
+    List<Deletion> findChanges(@Param("after") long after, @Param("upTo") long upTo, Limit limit);
+
+    /**
+     * Returns the highest change revision of any tombstone, answered from the {@code change_revision} index.
+     *
+     * @return the highest change revision, {@code 0} if there are none
+     */
+    @Query("select coalesce(max(d.changeRevision), 0) from Tombstone d")
+    long findMaxChangeRevision();
+}
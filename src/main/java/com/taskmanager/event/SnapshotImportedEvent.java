@@ -0,0 +1,11 @@
+package com.taskmanager.event;
+
+/**
+ * A snapshot was imported. The imported lists and tasks are not listed individually;
+ * listeners that need them read the store again.
+ *
+ * @param importedLists the number of imported lists
+ * @param importedTasks the number of imported tasks
+ */
+public record SnapshotImportedEvent(int importedLists, long importedTasks) implements TaskStoreEvent {
+}
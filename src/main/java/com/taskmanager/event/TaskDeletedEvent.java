@@ -0,0 +1,10 @@
+package com.taskmanager.event;
+
+/**
+ * A task was deleted from a task list.
+ *
+ * @param listId the id of the list the task belonged to
+ * @param taskId the id of the deleted task
+ */
+public record TaskDeletedEvent(Long listId, Long taskId) implements TaskStoreEvent {
+}
@@ -0,0 +1,10 @@
+package com.taskmanager.event;
+
+/**
+ * A task list was created.
+ *
+ * @param listId the id of the new list
+ * @param name   the name of the new list
+ */
+public record TaskListCreatedEvent(Long listId, String name) implements TaskStoreEvent {
+}
@@ -0,0 +1,9 @@
+package com.taskmanager.event;
+
+/**
+ * A task list was deleted together with all of its tasks.
+ *
+ * @param listId the id of the deleted list
+ */
+public record TaskListDeletedEvent(Long listId) implements TaskStoreEvent {
+}
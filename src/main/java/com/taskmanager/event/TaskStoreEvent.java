@@ -0,0 +1,11 @@
+package com.taskmanager.event;
+
+/**
+ * A change of the task store, published by the service layer inside the transaction that makes it.
+ * Listeners that keep derived state, such as the search index, should use
+ * {@link org.springframework.transaction.event.TransactionalEventListener} so they only see committed changes.
+ */
+public sealed interface TaskStoreEvent
+        permits TaskListCreatedEvent, TaskListDeletedEvent, TasksAddedEvent, TaskUpdatedEvent, TasksMovedEvent,
+        TaskDeletedEvent, SnapshotImportedEvent {
+}
@@ -0,0 +1,11 @@
+package com.taskmanager.event;
+
+/**
+ * The name and description of a task were replaced.
+ *
+ * @param taskId      the id of the task
+ * @param name        the new name
+ * @param description the new description
+ */
+public record TaskUpdatedEvent(Long taskId, String name, String description) implements TaskStoreEvent {
+}
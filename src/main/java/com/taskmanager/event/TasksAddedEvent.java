@@ -0,0 +1,12 @@
+package com.taskmanager.event;
+
+import com.taskmanager.entity.TaskRow;
+import java.util.List;
+
+/**
+ * One or more tasks were added to a task list.
+ *
+ * @param tasks the added tasks, with their generated ids
+ */
+public record TasksAddedEvent(List<TaskRow> tasks) implements TaskStoreEvent {
+}
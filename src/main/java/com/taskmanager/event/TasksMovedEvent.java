@@ -0,0 +1,14 @@
+package com.taskmanager.event;
+
+import java.util.List;
+
+/**
+ * One or more tasks were moved from one task list to another, or a task was moved to another position within its
+ * list, in which case both list ids are the same.
+ *
+ * @param fromListId the id of the source list
+ * @param toListId   the id of the target list
+ * @param taskIds    the ids of the moved tasks
+ */
+public record TasksMovedEvent(Long fromListId, Long toListId, List<Long> taskIds) implements TaskStoreEvent {
+}
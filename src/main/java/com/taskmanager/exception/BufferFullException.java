@@ -0,0 +1,17 @@
+package com.taskmanager.exception;
+
+/**
+ * Thrown when a bounded buffer cannot accept more work, answered with {@code 429 Too Many Requests}
+ * so clients back off and retry instead of the buffer growing without bound.
+ */
+public class BufferFullException extends DomainException {
+
+    /**
+     * Creates the exception.
+     *
+     * @param message the detail message
+     */
+    public BufferFullException(String message) {
+        super(message);
+    }
+}
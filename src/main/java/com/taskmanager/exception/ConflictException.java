@@ -0,0 +1,17 @@
+package com.taskmanager.exception;
+
+/**
+ * Thrown when a conditional write finds a task or list at another version than the request's {@code If-Match}
+ * header, answered with {@code 409 Conflict}.
+ */
+public class ConflictException extends DomainException {
+
+    /**
+     * Creates the exception.
+     *
+     * @param message the detail message
+     */
+    public ConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,22 @@
+package com.taskmanager.exception;
+
+/**
+ * Base class of the failures the service expects as part of normal operation, such as unknown ids, invalid input
+ * or lost races, each answered with a {@code 4xx} status by the {@link GlobalExceptionHandler}.
+ * <p>
+ * Domain exceptions record no stack trace and no suppressed exceptions: the message says everything a client or
+ * operator needs, and filling in the stack is the main cost of throwing. A client hammering unknown ids therefore
+ * costs little more than the lookups themselves.
+ * </p>
+ */
+public abstract class DomainException extends RuntimeException {
+
+    /**
+     * Creates the exception.
+     *
+     * @param message the detail message
+     */
+    protected DomainException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,77 @@
+package com.taskmanager.exception;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides which errors get logged, letting through at most one error of each exception type per interval.
+ * The errors in between are only counted, and the next logged error reports how many were suppressed, so a client
+ * hammering an endpoint with bad requests costs a counter increment per request instead of a log line.
+ * <p>
+ * Thread-safe and lock-free: the window of a type is claimed with a single compare-and-set on its next log time.
+ * </p>
+ */
+public class ErrorLogSampler {
+
+    /**
+     * Returned by {@link #sample(Class)} for an error that is suppressed.
+     */
+    public static final long SUPPRESSED = -1;
+
+    private final long intervalNanos;
+
+    private final ConcurrentMap<Class<?>, Window> windows = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the sampler.
+     *
+     * @param interval the minimum time between two logged errors of the same type; zero logs every error
+     */
+    public ErrorLogSampler(Duration interval) {
+        this.intervalNanos = interval.toNanos();
+    }
+
+    /**
+     * Decides whether an error of the given type is logged.
+     *
+     * @param type the exception type
+     * @return the number of errors of that type suppressed since the last one logged, or {@link #SUPPRESSED}
+     * if this one must not be logged either
+     */
+    public long sample(Class<?> type) {
+        long now = System.nanoTime();
+        Window window = windows.get(type);
+        if (window == null) {
+            window = windows.computeIfAbsent(type, key -> new Window(now));
+        }
+        long next = window.next.get();
+        if (now - next < 0 || !window.next.compareAndSet(next, now + intervalNanos)) {
+            window.suppressed.increment();
+            return SUPPRESSED;
+        }
+        return window.suppressed.sumThenReset();
+    }
+
+    /**
+     * Sampling state of one exception type.
+     */
+    private static final class Window {
+
+        /**
+         * {@link System#nanoTime()} from which the next error may be logged.
+         */
+        final AtomicLong next;
+
+        /**
+         * Errors suppressed since the last one logged.
+         */
+        final LongAdder suppressed = new LongAdder();
+
+        Window(long now) {
+            this.next = new AtomicLong(now);
+        }
+    }
+}
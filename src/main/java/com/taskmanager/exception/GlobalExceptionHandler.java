@@ -1,15 +1,28 @@
 package com.taskmanager.exception;
 
+import com.taskmanager.model.response.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.servlet.HandlerMapping;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Global exception handler for the application.
@@ -18,66 +31,259 @@ import java.util.Map;
  * <p>
  * Supported exception types include:
  * <ul>
- *     <li>{@link IllegalArgumentException} - returns HTTP 400 Bad Request</li>
- *     <li>{@link EntityNotFoundException} - returns HTTP 404 Not Found</li>
+ *     <li>{@link InvalidRequestException} and {@link IllegalArgumentException} - returns HTTP 400 Bad Request</li>
+ *     <li>{@link NotFoundException} and {@link EntityNotFoundException} - returns HTTP 404 Not Found</li>
+ *     <li>{@link ConflictException}, {@link OptimisticLockException} and {@link OptimisticLockingFailureException} -
+ *     returns HTTP 409 Conflict</li>
+ *     <li>{@link BufferFullException} - returns HTTP 429 Too Many Requests with a {@code Retry-After} header</li>
+ *     <li>{@link OverloadedException} - returns HTTP 503 Service Unavailable with a {@code Retry-After} header</li>
  *     <li>{@link Exception} - returns HTTP 500 Internal Server Error for any other exceptions</li>
  * </ul>
  * </p>
+ * Every error is counted in the {@value #ERRORS_NAME} counter, tagged with the exception type and the endpoint's
+ * method and URI template. Logging is sampled per exception type by an {@link ErrorLogSampler}, and stack traces are
+ * only logged for exceptions other than {@link DomainException}s, which have none.
  */
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    /**
+     * Name of the counter of error responses.
+     */
+    public static final String ERRORS_NAME = "taskmanager.errors";
+
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
     /**
-     * Handles {@link IllegalArgumentException} thrown by controllers.
+     * Seconds clients are asked to wait before retrying a request rejected for backpressure.
+     */
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    /**
+     * URI tag of errors raised outside of a mapped endpoint, as in {@code http.server.requests}.
+     */
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    /**
+     * Formats the error body can be written in, see {@code PayloadFormatConfig}.
+     */
+    private static final List<MediaType> ERROR_BODY_TYPES = List.of(MediaType.APPLICATION_JSON,
+            MediaType.APPLICATION_CBOR, new MediaType("application", "x-jackson-smile"));
+
+    private final MeterRegistry meterRegistry;
+
+    private final ErrorLogSampler logSampler;
+
+    private final ConcurrentMap<ErrorKey, Counter> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the handler.
+     *
+     * @param meterRegistry the registry of the error counters
+     * @param logInterval   the minimum time between two logged errors of the same exception type
+     */
+    public GlobalExceptionHandler(MeterRegistry meterRegistry,
+                                  @Value("${taskmanager.errors.log-interval:1s}") Duration logInterval) {
+        this.meterRegistry = meterRegistry;
+        this.logSampler = new ErrorLogSampler(logInterval);
+    }
+
+    /**
+     * Handles {@link InvalidRequestException}s, and {@link IllegalArgumentException}s thrown by framework code.
      *
      * @param exception the exception instance
+     * @param request   the failed request
      * @return a {@link ResponseEntity} containing error details and HTTP 400 status
      */
-    @ExceptionHandler(IllegalArgumentException.class)
-    public ResponseEntity<Map<String, Object>> handleInvalidRequest(IllegalArgumentException exception) {
-        logger.warn("Invalid request: {}", exception.getMessage(), exception);
+    @ExceptionHandler({InvalidRequestException.class, IllegalArgumentException.class})
+    public ResponseEntity<ErrorResponse> handleInvalidRequest(RuntimeException exception, HttpServletRequest request) {
+        record(HttpStatus.BAD_REQUEST, exception, request, "Invalid request");
         return buildResponse(HttpStatus.BAD_REQUEST, exception.getMessage());
     }
 
     /**
-     * Handles {@link EntityNotFoundException} thrown by controllers.
+     * Handles {@link NotFoundException}s, and {@link EntityNotFoundException}s thrown by the persistence provider.
      *
      * @param exception the exception instance
+     * @param request   the failed request
      * @return a {@link ResponseEntity} containing error details and HTTP 404 status
      */
-    @ExceptionHandler(EntityNotFoundException.class)
-    public ResponseEntity<Map<String, Object>> handleNotFound(EntityNotFoundException exception) {
-        logger.warn("Entity not found: {}", exception.getMessage(), exception);
+    @ExceptionHandler({NotFoundException.class, EntityNotFoundException.class})
+    public ResponseEntity<ErrorResponse> handleNotFound(RuntimeException exception, HttpServletRequest request) {
+        record(HttpStatus.NOT_FOUND, exception, request, "Entity not found");
         return buildResponse(HttpStatus.NOT_FOUND, exception.getMessage());
     }
 
+    /**
+     * Handles writes that lost against a concurrent change: {@link ConflictException}s thrown when a task or
+     * list no longer has the version of the request's {@code If-Match} header, and {@link OptimisticLockException}s
+     * and {@link OptimisticLockingFailureException}s from a failed version check of an entity.
+     *
+     * @param exception the exception instance
+     * @param request   the failed request
+     * @return a {@link ResponseEntity} containing error details and HTTP 409 status
+     */
+    @ExceptionHandler({ConflictException.class, OptimisticLockException.class,
+            OptimisticLockingFailureException.class})
+    public ResponseEntity<ErrorResponse> handleConflict(RuntimeException exception, HttpServletRequest request) {
+        record(HttpStatus.CONFLICT, exception, request, "Conflicting write");
+        return buildResponse(HttpStatus.CONFLICT, exception.getMessage());
+    }
+
+    /**
+     * Handles {@link BufferFullException}s thrown when write-behind ingestion cannot take more tasks.
+     * The {@code Retry-After} header tells clients to back off for a second before retrying.
+     *
+     * @param exception the exception instance
+     * @param request   the failed request
+     * @return a {@link ResponseEntity} containing error details and HTTP 429 status
+     */
+    @ExceptionHandler(BufferFullException.class)
+    public ResponseEntity<ErrorResponse> handleBufferFull(BufferFullException exception, HttpServletRequest request) {
+        record(HttpStatus.TOO_MANY_REQUESTS, exception, request, "Rejected");
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .body(errorBody(HttpStatus.TOO_MANY_REQUESTS, exception.getMessage()));
+    }
+
+    /**
+     * Handles {@link OverloadedException}s thrown when a request is shed by the concurrency limit.
+     * The {@code Retry-After} header tells clients to back off for a second before retrying.
+     * The limit sheds requests before their handler runs, so the client may accept none of the error body's formats,
+     * for example {@code text/event-stream}; it then gets the status and header without a body.
+     *
+     * @param exception the exception instance
+     * @param request   the failed request
+     * @return a {@link ResponseEntity} with HTTP 503 status, containing error details if the client accepts them
+     */
+    @ExceptionHandler(OverloadedException.class)
+    public ResponseEntity<ErrorResponse> handleOverloaded(OverloadedException exception, HttpServletRequest request) {
+        record(HttpStatus.SERVICE_UNAVAILABLE, exception, request, "Shed");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .body(acceptsErrorBody(request) ? errorBody(HttpStatus.SERVICE_UNAVAILABLE, exception.getMessage())
+                        : null);
+    }
+
     /**
      * Handles all other exceptions that are not specifically caught.
      *
      * @param exception the exception instance
+     * @param request   the failed request
      * @return a {@link ResponseEntity} containing error details and HTTP 500 status
      */
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<Map<String, Object>> handleGenericException(Exception exception) {
-        logger.error("Unexpected error occurred", exception);
+    public ResponseEntity<ErrorResponse> handleGenericException(Exception exception, HttpServletRequest request) {
+        record(HttpStatus.INTERNAL_SERVER_ERROR, exception, request, "Unexpected error occurred");
         return buildResponse(HttpStatus.INTERNAL_SERVER_ERROR, exception.getMessage());
     }
 
     /**
-     * Builds a standardized error response body for the given HTTP status and message.
+     * Counts the error and logs it unless its type was logged within the sampling interval.
+     * Unexpected server errors are logged at ERROR with their stack trace; client errors and shed requests, which
+     * are {@link DomainException}s, are logged at WARN without one.
+     *
+     * @param status    the status of the response
+     * @param exception the exception instance
+     * @param request   the failed request
+     * @param summary   the log message preceding the exception's message
+     */
+    private void record(HttpStatus status, Exception exception, HttpServletRequest request, String summary) {
+        counter(status, exception.getClass(), request).increment();
+        long suppressed = logSampler.sample(exception.getClass());
+        if (suppressed == ErrorLogSampler.SUPPRESSED) {
+            return;
+        }
+        String message = suppressed == 0 ? exception.getMessage()
+                : exception.getMessage() + " (" + suppressed + " similar errors not logged)";
+        Throwable trace = exception instanceof DomainException ? null : exception;
+        if (status.is5xxServerError() && trace != null) {
+            logger.error("{}: {}", summary, message, trace);
+        } else {
+            logger.warn("{}: {}", summary, message, trace);
+        }
+    }
+
+    /**
+     * Looks up the error counter for the exception type and the endpoint of the request, creating it on first use.
+     *
+     * @param status  the status of the response
+     * @param type    the exception type
+     * @param request the failed request
+     * @return the counter
+     */
+    private Counter counter(HttpStatus status, Class<?> type, HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        ErrorKey key = new ErrorKey(type, request.getMethod(), pattern != null ? pattern.toString() : UNKNOWN_URI);
+        Counter counter = counters.get(key);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(key, k -> Counter.builder(ERRORS_NAME)
+                    .description("Error responses by exception type and endpoint")
+                    .tag("type", k.type().getSimpleName())
+                    .tag("status", String.valueOf(status.value()))
+                    .tag("method", k.method())
+                    .tag("uri", k.uri())
+                    .register(meterRegistry));
+        }
+        return counter;
+    }
+
+    /**
+     * Builds a standardized error response for the given HTTP status and message.
      *
      * @param status the HTTP status to return
      * @param message the error message to include in the response
      * @return a {@link ResponseEntity} containing the structured error response
      */
-    private ResponseEntity<Map<String, Object>> buildResponse(HttpStatus status, String message) {
-        Map<String, Object> body = new HashMap<>();
-        body.put("status", status.value());
-        body.put("error", status.getReasonPhrase());
-        body.put("message", message);
-        body.put("timestamp", LocalDateTime.now());
-        return new ResponseEntity<>(body, status);
+    private ResponseEntity<ErrorResponse> buildResponse(HttpStatus status, String message) {
+        return new ResponseEntity<>(errorBody(status, message), status);
+    }
+
+    /**
+     * Builds the error body for the given HTTP status and message.
+     *
+     * @param status the HTTP status of the response
+     * @param message the error message
+     * @return the error body
+     */
+    private static ErrorResponse errorBody(HttpStatus status, String message) {
+        return new ErrorResponse(status.value(), status.getReasonPhrase(), message, LocalDateTime.now());
+    }
+
+    /**
+     * Tells whether the request accepts one of the formats the error body can be written in.
+     *
+     * @param request the failed request
+     * @return {@code true} if the request has no {@code Accept} header or accepts one of {@link #ERROR_BODY_TYPES}
+     */
+    private static boolean acceptsErrorBody(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null || accept.isBlank()) {
+            return true;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException exception) {
+            return false;
+        }
+        for (MediaType type : accepted) {
+            for (MediaType bodyType : ERROR_BODY_TYPES) {
+                if (type.isCompatibleWith(bodyType)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Identifies an error counter.
+     *
+     * @param type   the exception type
+     * @param method the HTTP method of the request
+     * @param uri    the URI template of the endpoint, or {@value #UNKNOWN_URI}
+     */
+    private record ErrorKey(Class<?> type, String method, String uri) {
     }
 }
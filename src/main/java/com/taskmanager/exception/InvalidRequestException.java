@@ -0,0 +1,16 @@
+package com.taskmanager.exception;
+
+/**
+ * Thrown when a request body, parameter, cursor or header is invalid, answered with {@code 400 Bad Request}.
+ */
+public class InvalidRequestException extends DomainException {
+
+    /**
+     * Creates the exception.
+     *
+     * @param message the detail message
+     */
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package com.taskmanager.exception;
+
+/**
+ * Thrown when a list, task or other resource addressed by id does not exist, answered with {@code 404 Not Found}.
+ */
+public class NotFoundException extends DomainException {
+
+    /**
+     * Creates the exception.
+     *
+     * @param message the detail message
+     */
+    public NotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,17 @@
+package com.taskmanager.exception;
+
+/**
+ * Thrown when a request is shed because the service already has as many requests in flight as it can serve
+ * quickly, answered with {@code 503 Service Unavailable} so clients back off and retry instead of queueing.
+ */
+public class OverloadedException extends DomainException {
+
+    /**
+     * Creates the exception.
+     *
+     * @param message the detail message
+     */
+    public OverloadedException(String message) {
+        super(message);
+    }
+}
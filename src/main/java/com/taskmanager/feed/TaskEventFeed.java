@@ -0,0 +1,404 @@
+package com.taskmanager.feed;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskmanager.event.SnapshotImportedEvent;
+import com.taskmanager.event.TaskDeletedEvent;
+import com.taskmanager.event.TaskListCreatedEvent;
+import com.taskmanager.event.TaskListDeletedEvent;
+import com.taskmanager.event.TaskStoreEvent;
+import com.taskmanager.event.TaskUpdatedEvent;
+import com.taskmanager.event.TasksAddedEvent;
+import com.taskmanager.event.TasksMovedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Server-Sent Events feed of committed {@link TaskStoreEvent}s.
+ *
+ * Every committed event gets the next id of this instance and is rendered once into its SSE frame, which is kept
+ * in a bounded replay buffer of the last {@code taskmanager.events.replay-capacity} events and shared by all
+ * subscribers. A single dispatcher thread hands every subscriber the frames it has not seen yet, so a subscriber
+ * that reconnects with {@code Last-Event-ID} is caught up through the same path as live delivery. A subscriber
+ * whose last event is no longer buffered, or comes from another instance or an earlier run, gets a {@code reset}
+ * event and should reload what it shows.
+ *
+ * Idle subscribers hold no thread: an {@link SseEmitter} is an asynchronous request, parked in the servlet
+ * container until it is written to. Writes block until the client has taken the data, so the dispatcher never
+ * writes itself: each subscriber is written by a virtual thread of its own, one write at a time, and a subscriber
+ * with a write still pending is skipped and served once it completes. A client that stops reading therefore only
+ * holds up its own stream; once its write has been pending for {@code taskmanager.events.send-timeout} it is dropped
+ * and has to reconnect. A comment is sent every {@code taskmanager.events.heartbeat} so proxies keep idle
+ * connections open and disconnected subscribers are noticed.
+ */
+@Component
+public class TaskEventFeed implements SmartLifecycle {
+
+    /**
+     * Name of the event telling subscribers that they missed events and should reload.
+     */
+    public static final String RESET = "reset";
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskEventFeed.class);
+
+    private final ObjectMapper objectMapper;
+    private final Frame[] replay;
+    private final Duration timeout;
+    private final Duration heartbeat;
+    private final long sendTimeoutNanos;
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() >>> 1, 36);
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean dispatchScheduled = new AtomicBoolean();
+
+    /**
+     * Sequence number of the last committed event, guarded by {@code replay}.
+     */
+    private long lastSequence;
+
+    private volatile ScheduledExecutorService dispatcher;
+
+    private volatile ExecutorService writers;
+
+    /**
+     * Creates an empty feed; the dispatcher starts with the application context.
+     *
+     * @param objectMapper   the mapper rendering the event data as JSON
+     * @param meterRegistry  the registry of the subscriber gauge
+     * @param replayCapacity the number of most recent events kept for subscribers resuming with {@code Last-Event-ID}
+     * @param timeout        how long a subscription lasts before the client has to reconnect
+     * @param heartbeat      the interval of the comments sent to keep idle connections open
+     * @param sendTimeout    how long a write to a subscriber may be pending before the subscriber is dropped
+     */
+    public TaskEventFeed(ObjectMapper objectMapper,
+                         MeterRegistry meterRegistry,
+                         @Value("${taskmanager.events.replay-capacity:10000}") int replayCapacity,
+                         @Value("${taskmanager.events.timeout:30m}") Duration timeout,
+                         @Value("${taskmanager.events.heartbeat:15s}") Duration heartbeat,
+                         @Value("${taskmanager.events.send-timeout:10s}") Duration sendTimeout) {
+        if (replayCapacity < 1) {
+            throw new IllegalArgumentException("Replay capacity must be positive");
+        }
+        this.objectMapper = objectMapper;
+        this.replay = new Frame[replayCapacity];
+        this.timeout = timeout;
+        this.heartbeat = heartbeat;
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        Gauge.builder("taskmanager.events.subscribers", subscribers, Set::size)
+                .description("Open Server-Sent Events subscriptions")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a subscription.
+     *
+     * @param lastEventId the id of the last event the client received, or {@code null} to receive only new events
+     * @return the emitter streaming the events
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        subscribe(emitter, lastEventId);
+        return emitter;
+    }
+
+    /**
+     * Streams the events to an emitter until it completes or fails.
+     *
+     * @param emitter     the emitter to send the events to
+     * @param lastEventId the id of the last event the client received, or {@code null} to receive only new events
+     */
+    public void subscribe(SseEmitter emitter, String lastEventId) {
+        if (dispatcher == null) {
+            emitter.complete();
+            return;
+        }
+        Subscriber subscriber = new Subscriber(emitter, resumePoint(lastEventId));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(exception -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        scheduleDispatch();
+    }
+
+    /**
+     * Appends a committed change to the feed.
+     *
+     * @param event the committed change
+     */
+    @TransactionalEventListener
+    public void on(TaskStoreEvent event) {
+        String name = switch (event) {
+            case TaskListCreatedEvent ignored -> "list-created";
+            case TaskListDeletedEvent ignored -> "list-deleted";
+            case TasksAddedEvent ignored -> "tasks-created";
+            case TaskUpdatedEvent ignored -> "task-updated";
+            case TasksMovedEvent ignored -> "tasks-moved";
+            case TaskDeletedEvent ignored -> "task-deleted";
+            case SnapshotImportedEvent ignored -> RESET;
+        };
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException exception) {
+            throw new IllegalStateException("Event could not be rendered: " + event, exception);
+        }
+        synchronized (replay) {
+            long sequence = ++lastSequence;
+            replay[(int) (sequence % replay.length)] = new Frame(SseEmitter.event()
+                    .id(epoch + "." + sequence)
+                    .name(name)
+                    .data(data)
+                    .build());
+        }
+        scheduleDispatch();
+    }
+
+    /**
+     * Starts the dispatcher thread, the heartbeat and the writers.
+     */
+    @Override
+    public void start() {
+        writers = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("task-event-writer-", 0).factory());
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("task-event-feed").daemon().factory());
+        executor.scheduleAtFixedRate(this::sendHeartbeat, heartbeat.toMillis(), heartbeat.toMillis(),
+                TimeUnit.MILLISECONDS);
+        dispatcher = executor;
+    }
+
+    /**
+     * Ends all subscriptions and stops the dispatcher. Runs before the web server shuts down gracefully,
+     * which would otherwise wait for the open subscriptions. Subscriptions are ended by the writers, since ending
+     * one waits for its pending write; the feed waits for them at most {@code taskmanager.events.send-timeout}.
+     */
+    @Override
+    public void stop() {
+        ScheduledExecutorService executor = dispatcher;
+        if (executor == null) {
+            return;
+        }
+        dispatcher = null;
+        executor.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            writers.execute(subscriber.emitter::complete);
+        }
+        subscribers.clear();
+        writers.shutdown();
+        try {
+            if (!writers.awaitTermination(sendTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                writers.shutdownNow();
+            }
+        } catch (InterruptedException exception) {
+            writers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return dispatcher != null;
+    }
+
+    /**
+     * Returns the number of open subscriptions.
+     *
+     * @return the number of subscribers
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Finds the sequence number of the last event a resuming client received.
+     *
+     * @param lastEventId the {@code Last-Event-ID} of the client, or {@code null}
+     * @return the sequence number, or {@code -1} if the client cannot resume from this instance's events
+     */
+    private long resumePoint(String lastEventId) {
+        synchronized (replay) {
+            if (lastEventId == null || lastEventId.isBlank()) {
+                return lastSequence;
+            }
+            int separator = lastEventId.indexOf('.');
+            if (separator < 0 || !epoch.equals(lastEventId.substring(0, separator))) {
+                return -1;
+            }
+            try {
+                long sequence = Long.parseLong(lastEventId.substring(separator + 1));
+                return sequence >= 0 && sequence <= lastSequence ? sequence : -1;
+            } catch (NumberFormatException exception) {
+                return -1;
+            }
+        }
+    }
+
+    private void scheduleDispatch() {
+        ScheduledExecutorService executor = dispatcher;
+        if (executor != null && dispatchScheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::dispatch);
+            } catch (RejectedExecutionException exception) {
+                logger.debug("Event feed is stopping, not dispatching");
+            }
+        }
+    }
+
+    /**
+     * Hands every subscriber the frames it has not received yet.
+     */
+    private void dispatch() {
+        dispatchScheduled.set(false);
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            serve(subscriber, false, now);
+        }
+    }
+
+    private void sendHeartbeat() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            serve(subscriber, true, now);
+        }
+    }
+
+    /**
+     * Starts a write to a subscriber unless one is still pending, and drops the subscriber if that write has been
+     * pending for longer than the send timeout. Runs on the dispatcher thread.
+     *
+     * @param subscriber the subscriber
+     * @param heartbeat  whether to send a heartbeat if there is nothing else to send
+     * @param now        the current {@link System#nanoTime()}
+     */
+    private void serve(Subscriber subscriber, boolean heartbeat, long now) {
+        if (!subscriber.writing.compareAndSet(false, true)) {
+            if (now - subscriber.writeStart > sendTimeoutNanos) {
+                evict(subscriber);
+            }
+            return;
+        }
+        subscriber.writeStart = now;
+        try {
+            writers.execute(() -> write(subscriber, heartbeat));
+        } catch (RejectedExecutionException exception) {
+            subscriber.writing.set(false);
+        }
+    }
+
+    /**
+     * Sends a subscriber the frames it has not received yet, or a heartbeat. Runs on a writer thread and may block
+     * until the client has read the data; a dispatch that happened meanwhile is caught up afterwards.
+     *
+     * @param subscriber the subscriber
+     * @param heartbeat  whether to send a heartbeat if there is nothing else to send
+     */
+    private void write(Subscriber subscriber, boolean heartbeat) {
+        long latest;
+        try {
+            List<Frame> frames = new ArrayList<>();
+            boolean reset;
+            synchronized (replay) {
+                latest = lastSequence;
+                long oldest = Math.max(1, lastSequence - replay.length + 1);
+                reset = subscriber.lastSent < oldest - 1;
+                for (long sequence = reset ? latest + 1 : subscriber.lastSent + 1; sequence <= latest; sequence++) {
+                    frames.add(replay[(int) (sequence % replay.length)]);
+                }
+            }
+            if (reset) {
+                subscriber.emitter.send(SseEmitter.event().id(epoch + "." + latest).name(RESET).data("{}"));
+            } else if (!subscriber.started && frames.isEmpty()) {
+                subscriber.emitter.send(SseEmitter.event().comment("subscribed"));
+            } else if (heartbeat && frames.isEmpty()) {
+                subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+            }
+            for (Frame frame : frames) {
+                subscriber.emitter.send(frame.data());
+            }
+            subscriber.lastSent = latest;
+            subscriber.started = true;
+        } catch (IOException | IllegalStateException exception) {
+            drop(subscriber, exception);
+            return;
+        } finally {
+            subscriber.writing.set(false);
+        }
+        synchronized (replay) {
+            if (lastSequence == latest) {
+                return;
+            }
+        }
+        scheduleDispatch();
+    }
+
+    private void drop(Subscriber subscriber, Exception exception) {
+        logger.debug("Dropping event subscriber: {}", exception.getMessage());
+        subscribers.remove(subscriber);
+        subscriber.emitter.completeWithError(exception);
+    }
+
+    /**
+     * Drops a subscriber whose write is stuck. Ending its emitter waits for that write, so it is done by a writer.
+     *
+     * @param subscriber the subscriber
+     */
+    private void evict(Subscriber subscriber) {
+        if (!subscribers.remove(subscriber)) {
+            return;
+        }
+        logger.debug("Dropping event subscriber that stopped reading");
+        try {
+            writers.execute(() -> subscriber.emitter.completeWithError(
+                    new IOException("Event subscriber stopped reading")));
+        } catch (RejectedExecutionException exception) {
+            logger.debug("Event feed is stopping, not ending the subscription");
+        }
+    }
+
+    /**
+     * An event rendered into its SSE frame.
+     */
+    private record Frame(Set<DataWithMediaType> data) {
+    }
+
+    /**
+     * A subscription and how far it has been served. Its progress is only read and written by the writer holding
+     * {@code writing}.
+     */
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+
+        private final AtomicBoolean writing = new AtomicBoolean();
+
+        private volatile long writeStart;
+
+        private long lastSent;
+
+        private boolean started;
+
+        private Subscriber(SseEmitter emitter, long lastSent) {
+            this.emitter = emitter;
+            this.lastSent = lastSent;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.taskmanager.ingest;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free ring buffer for many producers and consumers, after Dmitry Vyukov's bounded MPMC queue.
+ * Every slot carries a sequence number that tells producers and consumers whose turn it is, so a successful
+ * {@link #offer(Object)} or {@link #poll()} costs one compare-and-set on the shared position and never blocks.
+ * A full buffer rejects instead of waiting, which is what lets callers answer with backpressure.
+ *
+ * @param <E> the type of the elements
+ */
+public final class RingBuffer<E> {
+
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final Object[] elements;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Creates an empty buffer.
+     *
+     * @param capacity the minimum number of elements the buffer holds, rounded up to the next power of two and
+     *                 to at least two, since with a single slot a filled slot looks free to the next producer
+     * @throws IllegalArgumentException if the capacity is not between 1 and 2^30
+     */
+    public RingBuffer(int capacity) {
+        if (capacity < 1 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Capacity must be between 1 and " + MAX_CAPACITY);
+        }
+        int size = Math.max(2, 1 << (Integer.SIZE - Integer.numberOfLeadingZeros(capacity - 1)));
+        elements = new Object[size];
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        mask = size - 1;
+    }
+
+    /**
+     * Appends an element if there is room for it.
+     *
+     * @param element the element to append
+     * @return {@code true} if the element was appended, {@code false} if the buffer is full
+     */
+    public boolean offer(E element) {
+        long position = head.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    elements[index] = element;
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = head.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = head.get();
+            }
+        }
+    }
+
+    /**
+     * Removes the oldest element.
+     *
+     * @return the oldest element, or {@code null} if the buffer is empty
+     */
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    E element = (E) elements[index];
+                    elements[index] = null;
+                    sequences.set(index, position + elements.length);
+                    return element;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return null;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Removes up to {@code maxElements} of the oldest elements and adds them to a collection, in order.
+     *
+     * @param target      the collection to add the elements to
+     * @param maxElements the maximum number of elements to remove
+     * @return the number of elements removed
+     */
+    public int drainTo(Collection<? super E> target, int maxElements) {
+        int drained = 0;
+        E element;
+        while (drained < maxElements && (element = poll()) != null) {
+            target.add(element);
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * Returns the number of elements in the buffer. Only a snapshot while producers or consumers are active.
+     *
+     * @return the number of elements, between {@code 0} and {@link #capacity()}
+     */
+    public int size() {
+        long size = head.get() - tail.get();
+        return (int) Math.max(0, Math.min(size, elements.length));
+    }
+
+    /**
+     * Returns the number of elements the buffer holds.
+     *
+     * @return the capacity, a power of two
+     */
+    public int capacity() {
+        return elements.length;
+    }
+}
@@ -0,0 +1,324 @@
+package com.taskmanager.ingest;
+
+import com.taskmanager.entity.TaskListRepository;
+import com.taskmanager.exception.BufferFullException;
+import com.taskmanager.exception.NotFoundException;
+import com.taskmanager.model.request.TaskRequest;
+import com.taskmanager.model.response.IngestionResponse;
+import com.taskmanager.model.response.TaskResponse;
+import com.taskmanager.service.TaskManagerService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Opt-in write-behind ingestion of new tasks, enabled with {@code taskmanager.ingest.enabled=true}.
+ * {@link #submit(Long, TaskRequest)} only appends the validated task to a bounded {@link RingBuffer} and returns
+ * a tracking id, so the caller does not wait for a commit. A single writer thread drains the buffer and inserts
+ * each drained batch, of up to {@code taskmanager.ingest.batch-size} tasks across any number of lists, in one
+ * transaction through {@link TaskManagerService#addTasksToList(Long, List)}.
+ *
+ * A full buffer rejects new tasks with a {@link BufferFullException}. On shutdown the writer drains what is left
+ * before the database goes away; its lifecycle phase makes it stop after the web server, so nothing is accepted
+ * after the final drain. The states of tasks are kept in memory for {@code taskmanager.ingest.status-retention}
+ * after they were written, so a task accepted by one instance can only be tracked on that instance.
+ */
+@Service
+@ConditionalOnProperty(name = "taskmanager.ingest.enabled", havingValue = "true")
+public class TaskIngestionService implements SmartLifecycle {
+
+    /**
+     * Lifecycle phase of the writer, below the phase in which Spring Boot stops the web server
+     * ({@code DEFAULT_PHASE - 2048}), so the writer starts before and stops after it.
+     */
+    static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskIngestionService.class);
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final TaskManagerService taskManagerService;
+    private final TaskListRepository taskListRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final RingBuffer<PendingTask> buffer;
+    private final int batchSize;
+    private final long statusRetentionNanos;
+    private final Duration shutdownTimeout;
+    private final Map<String, IngestionResponse> states = new ConcurrentHashMap<>();
+    private final ArrayDeque<Completion> completions = new ArrayDeque<>();
+    private final Counter rejected;
+    private final DistributionSummary batchSizes;
+
+    private volatile boolean running;
+    private volatile boolean writerIdle;
+    private volatile Thread writer;
+
+    /**
+     * Creates the ingestion with an empty buffer; the writer starts with the application context.
+     *
+     * @param taskManagerService the service inserting the tasks
+     * @param taskListRepository the repository used to check which lists of a batch exist
+     * @param transactionManager the transaction manager of the batch transactions
+     * @param meterRegistry      the registry of the buffer size, batch size and rejection meters
+     * @param bufferCapacity     the number of tasks the buffer holds, rounded up to a power of two
+     * @param batchSize          the maximum number of tasks inserted per transaction
+     * @param statusRetention    how long the state of a written or failed task stays available
+     * @param shutdownTimeout    how long shutdown waits for the writer to drain the buffer
+     */
+    public TaskIngestionService(TaskManagerService taskManagerService,
+                                TaskListRepository taskListRepository,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${taskmanager.ingest.buffer-capacity:65536}") int bufferCapacity,
+                                @Value("${taskmanager.ingest.batch-size:500}") int batchSize,
+                                @Value("${taskmanager.ingest.status-retention:10m}") Duration statusRetention,
+                                @Value("${taskmanager.ingest.shutdown-timeout:30s}") Duration shutdownTimeout) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Ingestion batch size must be positive");
+        }
+        this.taskManagerService = taskManagerService;
+        this.taskListRepository = taskListRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.buffer = new RingBuffer<>(bufferCapacity);
+        this.batchSize = batchSize;
+        this.statusRetentionNanos = statusRetention.toNanos();
+        this.shutdownTimeout = shutdownTimeout;
+        Gauge.builder("taskmanager.ingest.buffer.size", buffer, RingBuffer::size)
+                .description("Tasks accepted for ingestion and not yet written")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("taskmanager.ingest.rejected")
+                .description("Tasks rejected because the ingestion buffer was full")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("taskmanager.ingest.batch.size")
+                .description("Tasks inserted per ingestion transaction")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Accepts a validated task for asynchronous insertion into a task list.
+     * The list is only checked when the task is written; a missing list makes the task fail then.
+     *
+     * @param listId  the ID of the task list
+     * @param request the {@link TaskRequest} containing the task details, already validated
+     * @return the {@link IngestionResponse} with the tracking id, in state {@code PENDING}
+     * @throws BufferFullException if the buffer is full or the ingestion is not running
+     */
+    public IngestionResponse submit(Long listId, TaskRequest request) {
+        if (!running) {
+            throw new BufferFullException("Ingestion is not accepting tasks");
+        }
+        String trackingId = UUID.randomUUID().toString();
+        IngestionResponse pending = IngestionResponse.builder()
+                .trackingId(trackingId)
+                .state(IngestionResponse.State.PENDING)
+                .build();
+        states.put(trackingId, pending);
+        if (!buffer.offer(new PendingTask(trackingId, listId, request))) {
+            states.remove(trackingId);
+            rejected.increment();
+            throw new BufferFullException("Ingestion buffer is full");
+        }
+        if (writerIdle) {
+            LockSupport.unpark(writer);
+        }
+        return pending;
+    }
+
+    /**
+     * Retrieves the current state of an ingested task.
+     *
+     * @param trackingId the tracking id returned by {@link #submit(Long, TaskRequest)}
+     * @return the {@link IngestionResponse} with the current state
+     * @throws NotFoundException if the tracking id is unknown or its state has expired
+     */
+    public IngestionResponse getState(String trackingId) {
+        IngestionResponse state = states.get(trackingId);
+        if (state == null) {
+            throw new NotFoundException("Ingestion not found with tracking id " + trackingId);
+        }
+        return state;
+    }
+
+    /**
+     * Starts the writer thread and begins accepting tasks.
+     */
+    @Override
+    public void start() {
+        running = true;
+        writer = Thread.ofPlatform().name("task-ingestion-writer").start(this::drainUntilStopped);
+    }
+
+    /**
+     * Stops accepting tasks and waits for the writer to insert the tasks left in the buffer.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        Thread current = writer;
+        if (current == null) {
+            return;
+        }
+        LockSupport.unpark(current);
+        try {
+            current.join(shutdownTimeout);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        if (current.isAlive()) {
+            logger.warn("Ingestion writer did not finish within {}, {} tasks not written", shutdownTimeout,
+                    buffer.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    /**
+     * Writer loop: inserts drained batches until the ingestion is stopped and the buffer is empty.
+     * Parks while the buffer is empty; producers unpark it when they find it idle.
+     */
+    private void drainUntilStopped() {
+        List<PendingTask> batch = new ArrayList<>(batchSize);
+        while (true) {
+            if (buffer.drainTo(batch, batchSize) > 0) {
+                write(batch);
+                batch.clear();
+            } else if (!running) {
+                return;
+            } else {
+                writerIdle = true;
+                if (buffer.size() == 0 && running) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                writerIdle = false;
+            }
+            expireStates();
+        }
+    }
+
+    /**
+     * Inserts a batch in one transaction and records the outcome of every task. If the transaction fails,
+     * the tasks are retried one per transaction, so a single bad task does not fail the rest.
+     *
+     * @param batch the drained tasks, in acceptance order
+     */
+    private void write(List<PendingTask> batch) {
+        try {
+            Map<String, IngestionResponse> outcomes = transactionTemplate.execute(status -> insert(batch));
+            batchSizes.record(batch.size());
+            complete(outcomes.values());
+        } catch (RuntimeException exception) {
+            if (batch.size() == 1) {
+                PendingTask task = batch.getFirst();
+                logger.warn("Ingested task {} could not be written: {}", task.trackingId(), exception.getMessage());
+                complete(List.of(failed(task.trackingId(), exception.getMessage())));
+                return;
+            }
+            logger.warn("Ingestion batch of {} tasks failed, writing them one by one", batch.size(), exception);
+            for (PendingTask task : batch) {
+                write(List.of(task));
+            }
+        }
+    }
+
+    /**
+     * Inserts the tasks of a batch, grouped by list, within the current transaction.
+     * Tasks of lists that do not exist fail without affecting the others.
+     *
+     * @param batch the drained tasks, in acceptance order
+     * @return the outcome of every task, by tracking id
+     */
+    private Map<String, IngestionResponse> insert(List<PendingTask> batch) {
+        Map<Long, List<PendingTask>> byList = new LinkedHashMap<>();
+        for (PendingTask task : batch) {
+            byList.computeIfAbsent(task.listId(), listId -> new ArrayList<>()).add(task);
+        }
+        Set<Long> existing = new HashSet<>(taskListRepository.findExistingIds(byList.keySet()));
+
+        Map<String, IngestionResponse> outcomes = new HashMap<>();
+        for (Map.Entry<Long, List<PendingTask>> entry : byList.entrySet()) {
+            List<PendingTask> tasks = entry.getValue();
+            if (!existing.contains(entry.getKey())) {
+                for (PendingTask task : tasks) {
+                    outcomes.put(task.trackingId(), failed(task.trackingId(), "List not found with id " + entry.getKey()));
+                }
+                continue;
+            }
+            List<TaskResponse> created = taskManagerService.addTasksToList(entry.getKey(),
+                    tasks.stream().map(PendingTask::request).toList());
+            for (int i = 0; i < tasks.size(); i++) {
+                String trackingId = tasks.get(i).trackingId();
+                outcomes.put(trackingId, IngestionResponse.builder()
+                        .trackingId(trackingId)
+                        .state(IngestionResponse.State.WRITTEN)
+                        .taskId(created.get(i).getId())
+                        .build());
+            }
+        }
+        return outcomes;
+    }
+
+    private void complete(Iterable<IngestionResponse> outcomes) {
+        long now = System.nanoTime();
+        for (IngestionResponse outcome : outcomes) {
+            states.put(outcome.getTrackingId(), outcome);
+            completions.addLast(new Completion(outcome.getTrackingId(), now));
+        }
+    }
+
+    private void expireStates() {
+        long now = System.nanoTime();
+        while (!completions.isEmpty() && now - completions.peekFirst().completedAt() > statusRetentionNanos) {
+            states.remove(completions.pollFirst().trackingId());
+        }
+    }
+
+    private static IngestionResponse failed(String trackingId, String message) {
+        return IngestionResponse.builder()
+                .trackingId(trackingId)
+                .state(IngestionResponse.State.FAILED)
+                .message(message)
+                .build();
+    }
+
+    /**
+     * A task waiting in the buffer.
+     */
+    private record PendingTask(String trackingId, Long listId, TaskRequest request) {
+    }
+
+    /**
+     * When the state of a task became final, for expiring it.
+     */
+    private record Completion(String trackingId, long completedAt) {
+    }
+}
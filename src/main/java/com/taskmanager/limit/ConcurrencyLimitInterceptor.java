@@ -0,0 +1,96 @@
+package com.taskmanager.limit;
+
+import com.taskmanager.exception.OverloadedException;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Sheds requests to the controllers it is registered for once their {@link ConcurrencyLimiter} is full.
+ * Reads ({@code GET} and {@code HEAD}) and writes have limiters of their own, since writes hold locks and
+ * connections longer and should not crowd out reads, nor the other way around.
+ * <p>
+ * A request is admitted before its handler runs; a rejected one throws an {@link OverloadedException}, answered
+ * with {@code 503} and {@code Retry-After} before it has taken a connection. The check runs on the servlet worker
+ * that already took the request, so the limit protects the connection pool and the work behind it, not the workers
+ * themselves, which the connector's own thread and connection limits bound. The permit is released when the request
+ * completes, with its latency and whether it failed with a server error as the sample of the limit. A request that
+ * goes on asynchronously, such as an event stream, is released without a sample as soon as its handler returns, and
+ * its asynchronous dispatches are not limited.
+ * </p>
+ */
+public class ConcurrencyLimitInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".permit";
+
+    private final ConcurrencyLimiter reads;
+    private final ConcurrencyLimiter writes;
+
+    /**
+     * Creates the interceptor.
+     *
+     * @param reads  the limiter of {@code GET} and {@code HEAD} requests
+     * @param writes the limiter of all other requests
+     */
+    public ConcurrencyLimitInterceptor(ConcurrencyLimiter reads, ConcurrencyLimiter writes) {
+        this.reads = reads;
+        this.writes = writes;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod) || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        ConcurrencyLimiter limiter = isRead(request) ? reads : writes;
+        int inflight = limiter.tryAcquire();
+        if (inflight == 0) {
+            throw new OverloadedException("Too many concurrent requests, retry later");
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, new Permit(limiter, inflight, System.nanoTime()));
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        Permit permit = takePermit(request);
+        if (permit != null) {
+            permit.limiter().releaseWithoutSample();
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception exception) {
+        Permit permit = takePermit(request);
+        if (permit != null) {
+            permit.limiter().release(System.nanoTime() - permit.startNanos(), permit.inflight(),
+                    exception != null || response.getStatus() >= 500);
+        }
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        String method = request.getMethod();
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method);
+    }
+
+    private static Permit takePermit(HttpServletRequest request) {
+        Permit permit = (Permit) request.getAttribute(PERMIT_ATTRIBUTE);
+        request.removeAttribute(PERMIT_ATTRIBUTE);
+        return permit;
+    }
+
+    /**
+     * An admitted request's hold on its limiter.
+     *
+     * @param limiter    the limiter that admitted the request
+     * @param inflight   the number of requests in flight when it was admitted, itself included
+     * @param startNanos the time it was admitted
+     */
+    private record Permit(ConcurrencyLimiter limiter, int inflight, long startNanos) {
+    }
+}
@@ -0,0 +1,116 @@
+package com.taskmanager.limit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admits requests while fewer than the {@link GradientLimit}'s current limit are in flight, and rejects the rest
+ * right away instead of letting them queue for a thread or a connection.
+ * Each admitted request must be released exactly once, with its latency or without a sample.
+ * <p>
+ * Exposes the limit and the requests in flight as the {@value #LIMIT_NAME} and {@value #INFLIGHT_NAME} gauges and
+ * counts rejections in {@value #REJECTED_NAME}, all tagged with the limiter's {@code kind}.
+ * </p>
+ */
+public class ConcurrencyLimiter {
+
+    /**
+     * Name of the gauge of the current limit.
+     */
+    public static final String LIMIT_NAME = "taskmanager.concurrency.limit";
+
+    /**
+     * Name of the gauge of the requests in flight.
+     */
+    public static final String INFLIGHT_NAME = "taskmanager.concurrency.inflight";
+
+    /**
+     * Name of the counter of rejected requests.
+     */
+    public static final String REJECTED_NAME = "taskmanager.concurrency.rejected";
+
+    private final GradientLimit limit;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final Counter rejected;
+
+    /**
+     * Creates the limiter and registers its meters.
+     *
+     * @param kind          the kind of requests it limits, {@code read} or {@code write}, used as the meters' tag
+     * @param limit         the adaptive limit
+     * @param meterRegistry the registry of the limiter's meters
+     */
+    public ConcurrencyLimiter(String kind, GradientLimit limit, MeterRegistry meterRegistry) {
+        this.limit = limit;
+        Gauge.builder(LIMIT_NAME, limit, GradientLimit::getLimit)
+                .description("Requests admitted at the same time before new ones are rejected")
+                .tag("kind", kind)
+                .register(meterRegistry);
+        Gauge.builder(INFLIGHT_NAME, inflight, AtomicInteger::get)
+                .description("Admitted requests not yet completed")
+                .tag("kind", kind)
+                .register(meterRegistry);
+        this.rejected = Counter.builder(REJECTED_NAME)
+                .description("Requests rejected because the concurrency limit was reached")
+                .tag("kind", kind)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Admits a request if the limit allows one more in flight.
+     *
+     * @return the number of requests in flight including this one, or {@code 0} if it was rejected
+     */
+    public int tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= limit.getLimit()) {
+                rejected.increment();
+                return 0;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    /**
+     * Releases an admitted request and feeds its latency to the limit.
+     *
+     * @param rttNanos the latency of the request
+     * @param inflight the value returned by {@link #tryAcquire()} for it
+     * @param dropped  whether the request failed with a server error
+     */
+    public void release(long rttNanos, int inflight, boolean dropped) {
+        this.inflight.decrementAndGet();
+        limit.onSample(rttNanos, inflight, dropped);
+    }
+
+    /**
+     * Releases an admitted request whose latency says nothing about the load, such as one that went on
+     * asynchronously.
+     */
+    public void releaseWithoutSample() {
+        inflight.decrementAndGet();
+    }
+
+    /**
+     * Returns the current limit.
+     *
+     * @return the number of requests that may be in flight at the same time
+     */
+    public int getLimit() {
+        return limit.getLimit();
+    }
+
+    /**
+     * Returns the number of requests in flight.
+     *
+     * @return the admitted requests not yet released
+     */
+    public int getInflight() {
+        return inflight.get();
+    }
+}
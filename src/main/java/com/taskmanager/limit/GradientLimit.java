@@ -0,0 +1,139 @@
+package com.taskmanager.limit;
+
+/**
+ * Adaptive concurrency limit that follows the latency of the requests it admits, after the gradient algorithm of
+ * Netflix's concurrency-limits library.
+ * <p>
+ * Samples are aggregated in windows of {@link #WINDOW_SAMPLES}. At the end of each window the mean latency of the
+ * window (the short-term latency) is compared with an exponential average over many windows (the long-term
+ * latency). While the two agree, the limit grows by about its square root per window, so it probes for more
+ * concurrency; once the short-term latency exceeds the long-term one by more than {@link #TOLERANCE}, the limit
+ * shrinks in proportion, down to half per window. A window in which a request failed with a server error, such as a
+ * connection timeout, cuts the limit by {@link #BACKOFF_RATIO} instead, the multiplicative decrease of AIMD.
+ * The limit only grows while the admitted requests actually use at least half of it, so a quiet period does not let
+ * it grow without bound.
+ * </p>
+ * Thread-safe: samples are recorded under the instance's lock, which is held for a few arithmetic operations, and
+ * the current limit is published through a volatile field read without locking.
+ */
+public class GradientLimit {
+
+    /**
+     * Number of samples aggregated into one update of the limit.
+     */
+    static final int WINDOW_SAMPLES = 10;
+
+    /**
+     * How much slower than the long-term latency a window may be before the limit shrinks.
+     */
+    static final double TOLERANCE = 1.5;
+
+    /**
+     * Factor applied to the limit after a window with a failed request.
+     */
+    static final double BACKOFF_RATIO = 0.9;
+
+    /**
+     * Weight of a new estimate against the current limit.
+     */
+    private static final double SMOOTHING = 0.2;
+
+    /**
+     * Number of windows the long-term latency averages over.
+     */
+    private static final int LONG_WINDOWS = 60;
+
+    private final int minLimit;
+    private final int maxLimit;
+
+    private double estimatedLimit;
+    private double longRttNanos;
+    private long windowRttNanos;
+    private int windowSamples;
+    private int windowMaxInflight;
+    private boolean windowDropped;
+
+    private volatile int limit;
+
+    /**
+     * Creates the limit.
+     *
+     * @param initialLimit the limit before the first window completes
+     * @param minLimit     the lowest the limit can shrink to, at least {@code 1}
+     * @param maxLimit     the highest the limit can grow to
+     */
+    public GradientLimit(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= initial <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.estimatedLimit = initialLimit;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Returns the current limit.
+     *
+     * @return the number of requests that may be in flight at the same time
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Records a completed request and updates the limit when it completes a window.
+     *
+     * @param rttNanos the latency of the request
+     * @param inflight the number of requests in flight when it was admitted, itself included
+     * @param dropped  whether the request failed with a server error
+     */
+    public synchronized void onSample(long rttNanos, int inflight, boolean dropped) {
+        windowRttNanos += rttNanos;
+        windowMaxInflight = Math.max(windowMaxInflight, inflight);
+        windowDropped |= dropped;
+        if (++windowSamples < WINDOW_SAMPLES) {
+            return;
+        }
+        double shortRttNanos = Math.max(1, (double) windowRttNanos / windowSamples);
+        update(shortRttNanos, windowMaxInflight, windowDropped);
+        windowRttNanos = 0;
+        windowSamples = 0;
+        windowMaxInflight = 0;
+        windowDropped = false;
+    }
+
+    /**
+     * Updates the limit at the end of a window.
+     *
+     * @param shortRttNanos the mean latency of the window
+     * @param maxInflight   the highest number of requests in flight during the window
+     * @param dropped       whether a request of the window failed with a server error
+     */
+    private void update(double shortRttNanos, int maxInflight, boolean dropped) {
+        if (dropped) {
+            setEstimatedLimit(estimatedLimit * BACKOFF_RATIO);
+            return;
+        }
+        if (longRttNanos == 0) {
+            longRttNanos = shortRttNanos;
+        } else {
+            longRttNanos += (shortRttNanos - longRttNanos) / LONG_WINDOWS;
+        }
+        if (longRttNanos > 2 * shortRttNanos) {
+            // Latency recovered from a slow period that inflated the average; let the average catch up faster.
+            longRttNanos = Math.max(shortRttNanos, longRttNanos * 0.95);
+        }
+        if (maxInflight < estimatedLimit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / shortRttNanos));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        setEstimatedLimit(estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING);
+    }
+
+    private void setEstimatedLimit(double newLimit) {
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+}
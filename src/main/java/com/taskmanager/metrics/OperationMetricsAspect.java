@@ -0,0 +1,154 @@
+package com.taskmanager.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records a Micrometer timer with a percentile histogram for every public service method and every repository call,
+ * tagged with the layer, component, operation and outcome. Service operations also record how many SQL statements
+ * they ran, from the {@link SqlStatementCounter}.
+ * <p>
+ * Meters are created once per method and cached, so the per-call work is a map lookup, two clock reads and the
+ * meter updates ({@code OperationMetricsAspectBenchmark} in {@code benchmarks/} measures it). The aspect is ordered
+ * before the transaction advice, so commit time and flushed statements are included.
+ */
+@Aspect
+@Component
+@Order(0)
+@RequiredArgsConstructor
+public class OperationMetricsAspect {
+
+    /**
+     * Name of the operation latency timer.
+     */
+    public static final String TIMER_NAME = "taskmanager.operation";
+
+    /**
+     * Name of the distribution of SQL statements per service operation.
+     */
+    public static final String SQL_STATEMENTS_NAME = "taskmanager.operation.sql.statements";
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<Method, OperationMeters> serviceMeters = new ConcurrentHashMap<>();
+
+    /**
+     * Repository meters per repository proxy class, since inherited methods such as {@code findById}
+     * are declared by the same Spring Data interface for every repository.
+     */
+    private final ClassValue<ConcurrentMap<Method, OperationMeters>> repositoryMeters = new ClassValue<>() {
+        @Override
+        protected ConcurrentMap<Method, OperationMeters> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    /**
+     * Times public methods of {@code @Service} beans.
+     * Uses {@code within(@Service *)} rather than {@code @within(Service)}, which Spring AOP would re-evaluate on every call.
+     *
+     * @param joinPoint the intercepted service call
+     * @return the result of the service call
+     * @throws Throwable whatever the service call throws
+     */
+    @Around("execution(public * *(..)) && within(@org.springframework.stereotype.Service *)")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        OperationMeters meters = serviceMeters.get(method);
+        if (meters == null) {
+            meters = serviceMeters.computeIfAbsent(method,
+                    m -> createMeters("service", m.getDeclaringClass().getSimpleName(), m.getName(), true));
+        }
+        return record(joinPoint, meters);
+    }
+
+    /**
+     * Times calls to Spring Data repositories, tagged with the repository interface rather than the
+     * Spring Data interface that declares the method.
+     *
+     * @param joinPoint the intercepted repository call
+     * @return the result of the repository call
+     * @throws Throwable whatever the repository call throws
+     */
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Class<?> proxyType = joinPoint.getThis().getClass();
+        ConcurrentMap<Method, OperationMeters> meters = repositoryMeters.get(proxyType);
+        OperationMeters operationMeters = meters.get(method);
+        if (operationMeters == null) {
+            operationMeters = meters.computeIfAbsent(method,
+                    m -> createMeters("repository", repositoryName(proxyType), m.getName(), false));
+        }
+        return record(joinPoint, operationMeters);
+    }
+
+    private static Object record(ProceedingJoinPoint joinPoint, OperationMeters meters) throws Throwable {
+        long statementsBefore = SqlStatementCounter.current();
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            Object result = joinPoint.proceed();
+            success = true;
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            (success ? meters.success() : meters.error()).record(elapsed, TimeUnit.NANOSECONDS);
+            if (meters.sqlStatements() != null) {
+                meters.sqlStatements().record(SqlStatementCounter.current() - statementsBefore);
+            }
+        }
+    }
+
+    private OperationMeters createMeters(String layer, String component, String operation, boolean countStatements) {
+        DistributionSummary sqlStatements = countStatements
+                ? DistributionSummary.builder(SQL_STATEMENTS_NAME)
+                .description("SQL statements and JDBC batches executed per service operation")
+                .tags("component", component, "operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                : null;
+        return new OperationMeters(timer(layer, component, operation, "success"),
+                timer(layer, component, operation, "error"), sqlStatements);
+    }
+
+    private Timer timer(String layer, String component, String operation, String outcome) {
+        return Timer.builder(TIMER_NAME)
+                .description("Latency of service operations and repository calls")
+                .tags("layer", layer, "component", component, "operation", operation, "outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static String repositoryName(Class<?> proxyType) {
+        for (Class<?> candidate : proxyType.getInterfaces()) {
+            if (Repository.class.isAssignableFrom(candidate)) {
+                return candidate.getSimpleName();
+            }
+        }
+        return proxyType.getSimpleName();
+    }
+
+    /**
+     * The cached meters of one operation.
+     *
+     * @param success       timer for calls that returned normally
+     * @param error         timer for calls that threw
+     * @param sqlStatements statements per call, or {@code null} when not recorded for the layer
+     */
+    private record OperationMeters(Timer success, Timer error, DistributionSummary sqlStatements) {
+    }
+}
@@ -0,0 +1,30 @@
+package com.taskmanager.metrics;
+
+/**
+ * Per-thread count of the SQL statements Hibernate has sent to the database.
+ * The count only ever grows; callers measure a unit of work by taking {@link #current()} before and after it,
+ * which keeps the counting free of any reset or cleanup when a request ends.
+ */
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    private SqlStatementCounter() {
+    }
+
+    /**
+     * Returns the number of SQL statements executed on the current thread so far.
+     *
+     * @return the running statement count of the current thread
+     */
+    public static long current() {
+        return COUNT.get()[0];
+    }
+
+    /**
+     * Records one executed statement, or one executed JDBC batch, on the current thread.
+     */
+    static void increment() {
+        COUNT.get()[0]++;
+    }
+}
@@ -0,0 +1,27 @@
+package com.taskmanager.metrics;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Hibernate session event listener feeding the {@link SqlStatementCounter}.
+ * Registered for every session through {@code hibernate.session.events.auto}, it counts database round trips:
+ * each executed statement and each executed JDBC batch counts once.
+ */
+public class SqlStatementCountingListener implements SessionEventListener {
+
+    /**
+     * Counts a statement execution, including queries and single inserts, updates and deletes.
+     */
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        SqlStatementCounter.increment();
+    }
+
+    /**
+     * Counts a JDBC batch execution as a single round trip.
+     */
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        SqlStatementCounter.increment();
+    }
+}
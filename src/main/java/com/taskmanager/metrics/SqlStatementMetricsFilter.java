@@ -0,0 +1,57 @@
+package com.taskmanager.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Records how many SQL statements each HTTP request ran, tagged with the method and the matched URI pattern
+ * like Spring Boot's {@code http.server.requests} metric.
+ * Statements run by asynchronous work that continues after the request thread is released, such as a streamed
+ * snapshot export, are not attributed to the request.
+ */
+@Component
+@RequiredArgsConstructor
+public class SqlStatementMetricsFilter extends OncePerRequestFilter {
+
+    /**
+     * Name of the distribution of SQL statements per HTTP request.
+     */
+    public static final String METRIC_NAME = "http.server.requests.sql.statements";
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, ConcurrentMap<String, DistributionSummary>> summaries = new ConcurrentHashMap<>();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long statementsBefore = SqlStatementCounter.current();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            summary(request.getMethod(), pattern != null ? pattern.toString() : "UNKNOWN")
+                    .record(SqlStatementCounter.current() - statementsBefore);
+        }
+    }
+
+    private DistributionSummary summary(String method, String uri) {
+        return summaries.computeIfAbsent(uri, u -> new ConcurrentHashMap<>())
+                .computeIfAbsent(method, m -> DistributionSummary.builder(METRIC_NAME)
+                        .description("SQL statements and JDBC batches executed per HTTP request")
+                        .tags("method", m, "uri", uri)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry));
+    }
+}
@@ -0,0 +1,73 @@
+package com.taskmanager.model.request;
+
+import com.taskmanager.exception.InvalidRequestException;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Represents a request to move many tasks from one task list to another in one operation.
+ * The tasks are selected either by id ({@code taskIds}) or by a case-insensitive name filter ({@code nameContains}),
+ * never both.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkMoveRequest {
+
+    /**
+     * The ID of the task list the tasks are moved to.
+     */
+    private Long toListId;
+
+    /**
+     * The IDs of the tasks to move. Tasks that do not exist or are not in the source list are rejected.
+     */
+    private List<Long> taskIds;
+
+    /**
+     * Moves every task of the source list whose name contains this text, ignoring case.
+     */
+    private String nameContains;
+
+    /**
+     * Maximum number of tasks moved by a single request, whether selected by id or by filter.
+     */
+    public static final int MAX_TASKS = 1000;
+
+    private static final int NAME_FILTER_MAX_LENGTH = 128;
+
+    /**
+     * Validates the {@link BulkMoveRequest} fields.
+     * Throws {@link InvalidRequestException} if the target list is missing, if not exactly one selection is given,
+     * or if the selection is empty, blank, or too large.
+     */
+    public void validate() {
+        if (toListId == null) {
+            throw new InvalidRequestException("Target list id is required");
+        }
+        if ((taskIds == null) == (nameContains == null)) {
+            throw new InvalidRequestException("Exactly one of taskIds or nameContains is required");
+        }
+        if (taskIds != null) {
+            if (taskIds.isEmpty()) {
+                throw new InvalidRequestException("At least one task id is required");
+            }
+            if (taskIds.size() > MAX_TASKS) {
+                throw new InvalidRequestException("A bulk move must contain at most " + MAX_TASKS + " tasks");
+            }
+            if (taskIds.stream().anyMatch(Objects::isNull)) {
+                throw new InvalidRequestException("Task ids must not be null");
+            }
+        } else {
+            if (nameContains.isBlank()) {
+                throw new InvalidRequestException("Name filter must not be blank");
+            }
+            if (nameContains.length() > NAME_FILTER_MAX_LENGTH) {
+                throw new InvalidRequestException("Name filter must be at most " + NAME_FILTER_MAX_LENGTH + " characters");
+            }
+        }
+    }
+}
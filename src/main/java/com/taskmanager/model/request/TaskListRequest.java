@@ -1,5 +1,6 @@
 package com.taskmanager.model.request;
 
+import com.taskmanager.exception.InvalidRequestException;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -28,16 +29,16 @@ public class TaskListRequest {
      * Validates the task list request.
      * Checks that the {@code name} field is not null, not blank,
      * and does not exceed {@link #NAME_MAX_LENGTH} characters.
-     * If any of these conditions fail, an {@link IllegalArgumentException} is thrown.
+     * If any of these conditions fail, an {@link InvalidRequestException} is thrown.
      *
-     * @throws IllegalArgumentException if the name is missing or too long
+     * @throws InvalidRequestException if the name is missing or too long
      */
     public void validate() {
         if (name == null || name.isBlank()) {
-            throw new IllegalArgumentException("List name is required");
+            throw new InvalidRequestException("List name is required");
         }
         if (name.length() > NAME_MAX_LENGTH) {
-            throw new IllegalArgumentException("List name must be at most " + NAME_MAX_LENGTH + " characters");
+            throw new InvalidRequestException("List name must be at most " + NAME_MAX_LENGTH + " characters");
         }
     }
 }
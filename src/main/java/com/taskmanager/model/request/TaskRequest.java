@@ -1,8 +1,10 @@
 package com.taskmanager.model.request;
 
+import com.taskmanager.exception.InvalidRequestException;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import java.util.List;
 
 /**
  * Represents a request to create or update a {@link com.taskmanager.entity.Task}.
@@ -28,23 +30,56 @@ public class TaskRequest {
     private static final int NAME_MAX_LENGTH = 128;
     private static final int DESCRIPTION_MAX_LENGTH = 128;
 
+    /**
+     * Maximum number of tasks accepted in a single batch request.
+     */
+    public static final int BATCH_MAX_SIZE = 1000;
+
     /**
      * Validates the {@link TaskRequest} fields.
-     * Throws {@link IllegalArgumentException} if the name or description
+     * Throws {@link InvalidRequestException} if the name or description
      * is missing, blank, or exceeds the maximum allowed length.
      */
     public void validate() {
         if (name == null || name.isBlank()) {
-            throw new IllegalArgumentException("Task name is required");
+            throw new InvalidRequestException("Task name is required");
         }
         if (name.length() > NAME_MAX_LENGTH) {
-            throw new IllegalArgumentException("Task name must be at most " + NAME_MAX_LENGTH + " characters");
+            throw new InvalidRequestException("Task name must be at most " + NAME_MAX_LENGTH + " characters");
         }
         if (description == null || description.isBlank()) {
-            throw new IllegalArgumentException("Task description is required");
+            throw new InvalidRequestException("Task description is required");
         }
         if (description.length() > DESCRIPTION_MAX_LENGTH) {
-            throw new IllegalArgumentException("Task description must be at most " + DESCRIPTION_MAX_LENGTH + " characters");
+            throw new InvalidRequestException("Task description must be at most " + DESCRIPTION_MAX_LENGTH + " characters");
+        }
+    }
+
+    /**
+     * Validates a batch of {@link TaskRequest}s.
+     * The batch must contain between 1 and {@link #BATCH_MAX_SIZE} requests and every request must be valid.
+     * The error message of an invalid request is prefixed with its index in the batch.
+     *
+     * @param requests the batch of task requests
+     * @throws InvalidRequestException if the batch is empty, too large, or contains an invalid request
+     */
+    public static void validateBatch(List<TaskRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new InvalidRequestException("At least one task is required");
+        }
+        if (requests.size() > BATCH_MAX_SIZE) {
+            throw new InvalidRequestException("A batch must contain at most " + BATCH_MAX_SIZE + " tasks");
+        }
+        for (int i = 0; i < requests.size(); i++) {
+            TaskRequest request = requests.get(i);
+            if (request == null) {
+                throw new InvalidRequestException("Task at index " + i + ": Task is required");
+            }
+            try {
+                request.validate();
+            } catch (InvalidRequestException exception) {
+                throw new InvalidRequestException("Task at index " + i + ": " + exception.getMessage());
+            }
         }
     }
 }
@@ -0,0 +1,28 @@
+package com.taskmanager.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+/**
+ * Represents the outcome of a bulk move of tasks between two task lists.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkMoveResponse {
+
+    /**
+     * The IDs of the tasks that were moved, in ascending order.
+     */
+    private List<Long> moved;
+
+    /**
+     * The requested task IDs that were not moved because they do not exist or are not in the source list,
+     * in request order. Always empty for moves selected by name filter.
+     */
+    private List<Long> rejected;
+}
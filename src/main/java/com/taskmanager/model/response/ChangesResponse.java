@@ -0,0 +1,43 @@
+package com.taskmanager.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+/**
+ * Represents one page of the changes to task lists and tasks since a sync token.
+ * Every changed list or task appears once, in its current state.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangesResponse {
+
+    /**
+     * Task lists created or changed.
+     */
+    private List<ListChange> lists;
+
+    /**
+     * Tasks created, updated or moved.
+     */
+    private List<TaskChange> tasks;
+
+    /**
+     * Task lists and tasks deleted.
+     */
+    private List<Deletion> deletions;
+
+    /**
+     * Opaque token to pass as {@code since} with the next sync, covering this page.
+     */
+    private String nextToken;
+
+    /**
+     * Whether more changes are available right away; if so, the next page should be fetched with {@link #nextToken}.
+     */
+    private boolean hasMore;
+}
@@ -0,0 +1,42 @@
+package com.taskmanager.model.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.taskmanager.entity.Tombstone;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Represents a task list or task deleted since a sync token.
+ * A deleted list implies the deletion of all tasks the client holds for it.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Deletion {
+
+    /**
+     * Kind of the deleted entity, {@code LIST} or {@code TASK}.
+     */
+    private Tombstone.Kind kind;
+
+    /**
+     * Identifier of the deleted task list or task.
+     */
+    private Long id;
+
+    /**
+     * Identifier of the list a deleted task belonged to; absent for deleted lists.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long listId;
+
+    /**
+     * Change revision of the deletion; only used to page the changes.
+     */
+    @JsonIgnore
+    private long changeRevision;
+}
@@ -0,0 +1,39 @@
+package com.taskmanager.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Represents the body of every error response.
+ * A fixed set of fields, so an error costs one small object instead of a hash map with boxed values;
+ * {@code status} and {@code error} are the constant code and reason phrase of the response status.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ErrorResponse {
+
+    /**
+     * HTTP status code of the response.
+     */
+    private int status;
+
+    /**
+     * Reason phrase of the status, e.g. {@code Not Found}.
+     */
+    private String error;
+
+    /**
+     * Description of what went wrong.
+     */
+    private String message;
+
+    /**
+     * Time the error occurred.
+     */
+    private LocalDateTime timestamp;
+}
@@ -0,0 +1,60 @@
+package com.taskmanager.model.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Represents the state of a task submitted for write-behind ingestion, identified by its tracking id.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngestionResponse {
+
+    /**
+     * The state of an ingested task.
+     */
+    public enum State {
+
+        /**
+         * Accepted and waiting in the buffer to be written.
+         */
+        PENDING,
+
+        /**
+         * Written and committed; {@link #taskId} holds the id of the new task.
+         */
+        WRITTEN,
+
+        /**
+         * Not written; {@link #message} tells why.
+         */
+        FAILED
+    }
+
+    /**
+     * Tracking id returned when the task was accepted.
+     */
+    private String trackingId;
+
+    /**
+     * Current state of the task.
+     */
+    private State state;
+
+    /**
+     * Id of the created task, once it is written.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long taskId;
+
+    /**
+     * Reason the task was not written, if it failed.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String message;
+}
@@ -0,0 +1,38 @@
+package com.taskmanager.model.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Represents the current state of a task list that was created or whose content changed since a sync token.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListChange {
+
+    /**
+     * Unique identifier of the task list.
+     */
+    private Long id;
+
+    /**
+     * Name of the task list.
+     */
+    private String name;
+
+    /**
+     * Content revision of the task list, see {@link TaskListResponse#getVersion()}.
+     */
+    private long version;
+
+    /**
+     * Change revision of the last change of the list; only used to page the changes.
+     */
+    @JsonIgnore
+    private long changeRevision;
+}
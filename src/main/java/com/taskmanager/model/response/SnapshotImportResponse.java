@@ -0,0 +1,26 @@
+package com.taskmanager.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Represents the outcome of importing a task store snapshot.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SnapshotImportResponse {
+
+    /**
+     * Number of task lists created by the import.
+     */
+    private long importedLists;
+
+    /**
+     * Number of tasks created by the import.
+     */
+    private long importedTasks;
+}
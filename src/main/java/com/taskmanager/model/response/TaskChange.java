@@ -0,0 +1,53 @@
+package com.taskmanager.model.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Represents the current state of a task that was created, updated or moved since a sync token.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskChange {
+
+    /**
+     * Unique identifier of the task.
+     */
+    private Long id;
+
+    /**
+     * Identifier of the task list the task belongs to.
+     */
+    private Long listId;
+
+    /**
+     * Name of the task.
+     */
+    private String name;
+
+    /**
+     * Description of the task.
+     */
+    private String description;
+
+    /**
+     * Version of the task, see {@link TaskResponse#getVersion()}.
+     */
+    private long version;
+
+    /**
+     * Rank of the task within its list; the tasks of a list are ordered by rank and then id.
+     */
+    private long rank;
+
+    /**
+     * Change revision of the last change of the task; only used to page the changes.
+     */
+    @JsonIgnore
+    private long changeRevision;
+}
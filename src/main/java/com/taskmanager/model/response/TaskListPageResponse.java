@@ -0,0 +1,28 @@
+package com.taskmanager.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+/**
+ * Represents one keyset-paginated page of {@link TaskListResponse} objects.
+ * The {@code nextCursor} is opaque and is {@code null} when there are no further pages.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskListPageResponse {
+
+    /**
+     * The task lists on this page, ordered by id.
+     */
+    private List<TaskListResponse> lists;
+
+    /**
+     * Cursor to pass as {@code after} to fetch the next page, or {@code null} on the last page.
+     */
+    private String nextCursor;
+}
@@ -1,15 +1,19 @@
 package com.taskmanager.model.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.taskmanager.entity.Task;
 import com.taskmanager.entity.TaskList;
+import com.taskmanager.entity.TaskListRow;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Represents a response DTO for {@link TaskList} entities.
- * Contains the task list's ID, name, and its associated {@link TaskResponse} objects.
+ * Contains the task list's ID, name, version, and its associated {@link TaskResponse} objects.
  */
 @Data
 @Builder
@@ -27,26 +31,63 @@ public class TaskListResponse {
      */
     private String name;
 
+    /**
+     * Content revision of the task list, to be sent back quoted in an {@code If-Match} header to delete the list
+     * only if none of its tasks changed since.
+     */
+    private long version;
+
     /**
      * The tasks that belong to this task list.
      */
     private List<TaskResponse> tasks;
 
+    /**
+     * Cursor for the remaining tasks of this list when {@link #tasks} was capped,
+     * to be passed as {@code after} to the list's task page endpoint.
+     * Omitted from the JSON output when all tasks are included.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextTaskCursor;
+
     /**
      * Converts a {@link TaskList} entity to a {@link TaskListResponse} DTO.
      * Maps each {@link com.taskmanager.entity.Task} in the task list to a {@link TaskResponse}.
      *
-     * @param list the {@link TaskList} entity to convert
+     * @param list     the {@link TaskList} entity to convert
+     * @param revision the content revision of the list, which the entity does not hold, see
+     *                 {@link com.taskmanager.entity.TaskListState}
      * @return a {@link TaskListResponse} DTO representing the task list and its tasks
      */
-    public static TaskListResponse from(TaskList list) {
-        List<TaskResponse> tasks = list.getTasks().stream()
-                .map(TaskResponse::from)
-                .toList();
-        return TaskListResponse.builder()
-                .id(list.getId())
-                .name(list.getName())
-                .tasks(tasks)
-                .build();
+    public static TaskListResponse from(TaskList list, long revision) {
+        return new TaskListResponse(list.getId(), list.getName(), revision, toResponses(list.getTasks()), null);
+    }
+
+    /**
+     * Converts a projected {@link TaskListRow} and its already converted tasks to a {@link TaskListResponse} DTO.
+     * Used by the read endpoints, which assemble responses from flat rows instead of entities.
+     *
+     * @param row            the {@link TaskListRow} to convert
+     * @param tasks          the tasks of the list to include in the response
+     * @param nextTaskCursor cursor for the tasks that were left out, or {@code null} if none were
+     * @return a {@link TaskListResponse} DTO representing the task list and the given tasks
+     */
+    public static TaskListResponse from(TaskListRow row, List<TaskResponse> tasks, String nextTaskCursor) {
+        return new TaskListResponse(row.getId(), row.getName(), row.getRevision(), tasks, nextTaskCursor);
+    }
+
+    /**
+     * Maps tasks to {@link TaskResponse} DTOs with a plain loop into a presized list.
+     * This sits on every list read; see {@code benchmarks/} for the comparison with the stream-based version.
+     *
+     * @param tasks the tasks to convert
+     * @return the converted tasks, in the same order
+     */
+    private static List<TaskResponse> toResponses(List<Task> tasks) {
+        List<TaskResponse> responses = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            responses.add(TaskResponse.from(task));
+        }
+        return responses;
     }
-}
\ No newline at end of file
+}
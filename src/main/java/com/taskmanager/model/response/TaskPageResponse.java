@@ -0,0 +1,28 @@
+package com.taskmanager.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+/**
+ * Represents one keyset-paginated page of {@link TaskResponse} objects within a single task list.
+ * The {@code nextCursor} is opaque and is {@code null} when there are no further pages.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskPageResponse {
+
+    /**
+     * The tasks on this page, in list order.
+     */
+    private List<TaskResponse> tasks;
+
+    /**
+     * Cursor to pass as {@code after} to fetch the next page, or {@code null} on the last page.
+     */
+    private String nextCursor;
+}
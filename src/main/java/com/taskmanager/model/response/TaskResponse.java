@@ -1,6 +1,7 @@
 package com.taskmanager.model.response;
 
 import com.taskmanager.entity.Task;
+import com.taskmanager.entity.TaskRow;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -8,7 +9,7 @@ import lombok.NoArgsConstructor;
 
 /**
  * Represents a response DTO for {@link Task} entities.
- * Contains the task's ID, name, and description.
+ * Contains the task's ID, name, description, and version.
  */
 @Data
 @Builder
@@ -31,6 +32,12 @@ public class TaskResponse {
      */
     private String description;
 
+    /**
+     * Version of the task, to be sent back quoted in an {@code If-Match} header to make a write conditional
+     * on the task not having changed since.
+     */
+    private long version;
+
     /**
      * Converts a {@link Task} entity to a {@link TaskResponse} DTO.
      * This allows for safe exposure of task data in API responses.
@@ -39,10 +46,16 @@ public class TaskResponse {
      * @return a {@link TaskResponse} DTO representing the task
      */
     public static TaskResponse from(Task task) {
-        return TaskResponse.builder()
-                .id(task.getId())
-                .name(task.getName())
-                .description(task.getDescription())
-                .build();
+        return new TaskResponse(task.getId(), task.getName(), task.getDescription(), task.getVersion());
+    }
+
+    /**
+     * Converts a projected {@link TaskRow} to a {@link TaskResponse} DTO.
+     *
+     * @param row the {@link TaskRow} to convert
+     * @return a {@link TaskResponse} DTO representing the task
+     */
+    public static TaskResponse from(TaskRow row) {
+        return new TaskResponse(row.getId(), row.getName(), row.getDescription(), row.getVersion());
     }
 }
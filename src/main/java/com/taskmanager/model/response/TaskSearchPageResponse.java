@@ -0,0 +1,28 @@
+package com.taskmanager.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+/**
+ * Represents one page of full-text search results.
+ * The {@code nextCursor} is opaque and is {@code null} when there are no further pages.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskSearchPageResponse {
+
+    /**
+     * The matching tasks on this page, most relevant first, ties ordered by id.
+     */
+    private List<TaskSearchResult> results;
+
+    /**
+     * Cursor to pass as {@code after} to fetch the next page, or {@code null} on the last page.
+     */
+    private String nextCursor;
+}
@@ -0,0 +1,41 @@
+package com.taskmanager.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Represents one task matching a full-text search, with the id of its list and its relevance.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskSearchResult {
+
+    /**
+     * Unique identifier of the task.
+     */
+    private Long id;
+
+    /**
+     * Identifier of the task list the task belongs to.
+     */
+    private Long listId;
+
+    /**
+     * Name of the task.
+     */
+    private String name;
+
+    /**
+     * Description of the task.
+     */
+    private String description;
+
+    /**
+     * Relevance of the task for the query; higher is more relevant. Only comparable within one search.
+     */
+    private double score;
+}
@@ -0,0 +1,18 @@
+package com.taskmanager.model.snapshot;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+/**
+ * A single line of a task store snapshot.
+ * Snapshots are newline-delimited JSON (NDJSON) where every line is one record,
+ * discriminated by its {@code type} property: all {@code list} records come first,
+ * followed by the {@code task} records that reference them.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = TaskListSnapshot.class, name = "list"),
+        @JsonSubTypes.Type(value = TaskSnapshot.class, name = "task")
+})
+public interface SnapshotRecord {
+}
@@ -0,0 +1,25 @@
+package com.taskmanager.model.snapshot;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Snapshot record of a {@link com.taskmanager.entity.TaskList}.
+ * The id is the list's id in the exporting store and is only used to link task records to their list.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskListSnapshot implements SnapshotRecord {
+
+    /**
+     * Identifier of the task list in the exporting store.
+     */
+    private Long id;
+
+    /**
+     * Name of the task list.
+     */
+    private String name;
+}
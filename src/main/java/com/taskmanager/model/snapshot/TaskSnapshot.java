@@ -0,0 +1,35 @@
+package com.taskmanager.model.snapshot;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Snapshot record of a {@link com.taskmanager.entity.Task}.
+ * The ids are those of the exporting store; {@code listId} refers to a preceding {@link TaskListSnapshot}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskSnapshot implements SnapshotRecord {
+
+    /**
+     * Identifier of the task in the exporting store.
+     */
+    private Long id;
+
+    /**
+     * Identifier of the task list the task belongs to, in the exporting store.
+     */
+    private Long listId;
+
+    /**
+     * Name of the task.
+     */
+    private String name;
+
+    /**
+     * Description of the task.
+     */
+    private String description;
+}
@@ -0,0 +1,59 @@
+package com.taskmanager.rest;
+
+import com.taskmanager.model.response.SnapshotImportResponse;
+import com.taskmanager.service.SnapshotService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * REST controller for backing up and restoring the whole task store.
+ * Snapshots are gzip-compressed NDJSON and are streamed in both directions.
+ */
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/api/v1/task-manager")
+public class SnapshotController {
+
+    private static final MediaType APPLICATION_GZIP = MediaType.parseMediaType("application/gzip");
+    private static final String SNAPSHOT_FILE_NAME = "task-manager-snapshot.ndjson.gz";
+
+    private final SnapshotService snapshotService;
+
+    /**
+     * Exports all task lists and tasks as a gzip-compressed NDJSON snapshot.
+     * The body is written while the store is read, so the response starts before the export is complete.
+     *
+     * @return a streaming {@link ResponseEntity} with the snapshot file
+     */
+    @GetMapping("/snapshot")
+    public ResponseEntity<StreamingResponseBody> exportSnapshot() {
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_GZIP)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(SNAPSHOT_FILE_NAME).build().toString())
+                .body(snapshotService::exportSnapshot);
+    }
+
+    /**
+     * Imports a gzip-compressed NDJSON snapshot as produced by {@link #exportSnapshot()}.
+     * Imported lists and tasks are added to the store with new ids.
+     *
+     * @param snapshot the raw request body containing the snapshot file
+     * @return the {@link SnapshotImportResponse} with the number of imported lists and tasks
+     * @throws IOException if reading the request body fails
+     */
+    @PostMapping("/snapshot")
+    public ResponseEntity<SnapshotImportResponse> importSnapshot(InputStream snapshot) throws IOException {
+        return ResponseEntity.ok(snapshotService.importSnapshot(snapshot));
+    }
+}
@@ -0,0 +1,54 @@
+package com.taskmanager.rest;
+
+import com.taskmanager.ingest.TaskIngestionService;
+import com.taskmanager.model.request.TaskRequest;
+import com.taskmanager.model.response.IngestionResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.net.URI;
+
+/**
+ * REST controller for write-behind task ingestion, available when {@code taskmanager.ingest.enabled=true}.
+ * Accepted tasks are answered with {@code 202 Accepted} before they are written; their tracking id tells
+ * whether and as which task they were written.
+ */
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/api/v1/task-manager")
+@ConditionalOnProperty(name = "taskmanager.ingest.enabled", havingValue = "true")
+public class TaskIngestionController {
+
+    private final TaskIngestionService taskIngestionService;
+
+    /**
+     * Accepts a new task for an existing task list, to be written in the background.
+     * The task is validated right away; the list is only checked when the task is written.
+     * When the ingestion buffer is full, the task is rejected with {@code 429 Too Many Requests}.
+     *
+     * @param listId  the ID of the task list
+     * @param newTask the {@link TaskRequest} containing task details
+     * @return the pending {@link IngestionResponse}, with the location of its state
+     */
+    @PostMapping("/lists/{listId}/tasks:ingest")
+    public ResponseEntity<IngestionResponse> ingestTask(@PathVariable("listId") Long listId,
+                                                        @RequestBody TaskRequest newTask) {
+        newTask.validate();
+        IngestionResponse accepted = taskIngestionService.submit(listId, newTask);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/task-manager/ingestions/" + accepted.getTrackingId()))
+                .body(accepted);
+    }
+
+    /**
+     * Retrieves the state of an ingested task.
+     *
+     * @param trackingId the tracking id returned when the task was accepted
+     * @return the current {@link IngestionResponse}
+     */
+    @GetMapping("/ingestions/{trackingId}")
+    public ResponseEntity<IngestionResponse> getIngestion(@PathVariable("trackingId") String trackingId) {
+        return ResponseEntity.ok(taskIngestionService.getState(trackingId));
+    }
+}
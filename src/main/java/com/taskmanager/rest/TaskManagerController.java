@@ -1,13 +1,25 @@
 package com.taskmanager.rest;
 
+import com.taskmanager.feed.TaskEventFeed;
+import com.taskmanager.model.request.BulkMoveRequest;
 import com.taskmanager.model.request.TaskListRequest;
 import com.taskmanager.model.request.TaskRequest;
+import com.taskmanager.model.response.BulkMoveResponse;
+import com.taskmanager.model.response.ChangesResponse;
+import com.taskmanager.model.response.TaskListPageResponse;
 import com.taskmanager.model.response.TaskListResponse;
+import com.taskmanager.model.response.TaskPageResponse;
 import com.taskmanager.model.response.TaskResponse;
+import com.taskmanager.model.response.TaskSearchPageResponse;
 import com.taskmanager.service.TaskManagerService;
+import com.taskmanager.service.VersionETag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import java.util.List;
 
 /**
@@ -21,14 +33,109 @@ public class TaskManagerController {
 
     private final TaskManagerService taskManagerService;
 
+    private final TaskEventFeed taskEventFeed;
+
     /**
-     * Retrieves all task lists with their tasks.
+     * Retrieves one page of task lists with their first tasks.
+     * Pages are keyset-paginated by list id; pass the returned {@code nextCursor} as {@code after}
+     * to fetch the next page.
+     *
+     * The response carries a weak ETag; a request whose {@code If-None-Match} matches it is answered
+     * with {@code 304 Not Modified} without loading the page. The response varies by {@code Accept}, since it may be
+     * JSON, CBOR or Smile.
      *
-     * @return a list of {@link TaskListResponse} representing all task lists
+     * @param after      opaque cursor of the previous page, omitted for the first page
+     * @param limit      maximum number of lists on the page
+     * @param taskLimit  maximum number of tasks included per list
+     * @param webRequest the current request, used for the {@code If-None-Match} check
+     * @return a {@link TaskListPageResponse} with the lists on the page, or {@code null} if not modified
      */
     @GetMapping("/lists")
-    public ResponseEntity<List<TaskListResponse>> getLists() {
-        return ResponseEntity.ok(taskManagerService.getAllLists());
+    public ResponseEntity<TaskListPageResponse> getLists(@RequestParam(name = "after", required = false) String after,
+                                                         @RequestParam(name = "limit", defaultValue = "50") int limit,
+                                                         @RequestParam(name = "taskLimit", defaultValue = "100") int taskLimit,
+                                                         WebRequest webRequest) {
+        String eTag = taskManagerService.getListsETag(after, limit, taskLimit);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT)
+                .body(taskManagerService.getLists(after, limit, taskLimit));
+    }
+
+    /**
+     * Retrieves one page of the tasks of a task list.
+     * Tasks come in list order, by rank and then id, and pages are keyset-paginated on that order; pass the returned
+     * {@code nextCursor}, or a list's {@code nextTaskCursor}, as {@code after} to fetch the next page. Task ids do
+     * not follow that order once tasks are positioned or moved.
+     *
+     * The response carries a weak ETag; a request whose {@code If-None-Match} matches it is answered
+     * with {@code 304 Not Modified} without loading the page. The response varies by {@code Accept}, since it may be
+     * JSON, CBOR or Smile.
+     *
+     * @param listId     the ID of the task list
+     * @param after      opaque cursor of the previous page, omitted for the first page
+     * @param limit      maximum number of tasks on the page
+     * @param webRequest the current request, used for the {@code If-None-Match} check
+     * @return a {@link TaskPageResponse} with the tasks on the page, or {@code null} if not modified
+     */
+    @GetMapping("/lists/{listId}/tasks")
+    public ResponseEntity<TaskPageResponse> getTasks(@PathVariable("listId") Long listId,
+                                                     @RequestParam(name = "after", required = false) String after,
+                                                     @RequestParam(name = "limit", defaultValue = "100") int limit,
+                                                     WebRequest webRequest) {
+        String eTag = taskManagerService.getTasksETag(listId, after, limit);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT)
+                .body(taskManagerService.getTasks(listId, after, limit));
+    }
+
+    /**
+     * Searches the names and descriptions of all tasks.
+     * A task matches if it contains every word of the query; results are ranked by relevance, most relevant first.
+     *
+     * @param query the words to search for
+     * @param after opaque cursor of the previous page, omitted for the first page
+     * @param limit maximum number of results on the page
+     * @return a {@link TaskSearchPageResponse} with the matching tasks on the page
+     */
+    @GetMapping("/tasks/search")
+    public ResponseEntity<TaskSearchPageResponse> searchTasks(@RequestParam(name = "q", required = false) String query,
+                                                              @RequestParam(name = "after", required = false) String after,
+                                                              @RequestParam(name = "limit", defaultValue = "20") int limit) {
+        return ResponseEntity.ok(taskManagerService.searchTasks(query, after, limit));
+    }
+
+    /**
+     * Returns what changed since a sync token: the lists and tasks created or changed since then, in their current
+     * state, and the lists and tasks deleted since then. Without a token, all lists and tasks are returned.
+     * The response carries the token to pass with the next sync; while {@code hasMore} is set, further pages are
+     * available right away.
+     *
+     * @param since the token of the previous sync, omitted for a full sync
+     * @param limit maximum number of changes on the page
+     * @return a {@link ChangesResponse} with one page of changes
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ChangesResponse> getChanges(@RequestParam(name = "since", required = false) String since,
+                                                      @RequestParam(name = "limit", defaultValue = "500") int limit) {
+        return ResponseEntity.ok(taskManagerService.getChanges(since, limit));
+    }
+
+    /**
+     * Streams committed changes of lists and tasks as Server-Sent Events: {@code list-created}, {@code list-deleted},
+     * {@code tasks-created}, {@code task-updated}, {@code tasks-moved} and {@code task-deleted}, with the change as
+     * JSON data. A client reconnecting with {@code Last-Event-ID} first receives the events it missed; if they are no
+     * longer available it receives a {@code reset} event and should reload the lists.
+     *
+     * @param lastEventId the id of the last event the client received, omitted for a new subscription
+     * @return the emitter streaming the events
+     */
+    @GetMapping(path = "/lists/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+        return taskEventFeed.subscribe(lastEventId);
     }
 
     /**
@@ -57,58 +164,133 @@ public class TaskManagerController {
         return ResponseEntity.ok(taskManagerService.addTaskToList(listId, newTask));
     }
 
+    /**
+     * Adds a batch of new tasks to an existing task list.
+     * All tasks are validated before any is inserted, and they are inserted in one transaction.
+     *
+     * @param listId   the ID of the task list
+     * @param newTasks the {@link TaskRequest}s containing the task details
+     * @return the created {@link TaskResponse}s, in request order
+     */
+    @PostMapping("/lists/{listId}/tasks:batch")
+    public ResponseEntity<List<TaskResponse>> addTasksToList(@PathVariable("listId") Long listId,
+                                                             @RequestBody List<TaskRequest> newTasks) {
+        TaskRequest.validateBatch(newTasks);
+        return ResponseEntity.ok(taskManagerService.addTasksToList(listId, newTasks));
+    }
+
     /**
      * Updates an existing task.
+     * With an {@code If-Match} header holding the task's version, the update only happens if the task has not
+     * changed since; otherwise it is rejected with {@code 409 Conflict}. The response carries the new version
+     * as its ETag.
      *
      * @param taskId      the ID of the task to update
      * @param updatedTask the {@link TaskRequest} containing updated task details
+     * @param ifMatch     the quoted version the task must have, or {@code *} or omitted to update it regardless
      * @return the updated {@link TaskResponse}
      */
     @PutMapping("/tasks/{taskId}")
     public ResponseEntity<TaskResponse> updateTask(@PathVariable("taskId") Long taskId,
-                                                   @RequestBody TaskRequest updatedTask) {
+                                                   @RequestBody TaskRequest updatedTask,
+                                                   @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         updatedTask.validate();
-        return ResponseEntity.ok(taskManagerService.updateTask(taskId, updatedTask));
+        TaskResponse updated = taskManagerService.updateTask(taskId, updatedTask, VersionETag.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(VersionETag.of(updated.getVersion())).body(updated);
     }
 
     /**
      * Deletes a task from a task list.
+     * With an {@code If-Match} header holding the task's version, the task is only deleted if it has not
+     * changed since; otherwise the request is rejected with {@code 409 Conflict}.
      *
-     * @param listId the ID of the task list
-     * @param taskId the ID of the task to delete
+     * @param listId  the ID of the task list
+     * @param taskId  the ID of the task to delete
+     * @param ifMatch the quoted version the task must have, or {@code *} or omitted to delete it regardless
      * @return an empty {@link ResponseEntity} with HTTP status 204 (No Content)
      */
     @DeleteMapping("/lists/{listId}/tasks/{taskId}")
     public ResponseEntity<Void> deleteTask(@PathVariable("listId") Long listId,
-                                           @PathVariable("taskId") Long taskId) {
-        taskManagerService.deleteTask(listId, taskId);
+                                           @PathVariable("taskId") Long taskId,
+                                           @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        taskManagerService.deleteTask(listId, taskId, VersionETag.parseIfMatch(ifMatch));
         return ResponseEntity.noContent().build();
     }
 
     /**
      * Deletes a task list and all its tasks.
+     * With an {@code If-Match} header holding the list's revision, the list is only deleted if none of its tasks
+     * was added, changed, moved or deleted since; otherwise the request is rejected with {@code 409 Conflict}.
      *
-     * @param listId the ID of the task list to delete
+     * @param listId  the ID of the task list to delete
+     * @param ifMatch the quoted revision the list must have, or {@code *} or omitted to delete it regardless
      * @return an empty {@link ResponseEntity} with HTTP status 204 (No Content)
      */
     @DeleteMapping("/lists/{listId}")
-    public ResponseEntity<Void> deleteList(@PathVariable("listId") Long listId) {
-        taskManagerService.deleteList(listId);
+    public ResponseEntity<Void> deleteList(@PathVariable("listId") Long listId,
+                                           @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        taskManagerService.deleteList(listId, VersionETag.parseIfMatch(ifMatch));
         return ResponseEntity.noContent().build();
     }
 
     /**
-     * Moves a task from one list to another.
+     * Moves a task from one list to another, to the end of the target list or right after one of its tasks.
+     * With an {@code If-Match} header holding the task's version, the task is only moved if it has not changed
+     * since; otherwise the request is rejected with {@code 409 Conflict}. The response carries the new version
+     * as its ETag.
      *
-     * @param fromListId the ID of the source task list
-     * @param taskId     the ID of the task to move
-     * @param toListId   the ID of the target task list
+     * @param fromListId  the ID of the source task list
+     * @param taskId      the ID of the task to move
+     * @param toListId    the ID of the target task list
+     * @param afterTaskId the ID of the task of the target list to move the task after, or omitted for the end
+     * @param ifMatch     the quoted version the task must have, or {@code *} or omitted to move it regardless
      * @return the moved {@link TaskResponse}
      */
     @PutMapping("/lists/{fromListId}/tasks/{taskId}/move/{toListId}")
     public ResponseEntity<TaskResponse> moveTask(@PathVariable("fromListId") Long fromListId,
                                                  @PathVariable("taskId") Long taskId,
-                                                 @PathVariable("toListId") Long toListId) {
-        return ResponseEntity.ok(taskManagerService.moveTask(fromListId, taskId, toListId));
+                                                 @PathVariable("toListId") Long toListId,
+                                                 @RequestParam(name = "afterTaskId", required = false) Long afterTaskId,
+                                                 @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        TaskResponse moved = taskManagerService.moveTask(fromListId, taskId, toListId, afterTaskId,
+                VersionETag.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(VersionETag.of(moved.getVersion())).body(moved);
+    }
+
+    /**
+     * Moves a task to another position within its list: right after another task of the list, or to the top.
+     * Only the moved task is written. With an {@code If-Match} header holding the task's version, the task is only
+     * moved if it has not changed since; otherwise the request is rejected with {@code 409 Conflict}. The response
+     * carries the new version as its ETag.
+     *
+     * @param listId      the ID of the task list
+     * @param taskId      the ID of the task to move
+     * @param afterTaskId the ID of the task to move the task after, or omitted to move it to the top
+     * @param ifMatch     the quoted version the task must have, or {@code *} or omitted to move it regardless
+     * @return the moved {@link TaskResponse}
+     */
+    @PutMapping("/lists/{listId}/tasks/{taskId}/position")
+    public ResponseEntity<TaskResponse> positionTask(@PathVariable("listId") Long listId,
+                                                     @PathVariable("taskId") Long taskId,
+                                                     @RequestParam(name = "afterTaskId", required = false) Long afterTaskId,
+                                                     @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        TaskResponse moved = taskManagerService.positionTask(listId, taskId, afterTaskId,
+                VersionETag.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(VersionETag.of(moved.getVersion())).body(moved);
+    }
+
+    /**
+     * Moves many tasks from one list to another in one request, selected by id or by name filter.
+     * Tasks that do not exist or are not in the source list are reported as rejected instead of failing the request.
+     *
+     * @param fromListId the ID of the source task list
+     * @param request    the {@link BulkMoveRequest} with the target list and the task selection
+     * @return the {@link BulkMoveResponse} with the moved and rejected task IDs
+     */
+    @PostMapping("/lists/{fromListId}/tasks:move")
+    public ResponseEntity<BulkMoveResponse> moveTasks(@PathVariable("fromListId") Long fromListId,
+                                                      @RequestBody BulkMoveRequest request) {
+        request.validate();
+        return ResponseEntity.ok(taskManagerService.moveTasks(fromListId, request));
     }
 }
@@ -0,0 +1,18 @@
+package com.taskmanager.routing;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a read-only operation that must not read from a replica, because it relies on state that only the primary
+ * is guaranteed to have, such as every change up to the current {@code ChangeRevisions} watermark.
+ * Without a replica configured, or outside of a read-only transaction, it has no effect.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReadFromPrimary {
+}
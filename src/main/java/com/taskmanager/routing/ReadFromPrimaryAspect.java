@@ -0,0 +1,31 @@
+package com.taskmanager.routing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+/**
+ * Routes the read-only transactions of {@link ReadFromPrimary} methods to the primary.
+ * The routing is decided when a transaction first runs a statement, so the aspect works on either side of the
+ * transaction advice.
+ */
+@Aspect
+public class ReadFromPrimaryAspect {
+
+    /**
+     * Runs a {@link ReadFromPrimary} method with its reads on the primary.
+     *
+     * @param joinPoint the intercepted call
+     * @return the result of the call
+     * @throws Throwable whatever the call throws
+     */
+    @Around("@annotation(com.taskmanager.routing.ReadFromPrimary)")
+    public Object readFromPrimary(ProceedingJoinPoint joinPoint) throws Throwable {
+        boolean previous = ReadWriteRoutingDataSource.requirePrimary();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReadWriteRoutingDataSource.restorePrimaryRequired(previous);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.taskmanager.routing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import javax.sql.DataSource;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Routes each connection either to the primary or to a read replica, each with a pool of its own.
+ * Connections of {@code @Transactional(readOnly = true)} transactions go to the replica, unless the operation is
+ * marked {@link ReadFromPrimary} or the {@link StickyPrimaryPolicy} pins the requesting client to the primary after
+ * a write of its own. Everything else, including work outside of a transaction, goes to the primary.
+ * <p>
+ * The decision needs the transaction's read-only flag, which Spring only publishes after the transaction has begun
+ * and the JPA provider has already asked for a connection. The routing data source is therefore meant to sit behind
+ * a {@link LazyConnectionDataSourceProxy}, which defers fetching the real connection to the first statement.
+ * </p>
+ * The client of an HTTP request is identified by its {@value #CLIENT_ID_HEADER} header, or by its remote address
+ * without one or when the header is longer than {@value #MAX_CLIENT_ID_LENGTH} characters. Routing decisions are counted in {@value #ROUTES_NAME}, tagged with the {@code target} data source and
+ * the {@code reason}.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    /**
+     * Name of the counter of routed connections.
+     */
+    public static final String ROUTES_NAME = "taskmanager.datasource.routes";
+
+    /**
+     * Request header identifying a client across connections, for the sticky primary window.
+     */
+    public static final String CLIENT_ID_HEADER = "X-Client-Id";
+
+    /**
+     * Longest {@value #CLIENT_ID_HEADER} accepted as a client key, so callers cannot make the keys arbitrarily large.
+     */
+    public static final int MAX_CLIENT_ID_LENGTH = 64;
+
+    private static final ThreadLocal<Boolean> primaryRequired = ThreadLocal.withInitial(() -> false);
+
+    private final StickyPrimaryPolicy stickyPrimaryPolicy;
+
+    private final Map<Route, Counter> routes = new EnumMap<>(Route.class);
+
+    /**
+     * Creates the routing data source.
+     *
+     * @param primary             the data source of writes and of reads that must be fresh
+     * @param replica             the data source of other read-only transactions
+     * @param stickyPrimaryPolicy the policy pinning clients to the primary after their writes
+     * @param meterRegistry       the registry of the route counters
+     */
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, StickyPrimaryPolicy stickyPrimaryPolicy,
+                                      MeterRegistry meterRegistry) {
+        this.stickyPrimaryPolicy = stickyPrimaryPolicy;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        for (Route route : Route.values()) {
+            routes.put(route, Counter.builder(ROUTES_NAME)
+                    .description("Connections routed to the primary or the replica")
+                    .tag("target", route.target.name().toLowerCase())
+                    .tag("reason", route.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Runs an operation with its read-only transactions routed to the primary, like a {@link ReadFromPrimary} method.
+     *
+     * @param operation the operation
+     * @param <T>       the type of its result
+     * @return the result of the operation
+     */
+    public static <T> T onPrimary(Supplier<T> operation) {
+        boolean previous = requirePrimary();
+        try {
+            return operation.get();
+        } finally {
+            restorePrimaryRequired(previous);
+        }
+    }
+
+    /**
+     * Routes the read-only transactions of the current thread to the primary until
+     * {@link #restorePrimaryRequired(boolean)} is called.
+     *
+     * @return whether they were already routed to the primary, to be passed to {@link #restorePrimaryRequired(boolean)}
+     */
+    static boolean requirePrimary() {
+        boolean previous = primaryRequired.get();
+        primaryRequired.set(true);
+        return previous;
+    }
+
+    /**
+     * Restores the routing of the current thread's read-only transactions to what it was before {@link #requirePrimary()}.
+     *
+     * @param previous the value returned by {@link #requirePrimary()}
+     */
+    static void restorePrimaryRequired(boolean previous) {
+        if (previous) {
+            primaryRequired.set(true);
+        } else {
+            primaryRequired.remove();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Route route = route();
+        routes.get(route).increment();
+        return route.target;
+    }
+
+    private Route route() {
+        String client = currentClient();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (client != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        stickyPrimaryPolicy.recordWrite(client);
+                    }
+                });
+            }
+            return Route.WRITE;
+        }
+        if (primaryRequired.get()) {
+            return Route.REQUIRED;
+        }
+        if (client != null && stickyPrimaryPolicy.isPinned(client)) {
+            return Route.STICKY;
+        }
+        return Route.READ;
+    }
+
+    /**
+     * Returns the key of the client of the HTTP request handled by the current thread.
+     *
+     * @return the client's {@value #CLIENT_ID_HEADER} if present and short enough, else its remote address, or
+     *         {@code null} outside of a request
+     */
+    private static String currentClient() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return null;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        String clientId = request.getHeader(CLIENT_ID_HEADER);
+        return clientId != null && !clientId.isBlank() && clientId.length() <= MAX_CLIENT_ID_LENGTH
+                ? clientId : request.getRemoteAddr();
+    }
+
+    /**
+     * The data sources a connection can be routed to.
+     */
+    private enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    /**
+     * Why a connection was routed where it was.
+     */
+    private enum Route {
+
+        /**
+         * Read-write transaction, or no transaction at all.
+         */
+        WRITE(Target.PRIMARY),
+
+        /**
+         * Read-only transaction of a {@link ReadFromPrimary} operation.
+         */
+        REQUIRED(Target.PRIMARY),
+
+        /**
+         * Read-only transaction of a client that wrote within the sticky primary window.
+         */
+        STICKY(Target.PRIMARY),
+
+        /**
+         * Any other read-only transaction.
+         */
+        READ(Target.REPLICA);
+
+        private final Target target;
+
+        Route(Target target) {
+            this.target = target;
+        }
+    }
+}
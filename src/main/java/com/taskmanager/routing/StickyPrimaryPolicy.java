@@ -0,0 +1,101 @@
+package com.taskmanager.routing;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Staleness policy of replica reads: a client's reads stay on the primary for a fixed window after its last
+ * committed write, so it reads its own writes as long as the replica lags less than that window. Other clients
+ * read from the replica right away and may see the write only once it has been replicated.
+ * <p>
+ * Clients are told apart by a key chosen by the caller. Windows are kept in memory, so a client switching between
+ * instances is only pinned on the instance it wrote through. Every write queues its window in the order the windows
+ * end, and each write drops the windows at the head of the queue that have ended, so expiring costs a constant amount
+ * per write however many clients are tracked. At most {@value #MAX_TRACKED} windows are kept; beyond that the oldest
+ * are dropped early, so a caller inventing keys cannot grow the memory, only unpin other clients sooner. A window of
+ * zero sends every read to the replica.
+ * </p>
+ */
+public class StickyPrimaryPolicy {
+
+    /**
+     * Maximum number of windows kept; the oldest are dropped before they end once there are more.
+     */
+    public static final int MAX_TRACKED = 100_000;
+
+    private final long windowNanos;
+
+    private final ConcurrentMap<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+
+    private final Queue<Pin> pins = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger pinCount = new AtomicInteger();
+
+    /**
+     * Creates the policy.
+     *
+     * @param window how long a client's reads stay on the primary after it wrote
+     */
+    public StickyPrimaryPolicy(Duration window) {
+        if (window.isNegative()) {
+            throw new IllegalArgumentException("Sticky primary window must not be negative");
+        }
+        this.windowNanos = window.toNanos();
+    }
+
+    /**
+     * Records that a client's write has committed, pinning its reads to the primary for the window.
+     *
+     * @param client the key of the client
+     */
+    public void recordWrite(String client) {
+        if (windowNanos == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        long until = now + windowNanos;
+        pinnedUntil.put(client, until);
+        pins.add(new Pin(client, until));
+        int count = pinCount.incrementAndGet();
+        Pin head;
+        while ((head = pins.peek()) != null && (count > MAX_TRACKED || head.until() - now <= 0)) {
+            if (pins.remove(head)) {
+                pinnedUntil.remove(head.client(), head.until());
+                count = pinCount.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Tells whether a client's reads have to go to the primary.
+     *
+     * @param client the key of the client
+     * @return {@code true} while the client's last write is more recent than the window
+     */
+    public boolean isPinned(String client) {
+        Long until = pinnedUntil.get(client);
+        return until != null && until - System.nanoTime() > 0;
+    }
+
+    /**
+     * Number of clients currently tracked, expired or not.
+     *
+     * @return the number of clients with a window
+     */
+    public int trackedClients() {
+        return pinnedUntil.size();
+    }
+
+    /**
+     * The window of one write, queued for expiry.
+     *
+     * @param client the key of the client
+     * @param until  the time the window ends
+     */
+    private record Pin(String client, long until) {
+    }
+}
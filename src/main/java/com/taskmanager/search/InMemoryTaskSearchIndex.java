@@ -0,0 +1,271 @@
+package com.taskmanager.search;
+
+import com.taskmanager.entity.TaskRepository;
+import com.taskmanager.entity.TaskRow;
+import com.taskmanager.event.SnapshotImportedEvent;
+import com.taskmanager.event.TaskDeletedEvent;
+import com.taskmanager.event.TaskListCreatedEvent;
+import com.taskmanager.event.TaskListDeletedEvent;
+import com.taskmanager.event.TaskStoreEvent;
+import com.taskmanager.event.TaskUpdatedEvent;
+import com.taskmanager.event.TasksAddedEvent;
+import com.taskmanager.event.TasksMovedEvent;
+import com.taskmanager.model.response.TaskSearchResult;
+import com.taskmanager.routing.ReadWriteRoutingDataSource;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * In-process inverted index, used when the database has no full-text search of its own (H2 in tests and local runs).
+ * It is built from the store once at startup and then kept up to date from committed {@link TaskStoreEvent}s.
+ *
+ * A query costs a scan of the shortest posting list among its words plus a lookup per other word, so its latency
+ * depends on how many tasks contain the rarest word, not on the total number of tasks. Matches are ranked by the
+ * sum of {@code weight * idf} over the query words, where a word counts {@value #NAME_WEIGHT} times in the name and
+ * once in the description, and {@code idf = ln(1 + tasks / tasksContainingWord)}.
+ */
+public class InMemoryTaskSearchIndex implements TaskSearchIndex, SmartInitializingSingleton {
+
+    private static final int NAME_WEIGHT = 2;
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Comparator<Match> RANKING = Comparator.comparingDouble(Match::score).reversed()
+            .thenComparing(Match::taskId);
+
+    private final Supplier<List<TaskRow>> allTasks;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Document> documents = new HashMap<>();
+
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+
+    private final Map<Long, Set<Long>> tasksByList = new HashMap<>();
+
+    /**
+     * Creates an empty index that is filled from the given repository once all singletons are instantiated.
+     * The tasks are read from the primary, since the index follows its commits.
+     *
+     * @param taskRepository the repository to read all tasks from
+     */
+    public InMemoryTaskSearchIndex(TaskRepository taskRepository) {
+        this(() -> ReadWriteRoutingDataSource.onPrimary(taskRepository::findAllRows));
+    }
+
+    /**
+     * Creates an empty index that is filled from the given source of all tasks once all singletons are instantiated,
+     * such as one reading every shard.
+     *
+     * @param allTasks reads the rows of all tasks in the store
+     */
+    public InMemoryTaskSearchIndex(Supplier<List<TaskRow>> allTasks) {
+        this.allTasks = allTasks;
+    }
+
+    /**
+     * Builds the index from the store before the application starts serving requests.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    @Override
+    public List<TaskSearchResult> search(String query, int offset, int limit) {
+        Set<String> words = tokenize(query);
+        if (words.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Map<Long, Integer>> wordPostings = new ArrayList<>(words.size());
+            for (String word : words) {
+                Map<Long, Integer> posting = postings.get(word);
+                if (posting == null) {
+                    return List.of();
+                }
+                wordPostings.add(posting);
+            }
+            wordPostings.sort(Comparator.comparingInt(Map::size));
+
+            double[] idf = new double[wordPostings.size()];
+            for (int i = 0; i < idf.length; i++) {
+                idf[i] = Math.log(1 + documents.size() / (double) wordPostings.get(i).size());
+            }
+
+            List<Match> matches = new ArrayList<>(wordPostings.getFirst().size());
+            candidates:
+            for (Map.Entry<Long, Integer> candidate : wordPostings.getFirst().entrySet()) {
+                double score = candidate.getValue() * idf[0];
+                for (int i = 1; i < idf.length; i++) {
+                    Integer weight = wordPostings.get(i).get(candidate.getKey());
+                    if (weight == null) {
+                        continue candidates;
+                    }
+                    score += weight * idf[i];
+                }
+                matches.add(new Match(candidate.getKey(), score));
+            }
+            matches.sort(RANKING);
+
+            int from = Math.min(offset, matches.size());
+            int to = Math.min(from + limit, matches.size());
+            List<TaskSearchResult> results = new ArrayList<>(to - from);
+            for (Match match : matches.subList(from, to)) {
+                Document document = documents.get(match.taskId());
+                results.add(new TaskSearchResult(match.taskId(), document.listId(), document.name(),
+                        document.description(), match.score()));
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Applies a committed change of the task store to the index.
+     *
+     * @param event the committed change
+     */
+    @TransactionalEventListener
+    public void on(TaskStoreEvent event) {
+        if (event instanceof SnapshotImportedEvent) {
+            rebuild();
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            switch (event) {
+                case TasksAddedEvent added -> added.tasks().forEach(this::put);
+                case TaskUpdatedEvent updated -> {
+                    Document document = documents.get(updated.taskId());
+                    if (document != null) {
+                        put(updated.taskId(), document.listId(), updated.name(), updated.description());
+                    }
+                }
+                case TasksMovedEvent moved -> {
+                    for (Long taskId : moved.taskIds()) {
+                        Document document = documents.get(taskId);
+                        if (document != null) {
+                            put(taskId, moved.toListId(), document.name(), document.description());
+                        }
+                    }
+                }
+                case TaskDeletedEvent deleted -> remove(deleted.taskId());
+                case TaskListDeletedEvent deleted -> {
+                    for (Long taskId : List.copyOf(tasksByList.getOrDefault(deleted.listId(), Set.of()))) {
+                        remove(taskId);
+                    }
+                }
+                case TaskListCreatedEvent ignored -> {
+                }
+                case SnapshotImportedEvent ignored -> {
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the content of the index with all tasks currently in the store.
+     */
+    public void rebuild() {
+        List<TaskRow> rows = allTasks.get();
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+            tasksByList.clear();
+            rows.forEach(this::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Splits text into lower-case words of letters and digits, in order of first occurrence and without duplicates.
+     *
+     * @param text the text to split
+     * @return the distinct words of the text
+     */
+    static Set<String> tokenize(String text) {
+        Set<String> words = new LinkedHashSet<>();
+        for (String word : NON_WORD.split(text.toLowerCase(Locale.ROOT))) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private void put(TaskRow row) {
+        put(row.getId(), row.getListId(), row.getName(), row.getDescription());
+    }
+
+    private void put(Long taskId, Long listId, String name, String description) {
+        remove(taskId);
+
+        Map<String, Integer> weights = new HashMap<>();
+        for (String word : NON_WORD.split(name.toLowerCase(Locale.ROOT))) {
+            if (!word.isEmpty()) {
+                weights.merge(word, NAME_WEIGHT, Integer::sum);
+            }
+        }
+        for (String word : NON_WORD.split(description.toLowerCase(Locale.ROOT))) {
+            if (!word.isEmpty()) {
+                weights.merge(word, 1, Integer::sum);
+            }
+        }
+        weights.forEach((word, weight) -> postings.computeIfAbsent(word, w -> new HashMap<>()).put(taskId, weight));
+
+        documents.put(taskId, new Document(listId, name, description, weights.keySet()));
+        tasksByList.computeIfAbsent(listId, id -> new HashSet<>()).add(taskId);
+    }
+
+    private void remove(Long taskId) {
+        Document document = documents.remove(taskId);
+        if (document == null) {
+            return;
+        }
+        for (String word : document.words()) {
+            Map<Long, Integer> posting = postings.get(word);
+            posting.remove(taskId);
+            if (posting.isEmpty()) {
+                postings.remove(word);
+            }
+        }
+        Set<Long> listTasks = tasksByList.get(document.listId());
+        listTasks.remove(taskId);
+        if (listTasks.isEmpty()) {
+            tasksByList.remove(document.listId());
+        }
+    }
+
+    /**
+     * An indexed task, with the distinct words it is listed under.
+     */
+    private record Document(Long listId, String name, String description, Set<String> words) {
+    }
+
+    /**
+     * A task matching every word of a query, with its relevance.
+     */
+    private record Match(Long taskId, double score) {
+    }
+}
@@ -0,0 +1,58 @@
+package com.taskmanager.search;
+
+import com.taskmanager.model.response.TaskSearchResult;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import java.util.List;
+
+/**
+ * Full-text search on PostgreSQL, backed by a GIN index over a weighted {@code tsvector} of name (weight A) and
+ * description (weight B). The index covers the same expression the query filters on, so PostgreSQL maintains it
+ * with every write and no application-side bookkeeping is needed. Queries use the {@code websearch_to_tsquery}
+ * syntax and are ranked with {@code ts_rank}. Deleted tasks, and the tasks of deleted lists, are left out until they
+ * are purged.
+ */
+public class PostgresTaskSearchIndex implements TaskSearchIndex, SmartInitializingSingleton {
+
+    private static final String DOCUMENT = "(setweight(to_tsvector('simple', name), 'A')"
+            + " || setweight(to_tsvector('simple', description), 'B'))";
+
+    private static final String CREATE_INDEX = "create index if not exists idx_task_search on task using gin ("
+            + DOCUMENT + ")";
+
+    private static final String SEARCH = "select t.id, t.task_list_id, t.name, t.description, ts_rank(" + DOCUMENT
+            + ", q) as score from task t, websearch_to_tsquery('simple', ?) q where " + DOCUMENT + " @@ q"
+            + " and t.deleted = false"
+            + " and exists (select 1 from task_list l where l.id = t.task_list_id and l.deleted = false)"
+            + " order by score desc, t.id limit ? offset ?";
+
+    private static final RowMapper<TaskSearchResult> RESULT_MAPPER = (rs, rowNum) -> new TaskSearchResult(
+            rs.getLong("id"), rs.getLong("task_list_id"), rs.getString("name"), rs.getString("description"),
+            rs.getDouble("score"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Creates the search over the given database.
+     *
+     * @param jdbcTemplate the template of the PostgreSQL database holding the {@code task} table
+     */
+    public PostgresTaskSearchIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Creates the GIN index once the schema exists. The schema is generated by Hibernate, which does not know
+     * expression indexes, so the index is created here.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        jdbcTemplate.execute(CREATE_INDEX);
+    }
+
+    @Override
+    public List<TaskSearchResult> search(String query, int offset, int limit) {
+        return jdbcTemplate.query(SEARCH, RESULT_MAPPER, query, limit, offset);
+    }
+}
@@ -0,0 +1,22 @@
+package com.taskmanager.search;
+
+import com.taskmanager.model.response.TaskSearchResult;
+import java.util.List;
+
+/**
+ * Full-text index over the names and descriptions of all tasks.
+ * A query matches the tasks that contain every one of its words; matches are ranked by relevance,
+ * with words in the name weighing more than words in the description.
+ */
+public interface TaskSearchIndex {
+
+    /**
+     * Returns one page of the tasks matching a query, most relevant first and ties ordered by id.
+     *
+     * @param query  the words to search for, not blank
+     * @param offset the number of matches to skip
+     * @param limit  the maximum number of matches to return
+     * @return the matches on the page, empty if none
+     */
+    List<TaskSearchResult> search(String query, int offset, int limit);
+}
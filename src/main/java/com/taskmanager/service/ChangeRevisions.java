@@ -0,0 +1,99 @@
+package com.taskmanager.service;
+
+import com.taskmanager.entity.TaskListRepository;
+import com.taskmanager.entity.TaskRepository;
+import com.taskmanager.entity.TombstoneRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.TreeSet;
+
+/**
+ * Allocates the change revisions stamped on task lists, tasks and tombstones, and tells up to which revision all
+ * changes are committed.
+ *
+ * Revisions increase in allocation order, but transactions commit in any order: a change with revision 7 may
+ * become visible before one with revision 5. A sync reading everything up to 7 at that point would skip 5 for
+ * good, so syncs only read up to the {@link #watermark()}, the revision below the oldest one still in flight.
+ * Counting starts after the highest revision already stored, read once from the {@code change_revision} indexes.
+ *
+ * The in-flight revisions are only known to this instance, so all writers of a database have to share it; a
+ * second instance writing to the same tables would need its revisions from a shared allocator.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChangeRevisions {
+
+    private final TaskListRepository taskListRepository;
+    private final TaskRepository taskRepository;
+    private final TombstoneRepository tombstoneRepository;
+
+    /**
+     * Revisions allocated to transactions that have not completed yet, guarded by {@code this}.
+     */
+    private final TreeSet<Long> inFlight = new TreeSet<>();
+
+    /**
+     * Last allocated revision, {@code -1} until read from the database; guarded by {@code this}.
+     */
+    private long last = -1;
+
+    /**
+     * Allocates the change revision of a mutation in the current transaction.
+     * The revision counts as in flight, holding back the {@link #watermark()}, until the transaction completes.
+     *
+     * @return the new change revision
+     * @throws IllegalStateException if no transaction is active
+     */
+    public long next() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Change revisions can only be allocated within a transaction");
+        }
+        long revision;
+        synchronized (this) {
+            revision = ++initialized().last;
+            inFlight.add(revision);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                complete(revision);
+            }
+        });
+        return revision;
+    }
+
+    /**
+     * Returns the highest revision up to which every change is committed or rolled back, so no change with
+     * a revision up to it can still appear.
+     *
+     * @return the watermark, {@code 0} if no change has been made yet
+     */
+    public synchronized long watermark() {
+        initialized();
+        return inFlight.isEmpty() ? last : inFlight.first() - 1;
+    }
+
+    /**
+     * Makes counting continue after a revision unless it is already past it, for a store whose highest revision
+     * cannot be read from the repositories alone, such as one spread over several shards.
+     *
+     * @param revision the highest revision already stored
+     */
+    public synchronized void startAfter(long revision) {
+        last = Math.max(last, revision);
+    }
+
+    private synchronized void complete(long revision) {
+        inFlight.remove(revision);
+    }
+
+    private ChangeRevisions initialized() {
+        if (last < 0) {
+            last = Math.max(taskListRepository.findMaxChangeRevision(),
+                    Math.max(taskRepository.findMaxChangeRevision(), tombstoneRepository.findMaxChangeRevision()));
+        }
+        return this;
+    }
+}
@@ -0,0 +1,57 @@
+package com.taskmanager.service;
+
+import com.taskmanager.exception.InvalidRequestException;
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * Encodes and decodes the opaque cursors used for keyset pagination.
+ * A cursor wraps the id of the last element of a page, so the next page can be read with an
+ * ordered {@code id > :after} range query instead of an {@code OFFSET} scan.
+ * Clients must treat the value as opaque; only this class knows its layout.
+ */
+public final class KeysetCursor {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private KeysetCursor() {
+    }
+
+    /**
+     * Encodes the id of the last element of a page into an opaque cursor.
+     *
+     * @param lastId the id of the last element returned
+     * @return the opaque cursor string
+     */
+    public static String encode(long lastId) {
+        return ENCODER.encodeToString(ByteBuffer.allocate(Long.BYTES).putLong(lastId).array());
+    }
+
+    /**
+     * Decodes an opaque cursor back into the id after which the next page starts.
+     * A {@code null} or blank cursor denotes the first page.
+     *
+     * @param cursor the cursor received from the client, may be {@code null}
+     * @return the id after which the next page starts, {@code 0} for the first page
+     * @throws InvalidRequestException if the cursor is malformed
+     */
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            byte[] bytes = DECODER.decode(cursor);
+            if (bytes.length != Long.BYTES) {
+                throw new InvalidRequestException("Invalid cursor");
+            }
+            long lastId = ByteBuffer.wrap(bytes).getLong();
+            if (lastId < 0) {
+                throw new InvalidRequestException("Invalid cursor");
+            }
+            return lastId;
+        } catch (IllegalArgumentException exception) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+    }
+}
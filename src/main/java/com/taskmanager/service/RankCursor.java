@@ -0,0 +1,62 @@
+package com.taskmanager.service;
+
+import com.taskmanager.exception.InvalidRequestException;
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * Opaque cursor of a page of the tasks of a list, which are ordered by rank and then id.
+ * Wraps the rank and id of the last task of a page, so the next page can be read with a seek on the
+ * {@code (task_list_id, rank, id)} index, like {@link KeysetCursor} does for ids alone.
+ * Clients must treat the value as opaque; only this class knows its layout.
+ *
+ * @param rank the rank of the last task of the page
+ * @param id   the id of the last task of the page
+ */
+public record RankCursor(long rank, long id) {
+
+    /**
+     * Position before the first task of any list.
+     */
+    public static final RankCursor FIRST = new RankCursor(Long.MIN_VALUE, 0L);
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    /**
+     * Encodes the cursor into an opaque string.
+     *
+     * @return the opaque cursor string
+     */
+    public String encode() {
+        return ENCODER.encodeToString(ByteBuffer.allocate(2 * Long.BYTES).putLong(rank).putLong(id).array());
+    }
+
+    /**
+     * Decodes an opaque cursor back into the position after which the next page starts.
+     * A {@code null} or blank cursor denotes the first page.
+     *
+     * @param cursor the cursor received from the client, may be {@code null}
+     * @return the position after which the next page starts, {@link #FIRST} for the first page
+     * @throws InvalidRequestException if the cursor is malformed
+     */
+    public static RankCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST;
+        }
+        try {
+            byte[] bytes = DECODER.decode(cursor);
+            if (bytes.length != 2 * Long.BYTES) {
+                throw new InvalidRequestException("Invalid cursor");
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            RankCursor decoded = new RankCursor(buffer.getLong(), buffer.getLong());
+            if (decoded.id() < 0) {
+                throw new InvalidRequestException("Invalid cursor");
+            }
+            return decoded;
+        } catch (IllegalArgumentException exception) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.taskmanager.service;
+
+/**
+ * Computes the sparse rank keys that order the tasks of a list, see {@link com.taskmanager.entity.Task#getRank()}.
+ *
+ * Keys are spaced {@link #GAP} apart, so a task is put between two others by giving it the midpoint of their keys,
+ * which writes that task only; the rest of the list is renumbered by a {@link RankRebalancer} once a gap runs out.
+ * Appended tasks get keys in the band of their change revision, {@code changeRevision << 32} and up: revisions only
+ * grow, so a task appended later lands after every task appended before it without reading the end of the list.
+ * This holds for change revisions below {@code 2^31}, whose bands fit into a {@code long}; an append with a later
+ * revision fails instead of wrapping around to a key before every other task.
+ */
+public final class RankKeys {
+
+    /**
+     * Distance between the keys of neighbouring tasks after an append or a rebalance.
+     * Allows sixteen halvings before two neighbours run out of room.
+     */
+    public static final long GAP = 1L << 16;
+
+    /**
+     * Gap below which a list is queued for a background rebalance, so the next reorders in that spot still fit.
+     */
+    public static final long MIN_GAP = 1L << 4;
+
+    /**
+     * Width of the band of keys of one change revision.
+     */
+    private static final long BAND = 1L << 32;
+
+    /**
+     * Highest change revision whose band fits into a {@code long}.
+     */
+    static final long MAX_CHANGE_REVISION = Long.MAX_VALUE / BAND;
+
+    private RankKeys() {
+    }
+
+    /**
+     * Returns the key of the first task appended with a change revision, which is above the keys of every task
+     * appended, moved or rebalanced with an earlier revision.
+     *
+     * @param changeRevision the change revision of the append
+     * @return the rank key
+     * @throws IllegalStateException if the change revision is above {@link #MAX_CHANGE_REVISION}, so its band would
+     *                               overflow
+     */
+    public static long append(long changeRevision) {
+        if (changeRevision > MAX_CHANGE_REVISION) {
+            throw new IllegalStateException("Change revision " + changeRevision
+                    + " is beyond the last band of rank keys, the ranks have to be re-based");
+        }
+        return changeRevision * BAND;
+    }
+
+    /**
+     * Returns the key of one of several tasks appended in order with the same change revision.
+     *
+     * @param changeRevision the change revision of the append
+     * @param index          the zero-based position of the task among the appended tasks
+     * @param count          the number of appended tasks
+     * @return the rank key
+     * @throws IllegalStateException if the change revision is above {@link #MAX_CHANGE_REVISION}
+     */
+    public static long append(long changeRevision, int index, int count) {
+        return append(changeRevision) + index * spacing(count);
+    }
+
+    /**
+     * Returns the distance between the keys of {@code count} tasks appended with the same change revision:
+     * {@link #GAP}, unless that many gaps do not fit into the band of one revision.
+     *
+     * @param count the number of appended tasks
+     * @return the distance between their keys, at least {@code 1}
+     */
+    public static long spacing(long count) {
+        return Math.max(1, Math.min(GAP, BAND / Math.max(1, count)));
+    }
+
+    /**
+     * Returns the key halfway between two keys.
+     *
+     * @param before the key of the task to come before
+     * @param after  the key of the task to come after, at least {@code before + 2}
+     * @return the midpoint
+     */
+    public static long between(long before, long after) {
+        return before + (after - before) / 2;
+    }
+}
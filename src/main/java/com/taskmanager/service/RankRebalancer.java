@@ -0,0 +1,214 @@
+package com.taskmanager.service;
+
+import com.taskmanager.entity.TaskListRepository;
+import com.taskmanager.entity.TaskRepository;
+import com.taskmanager.shard.ShardRoutingDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renumbers the ranks of the tasks of a list, see {@link RankKeys}, restoring a gap of {@link RankKeys#GAP}
+ * between neighbours without changing their order.
+ *
+ * A reorder that finds no room between its neighbours rebalances the list inline with {@link #rebalance(Long)};
+ * one that leaves a gap below {@link RankKeys#MIN_GAP} queues the list with {@link #requestRebalance(Long)}, and a
+ * single background thread rebalances queued lists one transaction each, so most reorders never wait for one.
+ * The new ranks end below the band of every change revision still in flight, so a task appended concurrently
+ * still lands after the rebalanced ones.
+ */
+@Component
+public class RankRebalancer implements SmartLifecycle {
+
+    /**
+     * Name of the counter of rebalanced lists, tagged with {@code trigger}, {@code inline} or {@code background}.
+     */
+    public static final String REBALANCES_NAME = "taskmanager.rank.rebalances";
+
+    /**
+     * Number of tasks renumbered per change revision, so a sync never has to return more than a batch of changes
+     * with the same revision.
+     */
+    static final int REVISION_BATCH_SIZE = 500;
+
+    private static final Logger logger = LoggerFactory.getLogger(RankRebalancer.class);
+
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final TaskRepository taskRepository;
+    private final TaskListRepository taskListRepository;
+    private final ChangeRevisions changeRevisions;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<Long> queue = new LinkedBlockingQueue<>();
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+    private final Counter inline;
+    private final Counter background;
+
+    private volatile boolean running;
+    private volatile Thread worker;
+
+    /**
+     * Creates the rebalancer; the background thread starts with the application context.
+     *
+     * @param taskRepository     the repository reading and renumbering the ranks
+     * @param taskListRepository the repository bumping the revision of a list rebalanced in the background
+     * @param changeRevisions    the allocator of the change revisions stamped on renumbered tasks
+     * @param transactionManager the transaction manager of the background rebalances
+     * @param meterRegistry      the registry of the rebalance counters and the queue size gauge
+     */
+    public RankRebalancer(TaskRepository taskRepository,
+                          TaskListRepository taskListRepository,
+                          ChangeRevisions changeRevisions,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry) {
+        this.taskRepository = taskRepository;
+        this.taskListRepository = taskListRepository;
+        this.changeRevisions = changeRevisions;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.inline = rebalances(meterRegistry, "inline");
+        this.background = rebalances(meterRegistry, "background");
+        Gauge.builder("taskmanager.rank.rebalance.queue", queue, BlockingQueue::size)
+                .description("Task lists waiting for a background rebalance")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Renumbers the ranks of all tasks of a list within the current transaction.
+     * The caller must have bumped the revision of the list in this transaction, which locks it against every
+     * other change of its tasks' ranks until the transaction completes.
+     *
+     * @param listId the id of the task list
+     * @return the number of renumbered tasks
+     */
+    public int rebalance(Long listId) {
+        inline.increment();
+        return renumber(listId);
+    }
+
+    /**
+     * Queues a list for a rebalance in the background, once the current transaction commits, or right away
+     * outside of a transaction. A list that is already queued is not queued again.
+     *
+     * @param listId the id of the task list
+     */
+    public void requestRebalance(Long listId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(listId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(listId);
+            }
+        });
+    }
+
+    /**
+     * Starts the background thread.
+     */
+    @Override
+    public void start() {
+        running = true;
+        worker = Thread.ofPlatform().name("rank-rebalancer").daemon().start(this::rebalanceQueued);
+    }
+
+    /**
+     * Stops the background thread after the rebalance in progress; queued lists are left as they are, their ranks
+     * stay valid.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        Thread current = worker;
+        if (current == null) {
+            return;
+        }
+        try {
+            current.join();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Background loop: rebalances queued lists, one transaction each, until stopped.
+     * The list's revision is bumped first, which locks it and tells whether it still exists. With sharding, the
+     * transaction runs on the shard of the list.
+     */
+    private void rebalanceQueued() {
+        while (running) {
+            Long listId;
+            try {
+                listId = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException exception) {
+                return;
+            }
+            if (listId == null) {
+                continue;
+            }
+            queued.remove(listId);
+            try {
+                ShardRoutingDataSource.onShardOf(listId, () -> transactionTemplate.execute(status -> {
+                    if (taskListRepository.incrementRevisions(List.of(listId), changeRevisions.next()) > 0) {
+                        background.increment();
+                        renumber(listId);
+                    }
+                    return null;
+                }));
+            } catch (RuntimeException exception) {
+                logger.warn("Rebalancing the ranks of list {} failed", listId, exception);
+            }
+        }
+    }
+
+    /**
+     * Renumbers the ranks of all tasks of a locked list, {@link RankKeys#GAP} apart in their current order,
+     * ending right below the band of the oldest change revision still in flight.
+     *
+     * @param listId the id of the task list
+     * @return the number of renumbered tasks
+     */
+    private int renumber(Long listId) {
+        List<Long> taskIds = taskRepository.findIdsInRankOrder(listId);
+        long rank = RankKeys.append(changeRevisions.watermark() + 1) - taskIds.size() * RankKeys.GAP;
+        for (int from = 0; from < taskIds.size(); from += REVISION_BATCH_SIZE) {
+            List<Long> batch = taskIds.subList(from, Math.min(from + REVISION_BATCH_SIZE, taskIds.size()));
+            taskRepository.updateRanks(batch, rank, RankKeys.GAP, changeRevisions.next());
+            rank += batch.size() * RankKeys.GAP;
+        }
+        return taskIds.size();
+    }
+
+    private void enqueue(Long listId) {
+        if (queued.add(listId)) {
+            queue.add(listId);
+        }
+    }
+
+    private static Counter rebalances(MeterRegistry meterRegistry, String trigger) {
+        return Counter.builder(REBALANCES_NAME)
+                .description("Task lists whose ranks were renumbered")
+                .tag("trigger", trigger)
+                .register(meterRegistry);
+    }
+}
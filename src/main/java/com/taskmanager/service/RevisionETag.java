@@ -0,0 +1,65 @@
+package com.taskmanager.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Builds weak ETags from revision numbers.
+ * The tag is a digest of the values that fully determine a representation, such as list ids,
+ * list revisions and paging parameters, so it can be computed without loading or serializing the body.
+ * The tag is weak because the same values are served in several byte-wise different encodings, JSON, CBOR or Smile,
+ * each optionally gzipped, which are all equivalent; a strong tag would also keep the servlet container from
+ * compressing the response. {@code If-None-Match} compares weakly, so conditional reads are unaffected.
+ */
+public final class RevisionETag {
+
+    private static final int TAG_BYTES = 16;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private RevisionETag() {
+    }
+
+    /**
+     * Builds a weak ETag from the given values.
+     * The same values in the same order always produce the same tag.
+     *
+     * @param values the values that determine the representation
+     * @return the weak ETag, e.g. {@code W/"Zm9vYmFy..."}
+     */
+    public static String of(long... values) {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * Long.BYTES);
+        for (long value : values) {
+            buffer.putLong(value);
+        }
+        byte[] digest = sha256().digest(buffer.array());
+        return "W/\"" + ENCODER.encodeToString(Arrays.copyOf(digest, TAG_BYTES)) + "\"";
+    }
+
+    /**
+     * Combines weak ETags into one that changes whenever any of them changes, such as the tags of the parts of
+     * a page read from several shards.
+     *
+     * @param tags the weak ETags, in a fixed order
+     * @return the combined weak ETag
+     */
+    public static String combine(List<String> tags) {
+        MessageDigest digest = sha256();
+        for (String tag : tags) {
+            digest.update(tag.getBytes(StandardCharsets.US_ASCII));
+        }
+        return "W/\"" + ENCODER.encodeToString(Arrays.copyOf(digest.digest(), TAG_BYTES)) + "\"";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 is not available", exception);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.taskmanager.service;
+
+import com.taskmanager.exception.InvalidRequestException;
+
+/**
+ * Encodes and decodes the opaque cursors used to page through search results.
+ * Search results are ordered by relevance rather than id, so a cursor wraps the number of results already
+ * returned instead of the last id. The encoding is that of {@link KeysetCursor}.
+ */
+public final class SearchCursor {
+
+    private SearchCursor() {
+    }
+
+    /**
+     * Encodes the offset of the next page into an opaque cursor.
+     *
+     * @param offset the number of results returned so far
+     * @return the opaque cursor string
+     */
+    public static String encode(int offset) {
+        return KeysetCursor.encode(offset);
+    }
+
+    /**
+     * Decodes an opaque cursor back into the offset of the next page.
+     * A {@code null} or blank cursor denotes the first page.
+     *
+     * @param cursor the cursor received from the client, may be {@code null}
+     * @return the number of results to skip, {@code 0} for the first page
+     * @throws InvalidRequestException if the cursor is malformed
+     */
+    public static int decode(String cursor) {
+        long offset = KeysetCursor.decode(cursor);
+        if (offset > Integer.MAX_VALUE) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+        return (int) offset;
+    }
+}
@@ -0,0 +1,215 @@
+package com.taskmanager.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.taskmanager.entity.Task;
+import com.taskmanager.entity.TaskList;
+import com.taskmanager.entity.TaskListRepository;
+import com.taskmanager.entity.TaskRepository;
+import com.taskmanager.event.SnapshotImportedEvent;
+import com.taskmanager.exception.InvalidRequestException;
+import com.taskmanager.model.request.TaskListRequest;
+import com.taskmanager.model.request.TaskRequest;
+import com.taskmanager.model.response.SnapshotImportResponse;
+import com.taskmanager.model.snapshot.SnapshotRecord;
+import com.taskmanager.model.snapshot.TaskListSnapshot;
+import com.taskmanager.model.snapshot.TaskSnapshot;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StreamUtils;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+/**
+ * Service layer for exporting and importing snapshots of the whole task store.
+ * Snapshots are gzip-compressed NDJSON files of {@link SnapshotRecord}s. Both directions stream
+ * record by record, so memory use does not grow with the size of the store.
+ */
+@Service
+@RequiredArgsConstructor
+public class SnapshotService {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final TaskListRepository taskListRepository;
+    private final TaskRepository taskRepository;
+    private final ChangeRevisions changeRevisions;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Writes a snapshot of all task lists and tasks to the given stream as gzip-compressed NDJSON.
+     * Lists and tasks are read through database cursors and written one line at a time.
+     * The transaction runs at repeatable read, so both cursors read the same snapshot of the store and every task
+     * refers to a list written before it, even while lists and tasks are created concurrently.
+     * The given stream is not closed.
+     *
+     * @param out the stream to write the snapshot to
+     * @throws IOException if writing to the stream fails
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public void exportSnapshot(OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(SnapshotRecord.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(StreamUtils.nonClosing(out), BUFFER_SIZE);
+             JsonGenerator generator = objectMapper.createGenerator(gzip)) {
+            generator.setRootValueSeparator(null);
+            try (Stream<TaskListSnapshot> lists = taskListRepository.streamSnapshots()) {
+                writeRecords(writer, generator, lists.iterator());
+            }
+            try (Stream<TaskSnapshot> tasks = taskRepository.streamSnapshots()) {
+                writeRecords(writer, generator, tasks.iterator());
+            }
+        }
+    }
+
+    /**
+     * Imports a gzip-compressed NDJSON snapshot in a single transaction.
+     * Lists receive new ids and tasks are re-linked to them; tasks are inserted in JDBC batches and
+     * the persistence context is cleared after every batch. Every batch of lists or tasks gets a change revision
+     * of its own, so a sync never has to return more than a batch of changes with the same revision.
+     * The import is all-or-nothing: any invalid record rolls back the whole snapshot.
+     *
+     * @param in the stream to read the snapshot from
+     * @return the {@link SnapshotImportResponse} with the number of imported lists and tasks
+     * @throws InvalidRequestException if the snapshot is malformed or contains invalid records
+     * @throws IOException              if reading from the stream fails
+     */
+    @Transactional
+    public SnapshotImportResponse importSnapshot(InputStream in) throws IOException {
+        Map<Long, Long> listIds = new HashMap<>();
+        List<Long> listBatch = new ArrayList<>(BATCH_SIZE);
+        List<Task> taskBatch = new ArrayList<>(BATCH_SIZE);
+        long importedTasks = 0;
+        long listRevision = changeRevisions.next();
+
+        try (MappingIterator<SnapshotRecord> records = objectMapper.readerFor(SnapshotRecord.class)
+                .readValues(new GZIPInputStream(in, BUFFER_SIZE))) {
+            while (records.hasNextValue()) {
+                SnapshotRecord record = records.nextValue();
+                if (record instanceof TaskListSnapshot list) {
+                    Long listId = importList(list);
+                    listIds.put(list.getId(), listId);
+                    listBatch.add(listId);
+                    if (listBatch.size() == BATCH_SIZE) {
+                        taskListRepository.stampChangeRevision(listBatch, listRevision);
+                        listBatch.clear();
+                        entityManager.clear();
+                        listRevision = changeRevisions.next();
+                    }
+                } else if (record instanceof TaskSnapshot task) {
+                    taskBatch.add(toTask(task, listIds));
+                    if (taskBatch.size() == BATCH_SIZE) {
+                        importedTasks += insertTasks(taskBatch);
+                    }
+                }
+            }
+        } catch (ZipException | JsonProcessingException exception) {
+            throw new InvalidRequestException("Malformed snapshot: " + exception.getMessage());
+        }
+        if (!listBatch.isEmpty()) {
+            taskListRepository.stampChangeRevision(listBatch, listRevision);
+        }
+        importedTasks += insertTasks(taskBatch);
+
+        eventPublisher.publishEvent(new SnapshotImportedEvent(listIds.size(), importedTasks));
+        return SnapshotImportResponse.builder()
+                .importedLists(listIds.size())
+                .importedTasks(importedTasks)
+                .build();
+    }
+
+    /**
+     * Writes each record as one NDJSON line.
+     *
+     * @param writer    the {@link ObjectWriter} for {@link SnapshotRecord}s
+     * @param generator the generator to write to
+     * @param records   the records to write
+     * @throws IOException if writing fails
+     */
+    private static void writeRecords(ObjectWriter writer, JsonGenerator generator,
+                                     Iterator<? extends SnapshotRecord> records) throws IOException {
+        while (records.hasNext()) {
+            writer.writeValue(generator, records.next());
+            generator.writeRaw('\n');
+        }
+    }
+
+    /**
+     * Validates and persists a task list record. Its change revision is stamped with the rest of its batch.
+     *
+     * @param record the task list record
+     * @return the id of the created {@link TaskList}
+     */
+    private Long importList(TaskListSnapshot record) {
+        new TaskListRequest(record.getName()).validate();
+        TaskList list = new TaskList();
+        list.setName(record.getName());
+        return taskListRepository.save(list).getId();
+    }
+
+    /**
+     * Validates a task record and converts it to a new {@link Task} linked to its imported list.
+     *
+     * @param record  the task record
+     * @param listIds the mapping from snapshot list ids to the ids of the imported lists
+     * @return the new task
+     */
+    private Task toTask(TaskSnapshot record, Map<Long, Long> listIds) {
+        new TaskRequest(record.getName(), record.getDescription()).validate();
+        Long listId = listIds.get(record.getListId());
+        if (listId == null) {
+            throw new InvalidRequestException("Snapshot task " + record.getId()
+                    + " references unknown list " + record.getListId());
+        }
+        Task task = new Task();
+        task.setName(record.getName());
+        task.setDescription(record.getDescription());
+        task.setTaskList(entityManager.getReference(TaskList.class, listId));
+        return task;
+    }
+
+    /**
+     * Stamps the buffered tasks with a new change revision, ranks them in snapshot order at the end of their lists
+     * and inserts them as JDBC batches, then clears the buffer and the persistence context.
+     *
+     * @param taskBatch the buffered tasks
+     * @return the number of inserted tasks
+     */
+    private int insertTasks(List<Task> taskBatch) {
+        if (taskBatch.isEmpty()) {
+            return 0;
+        }
+        long changeRevision = changeRevisions.next();
+        for (int i = 0; i < taskBatch.size(); i++) {
+            Task task = taskBatch.get(i);
+            task.setChangeRevision(changeRevision);
+            task.setRank(RankKeys.append(changeRevision, i, taskBatch.size()));
+        }
+        taskRepository.insertAll(taskBatch);
+        entityManager.clear();
+        int inserted = taskBatch.size();
+        taskBatch.clear();
+        return inserted;
+    }
+}
@@ -3,16 +3,51 @@ package com.taskmanager.service;
 import com.taskmanager.entity.Task;
 import com.taskmanager.entity.TaskList;
 import com.taskmanager.entity.TaskListRepository;
+import com.taskmanager.entity.TaskListRevision;
+import com.taskmanager.entity.TaskListRow;
 import com.taskmanager.entity.TaskRepository;
+import com.taskmanager.entity.TaskRow;
+import com.taskmanager.entity.Tombstone;
+import com.taskmanager.entity.TombstoneRepository;
+import com.taskmanager.event.TaskDeletedEvent;
+import com.taskmanager.event.TaskListCreatedEvent;
+import com.taskmanager.event.TaskListDeletedEvent;
+import com.taskmanager.event.TaskUpdatedEvent;
+import com.taskmanager.event.TasksAddedEvent;
+import com.taskmanager.event.TasksMovedEvent;
+import com.taskmanager.exception.ConflictException;
+import com.taskmanager.exception.InvalidRequestException;
+import com.taskmanager.exception.NotFoundException;
+import com.taskmanager.model.request.BulkMoveRequest;
 import com.taskmanager.model.request.TaskListRequest;
 import com.taskmanager.model.request.TaskRequest;
+import com.taskmanager.model.response.BulkMoveResponse;
+import com.taskmanager.model.response.ChangesResponse;
+import com.taskmanager.model.response.Deletion;
+import com.taskmanager.model.response.ListChange;
+import com.taskmanager.model.response.TaskChange;
+import com.taskmanager.model.response.TaskListPageResponse;
 import com.taskmanager.model.response.TaskListResponse;
+import com.taskmanager.model.response.TaskPageResponse;
 import com.taskmanager.model.response.TaskResponse;
-import jakarta.persistence.EntityNotFoundException;
+import com.taskmanager.model.response.TaskSearchPageResponse;
+import com.taskmanager.model.response.TaskSearchResult;
+import com.taskmanager.routing.ReadFromPrimary;
+import com.taskmanager.search.TaskSearchIndex;
+import com.taskmanager.shard.ShardKey;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.ToLongFunction;
 
 /**
  * Service layer for managing task lists and tasks.
@@ -22,18 +57,242 @@ import java.util.List;
 @RequiredArgsConstructor
 public class TaskManagerService {
 
+    /**
+     * Maximum number of task lists that can be requested in a single page.
+     */
+    public static final int MAX_LIST_PAGE_SIZE = 500;
+
+    /**
+     * Maximum number of tasks that can be requested per list in a single page.
+     */
+    public static final int MAX_TASK_PAGE_SIZE = 1000;
+
+    /**
+     * Maximum number of search results that can be requested in a single page.
+     */
+    public static final int MAX_SEARCH_PAGE_SIZE = 100;
+
+    /**
+     * Maximum number of changes that can be requested in a single page of a sync.
+     */
+    public static final int MAX_CHANGES_PAGE_SIZE = 1000;
+
+    private static final int SEARCH_QUERY_MAX_LENGTH = 128;
+
     private final TaskListRepository taskListRepository;
     private final TaskRepository taskRepository;
+    private final TombstoneRepository tombstoneRepository;
+    private final TaskSearchIndex taskSearchIndex;
+    private final ChangeRevisions changeRevisions;
+    private final RankRebalancer rankRebalancer;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
-     * Retrieves all task lists along with their tasks.
+     * Retrieves all task lists along with all of their tasks.
+     * This loads the entire store into memory; request handling uses {@link #getLists(String, int, int)} instead.
+     * Reads flat projections of the lists and tasks, so no entities are hydrated or tracked.
      *
-     * @return list of {@link TaskListResponse} representing all task lists
+     * @return list of {@link TaskListResponse} representing all task lists, ordered by id
      */
+    @Transactional(readOnly = true)
     public List<TaskListResponse> getAllLists() {
-        return taskListRepository.findAllWithTasks().stream()
-                .map(TaskListResponse::from)
-                .toList();
+        return assembleLists(taskListRepository.findAllRows(), taskRepository.findAllRows(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Retrieves one keyset-paginated page of task lists, each with at most {@code taskLimit} of its tasks.
+     * Runs two ordered id-range queries: one for the lists and one for their capped tasks,
+     * both projected into flat rows.
+     *
+     * @param after     opaque cursor from a previous page, or {@code null} for the first page
+     * @param limit     maximum number of lists on the page
+     * @param taskLimit maximum number of tasks included per list
+     * @return the {@link TaskListPageResponse} with the lists and the cursor of the next page
+     */
+    @Transactional(readOnly = true)
+    public TaskListPageResponse getLists(String after, int limit, int taskLimit) {
+        requirePageSize("limit", limit, MAX_LIST_PAGE_SIZE);
+        requirePageSize("taskLimit", taskLimit, MAX_TASK_PAGE_SIZE);
+
+        List<TaskListRow> lists = taskListRepository.findPageAfter(KeysetCursor.decode(after), Limit.of(limit + 1));
+        boolean hasNextPage = lists.size() > limit;
+        if (hasNextPage) {
+            lists = lists.subList(0, limit);
+        }
+        if (lists.isEmpty()) {
+            return TaskListPageResponse.builder().lists(List.of()).build();
+        }
+
+        List<Long> listIds = new ArrayList<>(lists.size());
+        for (TaskListRow list : lists) {
+            listIds.add(list.getId());
+        }
+        List<TaskRow> tasks = taskRepository.findFirstTasksOfLists(listIds, taskLimit + 1);
+        return TaskListPageResponse.builder()
+                .lists(assembleLists(lists, tasks, taskLimit))
+                .nextCursor(hasNextPage ? KeysetCursor.encode(lists.getLast().getId()) : null)
+                .build();
+    }
+
+    /**
+     * Computes the weak {@link RevisionETag} of the page returned by {@link #getLists(String, int, int)} for the same
+     * arguments. Built from the paging parameters and the ids and revisions of the lists on the page only,
+     * so deciding on a {@code 304 Not Modified} never loads tasks or serializes a body.
+     *
+     * @param after     opaque cursor from a previous page, or {@code null} for the first page
+     * @param limit     maximum number of lists on the page
+     * @param taskLimit maximum number of tasks included per list
+     * @return the weak ETag of the page, {@code W/"..."}
+     */
+    @Transactional(readOnly = true)
+    public String getListsETag(String after, int limit, int taskLimit) {
+        requirePageSize("limit", limit, MAX_LIST_PAGE_SIZE);
+        requirePageSize("taskLimit", taskLimit, MAX_TASK_PAGE_SIZE);
+        long afterId = KeysetCursor.decode(after);
+
+        List<TaskListRevision> revisions = taskListRepository.findRevisionsAfter(afterId, Limit.of(limit + 1));
+        long[] values = new long[3 + 2 * revisions.size()];
+        values[0] = afterId;
+        values[1] = limit;
+        values[2] = taskLimit;
+        int index = 3;
+        for (TaskListRevision revision : revisions) {
+            values[index++] = revision.getId();
+            values[index++] = revision.getRevision();
+        }
+        return RevisionETag.of(values);
+    }
+
+    /**
+     * Computes the weak {@link RevisionETag} of the page returned by {@link #getTasks(Long, String, int)} for the same
+     * arguments. Built from the list id, the paging parameters and the revision of the list only; reordering the list
+     * bumps it too.
+     *
+     * @param listId the ID of the task list
+     * @param after  opaque cursor from a previous page, or {@code null} for the first page
+     * @param limit  maximum number of tasks on the page
+     * @return the weak ETag of the page, {@code W/"..."}
+     */
+    @Transactional(readOnly = true)
+    public String getTasksETag(@ShardKey Long listId, String after, int limit) {
+        requirePageSize("limit", limit, MAX_TASK_PAGE_SIZE);
+        RankCursor cursor = RankCursor.decode(after);
+        long revision = taskListRepository.findRevisionById(listId)
+                .orElseThrow(() -> new NotFoundException("List not found with id " + listId));
+        return RevisionETag.of(listId, revision, cursor.rank(), cursor.id(), limit);
+    }
+
+    /**
+     * Retrieves one keyset-paginated page of the tasks of a task list, in list order.
+     *
+     * @param listId the ID of the task list
+     * @param after  opaque cursor from a previous page, or {@code null} for the first page
+     * @param limit  maximum number of tasks on the page
+     * @return the {@link TaskPageResponse} with the tasks and the cursor of the next page
+     */
+    @Transactional(readOnly = true)
+    public TaskPageResponse getTasks(@ShardKey Long listId, String after, int limit) {
+        requirePageSize("limit", limit, MAX_TASK_PAGE_SIZE);
+        RankCursor cursor = RankCursor.decode(after);
+        requireListExists(listId);
+
+        List<TaskRow> rows = taskRepository.findPageOfList(listId, cursor.rank(), cursor.id(), Limit.of(limit + 1));
+        boolean hasNextPage = rows.size() > limit;
+        if (hasNextPage) {
+            rows = rows.subList(0, limit);
+        }
+        List<TaskResponse> tasks = new ArrayList<>(rows.size());
+        for (TaskRow row : rows) {
+            tasks.add(TaskResponse.from(row));
+        }
+        return TaskPageResponse.builder()
+                .tasks(tasks)
+                .nextCursor(hasNextPage ? cursorOf(rows.getLast()) : null)
+                .build();
+    }
+
+    /**
+     * Searches the names and descriptions of all tasks for the words of a query.
+     * Served by the {@link TaskSearchIndex}, so no task table scan is involved; results are ranked by relevance
+     * and paged with an opaque cursor.
+     *
+     * @param query the words to search for; a task matches if it contains all of them
+     * @param after opaque cursor of the previous page, omitted for the first page
+     * @param limit maximum number of results on the page
+     * @return a {@link TaskSearchPageResponse} with the matching tasks on the page
+     */
+    public TaskSearchPageResponse searchTasks(String query, String after, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new InvalidRequestException("Search query is required");
+        }
+        if (query.length() > SEARCH_QUERY_MAX_LENGTH) {
+            throw new InvalidRequestException("Search query must be at most " + SEARCH_QUERY_MAX_LENGTH
+                    + " characters");
+        }
+        requirePageSize("limit", limit, MAX_SEARCH_PAGE_SIZE);
+        int offset = SearchCursor.decode(after);
+
+        List<TaskSearchResult> results = taskSearchIndex.search(query, offset, limit + 1);
+        boolean hasNextPage = results.size() > limit;
+        if (hasNextPage) {
+            results = results.subList(0, limit);
+        }
+        return TaskSearchPageResponse.builder()
+                .results(results)
+                .nextCursor(hasNextPage ? SearchCursor.encode(offset + limit) : null)
+                .build();
+    }
+
+    /**
+     * Retrieves one page of the changes to task lists and tasks since a sync token.
+     * Every list and task changed since then is returned once, in its current state, together with the deletions;
+     * the returned token covers the page, so passing it with the next sync continues right after it.
+     * Without a token, all lists and tasks are returned, and no deletions.
+     * Only changes up to the {@link ChangeRevisions#watermark()} are read, so a change committed after a sync never
+     * has a revision that sync has already covered. A sync without changes runs no query at all; otherwise each
+     * source is read with one range scan of its {@code change_revision} index. The watermark is only valid on the
+     * primary, so with a read replica the changes are read from the primary too.
+     *
+     * @param since the token returned by the previous sync, or {@code null} for a full sync
+     * @param limit the maximum number of changes on the page; exceeded only by the changes of a single revision,
+     *              which are never split across pages
+     * @return the {@link ChangesResponse} with the changes and the token of the next sync
+     * @throws InvalidRequestException if the token is malformed or lies ahead of the committed changes
+     */
+    @Transactional(readOnly = true)
+    @ReadFromPrimary
+    public ChangesResponse getChanges(String since, int limit) {
+        requirePageSize("limit", limit, MAX_CHANGES_PAGE_SIZE);
+        boolean fullSync = since == null || since.isBlank();
+        long after = fullSync ? -1 : KeysetCursor.decode(since);
+        long upTo = changeRevisions.watermark();
+        if (after > upTo) {
+            throw new InvalidRequestException("Invalid sync token");
+        }
+        if (after == upTo) {
+            return changesPage(List.of(), List.of(), List.of(), upTo, false);
+        }
+
+        Limit fetch = Limit.of(limit + 1);
+        List<ListChange> lists = taskListRepository.findChanges(after, upTo, fetch);
+        List<TaskChange> tasks = taskRepository.findChanges(after, upTo, fetch);
+        List<Deletion> deletions = fullSync ? List.of() : tombstoneRepository.findChanges(after, upTo, fetch);
+        if (lists.size() + tasks.size() + deletions.size() <= limit) {
+            return changesPage(lists, tasks, deletions, upTo, false);
+        }
+
+        long boundary = revisionAt(lists, tasks, deletions, limit);
+        lists = before(lists, ListChange::getChangeRevision, boundary);
+        tasks = before(tasks, TaskChange::getChangeRevision, boundary);
+        deletions = before(deletions, Deletion::getChangeRevision, boundary);
+        if (!lists.isEmpty() || !tasks.isEmpty() || !deletions.isEmpty()) {
+            return changesPage(lists, tasks, deletions, boundary - 1, true);
+        }
+        long from = boundary - 1;
+        return changesPage(taskListRepository.findChanges(from, boundary, Limit.unlimited()),
+                taskRepository.findChanges(from, boundary, Limit.unlimited()),
+                fullSync ? List.of() : tombstoneRepository.findChanges(from, boundary, Limit.unlimited()),
+                boundary, boundary < upTo);
     }
 
     /**
@@ -44,119 +303,664 @@ public class TaskManagerService {
      */
     @Transactional
     public TaskListResponse createList(TaskListRequest request) {
+        long changeRevision = changeRevisions.next();
         TaskList list = new TaskList();
         list.setName(request.getName());
         TaskList saved = taskListRepository.save(list);
-        return TaskListResponse.from(saved);
+        taskListRepository.stampChangeRevision(List.of(saved.getId()), changeRevision);
+        eventPublisher.publishEvent(new TaskListCreatedEvent(saved.getId(), saved.getName()));
+        return TaskListResponse.from(saved, 0);
     }
 
     /**
-     * Deletes a task list by its ID.
+     * Deletes a task list and all its tasks by its ID.
+     * Only flags the list as deleted, with a single update that costs the same however many tasks the list holds;
+     * the {@link TaskPurger} removes the list and its tasks in the background. Every other write bumps the revisions
+     * of its lists and fails if a list is deleted, so no task is added to or moved into the deleted list.
+     * With an expected version, a conditional revision bump runs first; it fails if the list changed since.
+     * A tombstone records the deletion for clients syncing changes.
      *
-     * @param listId the ID of the task list to delete
+     * @param listId          the ID of the task list to delete
+     * @param expectedVersion the revision the list must have, or {@code null} to delete it regardless
+     * @throws ConflictException if the list has another revision
      */
     @Transactional
-    public void deleteList(Long listId) {
-        taskListRepository.delete(findTaskListById(listId));
+    public void deleteList(@ShardKey Long listId, Long expectedVersion) {
+        if (expectedVersion != null && taskListRepository.incrementRevisionIfCurrent(listId, expectedVersion) == 0) {
+            throw taskListRepository.existsById(listId)
+                    ? changedSince("List", listId, expectedVersion)
+                    : new NotFoundException("List not found with id " + listId);
+        }
+        if (taskListRepository.markDeleted(listId) == 0) {
+            throw new NotFoundException("List not found with id " + listId);
+        }
+        tombstoneRepository.save(Tombstone.of(Tombstone.Kind.LIST, listId, null, changeRevisions.next()));
+        eventPublisher.publishEvent(new TaskListDeletedEvent(listId));
     }
 
     /**
-     * Adds a new task to a specific task list.
+     * Adds a new task to the end of a specific task list.
      *
      * @param listId  the ID of the task list
      * @param request the {@link TaskRequest} containing task details
      * @return the created {@link TaskResponse}
      */
     @Transactional
-    public TaskResponse addTaskToList(Long listId, TaskRequest request) {
+    public TaskResponse addTaskToList(@ShardKey Long listId, TaskRequest request) {
         TaskList list = findTaskListById(listId);
+        long changeRevision = changeRevisions.next();
 
         Task task = new Task();
         task.setName(request.getName());
         task.setDescription(request.getDescription());
         task.setTaskList(list);
+        task.setChangeRevision(changeRevision);
+        task.setRank(RankKeys.append(changeRevision));
 
         Task saved = taskRepository.save(task);
 
         list.getTasks().add(saved);
+        incrementRevisions(List.of(listId), changeRevision);
+        eventPublisher.publishEvent(new TasksAddedEvent(List.of(new TaskRow(saved.getId(), listId, saved.getName(),
+                saved.getDescription(), saved.getVersion(), saved.getRank()))));
         return TaskResponse.from(saved);
     }
 
+    /**
+     * Adds a batch of new tasks to the end of a specific task list in a single transaction, in request order.
+     * The tasks are inserted as JDBC batches rather than one statement per task.
+     *
+     * @param listId   the ID of the task list
+     * @param requests the {@link TaskRequest}s containing the task details, already validated
+     * @return the created {@link TaskResponse}s, in request order
+     */
+    @Transactional
+    public List<TaskResponse> addTasksToList(@ShardKey Long listId, List<TaskRequest> requests) {
+        TaskList list = findTaskListById(listId);
+        long changeRevision = changeRevisions.next();
+
+        List<Task> tasks = new ArrayList<>(requests.size());
+        for (TaskRequest request : requests) {
+            Task task = new Task();
+            task.setName(request.getName());
+            task.setDescription(request.getDescription());
+            task.setTaskList(list);
+            task.setChangeRevision(changeRevision);
+            task.setRank(RankKeys.append(changeRevision, tasks.size(), requests.size()));
+            tasks.add(task);
+        }
+        taskRepository.insertAll(tasks);
+        incrementRevisions(List.of(listId), changeRevision);
+
+        List<TaskRow> rows = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            rows.add(new TaskRow(task.getId(), listId, task.getName(), task.getDescription(), task.getVersion(),
+                    task.getRank()));
+        }
+        eventPublisher.publishEvent(new TasksAddedEvent(rows));
+        return tasks.stream().map(TaskResponse::from).toList();
+    }
+
     /**
      * Updates an existing task.
+     * Runs the revision bump of the owning list, which also tells whether the task exists, and the update of the
+     * task, conditional on its version when one is expected. Only an unconditional update reads the task back
+     * afterwards, since its new version is not known otherwise.
      *
-     * @param taskId  the ID of the task to update
-     * @param request the {@link TaskRequest} containing updated task details
+     * @param taskId          the ID of the task to update
+     * @param request         the {@link TaskRequest} containing updated task details
+     * @param expectedVersion the version the task must have, or {@code null} to update it regardless
      * @return the updated {@link TaskResponse}
+     * @throws ConflictException if the task has another version
      */
     @Transactional
-    public TaskResponse updateTask(Long taskId, TaskRequest request) {
-        Task task = findTaskById(taskId);
-        task.setName(request.getName());
-        task.setDescription(request.getDescription());
-        return TaskResponse.from(taskRepository.save(task));
+    public TaskResponse updateTask(Long taskId, TaskRequest request, Long expectedVersion) {
+        long changeRevision = changeRevisions.next();
+        if (taskListRepository.incrementRevisionOfTaskOwner(taskId, changeRevision) == 0) {
+            throw new NotFoundException("Task not found with id " + taskId);
+        }
+        if (taskRepository.updateContent(taskId, request.getName(), request.getDescription(), expectedVersion,
+                changeRevision) == 0) {
+            throw expectedVersion != null
+                    ? changedSince("Task", taskId, expectedVersion)
+                    : new NotFoundException("Task not found with id " + taskId);
+        }
+        eventPublisher.publishEvent(new TaskUpdatedEvent(taskId, request.getName(), request.getDescription()));
+        if (expectedVersion != null) {
+            return new TaskResponse(taskId, request.getName(), request.getDescription(), expectedVersion + 1);
+        }
+        return taskRepository.findResponseById(taskId)
+                .orElseThrow(() -> new NotFoundException("Task not found with id " + taskId));
     }
 
     /**
      * Deletes a task from a task list.
+     * Runs a conditional update flagging the task as deleted, which the {@link TaskPurger} removes later, the
+     * revision bump and the insert of the tombstone that records the deletion for clients syncing changes; the list
+     * and task are only looked up to report why nothing was deleted.
      *
-     * @param listId the ID of the task list
-     * @param taskId the ID of the task to delete
+     * @param listId          the ID of the task list
+     * @param taskId          the ID of the task to delete
+     * @param expectedVersion the version the task must have, or {@code null} to delete it regardless
+     * @throws ConflictException if the task has another version
      */
     @Transactional
-    public void deleteTask(Long listId, Long taskId) {
-        TaskList list = findTaskListById(listId);
-        Task task = findTaskById(taskId);
+    public void deleteTask(@ShardKey Long listId, Long taskId, Long expectedVersion) {
+        if (taskRepository.markDeletedInList(listId, taskId, expectedVersion) == 0) {
+            throw missingOrForeignTask(listId, null, taskId, "Task does not belong to the specified list",
+                    expectedVersion);
+        }
+        long changeRevision = changeRevisions.next();
+        incrementRevisions(List.of(listId), changeRevision);
+        tombstoneRepository.save(Tombstone.of(Tombstone.Kind.TASK, taskId, listId, changeRevision));
+        eventPublisher.publishEvent(new TaskDeletedEvent(listId, taskId));
+    }
 
-        if (!task.getTaskList().getId().equals(list.getId())) {
-            throw new IllegalArgumentException("Task does not belong to the specified list");
+    /**
+     * Moves a task from one list to another, to the end of the target list or right after one of its tasks.
+     * Appending runs a conditional update guarded by the source list, the expected version and the existence of
+     * the target list, the revision bump of both lists and the read of the moved task. Positioning bumps the
+     * revisions first, locking both lists while the neighbours of the new position are read, see
+     * {@link #positionTask(Long, Long, Long, Long)}. The lists and task are only looked up to report why nothing
+     * was moved.
+     *
+     * @param fromListId      the ID of the source task list
+     * @param taskId          the ID of the task to move
+     * @param toListId        the ID of the target task list
+     * @param afterTaskId     the ID of the task of the target list to move the task after, or {@code null} to move
+     *                        it to the end of the target list
+     * @param expectedVersion the version the task must have, or {@code null} to move it regardless
+     * @return the moved {@link TaskResponse}
+     * @throws ConflictException if the task has another version
+     */
+    @Transactional
+    public TaskResponse moveTask(Long fromListId, Long taskId, Long toListId, Long afterTaskId,
+                                 Long expectedVersion) {
+        long changeRevision = changeRevisions.next();
+        long rank;
+        if (afterTaskId == null) {
+            rank = RankKeys.append(changeRevision);
+        } else {
+            incrementRevisions(List.of(fromListId, toListId), changeRevision);
+            rank = rankAfter(toListId, taskId, afterTaskId, changeRevision);
+        }
+        if (taskRepository.moveToList(taskId, fromListId, toListId, rank, expectedVersion, changeRevision) == 0) {
+            throw missingOrForeignTask(fromListId, toListId, taskId, "Task does not belong to the source list",
+                    expectedVersion);
         }
+        if (afterTaskId == null) {
+            incrementRevisions(List.of(fromListId, toListId), changeRevision);
+        }
+        eventPublisher.publishEvent(new TasksMovedEvent(fromListId, toListId, List.of(taskId)));
+        return taskRepository.findResponseById(taskId)
+                .orElseThrow(() -> new NotFoundException("Task not found with id " + taskId));
+    }
 
-        taskRepository.delete(task);
+    /**
+     * Moves a task to another position within its list: to the top, or right after another task of the list.
+     * Runs the revision bump of the list, which locks it and tells whether it exists, one or two reads of the
+     * ranks around the new position, the conditional update of the task and the read of the moved task; only the
+     * moved task is written. When its neighbours are too close to fit a rank between them, the list is rebalanced
+     * first; when the gap left is small, it is queued for a background rebalance.
+     *
+     * @param listId          the ID of the task list
+     * @param taskId          the ID of the task to move
+     * @param afterTaskId     the ID of the task to move the task after, or {@code null} to move it to the top
+     * @param expectedVersion the version the task must have, or {@code null} to move it regardless
+     * @return the moved {@link TaskResponse}
+     * @throws ConflictException if the task has another version
+     */
+    @Transactional
+    public TaskResponse positionTask(@ShardKey Long listId, Long taskId, Long afterTaskId, Long expectedVersion) {
+        if (taskId.equals(afterTaskId)) {
+            throw new InvalidRequestException("A task cannot be positioned after itself");
+        }
+        long changeRevision = changeRevisions.next();
+        if (taskListRepository.incrementRevisions(List.of(listId), changeRevision) == 0) {
+            throw new NotFoundException("List not found with id " + listId);
+        }
+        long rank = rankAfter(listId, taskId, afterTaskId, changeRevision);
+        if (taskRepository.moveToList(taskId, listId, listId, rank, expectedVersion, changeRevision) == 0) {
+            throw missingOrForeignTask(listId, null, taskId, "Task does not belong to the specified list",
+                    expectedVersion);
+        }
+        eventPublisher.publishEvent(new TasksMovedEvent(listId, listId, List.of(taskId)));
+        return taskRepository.findResponseById(taskId)
+                .orElseThrow(() -> new NotFoundException("Task not found with id " + taskId));
     }
 
     /**
-     * Moves a task from one list to another.
+     * Moves many tasks from one list to another in one transaction, selected by id or by name filter.
+     * Independent of the number of tasks, this runs one existence check of both lists, one locking select of the
+     * tasks to move, one set-based update and one revision bump. The moved tasks are appended to the target list
+     * in id order; if their ids are too far apart to rank them {@link RankKeys#GAP} apart, the target list is
+     * queued for a background rebalance.
      *
      * @param fromListId the ID of the source task list
-     * @param taskId     the ID of the task to move
-     * @param toListId   the ID of the target task list
-     * @return the moved {@link TaskResponse}
+     * @param request    the {@link BulkMoveRequest} with the target list and the task selection, already validated
+     * @return the {@link BulkMoveResponse} with the moved and rejected task IDs
      */
     @Transactional
-    public TaskResponse moveTask(Long fromListId, Long taskId, Long toListId) {
-        TaskList fromList = findTaskListById(fromListId);
-        TaskList toList = findTaskListById(toListId);
-        Task task = findTaskById(taskId);
+    public BulkMoveResponse moveTasks(Long fromListId, BulkMoveRequest request) {
+        Long toListId = request.getToListId();
+        if (fromListId.equals(toListId)) {
+            throw new InvalidRequestException("Source and target list must be different");
+        }
+        List<Long> existing = taskListRepository.findExistingIds(List.of(fromListId, toListId));
+        for (Long listId : List.of(fromListId, toListId)) {
+            if (!existing.contains(listId)) {
+                throw new NotFoundException("List not found with id " + listId);
+            }
+        }
 
-        if (!task.getTaskList().getId().equals(fromList.getId())) {
-            throw new IllegalArgumentException("Task does not belong to the source list");
+        List<Long> moved;
+        List<Long> rejected = List.of();
+        if (request.getTaskIds() != null) {
+            moved = taskRepository.lockIdsOfList(fromListId, new LinkedHashSet<>(request.getTaskIds()));
+            if (moved.size() < request.getTaskIds().size()) {
+                Set<Long> movedIds = new HashSet<>(moved);
+                rejected = request.getTaskIds().stream().distinct().filter(id -> !movedIds.contains(id)).toList();
+            }
+        } else {
+            moved = taskRepository.lockIdsOfListByName(fromListId, containsPattern(request.getNameContains()),
+                    Limit.of(BulkMoveRequest.MAX_TASKS + 1));
+            if (moved.size() > BulkMoveRequest.MAX_TASKS) {
+                throw new InvalidRequestException("Name filter matches more than " + BulkMoveRequest.MAX_TASKS
+                        + " tasks");
+            }
         }
 
-        task.setTaskList(toList);
-        return TaskResponse.from(taskRepository.save(task));
+        if (!moved.isEmpty()) {
+            long changeRevision = changeRevisions.next();
+            long rankSpacing = RankKeys.spacing(moved.getLast() - moved.getFirst() + 1);
+            taskRepository.moveAllToList(moved, toListId, RankKeys.append(changeRevision), moved.getFirst(),
+                    rankSpacing, changeRevision);
+            if (rankSpacing < RankKeys.MIN_GAP) {
+                rankRebalancer.requestRebalance(toListId);
+            }
+            incrementRevisions(List.of(fromListId, toListId), changeRevision);
+            eventPublisher.publishEvent(new TasksMovedEvent(fromListId, toListId, moved));
+        }
+        return BulkMoveResponse.builder()
+                .moved(moved)
+                .rejected(rejected)
+                .build();
     }
 
     /**
-     * Finds a task list by its ID or throws an {@link EntityNotFoundException}.
+     * Reads the tasks selected by a move, by id or by name filter, without moving them. The first step of a move
+     * between lists on different shards, which are copied to the target list and then deleted from the source.
+     *
+     * @param fromListId the ID of the source task list
+     * @param request    the {@link BulkMoveRequest} with the task selection, already validated
+     * @return the selected tasks of the source list, in ascending id order
+     */
+    @Transactional(readOnly = true)
+    public List<TaskRow> findTasksToMove(@ShardKey Long fromListId, BulkMoveRequest request) {
+        requireListExists(fromListId);
+        if (request.getTaskIds() != null) {
+            return taskRepository.findRowsOfList(fromListId, new LinkedHashSet<>(request.getTaskIds()));
+        }
+        List<TaskRow> tasks = taskRepository.findRowsOfListByName(fromListId,
+                containsPattern(request.getNameContains()), Limit.of(BulkMoveRequest.MAX_TASKS + 1));
+        if (tasks.size() > BulkMoveRequest.MAX_TASKS) {
+            throw new InvalidRequestException("Name filter matches more than " + BulkMoveRequest.MAX_TASKS
+                    + " tasks");
+        }
+        return tasks;
+    }
+
+    /**
+     * Inserts copies of tasks read by {@link #findTasksToMove(Long, BulkMoveRequest)} into the target list, keeping
+     * their ids and incrementing their versions, as JDBC batches. The revision bump of the target list runs first
+     * and locks it; the copies are appended in the given order, or a single copy is positioned right after a task.
+     * No event is published, the move is announced once the originals are deleted.
+     *
+     * @param toListId    the ID of the target task list
+     * @param tasks       the tasks to copy
+     * @param afterTaskId the ID of the task of the target list to position a single copy after, or {@code null} to
+     *                    append the copies
+     * @return the copies, in the given order
+     */
+    @Transactional
+    public List<TaskRow> copyMovedTasks(@ShardKey Long toListId, List<TaskRow> tasks, Long afterTaskId) {
+        if (tasks.isEmpty()) {
+            findTaskListById(toListId);
+            return List.of();
+        }
+        long changeRevision = changeRevisions.next();
+        if (taskListRepository.incrementRevisions(List.of(toListId), changeRevision) == 0) {
+            throw new NotFoundException("List not found with id " + toListId);
+        }
+        List<TaskRow> copies = new ArrayList<>(tasks.size());
+        for (TaskRow task : tasks) {
+            long rank = afterTaskId != null
+                    ? rankAfter(toListId, task.getId(), afterTaskId, changeRevision)
+                    : RankKeys.append(changeRevision, copies.size(), tasks.size());
+            copies.add(new TaskRow(task.getId(), toListId, task.getName(), task.getDescription(),
+                    task.getVersion() + 1, rank));
+        }
+        taskRepository.insertRows(copies, changeRevision);
+        return copies;
+    }
+
+    /**
+     * Deletes the originals of moved tasks from the source list, each only if it still has the version it was
+     * copied with, bumps the revision of the list and publishes the move of the deleted ones. No tombstone is
+     * written: the copies carry the same ids, so a syncing client sees the tasks change lists.
+     *
+     * @param fromListId the ID of the source task list
+     * @param tasks      the tasks as read by {@link #findTasksToMove(Long, BulkMoveRequest)}
+     * @param toListId   the ID of the target task list holding the copies
+     * @return the IDs of the deleted tasks, in the given order; the others have changed since they were read
+     */
+    @Transactional
+    public List<Long> deleteMovedTasks(@ShardKey Long fromListId, List<TaskRow> tasks, Long toListId) {
+        List<Long> deleted = new ArrayList<>(tasks.size());
+        for (TaskRow task : tasks) {
+            if (taskRepository.deleteFromList(fromListId, task.getId(), task.getVersion()) > 0) {
+                deleted.add(task.getId());
+            }
+        }
+        if (!deleted.isEmpty()) {
+            taskListRepository.incrementRevisions(List.of(fromListId), changeRevisions.next());
+            eventPublisher.publishEvent(new TasksMovedEvent(fromListId, toListId, deleted));
+        }
+        return deleted;
+    }
+
+    /**
+     * Deletes copies made by {@link #copyMovedTasks(Long, List, Long)} whose originals could not be deleted, undoing
+     * that part of a move between shards. Tombstones record the deletions for clients that synced the copies.
+     *
+     * @param toListId the ID of the target task list holding the copies
+     * @param copies   the copies to delete
+     */
+    @Transactional
+    public void discardMovedTasks(@ShardKey Long toListId, List<TaskRow> copies) {
+        long changeRevision = changeRevisions.next();
+        for (TaskRow copy : copies) {
+            if (taskRepository.deleteFromList(toListId, copy.getId(), null) > 0) {
+                tombstoneRepository.save(Tombstone.of(Tombstone.Kind.TASK, copy.getId(), toListId, changeRevision));
+            }
+        }
+        taskListRepository.incrementRevisions(List.of(toListId), changeRevision);
+    }
+
+    /**
+     * Stamps a new change revision on those of the given tasks that still exist on the shard of a list, without
+     * changing them, so clients syncing afterwards get them again. Runs after
+     * {@link #discardMovedTasks(Long, List)}, whose tombstones would otherwise be the last word on these ids.
+     *
+     * @param listId  the ID of a task list on the shard of the tasks
+     * @param taskIds the IDs of the tasks
+     */
+    @Transactional
+    public void touchTasks(@ShardKey Long listId, List<Long> taskIds) {
+        taskRepository.stampChangeRevision(taskIds, changeRevisions.next());
+    }
+
+    /**
+     * Bumps the revisions of the lists a write changed and ensures none of them is deleted. The bump skips deleted
+     * lists and locks the others, so a write racing the deletion of one of its lists fails, rolling back, instead
+     * of leaving tasks behind in a deleted list. The lists are only looked up to report which one is missing.
+     *
+     * @param listIds        the IDs of the task lists, possibly the same one twice
+     * @param changeRevision the change revision of the write
+     * @throws NotFoundException if one of the lists does not exist
+     */
+    private void incrementRevisions(List<Long> listIds, long changeRevision) {
+        if (taskListRepository.incrementRevisions(listIds, changeRevision) < new HashSet<>(listIds).size()) {
+            List<Long> existing = taskListRepository.findExistingIds(listIds);
+            Long missing = listIds.stream().filter(id -> !existing.contains(id)).findFirst().orElse(listIds.getFirst());
+            throw new NotFoundException("List not found with id " + missing);
+        }
+    }
+
+    /**
+     * Computes the rank that puts a task at the top of a list or right after another of its tasks, leaving the task
+     * itself out of the neighbours. The list must be locked by a revision bump in the current transaction.
+     * A rank right after the last task is a new append key, a rank at the top is {@link RankKeys#GAP} below the
+     * first task and any other rank is the midpoint of the neighbours; if they are adjacent, the list is
+     * rebalanced inline first.
+     *
+     * @param listId         the ID of the task list
+     * @param taskId         the ID of the task to position
+     * @param afterTaskId    the ID of the task to position it after, or {@code null} for the top
+     * @param changeRevision the change revision of the move
+     * @return the rank of the task
+     * @throws InvalidRequestException if {@code afterTaskId} is not a task of the list
+     */
+    private long rankAfter(Long listId, Long taskId, Long afterTaskId, long changeRevision) {
+        if (afterTaskId == null) {
+            List<Long> first = taskRepository.findFirstRank(listId, taskId, Limit.of(1));
+            return first.isEmpty() ? RankKeys.append(changeRevision) : first.getFirst() - RankKeys.GAP;
+        }
+        for (boolean rebalanced = false; ; rebalanced = true) {
+            long before = taskRepository.findRankInList(afterTaskId, listId)
+                    .orElseThrow(() -> new InvalidRequestException("Task " + afterTaskId
+                            + " does not belong to list " + listId));
+            List<Long> next = taskRepository.findNextRank(listId, before, afterTaskId, taskId, Limit.of(1));
+            if (next.isEmpty()) {
+                return RankKeys.append(changeRevision);
+            }
+            long after = next.getFirst();
+            if (after - before >= 2 || rebalanced) {
+                long rank = RankKeys.between(before, after);
+                if (rank - before < RankKeys.MIN_GAP) {
+                    rankRebalancer.requestRebalance(listId);
+                }
+                return rank;
+            }
+            rankRebalancer.rebalance(listId);
+        }
+    }
+
+    /**
+     * Builds the cursor of the page of tasks ending with a task.
+     *
+     * @param last the last task of the page
+     * @return the opaque cursor of the next page
+     */
+    private static String cursorOf(TaskRow last) {
+        return new RankCursor(last.getRank(), last.getId()).encode();
+    }
+
+    /**
+     * Finds the change revision of the change at a position of the merged, revision-ordered changes.
+     *
+     * @param lists     the list changes, ordered by revision
+     * @param tasks     the task changes, ordered by revision
+     * @param deletions the deletions, ordered by revision
+     * @param position  the zero-based position, less than the number of changes
+     * @return the revision of the change at that position
+     */
+    private static long revisionAt(List<ListChange> lists, List<TaskChange> tasks, List<Deletion> deletions,
+                                   int position) {
+        long[] revisions = new long[lists.size() + tasks.size() + deletions.size()];
+        int index = 0;
+        for (ListChange list : lists) {
+            revisions[index++] = list.getChangeRevision();
+        }
+        for (TaskChange task : tasks) {
+            revisions[index++] = task.getChangeRevision();
+        }
+        for (Deletion deletion : deletions) {
+            revisions[index++] = deletion.getChangeRevision();
+        }
+        Arrays.sort(revisions);
+        return revisions[position];
+    }
+
+    /**
+     * Returns the leading changes whose revision is below a boundary.
+     *
+     * @param changes  the changes, ordered by revision
+     * @param revision the revision of a change
+     * @param boundary the first revision excluded
+     * @param <T>      the type of the changes
+     * @return the changes before the boundary
+     */
+    private static <T> List<T> before(List<T> changes, ToLongFunction<T> revision, long boundary) {
+        int end = 0;
+        while (end < changes.size() && revision.applyAsLong(changes.get(end)) < boundary) {
+            end++;
+        }
+        return changes.subList(0, end);
+    }
+
+    /**
+     * Builds a page of changes.
+     *
+     * @param lists     the list changes on the page
+     * @param tasks     the task changes on the page
+     * @param deletions the deletions on the page
+     * @param upTo      the last change revision the page covers
+     * @param hasMore   whether changes after {@code upTo} are already available
+     * @return the {@link ChangesResponse}
+     */
+    private static ChangesResponse changesPage(List<ListChange> lists, List<TaskChange> tasks,
+                                               List<Deletion> deletions, long upTo, boolean hasMore) {
+        return ChangesResponse.builder()
+                .lists(lists)
+                .tasks(tasks)
+                .deletions(deletions)
+                .nextToken(KeysetCursor.encode(upTo))
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * Builds a lower-case {@code like} pattern matching names that contain the given text,
+     * escaping the pattern characters of the text with {@code \}.
+     *
+     * @param text the text the names must contain
+     * @return the {@code like} pattern
+     */
+    private static String containsPattern(String text) {
+        String escaped = text.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
+    /**
+     * Assembles list responses from list rows and task rows, both ordered by list id, in a single merge pass.
+     * The tasks of a list keep the order of the rows, which is their order in the list.
+     * Task rows of lists that are not among {@code lists} are skipped. Each list keeps at most {@code taskLimit}
+     * tasks; when more were read, the list gets the cursor of its last included task.
+     *
+     * @param lists     the rows of the lists, in ascending id order
+     * @param tasks     the rows of their tasks, ordered by list id and then by position within the list
+     * @param taskLimit maximum number of tasks included per list
+     * @return the list responses, in the order of {@code lists}
+     */
+    private static List<TaskListResponse> assembleLists(List<TaskListRow> lists, List<TaskRow> tasks, int taskLimit) {
+        List<TaskListResponse> responses = new ArrayList<>(lists.size());
+        int next = 0;
+        for (TaskListRow list : lists) {
+            long listId = list.getId();
+            while (next < tasks.size() && tasks.get(next).getListId() < listId) {
+                next++;
+            }
+            List<TaskResponse> listTasks = new ArrayList<>();
+            TaskRow lastIncluded = null;
+            String nextTaskCursor = null;
+            while (next < tasks.size() && tasks.get(next).getListId() == listId) {
+                TaskRow task = tasks.get(next++);
+                if (listTasks.size() < taskLimit) {
+                    listTasks.add(TaskResponse.from(task));
+                    lastIncluded = task;
+                } else if (nextTaskCursor == null) {
+                    nextTaskCursor = cursorOf(lastIncluded);
+                }
+            }
+            responses.add(TaskListResponse.from(list, listTasks, nextTaskCursor));
+        }
+        return responses;
+    }
+
+    /**
+     * Explains why a conditional task mutation affected no rows, in the order the checks were made before
+     * the mutations became single statements: a missing list, then a missing task, then a task of another list.
+     * A task that is in the right list can only have failed its expected version.
+     * Only runs on the failure path.
+     *
+     * @param listId          the ID of the list the task had to belong to
+     * @param otherListId     the ID of a second list that had to exist, or {@code null}
+     * @param taskId          the ID of the task
+     * @param foreignReason   the message used when the lists and the task exist
+     * @param expectedVersion the version the task had to have, or {@code null}
+     * @return the exception to throw
+     */
+    private RuntimeException missingOrForeignTask(Long listId, Long otherListId, Long taskId, String foreignReason,
+                                                  Long expectedVersion) {
+        if (!taskListRepository.existsById(listId)) {
+            return new NotFoundException("List not found with id " + listId);
+        }
+        if (otherListId != null && !taskListRepository.existsById(otherListId)) {
+            return new NotFoundException("List not found with id " + otherListId);
+        }
+        if (!taskRepository.existsById(taskId)) {
+            return new NotFoundException("Task not found with id " + taskId);
+        }
+        if (expectedVersion != null && taskRepository.existsByIdAndTaskListId(taskId, listId)) {
+            return changedSince("Task", taskId, expectedVersion);
+        }
+        return new InvalidRequestException(foreignReason);
+    }
+
+    /**
+     * Builds the exception for a write whose expected version no longer matches, answered with {@code 409 Conflict}.
+     *
+     * @param entity          the kind of the written entity, used in the message
+     * @param id              the ID of the written entity
+     * @param expectedVersion the version the writer expected
+     * @return the exception to throw
+     */
+    private static ConflictException changedSince(String entity, Long id, long expectedVersion) {
+        return new ConflictException(entity + " " + id + " has changed since version " + expectedVersion);
+    }
+
+    /**
+     * Ensures a requested page size is between 1 and the given maximum.
+     *
+     * @param name  the name of the request parameter, used in the error message
+     * @param value the requested page size
+     * @param max   the maximum allowed page size
+     * @throws InvalidRequestException if the page size is out of range
+     */
+    private static void requirePageSize(String name, int value, int max) {
+        if (value < 1 || value > max) {
+            throw new InvalidRequestException(name + " must be between 1 and " + max);
+        }
+    }
+
+    /**
+     * Finds a task list by its ID or throws a {@link NotFoundException}.
+     * Served from the second-level cache when the list was loaded before.
      *
      * @param id the ID of the task list
      * @return the {@link TaskList}
      */
     private TaskList findTaskListById(Long id) {
         return taskListRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("List not found with id " + id));
+                .orElseThrow(() -> new NotFoundException("List not found with id " + id));
     }
 
     /**
-     * Finds a task by its ID or throws an {@link EntityNotFoundException}.
+     * Checks that a task list exists or throws a {@link NotFoundException}.
+     * Read-only transactions use this instead of {@link #findTaskListById(Long)}: they may run on the read replica,
+     * and a list loaded from there would put its possibly stale row into the second-level cache that the primary
+     * reads too, where it could outlive the replication lag, for example as a list deleted in the meantime. A list
+     * already cached is still served from the cache.
      *
-     * @param id the ID of the task
-     * @return the {@link Task}
+     * @param id the ID of the task list
      */
-    private Task findTaskById(Long id) {
-        return taskRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Task not found with id " + id));
+    private void requireListExists(Long id) {
+        if (taskListRepository.findByIdWithoutCaching(id).isEmpty()) {
+            throw new NotFoundException("List not found with id " + id);
+        }
     }
 }
-
@@ -0,0 +1,238 @@
+package com.taskmanager.service;
+
+import com.taskmanager.entity.TaskListRepository;
+import com.taskmanager.entity.TaskRepository;
+import com.taskmanager.shard.ShardRoutingDataSource;
+import com.taskmanager.shard.Shards;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Removes deleted task lists and tasks in the background. Deletes only flag rows, see
+ * {@link TaskManagerService#deleteList(Long, Long)} and {@link TaskManagerService#deleteTask(Long, Long, Long)};
+ * a single background thread removes the flagged rows in chunks of at most {@code taskmanager.purge.chunk-size}
+ * rows, one short transaction each, so no purge holds many locks or a long transaction. It pauses for
+ * {@code taskmanager.purge.pause} between chunks, which bounds the rate of the purge and leaves the database to the
+ * requests, and for {@code taskmanager.purge.idle-interval} once nothing is left. With sharding, every shard is
+ * purged in turn.
+ * <p>
+ * The rows still to be purged are published as the {@value #BACKLOG_NAME} gauge and the purged rows are counted in
+ * {@value #PURGED_NAME}, both tagged with the {@code kind} of row, {@code list} or {@code task}.
+ * </p>
+ */
+@Component
+public class TaskPurger implements SmartLifecycle {
+
+    /**
+     * Name of the gauge of deleted rows waiting to be purged.
+     */
+    public static final String BACKLOG_NAME = "taskmanager.purge.backlog";
+
+    /**
+     * Name of the counter of purged rows.
+     */
+    public static final String PURGED_NAME = "taskmanager.purge.rows";
+
+    /**
+     * Number of deleted lists looked up per chunk; the chunk purges their tasks until its row budget is spent.
+     */
+    private static final int LISTS_PER_CHUNK = 16;
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskPurger.class);
+
+    private final TaskListRepository taskListRepository;
+    private final TaskRepository taskRepository;
+    private final ObjectProvider<Shards> shards;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final Duration pause;
+    private final Duration idleInterval;
+    private final AtomicLong listBacklog = new AtomicLong();
+    private final AtomicLong taskBacklog = new AtomicLong();
+    private final Counter purgedLists;
+    private final Counter purgedTasks;
+
+    private volatile boolean running;
+    private volatile Thread worker;
+    private volatile CountDownLatch stopped;
+
+    /**
+     * Creates the purger; the background thread starts with the application context.
+     *
+     * @param taskListRepository the repository finding and removing deleted lists
+     * @param taskRepository     the repository removing deleted tasks and the tasks of deleted lists
+     * @param shards             the shards, if sharding is enabled
+     * @param transactionManager the transaction manager of the purge chunks
+     * @param meterRegistry      the registry of the backlog gauges and the purge counters
+     * @param chunkSize          the maximum number of rows removed per transaction
+     * @param pause              how long the purger waits between chunks
+     * @param idleInterval       how long the purger waits once nothing is left to purge
+     */
+    public TaskPurger(TaskListRepository taskListRepository,
+                      TaskRepository taskRepository,
+                      ObjectProvider<Shards> shards,
+                      PlatformTransactionManager transactionManager,
+                      MeterRegistry meterRegistry,
+                      @Value("${taskmanager.purge.chunk-size:500}") int chunkSize,
+                      @Value("${taskmanager.purge.pause:100ms}") Duration pause,
+                      @Value("${taskmanager.purge.idle-interval:5s}") Duration idleInterval) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("taskmanager.purge.chunk-size must be positive");
+        }
+        this.taskListRepository = taskListRepository;
+        this.taskRepository = taskRepository;
+        this.shards = shards;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.pause = pause;
+        this.idleInterval = idleInterval;
+        this.purgedLists = purged(meterRegistry, "list");
+        this.purgedTasks = purged(meterRegistry, "task");
+        backlog(meterRegistry, "list", listBacklog);
+        backlog(meterRegistry, "task", taskBacklog);
+    }
+
+    /**
+     * Starts the background thread.
+     */
+    @Override
+    public void start() {
+        stopped = new CountDownLatch(1);
+        running = true;
+        worker = Thread.ofPlatform().name("task-purger").daemon().start(this::purgeUntilStopped);
+    }
+
+    /**
+     * Stops the background thread after the chunk in progress; rows not purged yet stay flagged and are purged
+     * after the next start.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        Thread current = worker;
+        if (current == null) {
+            return;
+        }
+        stopped.countDown();
+        try {
+            current.join();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Purges one chunk on every shard. While chunks are full, the backlog is only decreased by the rows they purged;
+     * it is counted again once every shard has run out of rows, when the count is cheap, so purging a large backlog
+     * does not count it over and over.
+     *
+     * @return whether a chunk was full, so more rows may be waiting
+     */
+    public boolean purgeOnce() {
+        Shards sharded = shards.getIfAvailable();
+        int shardCount = sharded == null ? 1 : sharded.count();
+        boolean full = false;
+        for (int shard = 0; shard < shardCount; shard++) {
+            full |= ShardRoutingDataSource.onShardOf(shard, this::purgeChunk);
+        }
+        if (full) {
+            return true;
+        }
+        long lists = 0;
+        long tasks = 0;
+        for (int shard = 0; shard < shardCount; shard++) {
+            long[] backlog = ShardRoutingDataSource.onShardOf(shard, () -> transactionTemplate.execute(status ->
+                    new long[] {taskListRepository.countDeleted(), taskRepository.countDeleted()}));
+            lists += backlog[0];
+            tasks += backlog[1];
+        }
+        listBacklog.set(lists);
+        taskBacklog.set(tasks);
+        return false;
+    }
+
+    /**
+     * Background loop: purges chunks until stopped, pausing between them.
+     */
+    private void purgeUntilStopped() {
+        while (running) {
+            Duration wait;
+            try {
+                wait = purgeOnce() ? pause : idleInterval;
+            } catch (RuntimeException exception) {
+                logger.warn("Purging deleted task lists and tasks failed", exception);
+                wait = idleInterval;
+            }
+            try {
+                if (stopped.await(wait.toMillis(), TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            } catch (InterruptedException exception) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Removes up to {@code chunkSize} deleted rows of the current shard in one transaction: deleted tasks first,
+     * then the tasks of deleted lists, each list once none of its tasks is left. A chunk is full once it spent its row
+     * budget or removed {@value #LISTS_PER_CHUNK} lists, so a backlog of empty lists is purged at the pace of
+     * {@code taskmanager.purge.pause} as well.
+     *
+     * @return whether the chunk was full
+     */
+    private boolean purgeChunk() {
+        int[] purged = transactionTemplate.execute(status -> {
+            int budget = chunkSize - taskRepository.purgeDeleted(chunkSize);
+            int lists = 0;
+            if (budget > 0) {
+                List<Long> listIds = taskListRepository.findDeletedIds(LISTS_PER_CHUNK);
+                for (int i = 0; i < listIds.size() && budget > 0; i++) {
+                    budget -= taskRepository.purgeOfList(listIds.get(i), budget);
+                    if (budget > 0) {
+                        lists += taskListRepository.purgeDeleted(listIds.get(i));
+                    }
+                }
+            }
+            return new int[] {chunkSize - budget, lists};
+        });
+        purgedTasks.increment(purged[0]);
+        purgedLists.increment(purged[1]);
+        taskBacklog.updateAndGet(backlog -> Math.max(0, backlog - purged[0]));
+        listBacklog.updateAndGet(backlog -> Math.max(0, backlog - purged[1]));
+        return purged[0] == chunkSize || purged[1] == LISTS_PER_CHUNK;
+    }
+
+    private static Counter purged(MeterRegistry meterRegistry, String kind) {
+        return Counter.builder(PURGED_NAME)
+                .description("Deleted rows removed by the background purge")
+                .tag("kind", kind)
+                .register(meterRegistry);
+    }
+
+    private static void backlog(MeterRegistry meterRegistry, String kind, AtomicLong value) {
+        Gauge.builder(BACKLOG_NAME, value, AtomicLong::get)
+                .description("Deleted rows waiting for the background purge")
+                .tag("kind", kind)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,55 @@
+package com.taskmanager.service;
+
+import com.taskmanager.exception.InvalidRequestException;
+
+/**
+ * Converts between entity versions and the strong ETags used in {@code If-Match} preconditions of writes.
+ * The tag is the quoted version, e.g. {@code "3"}, so a client can build it from the {@code version} of a response
+ * as well as take it from an {@code ETag} header.
+ */
+public final class VersionETag {
+
+    private static final String ANY = "*";
+    private static final String INVALID = "If-Match must be * or a single quoted version, e.g. \"3\"";
+
+    private VersionETag() {
+    }
+
+    /**
+     * Builds the quoted strong ETag of a version.
+     *
+     * @param version the version of the entity
+     * @return the quoted ETag, e.g. {@code "3"}
+     */
+    public static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Parses the {@code If-Match} header of a write into the version the target must have.
+     * Only {@code *} and a single strong tag are accepted; weak tags never match under the strong comparison
+     * that {@code If-Match} requires.
+     *
+     * @param ifMatch the header value, or {@code null} if the request has none
+     * @return the expected version, or {@code null} if the write is unconditional ({@code *} or no header)
+     * @throws InvalidRequestException if the header is not {@code *} or a single quoted version
+     */
+    public static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.strip().equals(ANY)) {
+            return null;
+        }
+        String tag = ifMatch.strip();
+        try {
+            if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+                throw new InvalidRequestException(INVALID);
+            }
+            long version = Long.parseLong(tag.substring(1, tag.length() - 1));
+            if (version < 0) {
+                throw new InvalidRequestException(INVALID);
+            }
+            return version;
+        } catch (IllegalArgumentException exception) {
+            throw new InvalidRequestException(INVALID);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.taskmanager.shard;
+
+import com.taskmanager.entity.TaskRepository;
+import com.taskmanager.entity.TaskRow;
+import com.taskmanager.exception.ConflictException;
+import com.taskmanager.exception.InvalidRequestException;
+import com.taskmanager.exception.NotFoundException;
+import com.taskmanager.model.request.BulkMoveRequest;
+import com.taskmanager.model.response.BulkMoveResponse;
+import com.taskmanager.model.response.TaskResponse;
+import com.taskmanager.service.TaskManagerService;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Moves tasks between lists on different shards, which no single transaction can do. The move runs as three
+ * transactions, each on one shard: the tasks are read from the source list, copied into the target list with their
+ * ids, and the originals are deleted, each only if it has not changed since it was read. The copy comes first, so
+ * a failure part way leaves a task in both lists rather than in none.
+ * <p>
+ * A task that changed in between keeps its original: its copy is discarded and it is stamped with a new change
+ * revision, so clients that synced the copy get the original again. A single move then fails with a conflict,
+ * a bulk move rejects the task.
+ * </p>
+ */
+public class CrossShardMoves {
+
+    private final TaskManagerService taskManagerService;
+
+    private final TaskRepository taskRepository;
+
+    private final Shards shards;
+
+    /**
+     * Creates the coordinator.
+     *
+     * @param taskManagerService the service running each step on the shard of its list
+     * @param taskRepository     the repository looking up tasks on every shard
+     * @param shards             the shards
+     */
+    public CrossShardMoves(TaskManagerService taskManagerService, TaskRepository taskRepository, Shards shards) {
+        this.taskManagerService = taskManagerService;
+        this.taskRepository = taskRepository;
+        this.shards = shards;
+    }
+
+    /**
+     * Moves a task to a list on another shard, like {@link TaskManagerService#moveTask}.
+     *
+     * @param fromListId      the ID of the source task list
+     * @param taskId          the ID of the task to move
+     * @param toListId        the ID of the target task list
+     * @param afterTaskId     the ID of the task of the target list to move the task after, or {@code null} to move
+     *                        it to the end of the target list
+     * @param expectedVersion the version the task must have, or {@code null} to move it regardless
+     * @return the moved {@link TaskResponse}
+     * @throws ConflictException if the task has another version, or changed while it was moved
+     */
+    public TaskResponse moveTask(Long fromListId, Long taskId, Long toListId, Long afterTaskId,
+                                 Long expectedVersion) {
+        List<TaskRow> tasks = taskManagerService.findTasksToMove(fromListId,
+                new BulkMoveRequest(toListId, List.of(taskId), null));
+        if (tasks.isEmpty()) {
+            taskManagerService.copyMovedTasks(toListId, List.of(), null);
+            throw taskExists(taskId)
+                    ? new InvalidRequestException("Task does not belong to the source list")
+                    : new NotFoundException("Task not found with id " + taskId);
+        }
+        TaskRow task = tasks.getFirst();
+        if (expectedVersion != null && task.getVersion() != expectedVersion) {
+            throw changedSince(taskId, expectedVersion);
+        }
+
+        List<TaskRow> copies = taskManagerService.copyMovedTasks(toListId, tasks, afterTaskId);
+        if (taskManagerService.deleteMovedTasks(fromListId, tasks, toListId).isEmpty()) {
+            undo(fromListId, toListId, copies);
+            throw changedSince(taskId, task.getVersion());
+        }
+        return TaskResponse.from(copies.getFirst());
+    }
+
+    /**
+     * Moves many tasks to a list on another shard, like {@link TaskManagerService#moveTasks}.
+     *
+     * @param fromListId the ID of the source task list
+     * @param request    the {@link BulkMoveRequest} with the target list and the task selection, already validated
+     * @return the {@link BulkMoveResponse} with the moved tasks and those rejected, including the ones that changed
+     * while they were moved
+     */
+    public BulkMoveResponse moveTasks(Long fromListId, BulkMoveRequest request) {
+        Long toListId = request.getToListId();
+        List<TaskRow> tasks = taskManagerService.findTasksToMove(fromListId, request);
+        List<TaskRow> copies = taskManagerService.copyMovedTasks(toListId, tasks, null);
+        List<Long> moved = tasks.isEmpty() ? List.of()
+                : taskManagerService.deleteMovedTasks(fromListId, tasks, toListId);
+
+        Set<Long> movedIds = new HashSet<>(moved);
+        List<TaskRow> changed = new ArrayList<>();
+        for (TaskRow copy : copies) {
+            if (!movedIds.contains(copy.getId())) {
+                changed.add(copy);
+            }
+        }
+        if (!changed.isEmpty()) {
+            undo(fromListId, toListId, changed);
+        }
+
+        List<Long> rejected;
+        if (request.getTaskIds() != null) {
+            rejected = request.getTaskIds().stream().distinct().filter(id -> !movedIds.contains(id)).toList();
+        } else {
+            rejected = changed.stream().map(TaskRow::getId).toList();
+        }
+        return BulkMoveResponse.builder()
+                .moved(moved)
+                .rejected(rejected)
+                .build();
+    }
+
+    /**
+     * Discards the copies of tasks whose originals could not be deleted, then stamps the originals that still exist
+     * with a new change revision, in that order, so their revision is the later one.
+     *
+     * @param fromListId the ID of the source task list
+     * @param toListId   the ID of the target task list
+     * @param copies     the copies to discard
+     */
+    private void undo(Long fromListId, Long toListId, List<TaskRow> copies) {
+        taskManagerService.discardMovedTasks(toListId, copies);
+        taskManagerService.touchTasks(fromListId, copies.stream().map(TaskRow::getId).toList());
+    }
+
+    private boolean taskExists(Long taskId) {
+        return shards.gather(shard -> taskRepository.existsById(taskId)).contains(true);
+    }
+
+    private static ConflictException changedSince(Long taskId, long version) {
+        return new ConflictException("Task " + taskId + " has changed since version " + version);
+    }
+}
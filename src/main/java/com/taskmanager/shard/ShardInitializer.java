@@ -0,0 +1,98 @@
+package com.taskmanager.shard;
+
+import com.taskmanager.entity.Task;
+import com.taskmanager.entity.TaskListRepository;
+import com.taskmanager.entity.TaskRepository;
+import com.taskmanager.entity.TombstoneRepository;
+import com.taskmanager.service.ChangeRevisions;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.util.Collections;
+
+/**
+ * Prepares the id allocation of every shard at startup, once the schema exists.
+ * <ul>
+ *   <li>The task list identity of shard {@code s} of {@code n} is set to count in steps of {@code n} from the next
+ *   value congruent to {@code s}, so the id of a list names its shard. A shard holding a list of another shard,
+ *   for instance after the number of shards changed, fails the startup: the lists would have to be moved first.</li>
+ *   <li>The task id sequence of shard {@code s} is set so that the first task id it hands out is
+ *   {@code s << }{@value #TASK_ID_BITS} at least. Every shard hands out task ids from a range of its own, so the id
+ *   names the shard that created the task, and a task keeps its id when moved to another shard.</li>
+ *   <li>Change revisions continue after the highest revision stored on any shard.</li>
+ * </ul>
+ */
+public class ShardInitializer implements InitializingBean {
+
+    /**
+     * Number of bits of the task id range of each shard; {@value Shards#MAX_SHARDS} ranges stay below
+     * {@code 2^53}, the largest integer JSON clients read exactly.
+     */
+    static final int TASK_ID_BITS = 48;
+
+    private final Shards shards;
+    private final JdbcTemplate jdbcTemplate;
+    private final String nextTaskIdQuery;
+    private final TaskListRepository taskListRepository;
+    private final TaskRepository taskRepository;
+    private final TombstoneRepository tombstoneRepository;
+    private final ChangeRevisions changeRevisions;
+
+    /**
+     * Creates the initializer.
+     *
+     * @param shards              the shards
+     * @param jdbcTemplate        the template over the routing data source
+     * @param nextTaskIdQuery     the query of the next value of the task id sequence, in the dialect of the shards
+     * @param taskListRepository  the repository reading the highest list change revision
+     * @param taskRepository      the repository reading the highest task change revision
+     * @param tombstoneRepository the repository reading the highest deletion change revision
+     * @param changeRevisions     the allocator of change revisions
+     */
+    public ShardInitializer(Shards shards, JdbcTemplate jdbcTemplate, String nextTaskIdQuery,
+                            TaskListRepository taskListRepository, TaskRepository taskRepository,
+                            TombstoneRepository tombstoneRepository, ChangeRevisions changeRevisions) {
+        this.shards = shards;
+        this.jdbcTemplate = jdbcTemplate;
+        this.nextTaskIdQuery = nextTaskIdQuery;
+        this.taskListRepository = taskListRepository;
+        this.taskRepository = taskRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.changeRevisions = changeRevisions;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        long lastRevision = Collections.max(shards.gather(shard -> {
+            allocateListIds(shard);
+            allocateTaskIds(shard);
+            return Math.max(taskListRepository.findMaxChangeRevision(),
+                    Math.max(taskRepository.findMaxChangeRevision(), tombstoneRepository.findMaxChangeRevision()));
+        }));
+        changeRevisions.startAfter(lastRevision);
+    }
+
+    private void allocateListIds(int shard) {
+        int count = shards.count();
+        Long misplaced = jdbcTemplate.queryForObject("select count(*) from task_list where mod(id, ?) <> ?",
+                Long.class, count, shard);
+        if (misplaced != null && misplaced > 0) {
+            throw new IllegalStateException("Shard " + shard + " holds " + misplaced + " task lists of other shards;"
+                    + " they have to be moved before running with " + count + " shards");
+        }
+        Long maxId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from task_list", Long.class);
+        long next = maxId + 1 + Math.floorMod(shard - (maxId + 1), count);
+        jdbcTemplate.execute("alter table task_list alter column id restart with " + next);
+        jdbcTemplate.execute("alter table task_list alter column id set increment by " + count);
+    }
+
+    private void allocateTaskIds(int shard) {
+        if (shard == ShardRoutingDataSource.HOME_SHARD) {
+            return;
+        }
+        long first = ((long) shard << TASK_ID_BITS) + Task.ID_ALLOCATION_SIZE - 1;
+        Long next = jdbcTemplate.queryForObject(nextTaskIdQuery, Long.class);
+        if (next != null && next < first) {
+            jdbcTemplate.execute("alter sequence task_seq restart with " + first);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.taskmanager.shard;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the task list id an operation works on, so with sharding enabled the operation and its transaction run on
+ * the shard holding that list, see {@link ShardRoutingAspect}. Only honoured on the first parameter of a method of
+ * the service layer. Without sharding it has no effect.
+ */
+@Documented
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ShardKey {
+}
@@ -0,0 +1,166 @@
+package com.taskmanager.shard;
+
+import com.taskmanager.model.response.ChangesResponse;
+import com.taskmanager.model.response.Deletion;
+import com.taskmanager.model.response.ListChange;
+import com.taskmanager.model.response.TaskChange;
+import com.taskmanager.model.response.TaskListPageResponse;
+import com.taskmanager.model.response.TaskListResponse;
+import com.taskmanager.model.response.TaskSearchResult;
+import com.taskmanager.service.KeysetCursor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Merges the results an operation returned on each shard into the result it would have returned on a single
+ * database. Every merge relies on the per-shard results being ordered and cut the same way the merged result is.
+ */
+public final class ShardResults {
+
+    private static final Comparator<TaskSearchResult> RANKING = Comparator
+            .comparingDouble(TaskSearchResult::getScore).reversed()
+            .thenComparing(TaskSearchResult::getId);
+
+    private ShardResults() {
+    }
+
+    /**
+     * Merges the first pages of task lists after the same cursor on each shard. Each shard returned its lowest ids,
+     * so the lowest {@code limit} ids of all of them are the page; there are more if any shard had more.
+     *
+     * @param pages the pages, one per shard
+     * @param limit the maximum number of lists on the page
+     * @return the merged page, with the cursor after its last list if there are more
+     */
+    public static TaskListPageResponse mergeListPages(List<TaskListPageResponse> pages, int limit) {
+        List<TaskListResponse> lists = new ArrayList<>();
+        boolean hasNextPage = false;
+        for (TaskListPageResponse page : pages) {
+            lists.addAll(page.getLists());
+            hasNextPage |= page.getNextCursor() != null;
+        }
+        lists.sort(Comparator.comparing(TaskListResponse::getId));
+        if (lists.size() > limit) {
+            lists = lists.subList(0, limit);
+            hasNextPage = true;
+        }
+        return TaskListPageResponse.builder()
+                .lists(lists)
+                .nextCursor(hasNextPage ? KeysetCursor.encode(lists.getLast().getId()) : null)
+                .build();
+    }
+
+    /**
+     * Merges the pages of changes since the same token on each shard. Change revisions are allocated by one counter
+     * across all shards, so the pages only differ in how far each got: the merged page covers the changes up to the
+     * lowest revision all of them covered, and is cut to {@code limit} changes the way a single database would cut
+     * it, never splitting the changes of a revision.
+     *
+     * @param pages the pages, one per shard
+     * @param limit the maximum number of changes on the page
+     * @return the merged page
+     */
+    public static ChangesResponse mergeChanges(List<ChangesResponse> pages, int limit) {
+        long upTo = Long.MAX_VALUE;
+        boolean hasMore = false;
+        for (ChangesResponse page : pages) {
+            upTo = Math.min(upTo, KeysetCursor.decode(page.getNextToken()));
+            hasMore |= page.isHasMore();
+        }
+        List<ListChange> lists = new ArrayList<>();
+        List<TaskChange> tasks = new ArrayList<>();
+        List<Deletion> deletions = new ArrayList<>();
+        for (ChangesResponse page : pages) {
+            lists.addAll(upTo(page.getLists(), ListChange::getChangeRevision, upTo));
+            tasks.addAll(upTo(page.getTasks(), TaskChange::getChangeRevision, upTo));
+            deletions.addAll(upTo(page.getDeletions(), Deletion::getChangeRevision, upTo));
+        }
+        lists.sort(Comparator.comparingLong(ListChange::getChangeRevision).thenComparing(ListChange::getId));
+        tasks.sort(Comparator.comparingLong(TaskChange::getChangeRevision).thenComparing(TaskChange::getId));
+        deletions.sort(Comparator.comparingLong(Deletion::getChangeRevision).thenComparing(Deletion::getId));
+
+        if (lists.size() + tasks.size() + deletions.size() > limit) {
+            long boundary = revisionAt(lists, tasks, deletions, limit);
+            long last = boundary - 1;
+            if (revisionAt(lists, tasks, deletions, 0) == boundary) {
+                last = boundary;
+            }
+            lists = upTo(lists, ListChange::getChangeRevision, last);
+            tasks = upTo(tasks, TaskChange::getChangeRevision, last);
+            deletions = upTo(deletions, Deletion::getChangeRevision, last);
+            hasMore |= last < upTo;
+            upTo = last;
+        }
+        return ChangesResponse.builder()
+                .lists(lists)
+                .tasks(tasks)
+                .deletions(deletions)
+                .nextToken(KeysetCursor.encode(upTo))
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * Merges the first {@code offset + limit} search results of each shard into one page, ranked the way
+     * {@link com.taskmanager.search.TaskSearchIndex} ranks them.
+     *
+     * @param results the leading results, one list per shard
+     * @param offset  the number of merged results to skip
+     * @param limit   the maximum number of results on the page
+     * @return the results on the page
+     */
+    public static List<TaskSearchResult> mergeSearchResults(List<List<TaskSearchResult>> results, int offset,
+                                                            int limit) {
+        List<TaskSearchResult> merged = new ArrayList<>();
+        results.forEach(merged::addAll);
+        merged.sort(RANKING);
+        int from = Math.min(offset, merged.size());
+        return List.copyOf(merged.subList(from, Math.min(from + limit, merged.size())));
+    }
+
+    /**
+     * Returns the leading changes up to a revision.
+     *
+     * @param changes  the changes, ordered by revision
+     * @param revision the revision of a change
+     * @param upTo     the last revision included
+     * @param <T>      the type of the changes
+     * @return the changes up to that revision
+     */
+    private static <T> List<T> upTo(List<T> changes, ToLongFunction<T> revision, long upTo) {
+        int end = 0;
+        while (end < changes.size() && revision.applyAsLong(changes.get(end)) <= upTo) {
+            end++;
+        }
+        return changes.subList(0, end);
+    }
+
+    /**
+     * Finds the change revision of the change at a position of the merged, revision-ordered changes.
+     *
+     * @param lists     the list changes, ordered by revision
+     * @param tasks     the task changes, ordered by revision
+     * @param deletions the deletions, ordered by revision
+     * @param position  the zero-based position, less than the number of changes
+     * @return the revision of the change at that position
+     */
+    private static long revisionAt(List<ListChange> lists, List<TaskChange> tasks, List<Deletion> deletions,
+                                   int position) {
+        long[] revisions = new long[lists.size() + tasks.size() + deletions.size()];
+        int index = 0;
+        for (ListChange list : lists) {
+            revisions[index++] = list.getChangeRevision();
+        }
+        for (TaskChange task : tasks) {
+            revisions[index++] = task.getChangeRevision();
+        }
+        for (Deletion deletion : deletions) {
+            revisions[index++] = deletion.getChangeRevision();
+        }
+        Arrays.sort(revisions);
+        return revisions[position];
+    }
+}
@@ -0,0 +1,255 @@
+package com.taskmanager.shard;
+
+import com.taskmanager.entity.TaskRepository;
+import com.taskmanager.exception.NotFoundException;
+import com.taskmanager.model.request.BulkMoveRequest;
+import com.taskmanager.model.response.ChangesResponse;
+import com.taskmanager.model.response.TaskListPageResponse;
+import com.taskmanager.model.response.TaskListResponse;
+import com.taskmanager.service.RevisionETag;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.annotation.Order;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Runs the operations of the service layer on the shards holding their data. Operations on one list run on its shard,
+ * see {@link ShardKey}; new lists and imported snapshots go to the next shard round-robin; a task is updated on the
+ * shard that allocated its id, or on the shard it is found on if it has been moved. Reads over all lists are
+ * scattered to every shard in parallel and their results merged, see {@link ShardResults}, and moves between lists
+ * on different shards are handed to {@link CrossShardMoves}.
+ * <p>
+ * The shard is bound before the transaction of the operation begins, so the aspect runs right inside the metrics
+ * aspect and outside the transaction advice. An operation called within a transaction of another shard fails, since
+ * it would silently run on the wrong database.
+ * </p>
+ */
+@Aspect
+@Order(1)
+public class ShardRoutingAspect {
+
+    private final Shards shards;
+
+    private final ObjectProvider<CrossShardMoves> crossShardMoves;
+
+    private final ObjectProvider<TaskRepository> taskRepository;
+
+    /**
+     * Creates the aspect. The coordinator and the repository are resolved on first use, since creating them while
+     * the aspect is created would keep them and the beans they depend on from being advised.
+     *
+     * @param shards          the shards
+     * @param crossShardMoves the coordinator of moves between shards
+     * @param taskRepository  the repository looking up tasks on every shard
+     */
+    public ShardRoutingAspect(Shards shards, ObjectProvider<CrossShardMoves> crossShardMoves,
+                              ObjectProvider<TaskRepository> taskRepository) {
+        this.shards = shards;
+        this.crossShardMoves = crossShardMoves;
+        this.taskRepository = taskRepository;
+    }
+
+    /**
+     * Runs an operation on a single task list on the shard of that list.
+     *
+     * The id of the list is the first argument, the {@link ShardKey} parameter.
+     *
+     * @param joinPoint the intercepted call
+     * @return the result of the call
+     * @throws Throwable whatever the call throws
+     */
+    @Around("execution(* com.taskmanager.service.*.*(@com.taskmanager.shard.ShardKey (*), ..))")
+    public Object onShardOfList(ProceedingJoinPoint joinPoint) throws Throwable {
+        Long listId = (Long) joinPoint.getArgs()[0];
+        if (listId == null) {
+            return joinPoint.proceed();
+        }
+        return onShard(shards.shardOf(listId), joinPoint);
+    }
+
+    /**
+     * Reads all lists from every shard, ordered by id.
+     *
+     * @param joinPoint the intercepted call
+     * @return the lists of all shards
+     */
+    @Around("execution(* com.taskmanager.service.TaskManagerService.getAllLists())")
+    public Object getAllLists(ProceedingJoinPoint joinPoint) {
+        List<TaskListResponse> lists = new ArrayList<>();
+        for (List<TaskListResponse> shardLists : this.<List<TaskListResponse>>onEachShard(joinPoint)) {
+            lists.addAll(shardLists);
+        }
+        lists.sort(Comparator.comparing(TaskListResponse::getId));
+        return lists;
+    }
+
+    /**
+     * Reads a page of lists from every shard and merges them into one page.
+     *
+     * @param joinPoint the intercepted call, whose second argument is the maximum number of lists on the page
+     * @return the merged page
+     */
+    @Around("execution(* com.taskmanager.service.TaskManagerService.getLists(..))")
+    public Object getLists(ProceedingJoinPoint joinPoint) {
+        int limit = (Integer) joinPoint.getArgs()[1];
+        return ShardResults.mergeListPages(this.<TaskListPageResponse>onEachShard(joinPoint), limit);
+    }
+
+    /**
+     * Computes the ETag of a page of lists from the ETags of the pages of every shard.
+     *
+     * @param joinPoint the intercepted call
+     * @return the combined ETag
+     */
+    @Around("execution(* com.taskmanager.service.TaskManagerService.getListsETag(..))")
+    public Object getListsETag(ProceedingJoinPoint joinPoint) {
+        return RevisionETag.combine(this.<String>onEachShard(joinPoint));
+    }
+
+    /**
+     * Reads the changes since a sync token from every shard and merges them into one page.
+     *
+     * @param joinPoint the intercepted call, whose second argument is the maximum number of changes on the page
+     * @return the merged page
+     */
+    @Around("execution(* com.taskmanager.service.TaskManagerService.getChanges(..))")
+    public Object getChanges(ProceedingJoinPoint joinPoint) {
+        int limit = (Integer) joinPoint.getArgs()[1];
+        return ShardResults.mergeChanges(this.<ChangesResponse>onEachShard(joinPoint), limit);
+    }
+
+    /**
+     * Creates a list, or imports a snapshot, on the next shard round-robin. A snapshot stays on one shard, so its
+     * import remains all-or-nothing.
+     *
+     * @param joinPoint the intercepted call
+     * @return the result of the call
+     * @throws Throwable whatever the call throws
+     */
+    @Around("execution(* com.taskmanager.service.TaskManagerService.createList(..))"
+            + " || execution(* com.taskmanager.service.SnapshotService.importSnapshot(..))")
+    public Object onNextShard(ProceedingJoinPoint joinPoint) throws Throwable {
+        return onShard(shards.nextShard(), joinPoint);
+    }
+
+    /**
+     * Exports the snapshot of every shard in turn to the same stream. Each shard writes a gzip member of its own;
+     * concatenated, they read as one snapshot.
+     *
+     * @param joinPoint the intercepted call
+     * @return the result of the call
+     * @throws Throwable whatever the call throws
+     */
+    @Around("execution(* com.taskmanager.service.SnapshotService.exportSnapshot(..))")
+    public Object exportSnapshot(ProceedingJoinPoint joinPoint) throws Throwable {
+        for (int shard = 0; shard < shards.count(); shard++) {
+            onShard(shard, joinPoint);
+        }
+        return null;
+    }
+
+    /**
+     * Updates a task on the shard it is found on. The update is tried on the shard that allocated the task id first,
+     * which still holds the task unless it was moved to another shard; only then is the task looked up on every
+     * shard. A task found nowhere else is reported missing by the first attempt.
+     *
+     * @param joinPoint the intercepted call, whose first argument is the id of the task
+     * @return the result of the call
+     * @throws Throwable whatever the call throws
+     */
+    @Around("execution(* com.taskmanager.service.TaskManagerService.updateTask(..))")
+    public Object updateTask(ProceedingJoinPoint joinPoint) throws Throwable {
+        Long taskId = (Long) joinPoint.getArgs()[0];
+        if (taskId == null) {
+            return onShard(ShardRoutingDataSource.HOME_SHARD, joinPoint);
+        }
+        int allocating = shards.shardOfTask(taskId);
+        try {
+            return onShard(allocating, joinPoint);
+        } catch (NotFoundException missing) {
+            TaskRepository tasks = taskRepository.getObject();
+            List<Boolean> found = shards.gather(shard -> shard != allocating && tasks.existsById(taskId));
+            int shard = found.indexOf(true);
+            if (shard < 0) {
+                throw missing;
+            }
+            return onShard(shard, joinPoint);
+        }
+    }
+
+    /**
+     * Moves a task on the shard of both lists, or across shards.
+     *
+     * @param joinPoint the intercepted call, whose arguments are the source list, the task, the target list, the
+     *                  task to move it after and the expected version
+     * @return the result of the move
+     * @throws Throwable whatever the move throws
+     */
+    @Around("execution(* com.taskmanager.service.TaskManagerService.moveTask(..))")
+    public Object moveTask(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object[] args = joinPoint.getArgs();
+        Long fromListId = (Long) args[0];
+        Long taskId = (Long) args[1];
+        Long toListId = (Long) args[2];
+        Long afterTaskId = (Long) args[3];
+        Long expectedVersion = (Long) args[4];
+        if (fromListId == null || toListId == null || shards.shardOf(fromListId) == shards.shardOf(toListId)) {
+            return onShardOfList(joinPoint);
+        }
+        return crossShardMoves.getObject().moveTask(fromListId, taskId, toListId, afterTaskId, expectedVersion);
+    }
+
+    /**
+     * Moves many tasks on the shard of both lists, or across shards.
+     *
+     * @param joinPoint the intercepted call, whose arguments are the source list and the {@link BulkMoveRequest}
+     * @return the result of the move
+     * @throws Throwable whatever the move throws
+     */
+    @Around("execution(* com.taskmanager.service.TaskManagerService.moveTasks(..))")
+    public Object moveTasks(ProceedingJoinPoint joinPoint) throws Throwable {
+        Long fromListId = (Long) joinPoint.getArgs()[0];
+        BulkMoveRequest request = (BulkMoveRequest) joinPoint.getArgs()[1];
+        Long toListId = request.getToListId();
+        if (fromListId == null || toListId == null || shards.shardOf(fromListId) == shards.shardOf(toListId)) {
+            return onShardOfList(joinPoint);
+        }
+        return crossShardMoves.getObject().moveTasks(fromListId, request);
+    }
+
+    /**
+     * Runs an intercepted call with its connections routed to a shard.
+     *
+     * @param shard     the index of the shard
+     * @param joinPoint the intercepted call
+     * @return the result of the call
+     * @throws Throwable whatever the call throws
+     * @throws IllegalStateException if the call is made within a transaction of another shard
+     */
+    private Object onShard(int shard, ProceedingJoinPoint joinPoint) throws Throwable {
+        Long bound = ShardRoutingDataSource.boundKey();
+        int current = bound == null ? ShardRoutingDataSource.HOME_SHARD : shards.shardOf(bound);
+        if (current != shard && TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException(joinPoint.getSignature().toShortString() + " needs shard " + shard
+                    + " but was called within a transaction of shard " + current);
+        }
+        return shards.on(shard, target -> joinPoint.proceed());
+    }
+
+    /**
+     * Runs an intercepted call on every shard in parallel.
+     *
+     * @param joinPoint the intercepted call
+     * @param <T>       the type of its result
+     * @return the results, indexed by shard
+     */
+    @SuppressWarnings("unchecked")
+    private <T> List<T> onEachShard(ProceedingJoinPoint joinPoint) {
+        return shards.gather(shard -> (T) joinPoint.proceed());
+    }
+}
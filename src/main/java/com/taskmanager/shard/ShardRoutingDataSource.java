@@ -0,0 +1,139 @@
+package com.taskmanager.shard;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Routes each connection to one of several shard databases, each with a pool of its own.
+ * The shard is chosen by the routing key bound to the current thread: a task list id, or a shard index, both naming
+ * shard {@code floorMod(key, shards)}. List ids are allocated so that this is the shard holding the list, see
+ * {@link ShardInitializer}. Without a bound key, connections go to the home shard {@value #HOME_SHARD}.
+ * <p>
+ * The key is bound before the transaction begins, so unlike a read/write split no lazy connection proxy is needed.
+ * Routed connections are counted in {@value #CONNECTIONS_NAME}, tagged with the {@code shard}.
+ * </p>
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    /**
+     * Name of the counter of routed connections.
+     */
+    public static final String CONNECTIONS_NAME = "taskmanager.shard.connections";
+
+    /**
+     * Shard of connections made without a bound routing key.
+     */
+    public static final int HOME_SHARD = 0;
+
+    private static final ThreadLocal<Long> routingKey = new ThreadLocal<>();
+
+    private final List<DataSource> shards;
+
+    private final int shardCount;
+
+    private final Counter[] connections;
+
+    /**
+     * Creates the routing data source.
+     *
+     * @param shards        the data sources of the shards, indexed by shard; all but the home shard are owned by the
+     *                      routing data source and closed with it
+     * @param meterRegistry the registry of the connection counters
+     */
+    public ShardRoutingDataSource(List<DataSource> shards, MeterRegistry meterRegistry) {
+        this.shards = List.copyOf(shards);
+        this.shardCount = shards.size();
+        this.connections = new Counter[shardCount];
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            targets.put(shard, shards.get(shard));
+            connections[shard] = Counter.builder(CONNECTIONS_NAME)
+                    .description("Connections routed to each shard")
+                    .tag("shard", Integer.toString(shard))
+                    .register(meterRegistry);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(HOME_SHARD));
+    }
+
+    /**
+     * Runs an operation with its connections on the shard named by a routing key, such as the id of the task list
+     * the operation works on.
+     *
+     * @param key       the routing key
+     * @param operation the operation
+     * @param <T>       the type of its result
+     * @return the result of the operation
+     */
+    public static <T> T onShardOf(long key, Supplier<T> operation) {
+        Long previous = bind(key);
+        try {
+            return operation.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Routes the connections of the current thread by a routing key until {@link #restore(Long)} is called.
+     *
+     * @param key the routing key
+     * @return the key bound before, to be passed to {@link #restore(Long)}
+     */
+    static Long bind(long key) {
+        Long previous = routingKey.get();
+        routingKey.set(key);
+        return previous;
+    }
+
+    /**
+     * Restores the routing of the current thread to what it was before {@link #bind(long)}.
+     *
+     * @param previous the value returned by {@link #bind(long)}
+     */
+    static void restore(Long previous) {
+        if (previous != null) {
+            routingKey.set(previous);
+        } else {
+            routingKey.remove();
+        }
+    }
+
+    /**
+     * Returns the routing key bound to the current thread.
+     *
+     * @return the routing key, or {@code null} if connections go to the home shard
+     */
+    static Long boundKey() {
+        return routingKey.get();
+    }
+
+    /**
+     * Closes the pools of all shards but the home shard.
+     *
+     * @throws Exception if a pool fails to close
+     */
+    @Override
+    public void close() throws Exception {
+        for (int shard = 0; shard < shardCount; shard++) {
+            DataSource dataSource = shards.get(shard);
+            if (shard != HOME_SHARD && dataSource.isWrapperFor(AutoCloseable.class)) {
+                dataSource.unwrap(AutoCloseable.class).close();
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Long key = routingKey.get();
+        int shard = key == null ? HOME_SHARD : Math.floorMod(key, shardCount);
+        connections[shard].increment();
+        return shard;
+    }
+}
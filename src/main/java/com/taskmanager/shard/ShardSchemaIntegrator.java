@@ -0,0 +1,62 @@
+package com.taskmanager.shard;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.schema.spi.DelayedDropAction;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Applies the schema management of {@code spring.jpa.hibernate.ddl-auto} to every shard but the home shard, which
+ * Hibernate manages itself. Runs while the session factory is built, with the connections routed to each shard in
+ * turn; schemas dropped on close, as with {@code create-drop}, are dropped on every shard.
+ */
+public class ShardSchemaIntegrator implements Integrator {
+
+    private final int shardCount;
+
+    private final List<Runnable> dropActions = new ArrayList<>();
+
+    /**
+     * Creates the integrator.
+     *
+     * @param shardCount the number of shards
+     */
+    public ShardSchemaIntegrator(int shardCount) {
+        this.shardCount = shardCount;
+    }
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+                          SessionFactoryImplementor sessionFactory) {
+        for (int shard = 0; shard < shardCount; shard++) {
+            if (shard == ShardRoutingDataSource.HOME_SHARD) {
+                continue;
+            }
+            int target = shard;
+            ShardRoutingDataSource.onShardOf(target, () -> {
+                SchemaManagementToolCoordinator.process(metadata, sessionFactory.getServiceRegistry(),
+                        sessionFactory.getProperties(), action -> dropActions.add(() -> drop(target, action,
+                                sessionFactory)));
+                return null;
+            });
+        }
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        dropActions.forEach(Runnable::run);
+        dropActions.clear();
+    }
+
+    private static void drop(int shard, DelayedDropAction action, SessionFactoryImplementor sessionFactory) {
+        ShardRoutingDataSource.onShardOf(shard, () -> {
+            action.perform(sessionFactory.getServiceRegistry());
+            return null;
+        });
+    }
+}
@@ -0,0 +1,33 @@
+package com.taskmanager.shard;
+
+import org.hibernate.annotations.IdGeneratorType;
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates the id of an entity from a pooled sequence, with one pool of ids per shard, see
+ * {@link ShardedSequenceGenerator}. Without sharding it behaves like a pooled {@code @SequenceGenerator}.
+ */
+@Documented
+@IdGeneratorType(ShardedSequenceGenerator.class)
+@Target({ElementType.FIELD, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ShardedSequence {
+
+    /**
+     * The name of the sequence, which exists on every shard.
+     *
+     * @return the name of the sequence
+     */
+    String sequenceName();
+
+    /**
+     * The number of ids taken from the sequence at a time.
+     *
+     * @return the allocation size
+     */
+    int allocationSize() default 50;
+}
@@ -0,0 +1,68 @@
+package com.taskmanager.shard;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.Optimizer;
+import org.hibernate.id.enhanced.OptimizerFactory;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+import java.util.Properties;
+
+/**
+ * The generator of {@link ShardedSequence}. Hibernate's pooled optimizer keeps a single pool of ids, so a block of
+ * ids fetched from the sequence of one shard would be handed out to inserts on any shard. With sharding enabled
+ * this generator keeps a pool per shard instead, filled from the sequence of that shard, so an id always comes from
+ * the range of the shard it is inserted on, see {@link ShardInitializer}.
+ */
+public class ShardedSequenceGenerator extends SequenceStyleGenerator {
+
+    /**
+     * The Hibernate setting holding the number of shards, set by the sharding configuration only.
+     */
+    public static final String SHARD_COUNT_SETTING = "taskmanager.sharding.shard-count";
+
+    private final ShardedSequence config;
+
+    private Optimizer[] shardOptimizers;
+
+    /**
+     * Creates the generator.
+     *
+     * @param config the annotation of the id
+     */
+    public ShardedSequenceGenerator(ShardedSequence config) {
+        this.config = config;
+    }
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        parameters.put(SEQUENCE_PARAM, config.sequenceName());
+        parameters.put(INCREMENT_PARAM, Integer.toString(config.allocationSize()));
+        parameters.put(OPT_PARAM, StandardOptimizerDescriptor.POOLED.getExternalName());
+        super.configure(type, parameters, serviceRegistry);
+        int shardCount = ConfigurationHelper.getInt(SHARD_COUNT_SETTING,
+                serviceRegistry.requireService(ConfigurationService.class).getSettings(), 1);
+        if (shardCount > 1) {
+            shardOptimizers = new Optimizer[shardCount];
+            for (int shard = 0; shard < shardCount; shard++) {
+                shardOptimizers[shard] = shard == ShardRoutingDataSource.HOME_SHARD ? getOptimizer()
+                        : OptimizerFactory.buildOptimizer(StandardOptimizerDescriptor.POOLED,
+                        type.getReturnedClass(), getOptimizer().getIncrementSize(), determineInitialValue(parameters));
+            }
+        }
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        if (shardOptimizers == null) {
+            return super.generate(session, object);
+        }
+        Long key = ShardRoutingDataSource.boundKey();
+        int shard = key == null ? ShardRoutingDataSource.HOME_SHARD : Math.floorMod(key, shardOptimizers.length);
+        return shardOptimizers[shard].generate(getDatabaseStructure().buildCallback(session));
+    }
+}
@@ -0,0 +1,46 @@
+package com.taskmanager.shard;
+
+import com.taskmanager.model.response.TaskSearchResult;
+import com.taskmanager.search.TaskSearchIndex;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import java.util.List;
+
+/**
+ * Searches a database-backed {@link TaskSearchIndex} on every shard and merges the results.
+ * Each shard returns its first {@code offset + limit} matches, in parallel, and the page is cut from their union,
+ * so every page is exact but deeper pages read more from each shard. Initialization, such as creating the index,
+ * runs on every shard too.
+ */
+public class ShardedTaskSearchIndex implements TaskSearchIndex, SmartInitializingSingleton {
+
+    private final TaskSearchIndex delegate;
+
+    private final Shards shards;
+
+    /**
+     * Creates the search over all shards.
+     *
+     * @param delegate the search of a single shard, run with its connections routed to each shard in turn
+     * @param shards   the shards
+     */
+    public ShardedTaskSearchIndex(TaskSearchIndex delegate, Shards shards) {
+        this.delegate = delegate;
+        this.shards = shards;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (delegate instanceof SmartInitializingSingleton initializing) {
+            shards.gather(shard -> {
+                initializing.afterSingletonsInstantiated();
+                return null;
+            });
+        }
+    }
+
+    @Override
+    public List<TaskSearchResult> search(String query, int offset, int limit) {
+        return ShardResults.mergeSearchResults(shards.gather(shard -> delegate.search(query, 0, offset + limit)),
+                offset, limit);
+    }
+}
@@ -0,0 +1,175 @@
+package com.taskmanager.shard;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The fixed set of shards the task lists are spread over. A list and all of its tasks live on shard
+ * {@code floorMod(listId, count)}; new lists are placed round-robin, and their ids are allocated on the shard they
+ * are placed on, so the id alone names the shard and no directory is needed.
+ * <p>
+ * Operations spanning all shards are scattered to one virtual thread per shard and gathered when all are done, so
+ * they take as long as the slowest shard rather than the sum of all.
+ * </p>
+ */
+public class Shards implements AutoCloseable {
+
+    /**
+     * Maximum number of shards, bounded by the task id ranges, see {@link ShardInitializer}.
+     */
+    public static final int MAX_SHARDS = 32;
+
+    private final int count;
+
+    private final AtomicInteger placements = new AtomicInteger();
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Creates the set of shards.
+     *
+     * @param count the number of shards, between 1 and {@value #MAX_SHARDS}
+     */
+    public Shards(int count) {
+        if (count < 1 || count > MAX_SHARDS) {
+            throw new IllegalArgumentException("Number of shards must be between 1 and " + MAX_SHARDS);
+        }
+        this.count = count;
+    }
+
+    /**
+     * Returns the number of shards.
+     *
+     * @return the number of shards
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Returns the shard holding a task list.
+     *
+     * @param listId the id of the task list
+     * @return the index of its shard
+     */
+    public int shardOf(long listId) {
+        return Math.floorMod(listId, count);
+    }
+
+    /**
+     * Returns the shard that allocated a task id, see {@link ShardInitializer}. The task is still there unless it has
+     * been moved to a list on another shard, since it keeps its id.
+     *
+     * @param taskId the id of the task
+     * @return the index of the shard, or the home shard for an id outside of every shard's range
+     */
+    public int shardOfTask(long taskId) {
+        long shard = taskId >>> ShardInitializer.TASK_ID_BITS;
+        return shard < count ? (int) shard : ShardRoutingDataSource.HOME_SHARD;
+    }
+
+    /**
+     * Picks the shard of a new task list, round-robin.
+     *
+     * @return the index of the shard
+     */
+    public int nextShard() {
+        return Math.floorMod(placements.getAndIncrement(), count);
+    }
+
+    /**
+     * Runs an operation on one shard in the current thread, with its connections routed to that shard.
+     *
+     * @param shard     the index of the shard
+     * @param operation the operation
+     * @param <T>       the type of its result
+     * @return the result of the operation
+     * @throws Throwable whatever the operation throws
+     */
+    public <T> T on(int shard, ShardOperation<T> operation) throws Throwable {
+        Long previous = ShardRoutingDataSource.bind(shard);
+        try {
+            return operation.apply(shard);
+        } finally {
+            ShardRoutingDataSource.restore(previous);
+        }
+    }
+
+    /**
+     * Runs an operation on every shard in parallel and waits for all of them.
+     * If any fails, the failure of the lowest failing shard is rethrown once all have completed: unchecked
+     * exceptions as they are, checked ones wrapped in an {@link IllegalStateException}.
+     *
+     * @param operation the operation, called with the index of the shard it runs on
+     * @param <T>       the type of its results
+     * @return the results, indexed by shard
+     */
+    public <T> List<T> gather(ShardOperation<T> operation) {
+        List<Future<T>> futures = new ArrayList<>(count);
+        for (int shard = 0; shard < count; shard++) {
+            int target = shard;
+            futures.add(executor.submit(() -> {
+                try {
+                    return on(target, operation);
+                } catch (Exception | Error exception) {
+                    throw exception;
+                } catch (Throwable throwable) {
+                    throw new IllegalStateException(throwable);
+                }
+            }));
+        }
+        List<T> results = new ArrayList<>(count);
+        RuntimeException failure = null;
+        for (Future<T> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException exception) {
+                if (exception.getCause() instanceof Error error) {
+                    throw error;
+                }
+                if (failure == null) {
+                    failure = exception.getCause() instanceof RuntimeException runtime
+                            ? runtime : new IllegalStateException(exception.getCause());
+                }
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the shards", exception);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return results;
+    }
+
+    /**
+     * Stops the threads of the scatter-gather operations.
+     */
+    @Override
+    public void close() {
+        executor.close();
+    }
+
+    /**
+     * An operation run on a shard.
+     *
+     * @param <T> the type of its result
+     */
+    @FunctionalInterface
+    public interface ShardOperation<T> {
+
+        /**
+         * Runs the operation with its connections routed to a shard.
+         *
+         * @param shard the index of the shard
+         * @return the result
+         * @throws Throwable whatever the operation throws
+         */
+        T apply(int shard) throws Throwable;
+    }
+}
@@ -0,0 +1,113 @@
+package integration;
+
+import com.taskmanager.TaskManagerApplication;
+import com.taskmanager.model.request.BulkMoveRequest;
+import com.taskmanager.model.request.TaskListRequest;
+import com.taskmanager.model.request.TaskRequest;
+import com.taskmanager.model.response.BulkMoveResponse;
+import com.taskmanager.model.response.TaskResponse;
+import com.taskmanager.service.TaskManagerService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.util.ArrayList;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares moving tasks one request at a time with the bulk move endpoint over HTTP on H2.
+ * The number of tasks moved per path defaults to 500 and can be changed with {@code -Dbulkmove.tasks=<n>}
+ * (at most {@link BulkMoveRequest#MAX_TASKS}).
+ */
+@SpringBootTest(classes = TaskManagerApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class BulkMoveIT {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkMoveIT.class);
+
+    private static final String LISTS = "/api/v1/task-manager/lists";
+
+    private static final int TASKS = Integer.getInteger("bulkmove.tasks", 500);
+
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @Autowired
+    TaskManagerService service;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("delete from task");
+        jdbcTemplate.update("delete from task_list");
+    }
+
+    @Test
+    @DisplayName("Bulk move moves every task in one request and beats per-task moves")
+    void bulkMoveThroughputTest() {
+        Long singleFromId = service.createList(new TaskListRequest("Single from")).getId();
+        Long bulkFromId = service.createList(new TaskListRequest("Bulk from")).getId();
+        Long toListId = service.createList(new TaskListRequest("To")).getId();
+        List<Long> singleTaskIds = addTasks(singleFromId);
+        List<Long> bulkTaskIds = addTasks(bulkFromId);
+
+        long singleStart = System.nanoTime();
+        for (Long taskId : singleTaskIds) {
+            restTemplate.put(LISTS + "/" + singleFromId + "/tasks/" + taskId + "/move/" + toListId, null);
+        }
+        long singleMillis = (System.nanoTime() - singleStart) / 1_000_000;
+
+        List<Long> requested = new ArrayList<>(bulkTaskIds);
+        requested.add(-1L);
+        long bulkStart = System.nanoTime();
+        ResponseEntity<BulkMoveResponse> response = restTemplate.postForEntity(LISTS + "/" + bulkFromId + "/tasks:move",
+                new BulkMoveRequest(toListId, requested, null), BulkMoveResponse.class);
+        long bulkMillis = (System.nanoTime() - bulkStart) / 1_000_000;
+
+        logger.info("Moved {} tasks: per-task requests {} ms, bulk request {} ms", TASKS, singleMillis, bulkMillis);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().getMoved()).containsExactlyElementsOf(bulkTaskIds);
+        assertThat(response.getBody().getRejected()).containsExactly(-1L);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from task where task_list_id = ?", Integer.class, toListId))
+                .isEqualTo(2 * TASKS);
+        assertThat(bulkMillis).isLessThan(singleMillis);
+    }
+
+    @Test
+    @DisplayName("Bulk move by name filter moves only matching tasks and treats pattern characters literally")
+    void bulkMoveByNameTest() {
+        Long fromListId = service.createList(new TaskListRequest("From")).getId();
+        Long toListId = service.createList(new TaskListRequest("To")).getId();
+        List<TaskResponse> tasks = service.addTasksToList(fromListId, List.of(
+                new TaskRequest("Ship 100% done", "Desc"),
+                new TaskRequest("Ship 100 done", "Desc"),
+                new TaskRequest("ship 100% DONE later", "Desc")));
+
+        ResponseEntity<BulkMoveResponse> response = restTemplate.postForEntity(LISTS + "/" + fromListId + "/tasks:move",
+                new BulkMoveRequest(toListId, null, "100% done"), BulkMoveResponse.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().getMoved()).containsExactly(tasks.get(0).getId(), tasks.get(2).getId());
+        assertThat(response.getBody().getRejected()).isEmpty();
+        assertThat(jdbcTemplate.queryForObject("select task_list_id from task where id = ?", Long.class,
+                tasks.get(1).getId())).isEqualTo(fromListId);
+    }
+
+    private List<Long> addTasks(Long listId) {
+        List<TaskRequest> requests = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            requests.add(new TaskRequest("Task " + i, "Description " + i));
+        }
+        return service.addTasksToList(listId, requests).stream().map(TaskResponse::getId).toList();
+    }
+}
@@ -0,0 +1,211 @@
+package integration;
+
+import com.taskmanager.TaskManagerApplication;
+import com.taskmanager.limit.ConcurrencyLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Overloads the service with more concurrent clients than a slow database can serve, with and without the adaptive
+ * concurrency limit, and compares the tail latency of the requests that were served.
+ * The simulated database runs {@value #DATABASE_CAPACITY} statements at a time, each taking
+ * {@code -Dshed.latencyMillis}, and queues the rest, so latency grows with the number of requests let through.
+ * Every fifth request is a write. Tunable with {@code -Dshed.clients} and {@code -Dshed.requests}.
+ */
+class ConcurrencyLimitLoadIT {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimitLoadIT.class);
+
+    private static final int CLIENTS = Integer.getInteger("shed.clients", 200);
+    private static final int REQUESTS_PER_CLIENT = Integer.getInteger("shed.requests", 20);
+    private static final long STATEMENT_LATENCY_MILLIS = Long.getLong("shed.latencyMillis", 5);
+    private static final int DATABASE_CAPACITY = 4;
+    private static final int WARM_UP_REQUESTS = 200;
+
+    private static final Semaphore database = new Semaphore(DATABASE_CAPACITY, true);
+
+    @Test
+    @DisplayName("Shedding excess requests keeps the tail latency of served requests bounded under overload")
+    void overloadTest() throws Exception {
+        LoadResult unlimited = runLoad(false);
+        LoadResult limited = runLoad(true);
+
+        logger.info("{} clients x {} requests, {} ms per statement, {} statements at a time: "
+                        + "unlimited {} served/s (p50 {} ms, p99 {} ms, {} shed, {} errors), "
+                        + "limited {} served/s (p50 {} ms, p99 {} ms, {} shed, {} errors), final limits read {} write {}",
+                CLIENTS, REQUESTS_PER_CLIENT, STATEMENT_LATENCY_MILLIS, DATABASE_CAPACITY,
+                Math.round(unlimited.servedPerSecond()), unlimited.p50Millis(), unlimited.p99Millis(),
+                unlimited.shed(), unlimited.errors(),
+                Math.round(limited.servedPerSecond()), limited.p50Millis(), limited.p99Millis(),
+                limited.shed(), limited.errors(), limited.readLimit(), limited.writeLimit());
+
+        assertThat(unlimited.errors()).isZero();
+        assertThat(limited.errors()).isZero();
+        assertThat(unlimited.shed()).isZero();
+        assertThat(limited.shed()).isPositive();
+        assertThat(limited.p99Millis()).isLessThan(unlimited.p99Millis());
+    }
+
+    private static LoadResult runLoad(boolean limited) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TaskManagerApplication.class,
+                SlowDatabaseConfig.class)
+                .properties("server.port=0",
+                        "logging.level.org.springframework.web=INFO",
+                        "logging.level.com.taskmanager.exception=ERROR")
+                // An argument, since default properties lose against the default in application.yml
+                .run("--taskmanager.limits.enabled=" + limited)) {
+            String api = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort()
+                    + "/api/v1/task-manager";
+            AtomicInteger shed = new AtomicInteger();
+            AtomicInteger errors = new AtomicInteger();
+            long[] latencies = new long[CLIENTS * REQUESTS_PER_CLIENT];
+            AtomicInteger served = new AtomicInteger();
+
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+                 HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(clients).build()) {
+                HttpResponse<String> created = httpClient.send(HttpRequest.newBuilder(URI.create(api + "/lists"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"name\":\"Load\"}")).build(),
+                        HttpResponse.BodyHandlers.ofString());
+                String listId = created.body().replaceAll(".*\"id\":(\\d+).*", "$1");
+                HttpRequest read = HttpRequest.newBuilder(URI.create(api + "/lists/" + listId + "/tasks?limit=20"))
+                        .GET().build();
+                HttpRequest write = HttpRequest.newBuilder(URI.create(api + "/lists/" + listId + "/tasks"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"name\":\"Task\",\"description\":\"Load\"}"))
+                        .build();
+                for (int request = 0; request < WARM_UP_REQUESTS; request++) {
+                    httpClient.send(request % 5 == 0 ? write : read, HttpResponse.BodyHandlers.discarding());
+                }
+
+                long start = System.nanoTime();
+                List<Future<?>> futures = new ArrayList<>(CLIENTS);
+                for (int client = 0; client < CLIENTS; client++) {
+                    futures.add(clients.submit(() -> {
+                        for (int request = 0; request < REQUESTS_PER_CLIENT; request++) {
+                            long requestStart = System.nanoTime();
+                            try {
+                                HttpResponse<Void> response = httpClient.send(request % 5 == 0 ? write : read,
+                                        HttpResponse.BodyHandlers.discarding());
+                                switch (response.statusCode()) {
+                                    case 200, 201 -> latencies[served.getAndIncrement()] =
+                                            System.nanoTime() - requestStart;
+                                    case 503 -> shed.incrementAndGet();
+                                    default -> errors.incrementAndGet();
+                                }
+                            } catch (Exception exception) {
+                                errors.incrementAndGet();
+                            }
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+                long elapsed = System.nanoTime() - start;
+
+                long[] servedLatencies = Arrays.copyOf(latencies, served.get());
+                Arrays.sort(servedLatencies);
+                MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+                return new LoadResult(servedLatencies.length * 1_000_000_000.0 / elapsed,
+                        percentileMillis(servedLatencies, 0.5), percentileMillis(servedLatencies, 0.99),
+                        shed.get(), errors.get(), limit(meterRegistry, "read"), limit(meterRegistry, "write"));
+            }
+        }
+    }
+
+    private static long percentileMillis(long[] sortedLatencies, double percentile) {
+        return sortedLatencies.length == 0 ? 0
+                : sortedLatencies[(int) (sortedLatencies.length * percentile)] / 1_000_000;
+    }
+
+    private static long limit(MeterRegistry meterRegistry, String kind) {
+        var gauge = meterRegistry.find(ConcurrencyLimiter.LIMIT_NAME).tag("kind", kind).gauge();
+        return gauge == null ? 0 : Math.round(gauge.value());
+    }
+
+    private record LoadResult(double servedPerSecond, long p50Millis, long p99Millis, int shed, int errors,
+                              long readLimit, long writeLimit) {
+    }
+
+    /**
+     * Runs every statement preparation through the simulated database while the connection is held.
+     */
+    @Configuration(proxyBeanMethods = false)
+    static class SlowDatabaseConfig {
+
+        @Bean
+        static BeanPostProcessor slowDatabasePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource && !(bean instanceof SaturatingDataSource)) {
+                        return new SaturatingDataSource(dataSource);
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    /**
+     * Makes each statement wait for one of {@value #DATABASE_CAPACITY} slots and hold it for the statement latency,
+     * like a database with that many cores.
+     */
+    static class SaturatingDataSource extends DelegatingDataSource {
+
+        SaturatingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = super.getConnection();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().startsWith("prepare")) {
+                            database.acquire();
+                            try {
+                                Thread.sleep(STATEMENT_LATENCY_MILLIS);
+                            } finally {
+                                database.release();
+                            }
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException exception) {
+                            throw exception.getTargetException();
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package integration;
+
+import com.taskmanager.TaskManagerApplication;
+import com.taskmanager.entity.Tombstone;
+import com.taskmanager.metrics.SqlStatementCounter;
+import com.taskmanager.model.request.BulkMoveRequest;
+import com.taskmanager.model.request.TaskListRequest;
+import com.taskmanager.model.request.TaskRequest;
+import com.taskmanager.model.response.ChangesResponse;
+import com.taskmanager.model.response.Deletion;
+import com.taskmanager.model.response.ListChange;
+import com.taskmanager.model.response.TaskChange;
+import com.taskmanager.model.response.TaskResponse;
+import com.taskmanager.service.TaskManagerService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Syncs against a store that other tests share, so every check starts from the token of a sync that caught up
+ * first. Logs how long a sync without changes and a sync of a thousand changes take.
+ */
+@SpringBootTest(classes = TaskManagerApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class DeltaSyncIT {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeltaSyncIT.class);
+
+    @Autowired
+    TaskManagerService service;
+
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("A sync returns every kind of change since the token once, in its current state")
+    void changesSinceTokenTest() {
+        String token = catchUp();
+        Long listId = service.createList(new TaskListRequest("Synced")).getId();
+        Long otherId = service.createList(new TaskListRequest("Other")).getId();
+        TaskResponse updated = service.addTaskToList(listId, new TaskRequest("Task", "Description"));
+        service.updateTask(updated.getId(), new TaskRequest("Updated", "Description"), null);
+        TaskResponse moved = service.addTaskToList(listId, new TaskRequest("Moved", "Description"));
+        service.moveTasks(listId, new BulkMoveRequest(otherId, List.of(moved.getId()), null));
+        TaskResponse deleted = service.addTaskToList(listId, new TaskRequest("Deleted", "Description"));
+        service.deleteTask(listId, deleted.getId(), null);
+
+        ChangesResponse changes = service.getChanges(token, 100);
+        assertThat(changes.getLists()).extracting(ListChange::getId).containsExactlyInAnyOrder(listId, otherId);
+        assertThat(changes.getTasks()).extracting(TaskChange::getId, TaskChange::getListId, TaskChange::getName)
+                .containsExactlyInAnyOrder(
+                        tuple(updated.getId(), listId, "Updated"),
+                        tuple(moved.getId(), otherId, "Moved"));
+        assertThat(changes.getDeletions()).extracting(Deletion::getKind, Deletion::getId)
+                .containsExactly(tuple(Tombstone.Kind.TASK, deleted.getId()));
+        assertThat(changes.isHasMore()).isFalse();
+
+        service.deleteList(otherId, null);
+        ChangesResponse next = service.getChanges(changes.getNextToken(), 100);
+        assertThat(next.getLists()).isEmpty();
+        assertThat(next.getTasks()).isEmpty();
+        assertThat(next.getDeletions()).extracting(Deletion::getKind, Deletion::getId)
+                .containsExactly(tuple(Tombstone.Kind.LIST, otherId));
+
+        ResponseEntity<ChangesResponse> overHttp = restTemplate.getForEntity(
+                "/api/v1/task-manager/changes?since={since}", ChangesResponse.class, changes.getNextToken());
+        assertThat(overHttp.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(overHttp.getBody().getDeletions()).hasSize(1);
+        assertThat(restTemplate.getForEntity("/api/v1/task-manager/changes?since=invalid", String.class)
+                .getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        service.deleteList(listId, null);
+    }
+
+    @Test
+    @DisplayName("Paging through many changes returns each of them exactly once")
+    void pagingTest() {
+        String token = catchUp();
+        Long listId = service.createList(new TaskListRequest("Paged")).getId();
+        Set<Long> added = new HashSet<>();
+        for (int i = 0; i < 10; i++) {
+            service.addTasksToList(listId, Collections.nCopies(30, new TaskRequest("Task", "Description")))
+                    .forEach(task -> added.add(task.getId()));
+        }
+        for (int i = 0; i < 25; i++) {
+            added.add(service.addTaskToList(listId, new TaskRequest("Single", "Description")).getId());
+        }
+
+        List<Long> synced = new ArrayList<>();
+        int pages = 0;
+        ChangesResponse page;
+        do {
+            page = service.getChanges(token, 20);
+            page.getTasks().forEach(task -> synced.add(task.getId()));
+            token = page.getNextToken();
+            pages++;
+        } while (page.isHasMore());
+
+        assertThat(synced).hasSize(added.size()).containsExactlyInAnyOrderElementsOf(added);
+        assertThat(pages).isGreaterThan(10);
+        service.deleteList(listId, null);
+    }
+
+    @Test
+    @DisplayName("A sync without changes runs no statement, and the change lookups are index range scans")
+    void costTest() {
+        String token = catchUp();
+        long before = SqlStatementCounter.current();
+        ChangesResponse unchanged = service.getChanges(token, 100);
+        assertThat(SqlStatementCounter.current() - before).isZero();
+        assertThat(unchanged.getNextToken()).isEqualTo(token);
+
+        for (String table : List.of("task", "task_list", "tombstone")) {
+            String plan = jdbcTemplate.queryForObject("EXPLAIN SELECT * FROM " + table
+                    + " WHERE change_revision > 1 AND change_revision <= 2 ORDER BY change_revision", String.class);
+            assertThat(plan).containsIgnoringCase("IDX_" + table + "_CHANGE_REVISION");
+        }
+
+        Long listId = service.createList(new TaskListRequest("Timed")).getId();
+        service.addTasksToList(listId, Collections.nCopies(999, new TaskRequest("Task", "Description")));
+        String caughtUp = catchUp();
+        long start = System.nanoTime();
+        for (int i = 0; i < 1000; i++) {
+            service.getChanges(caughtUp, 1000);
+        }
+        double unchangedMicros = (System.nanoTime() - start) / 1000.0 / 1000;
+        start = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            service.getChanges(token, 1000);
+        }
+        double changedMillis = (System.nanoTime() - start) / 1e6 / 100;
+        logger.info("Sync without changes: {} us; sync of 1000 changes: {} ms", Math.round(unchangedMicros),
+                Math.round(changedMillis * 10) / 10.0);
+        service.deleteList(listId, null);
+    }
+
+    /**
+     * Pages through everything stored so far and returns the token of the last page.
+     */
+    private String catchUp() {
+        String token = null;
+        ChangesResponse page;
+        do {
+            page = service.getChanges(token, TaskManagerService.MAX_CHANGES_PAGE_SIZE);
+            token = page.getNextToken();
+        } while (page.isHasMore());
+        return token;
+    }
+}
@@ -0,0 +1,83 @@
+package integration;
+
+import com.taskmanager.TaskManagerApplication;
+import com.taskmanager.exception.GlobalExceptionHandler;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hammers the service with requests for a list that does not exist, as a misbehaving client would, and logs the
+ * throughput of the 404 responses. Tunable with {@code -Dstorm.clients} and {@code -Dstorm.requests}.
+ */
+@SpringBootTest(classes = TaskManagerApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ErrorStormIT {
+
+    private static final Logger logger = LoggerFactory.getLogger(ErrorStormIT.class);
+
+    private static final int CLIENTS = Integer.getInteger("storm.clients", 32);
+    private static final int REQUESTS_PER_CLIENT = Integer.getInteger("storm.requests", 2_000);
+    private static final int WARM_UP_REQUESTS = 5_000;
+    private static final String TASKS_URI = "/api/v1/task-manager/lists/{listId}/tasks";
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("A storm of 404s is answered without errors and counted per endpoint")
+    void notFoundStormTest() throws Exception {
+        URI uri = URI.create("http://localhost:" + port + "/api/v1/task-manager/lists/" + Long.MAX_VALUE + "/tasks");
+        AtomicInteger unexpected = new AtomicInteger();
+
+        try (ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+             HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()) {
+            for (int request = 0; request < WARM_UP_REQUESTS; request++) {
+                httpClient.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.discarding());
+            }
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>(CLIENTS);
+            for (int client = 0; client < CLIENTS; client++) {
+                futures.add(clients.submit(() -> {
+                    for (int request = 0; request < REQUESTS_PER_CLIENT; request++) {
+                        HttpResponse<Void> response = httpClient.send(HttpRequest.newBuilder(uri).GET().build(),
+                                HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 404) {
+                            unexpected.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            long elapsed = System.nanoTime() - start;
+            logger.info("404 storm: {} clients x {} requests at {} req/s", CLIENTS, REQUESTS_PER_CLIENT,
+                    Math.round(CLIENTS * REQUESTS_PER_CLIENT * 1_000_000_000.0 / elapsed));
+        }
+
+        assertThat(unexpected.get()).isZero();
+        assertThat(meterRegistry.get(GlobalExceptionHandler.ERRORS_NAME)
+                .tags("type", "NotFoundException", "status", "404", "method", "GET", "uri", TASKS_URI)
+                .counter().count()).isEqualTo(WARM_UP_REQUESTS + CLIENTS * REQUESTS_PER_CLIENT);
+    }
+}
@@ -0,0 +1,61 @@
+package integration;
+
+import com.taskmanager.TaskManagerApplication;
+import com.taskmanager.metrics.OperationMetricsAspect;
+import com.taskmanager.metrics.SqlStatementMetricsFilter;
+import com.taskmanager.model.request.TaskListRequest;
+import com.taskmanager.model.request.TaskRequest;
+import com.taskmanager.model.response.TaskListResponse;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = TaskManagerApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "management.endpoints.web.exposure.include=prometheus")
+@AutoConfigureObservability(tracing = false)
+class MetricsIT {
+
+    private static final String LISTS = "/api/v1/task-manager/lists";
+
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Service, repository and SQL statement metrics are exposed for Prometheus")
+    void prometheusScrapeTest() {
+        TaskListResponse list = restTemplate.postForObject(LISTS, new TaskListRequest("Metrics"), TaskListResponse.class);
+        restTemplate.postForObject(LISTS + "/" + list.getId() + "/tasks", new TaskRequest("Task", "Desc"), String.class);
+        restTemplate.getForObject(LISTS, String.class);
+
+        DistributionSummary addTaskStatements = meterRegistry.get(OperationMetricsAspect.SQL_STATEMENTS_NAME)
+                .tags("component", "TaskManagerService", "operation", "addTaskToList")
+                .summary();
+        assertThat(addTaskStatements.count()).isEqualTo(1);
+        assertThat(addTaskStatements.max()).isGreaterThanOrEqualTo(3);
+
+        DistributionSummary requestStatements = meterRegistry.get(SqlStatementMetricsFilter.METRIC_NAME)
+                .tags("method", "GET", "uri", LISTS)
+                .summary();
+        assertThat(requestStatements.max()).isGreaterThanOrEqualTo(2);
+
+        ResponseEntity<String> scrape = restTemplate.getForEntity("/actuator/prometheus", String.class);
+        assertThat(scrape.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(scrape.getBody())
+                .contains("taskmanager_operation_seconds_bucket{component=\"TaskManagerService\"")
+                .contains("component=\"TaskListRepository\"")
+                .contains("operation=\"findPageAfter\"")
+                .contains("taskmanager_operation_sql_statements_bucket")
+                .contains("http_server_requests_sql_statements_count{method=\"POST\"");
+    }
+}
@@ -0,0 +1,186 @@
+package integration;
+
+import com.taskmanager.TaskManagerApplication;
+import com.taskmanager.entity.TaskRepository;
+import com.taskmanager.exception.ConflictException;
+import com.taskmanager.model.request.TaskListRequest;
+import com.taskmanager.model.request.TaskRequest;
+import com.taskmanager.model.response.TaskListPageResponse;
+import com.taskmanager.model.response.TaskResponse;
+import com.taskmanager.service.TaskManagerService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the {@code If-Match} preconditions of the task and list writes over HTTP, and measures writers contending
+ * on the tasks of one hot list. Every writer increments a counter kept in a task name with read-modify-write cycles,
+ * once blindly and once conditional on the version it read, retrying on conflicts. Blind writers lose increments
+ * silently; conditional writers lose none and pay for it with retries. Tunable with {@code -Dcontention.writers},
+ * {@code -Dcontention.increments} and {@code -Dcontention.tasks}.
+ */
+@SpringBootTest(classes = TaskManagerApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class OptimisticConcurrencyIT {
+
+    private static final Logger logger = LoggerFactory.getLogger(OptimisticConcurrencyIT.class);
+
+    private static final String API = "/api/v1/task-manager";
+
+    private static final int WRITERS = Integer.getInteger("contention.writers", 8);
+
+    private static final int INCREMENTS = Integer.getInteger("contention.increments", 250);
+
+    private static final int TASKS = Integer.getInteger("contention.tasks", 4);
+
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @Autowired
+    TaskManagerService service;
+
+    @Autowired
+    TaskRepository taskRepository;
+
+    @Test
+    @DisplayName("Writes with a stale If-Match version are rejected with 409 and current ones succeed")
+    void ifMatchTest() {
+        Long listId = service.createList(new TaskListRequest("From")).getId();
+        Long otherListId = service.createList(new TaskListRequest("To")).getId();
+        TaskResponse task = service.addTaskToList(listId, new TaskRequest("Task", "Description"));
+        assertThat(task.getVersion()).isZero();
+
+        ResponseEntity<TaskResponse> updated = exchange(HttpMethod.PUT, "/tasks/" + task.getId(), "\"0\"",
+                new TaskRequest("Updated", "Description"), TaskResponse.class);
+        assertThat(updated.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(updated.getHeaders().getETag()).isEqualTo("\"1\"");
+        assertThat(updated.getBody().getVersion()).isEqualTo(1L);
+
+        ResponseEntity<Map> stale = exchange(HttpMethod.PUT, "/tasks/" + task.getId(), "\"0\"",
+                new TaskRequest("Lost", "Description"), Map.class);
+        assertThat(stale.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(stale.getBody().get("message")).isEqualTo("Task " + task.getId() + " has changed since version 0");
+        String moveUri = "/lists/" + listId + "/tasks/" + task.getId() + "/move/" + otherListId;
+        assertThat(exchange(HttpMethod.PUT, moveUri, "\"0\"", null, Map.class).getStatusCode())
+                .isEqualTo(HttpStatus.CONFLICT);
+        assertThat(exchange(HttpMethod.DELETE, "/lists/" + listId + "/tasks/" + task.getId(), "\"0\"", null,
+                Map.class).getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(exchange(HttpMethod.PUT, "/tasks/" + task.getId(), "W/\"1\"",
+                new TaskRequest("Weak", "Description"), Map.class).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(taskRepository.findResponseById(task.getId()).orElseThrow().getName()).isEqualTo("Updated");
+
+        ResponseEntity<TaskResponse> moved = exchange(HttpMethod.PUT, moveUri, "\"1\"", null, TaskResponse.class);
+        assertThat(moved.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(moved.getHeaders().getETag()).isEqualTo("\"2\"");
+
+        long listVersion = listVersion(otherListId);
+        service.addTaskToList(otherListId, new TaskRequest("Added", "Description"));
+        assertThat(exchange(HttpMethod.DELETE, "/lists/" + otherListId, "\"" + listVersion + "\"", null,
+                Map.class).getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(exchange(HttpMethod.DELETE, "/lists/" + otherListId, "\"" + listVersion(otherListId) + "\"", null,
+                Void.class).getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(exchange(HttpMethod.DELETE, "/lists/" + listId, "*", null, Void.class).getStatusCode())
+                .isEqualTo(HttpStatus.NO_CONTENT);
+    }
+
+    @Test
+    @DisplayName("Conditional writers on one hot list lose no updates, blind writers do")
+    void hotListContentionTest() throws Exception {
+        ContentionResult blind = runContention(false);
+        ContentionResult conditional = runContention(true);
+
+        logger.info("{} writers x {} increments on {} tasks of one list: blind {} writes/s with {} of {} increments "
+                        + "lost; conditional {} writes/s with {} conflicts ({} retries per increment) and none lost",
+                WRITERS, INCREMENTS, TASKS, Math.round(blind.writesPerSecond()), blind.lost(), blind.increments(),
+                Math.round(conditional.writesPerSecond()), conditional.conflicts(),
+                String.format("%.2f", conditional.conflicts() / (double) conditional.increments()));
+
+        assertThat(conditional.lost()).isZero();
+        assertThat(blind.conflicts()).isZero();
+    }
+
+    /**
+     * Runs the writers against fresh tasks of a fresh list and compares the counters with the increments made.
+     *
+     * @param conditional whether the writes are conditional on the version that was read
+     * @return the throughput, conflicts and lost increments of the run
+     */
+    private ContentionResult runContention(boolean conditional) throws Exception {
+        Long listId = service.createList(new TaskListRequest("Hot")).getId();
+        List<Long> taskIds = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            taskIds.add(service.addTaskToList(listId, new TaskRequest("0", "Counter")).getId());
+        }
+
+        AtomicLong writes = new AtomicLong();
+        AtomicLong conflicts = new AtomicLong();
+        long start = System.nanoTime();
+        try (ExecutorService writers = Executors.newFixedThreadPool(WRITERS)) {
+            List<Future<?>> futures = new ArrayList<>(WRITERS);
+            for (int writer = 0; writer < WRITERS; writer++) {
+                futures.add(writers.submit(() -> {
+                    for (int i = 0; i < INCREMENTS; i++) {
+                        Long taskId = taskIds.get(ThreadLocalRandom.current().nextInt(TASKS));
+                        while (true) {
+                            TaskResponse read = taskRepository.findResponseById(taskId).orElseThrow();
+                            String next = String.valueOf(Long.parseLong(read.getName()) + 1);
+                            writes.incrementAndGet();
+                            try {
+                                service.updateTask(taskId, new TaskRequest(next, "Counter"),
+                                        conditional ? read.getVersion() : null);
+                                break;
+                            } catch (ConflictException exception) {
+                                conflicts.incrementAndGet();
+                            }
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long counted = 0;
+        for (Long taskId : taskIds) {
+            counted += Long.parseLong(taskRepository.findResponseById(taskId).orElseThrow().getName());
+        }
+        long increments = (long) WRITERS * INCREMENTS;
+        service.deleteList(listId, null);
+        return new ContentionResult(writes.get() / seconds, increments, conflicts.get(), increments - counted);
+    }
+
+    private long listVersion(Long listId) {
+        return restTemplate.getForObject(API + "/lists?limit=500&taskLimit=1", TaskListPageResponse.class).getLists().stream()
+                .filter(list -> list.getId().equals(listId))
+                .findFirst().orElseThrow().getVersion();
+    }
+
+    private <T> ResponseEntity<T> exchange(HttpMethod method, String path, String ifMatch, Object body,
+                                           Class<T> responseType) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfMatch(ifMatch);
+        return restTemplate.exchange(API + path, method, new HttpEntity<>(body, headers), responseType);
+    }
+
+    private record ContentionResult(double writesPerSecond, long increments, long conflicts, long lost) {
+    }
+}
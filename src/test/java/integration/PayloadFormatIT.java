@@ -0,0 +1,120 @@
+package integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.taskmanager.TaskManagerApplication;
+import com.taskmanager.model.request.TaskListRequest;
+import com.taskmanager.model.request.TaskRequest;
+import com.taskmanager.service.KeysetCursor;
+import com.taskmanager.service.TaskManagerService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Collections;
+import java.util.zip.GZIPInputStream;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fetches the same page of lists in every response format, with and without gzip, and checks that each decodes to
+ * the same tree as plain JSON. Logs the bytes on the wire per format.
+ */
+@SpringBootTest(classes = TaskManagerApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class PayloadFormatIT {
+
+    private static final Logger logger = LoggerFactory.getLogger(PayloadFormatIT.class);
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    TaskManagerService service;
+
+    private Long listId;
+
+    @BeforeEach
+    void setUp() {
+        listId = service.createList(new TaskListRequest("Formats")).getId();
+        service.addTasksToList(listId, Collections.nCopies(1000, new TaskRequest("Task", "Description of the task")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.deleteList(listId, null);
+    }
+
+    @Test
+    @DisplayName("CBOR and Smile carry the same content as JSON, and gzip applies to all three")
+    void formatsTest() throws IOException, InterruptedException {
+        String path = "/lists?limit=1&taskLimit=1000&after=" + KeysetCursor.encode(listId - 1);
+        HttpResponse<byte[]> json = get(path, "application/json", null);
+        assertThat(json.headers().firstValue("Content-Type")).hasValueSatisfying(
+                type -> assertThat(type).startsWith("application/json"));
+        assertThat(json.headers().firstValue("ETag")).hasValueSatisfying(eTag -> assertThat(eTag).startsWith("W/"));
+        assertThat(json.headers().allValues("Vary")).anySatisfy(vary -> assertThat(vary).containsIgnoringCase("accept"));
+        JsonNode expected = new ObjectMapper().readTree(json.body());
+        assertThat(expected.at("/lists/0/tasks")).hasSize(1000);
+
+        for (String[] format : new String[][]{{"application/cbor", "cbor"}, {"application/x-jackson-smile", "smile"}}) {
+            ObjectMapper mapper = new ObjectMapper("cbor".equals(format[1]) ? new CBORFactory() : new SmileFactory());
+            HttpResponse<byte[]> plain = get(path, format[0], null);
+            assertThat(plain.headers().firstValue("Content-Type")).hasValue(format[0]);
+            assertThat(mapper.readTree(plain.body())).isEqualTo(expected);
+
+            HttpResponse<byte[]> gzipped = get(path, format[0], "gzip");
+            assertThat(gzipped.headers().firstValue("Content-Encoding")).hasValue("gzip");
+            assertThat(mapper.readTree(gunzip(gzipped.body()))).isEqualTo(expected);
+            logger.info("1000 tasks as {}: {} bytes, {} gzipped; JSON {} bytes", format[1], plain.body().length,
+                    gzipped.body().length, json.body().length);
+            assertThat(plain.body().length).isLessThan(json.body().length);
+        }
+
+        HttpResponse<byte[]> jsonGzipped = get(path, "application/json", "gzip");
+        assertThat(jsonGzipped.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        assertThat(new ObjectMapper().readTree(gunzip(jsonGzipped.body()))).isEqualTo(expected);
+        logger.info("1000 tasks as JSON: {} bytes gzipped", jsonGzipped.body().length);
+    }
+
+    @Test
+    @DisplayName("Clients that accept anything still get JSON")
+    void defaultFormatTest() throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = get("/lists/" + listId + "/tasks?limit=1", "*/*", null);
+        assertThat(response.headers().firstValue("Content-Type")).hasValueSatisfying(
+                type -> assertThat(type).startsWith("application/json"));
+    }
+
+    private HttpResponse<byte[]> get(String path, String accept, String encoding)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/api/v1/task-manager" + path))
+                .header("Accept", accept);
+        if (encoding != null) {
+            request.header("Accept-Encoding", encoding);
+        }
+        HttpResponse<byte[]> response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        assertThat(response.statusCode()).isEqualTo(200);
+        return response;
+    }
+
+    private static byte[] gunzip(byte[] body) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package integration;
+
+import com.taskmanager.TaskManagerApplication;
+import com.taskmanager.entity.TaskRepository;
+import com.taskmanager.entity.TaskRow;
+import com.taskmanager.model.request.TaskListRequest;
+import com.taskmanager.model.request.TaskRequest;
+import com.taskmanager.model.response.TaskListResponse;
+import com.taskmanager.model.response.TaskResponse;
+import com.taskmanager.service.TaskManagerService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Runs the list page against an embedded PostgreSQL, so the lateral subquery capping the tasks of each list, which
+ * H2 never runs, is executed with its parameters and mapped to {@link TaskRow}s. The database is stopped by its own
+ * shutdown hook, after the cached application context is closed.
+ */
+@SpringBootTest(classes = TaskManagerApplication.class)
+class PostgresTaskPageIT {
+
+    private static final EmbeddedPostgres postgres = start();
+
+    @Autowired
+    TaskManagerService service;
+
+    @Autowired
+    TaskRepository taskRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+    }
+
+    @Test
+    @DisplayName("The lateral subquery returns the first tasks of each list in list order")
+    void lateralPageTest() {
+        assertThat(entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect()
+                .supportsLateral()).isTrue();
+        Long firstId = service.createList(new TaskListRequest("First")).getId();
+        Long secondId = service.createList(new TaskListRequest("Second")).getId();
+        Long emptyId = service.createList(new TaskListRequest("Empty")).getId();
+        List<Long> first = addTasks(firstId, 4);
+        List<Long> second = addTasks(secondId, 2);
+        service.positionTask(firstId, first.get(3), null, null);
+        service.deleteTask(firstId, first.get(1), null);
+
+        List<TaskRow> rows = taskRepository.findFirstTasksOfLists(List.of(firstId, secondId, emptyId), 2);
+
+        assertThat(rows).extracting(TaskRow::getListId, TaskRow::getId).containsExactly(
+                tuple(firstId, first.get(3)),
+                tuple(firstId, first.get(0)),
+                tuple(secondId, second.get(0)),
+                tuple(secondId, second.get(1)));
+        assertThat(rows.getFirst().getName()).isEqualTo("Task 3");
+        assertThat(rows.getFirst().getVersion()).isEqualTo(1);
+
+        List<TaskListResponse> lists = service.getLists(null, TaskManagerService.MAX_LIST_PAGE_SIZE, 2).getLists();
+        assertThat(lists).extracting(TaskListResponse::getId).containsExactly(firstId, secondId, emptyId);
+        assertThat(lists.get(0).getTasks()).extracting(TaskResponse::getId).containsExactly(first.get(3), first.get(0));
+        assertThat(lists.get(2).getTasks()).isEmpty();
+    }
+
+    private List<Long> addTasks(Long listId, int count) {
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(service.addTaskToList(listId, new TaskRequest("Task " + i, "Description")).getId());
+        }
+        return ids;
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}
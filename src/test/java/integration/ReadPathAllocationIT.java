@@ -0,0 +1,123 @@
+package integration;
+
+import com.taskmanager.TaskManagerApplication;
+import com.taskmanager.entity.TaskListRepository;
+import com.taskmanager.entity.TaskListRevision;
+import com.taskmanager.model.response.TaskListResponse;
+import com.taskmanager.model.response.TaskResponse;
+import com.taskmanager.service.TaskManagerService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares heap allocation and latency of reading the whole store through managed entities
+ * ({@code findAllWithTasks}, the previous {@code getAllLists}) and through the flat projections on H2.
+ * The number of tasks defaults to 200,000 and can be changed with {@code -Dreadpath.tasks=<n>}.
+ */
+@SpringBootTest(classes = TaskManagerApplication.class)
+class ReadPathAllocationIT {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadPathAllocationIT.class);
+
+    private static final int TASKS = Integer.getInteger("readpath.tasks", 200_000);
+    private static final int TASKS_PER_LIST = 200;
+    private static final int WARM_UP_RUNS = 2;
+    private static final int MEASURED_RUNS = 3;
+
+    @Autowired
+    TaskManagerService service;
+
+    @Autowired
+    TaskListRepository taskListRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("delete from task");
+        jdbcTemplate.update("delete from task_list");
+    }
+
+    @Test
+    @DisplayName("Projection read path returns the same lists with much less allocation than entity hydration")
+    void entityVersusProjectionReadTest() {
+        generateStore((TASKS + TASKS_PER_LIST - 1) / TASKS_PER_LIST);
+
+        Supplier<List<TaskListResponse>> entities = () -> {
+            Map<Long, Long> revisions = taskListRepository.findRevisionsAfter(0, Limit.unlimited()).stream()
+                    .collect(Collectors.toMap(TaskListRevision::getId, TaskListRevision::getRevision));
+            return taskListRepository.findAllWithTasks().stream()
+                    .map(list -> TaskListResponse.from(list, revisions.get(list.getId())))
+                    .toList();
+        };
+        Supplier<List<TaskListResponse>> projections = service::getAllLists;
+
+        assertEquals(sorted(entities.get()), projections.get());
+
+        Measurement before = measure(entities);
+        Measurement after = measure(projections);
+        logger.info("Read of {} tasks: entities {} MB allocated in {} ms, projections {} MB allocated in {} ms",
+                TASKS, before.allocatedBytes() / (1024 * 1024), before.millis(),
+                after.allocatedBytes() / (1024 * 1024), after.millis());
+
+        assertThat(after.allocatedBytes()).isLessThan(before.allocatedBytes() / 2);
+    }
+
+    private static Measurement measure(Supplier<List<TaskListResponse>> read) {
+        for (int run = 0; run < WARM_UP_RUNS; run++) {
+            read.get();
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int run = 0; run < MEASURED_RUNS; run++) {
+            read.get();
+        }
+        return new Measurement((threads.getCurrentThreadAllocatedBytes() - allocatedBefore) / MEASURED_RUNS,
+                (System.nanoTime() - start) / MEASURED_RUNS / 1_000_000);
+    }
+
+    private static List<TaskListResponse> sorted(List<TaskListResponse> lists) {
+        List<TaskListResponse> result = new ArrayList<>(lists);
+        result.sort(Comparator.comparing(TaskListResponse::getId));
+        result.forEach(list -> list.setTasks(list.getTasks().stream()
+                .sorted(Comparator.comparing(TaskResponse::getId))
+                .toList()));
+        return result;
+    }
+
+    private void generateStore(int lists) {
+        long taskId = 0;
+        int remaining = TASKS;
+        for (int list = 0; list < lists; list++) {
+            jdbcTemplate.update("insert into task_list (name) values (?)", "List " + list);
+            Long listId = jdbcTemplate.queryForObject("select max(id) from task_list", Long.class);
+            List<Object[]> rows = new ArrayList<>(TASKS_PER_LIST);
+            for (int task = 0; task < Math.min(TASKS_PER_LIST, remaining); task++) {
+                rows.add(new Object[]{++taskId, "Task " + task, "Description of task " + task, listId});
+            }
+            jdbcTemplate.batchUpdate("insert into task (id, name, description, task_list_id) values (?, ?, ?, ?)", rows);
+            remaining -= rows.size();
+        }
+    }
+
+    private record Measurement(long allocatedBytes, long millis) {
+    }
+}
@@ -0,0 +1,179 @@
+package integration;
+
+import com.taskmanager.TaskManagerApplication;
+import com.taskmanager.exception.NotFoundException;
+import com.taskmanager.model.request.TaskListRequest;
+import com.taskmanager.model.response.ChangesResponse;
+import com.taskmanager.model.response.ListChange;
+import com.taskmanager.model.response.TaskListResponse;
+import com.taskmanager.routing.ReadWriteRoutingDataSource;
+import com.taskmanager.service.TaskManagerService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the service against a primary and a replica that are separate H2 databases. Nothing replicates on its own:
+ * {@link #replicate()} copies the primary over the replica, so anything written after it is a write the replica
+ * has not caught up with yet.
+ */
+@SpringBootTest(classes = TaskManagerApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "taskmanager.datasource.replica.enabled=true",
+                "taskmanager.datasource.replica.jdbc-url=jdbc:h2:mem:replica-${random.uuid};DB_CLOSE_DELAY=-1",
+                "taskmanager.datasource.replica.username=sa",
+                "taskmanager.datasource.replica.password=",
+                "taskmanager.datasource.sticky-primary=" + ReadReplicaIT.STICKY_PRIMARY_MILLIS + "ms"
+        })
+class ReadReplicaIT {
+
+    static final long STICKY_PRIMARY_MILLIS = 500;
+
+    private static final String LISTS = "/api/v1/task-manager/lists?limit=500&taskLimit=1";
+
+    @Autowired
+    TaskManagerService service;
+
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    DataSource primary;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    DataSource replica;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        replicate();
+    }
+
+    @Test
+    @DisplayName("Read-only transactions read from the replica and writes go to the primary")
+    void readsFromReplicaTest() throws SQLException {
+        double replicaReads = routes("replica", "read");
+        String name = "Unreplicated " + UUID.randomUUID();
+
+        service.createList(new TaskListRequest(name));
+
+        assertThat(service.getAllLists()).extracting(TaskListResponse::getName).doesNotContain(name);
+        replicate();
+        assertThat(service.getAllLists()).extracting(TaskListResponse::getName).contains(name);
+        assertThat(routes("replica", "read")).isGreaterThanOrEqualTo(replicaReads + 2);
+        assertThat(routes("primary", "write")).isPositive();
+    }
+
+    @Test
+    @DisplayName("A client reads its own writes within the sticky window, other clients read the replica")
+    void stickyPrimaryTest() throws InterruptedException {
+        String name = "Sticky " + UUID.randomUUID();
+
+        ResponseEntity<String> created = restTemplate.exchange("/api/v1/task-manager/lists", HttpMethod.POST,
+                new HttpEntity<>(new TaskListRequest(name), headers("writer")), String.class);
+        assertThat(created.getStatusCode().is2xxSuccessful()).isTrue();
+
+        assertThat(lists("writer")).contains(name);
+        assertThat(lists("reader")).doesNotContain(name);
+        assertThat(routes("primary", "sticky")).isPositive();
+
+        Thread.sleep(STICKY_PRIMARY_MILLIS + 100);
+        assertThat(lists("writer")).doesNotContain(name);
+    }
+
+    @Test
+    @DisplayName("Delta sync reads the primary, so it returns changes the replica has not caught up with")
+    void changesFromPrimaryTest() {
+        ChangesResponse caughtUp = service.getChanges(null, 1000);
+        while (caughtUp.isHasMore()) {
+            caughtUp = service.getChanges(caughtUp.getNextToken(), 1000);
+        }
+        String token = caughtUp.getNextToken();
+        double required = routes("primary", "required");
+
+        Long listId = service.createList(new TaskListRequest("Synced " + UUID.randomUUID())).getId();
+
+        ChangesResponse changes = service.getChanges(token, 100);
+        assertThat(changes.getLists()).extracting(ListChange::getId).containsExactly(listId);
+        assertThat(routes("primary", "required")).isGreaterThan(required);
+    }
+
+    @Test
+    @DisplayName("A read of a list deleted on the primary but not yet on the replica does not outlive the lag")
+    void deletedListLaggingReadTest() throws SQLException {
+        Long listId = service.createList(new TaskListRequest("Deleted " + UUID.randomUUID())).getId();
+        replicate();
+
+        service.deleteList(listId, null);
+
+        assertThat(service.getTasks(listId, null, 10).getTasks()).isEmpty();
+        assertThatThrownBy(() -> ReadWriteRoutingDataSource.onPrimary(() -> service.getTasks(listId, null, 10)))
+                .isInstanceOf(NotFoundException.class);
+        replicate();
+        assertThatThrownBy(() -> service.getTasks(listId, null, 10)).isInstanceOf(NotFoundException.class);
+    }
+
+    private String lists(String client) {
+        return restTemplate.exchange(LISTS, HttpMethod.GET, new HttpEntity<>(headers(client)), String.class).getBody();
+    }
+
+    private static HttpHeaders headers(String client) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set(ReadWriteRoutingDataSource.CLIENT_ID_HEADER, client);
+        return headers;
+    }
+
+    private double routes(String target, String reason) {
+        return meterRegistry.get(ReadWriteRoutingDataSource.ROUTES_NAME).tag("target", target).tag("reason", reason)
+                .counter().count();
+    }
+
+    /**
+     * Replaces the content of the replica with a copy of the primary.
+     */
+    private void replicate() throws SQLException {
+        List<String> script = new ArrayList<>();
+        try (Connection connection = primary.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SCRIPT NOPASSWORDS NOSETTINGS")) {
+            while (resultSet.next()) {
+                String sql = resultSet.getString(1);
+                if (!sql.startsWith("CREATE USER")) {
+                    script.add(sql);
+                }
+            }
+        }
+        try (Connection connection = replica.getConnection(); Statement statement = connection.createStatement()) {
+            connection.setReadOnly(false);
+            statement.execute("DROP ALL OBJECTS");
+            for (String sql : script) {
+                statement.execute(sql);
+            }
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package integration;
+
+import com.taskmanager.TaskManagerApplication;
+import com.taskmanager.entity.TaskList;
+import com.taskmanager.entity.TaskListRepository;
+import com.taskmanager.exception.NotFoundException;
+import com.taskmanager.metrics.SqlStatementCounter;
+import com.taskmanager.model.request.TaskListRequest;
+import com.taskmanager.model.request.TaskRequest;
+import com.taskmanager.model.response.TaskResponse;
+import com.taskmanager.service.TaskManagerService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks that cached task lists stay consistent across the write paths and measures how many SELECTs the cache
+ * saves under a mixed workload. The workload runs twice with the same random choices, once with all regions
+ * evicted before every operation and once with the cache warm; the writes are identical, so the difference in
+ * executed statements is the number of SELECTs served from the cache.
+ */
+@SpringBootTest(classes = TaskManagerApplication.class)
+class SecondLevelCacheIT {
+
+    private static final Logger logger = LoggerFactory.getLogger(SecondLevelCacheIT.class);
+
+    private static final int LISTS = 100;
+
+    private static final int TASKS_PER_LIST = 20;
+
+    private static final int OPERATIONS = 5_000;
+
+    @Autowired
+    TaskManagerService service;
+
+    @Autowired
+    TaskListRepository taskListRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Test
+    @DisplayName("Cached lists keep revisions current and disappear with deletes")
+    void invalidationTest() {
+        Long listId = service.createList(new TaskListRequest("From")).getId();
+        Long otherListId = service.createList(new TaskListRequest("To")).getId();
+        service.getTasks(listId, null, 20);
+        double hitsBefore = listCacheGets("hit");
+
+        List<String> eTags = new ArrayList<>();
+        eTags.add(service.getTasksETag(listId, null, 20));
+        TaskResponse task = service.addTaskToList(listId, new TaskRequest("Task", "Description"));
+        eTags.add(service.getTasksETag(listId, null, 20));
+        service.updateTask(task.getId(), new TaskRequest("Updated", "Description"), null);
+        eTags.add(service.getTasksETag(listId, null, 20));
+        service.moveTask(listId, task.getId(), otherListId, null, null);
+        eTags.add(service.getTasksETag(listId, null, 20));
+        service.addTasksToList(listId, List.of(new TaskRequest("Batched", "Description")));
+        eTags.add(service.getTasksETag(listId, null, 20));
+        assertThat(eTags).doesNotHaveDuplicates();
+        assertThat(service.getTasks(listId, null, 20).getTasks()).extracting(TaskResponse::getName)
+                .containsExactly("Batched");
+        assertThat(listCacheGets("hit")).isGreaterThan(hitsBefore);
+
+        service.deleteList(listId, null);
+        assertThat(taskListRepository.findById(listId)).isEmpty();
+        assertThatThrownBy(() -> service.getTasks(listId, null, 20)).isInstanceOf(NotFoundException.class);
+        assertThatThrownBy(() -> service.addTaskToList(listId, new TaskRequest("Task", "Description")))
+                .isInstanceOf(NotFoundException.class);
+        assertThat(service.getTasks(otherListId, null, 20).getTasks()).extracting(TaskResponse::getId)
+                .containsExactly(task.getId());
+        service.deleteList(otherListId, null);
+    }
+
+    @Test
+    @DisplayName("A list served from the cache after its revisions were bumped is current and can be written back")
+    void bumpedListWriteBackTest() {
+        Long listId = service.createList(new TaskListRequest("Bumped")).getId();
+        service.addTaskToList(listId, new TaskRequest("Task", "Description"));
+        TaskResponse task = service.addTaskToList(listId, new TaskRequest("Task", "Description"));
+        service.updateTask(task.getId(), new TaskRequest("Updated", "Description"), null);
+        long revision = taskListRepository.findRevisionById(listId).orElseThrow();
+        double hitsBefore = listCacheGets("hit");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            TaskList list = taskListRepository.findById(listId).orElseThrow();
+            list.setName("Renamed");
+        });
+
+        assertThat(listCacheGets("hit")).isGreaterThan(hitsBefore);
+        assertThat(taskListRepository.findById(listId)).get().extracting(TaskList::getName).isEqualTo("Renamed");
+        assertThat(taskListRepository.findRevisionById(listId)).contains(revision);
+        service.deleteList(listId, null);
+    }
+
+    @Test
+    @DisplayName("The warm cache saves SELECTs under a mixed workload and is reported as cache meters")
+    void mixedWorkloadTest() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        long uncached = runWorkload(() -> sessionFactory.getCache().evictAllRegions());
+        double hitsBefore = listCacheGets("hit");
+        double missesBefore = listCacheGets("miss");
+        long cached = runWorkload(() -> {
+        });
+        double hits = listCacheGets("hit") - hitsBefore;
+        double misses = listCacheGets("miss") - missesBefore;
+
+        logger.info("Mixed workload of {} operations: {} statements uncached, {} cached, {} SELECTs saved; "
+                        + "list region {} hits, {} misses", OPERATIONS, uncached, cached, uncached - cached,
+                Math.round(hits), Math.round(misses));
+        assertThat(hits).isGreaterThan(misses);
+        assertThat(uncached - cached).isGreaterThan(OPERATIONS / 4);
+    }
+
+    /**
+     * Seeds fresh lists and runs a fixed mix of reads and writes on them: 45% page reads, 25% task inserts,
+     * 15% updates, 10% moves and 5% deletes.
+     *
+     * @param beforeOperation run before every operation, outside the measured statements
+     * @return the number of statements the operations executed
+     */
+    private long runWorkload(Runnable beforeOperation) {
+        Random random = new Random(7);
+        List<Long> listIds = new ArrayList<>(LISTS);
+        List<List<Long>> taskIds = new ArrayList<>(LISTS);
+        for (int i = 0; i < LISTS; i++) {
+            Long listId = service.createList(new TaskListRequest("List " + i)).getId();
+            listIds.add(listId);
+            List<TaskRequest> requests = new ArrayList<>(TASKS_PER_LIST);
+            for (int j = 0; j < TASKS_PER_LIST; j++) {
+                requests.add(new TaskRequest("Task " + j, "Description"));
+            }
+            taskIds.add(new ArrayList<>(service.addTasksToList(listId, requests).stream()
+                    .map(TaskResponse::getId).toList()));
+        }
+
+        long statements = 0;
+        for (int i = 0; i < OPERATIONS; i++) {
+            int list = random.nextInt(LISTS);
+            Long listId = listIds.get(list);
+            List<Long> tasks = taskIds.get(list);
+            int operation = random.nextInt(100);
+            beforeOperation.run();
+
+            long before = SqlStatementCounter.current();
+            if (operation < 45 || tasks.isEmpty()) {
+                service.getTasks(listId, null, 20);
+            } else if (operation < 65) {
+                tasks.add(service.addTaskToList(listId, new TaskRequest("Added", "Description")).getId());
+            } else if (operation < 70) {
+                service.addTasksToList(listId, List.of(new TaskRequest("Batch", "Description"),
+                        new TaskRequest("Batch", "Description"))).forEach(task -> tasks.add(task.getId()));
+            } else if (operation < 85) {
+                service.updateTask(tasks.get(random.nextInt(tasks.size())), new TaskRequest("Updated", "Desc"), null);
+            } else if (operation < 95) {
+                int target = random.nextInt(LISTS);
+                if (target != list) {
+                    Long taskId = tasks.remove(random.nextInt(tasks.size()));
+                    service.moveTask(listId, taskId, listIds.get(target), null, null);
+                    taskIds.get(target).add(taskId);
+                }
+            } else {
+                service.deleteTask(listId, tasks.remove(random.nextInt(tasks.size())), null);
+            }
+            statements += SqlStatementCounter.current() - before;
+        }
+
+        listIds.forEach(listId -> service.deleteList(listId, null));
+        return statements;
+    }
+
+    private double listCacheGets(String result) {
+        FunctionCounter counter = meterRegistry.find("cache.gets")
+                .tags("cache", TaskList.class.getName(), "result", result).functionCounter();
+        return counter == null ? 0 : counter.count();
+    }
+}
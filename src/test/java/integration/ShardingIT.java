@@ -0,0 +1,206 @@
+package integration;
+
+import com.taskmanager.TaskManagerApplication;
+import com.taskmanager.exception.ConflictException;
+import com.taskmanager.exception.NotFoundException;
+import com.taskmanager.model.request.BulkMoveRequest;
+import com.taskmanager.model.request.TaskListRequest;
+import com.taskmanager.model.request.TaskRequest;
+import com.taskmanager.model.response.BulkMoveResponse;
+import com.taskmanager.model.response.ChangesResponse;
+import com.taskmanager.model.response.TaskChange;
+import com.taskmanager.model.response.TaskListPageResponse;
+import com.taskmanager.model.response.TaskListResponse;
+import com.taskmanager.model.response.TaskResponse;
+import com.taskmanager.model.response.TaskSearchResult;
+import com.taskmanager.service.TaskManagerService;
+import com.taskmanager.shard.ShardRoutingDataSource;
+import com.taskmanager.shard.Shards;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the service against three shards that are separate H2 databases.
+ */
+@SpringBootTest(classes = TaskManagerApplication.class, properties = {
+        "taskmanager.sharding.enabled=true",
+        "taskmanager.sharding.urls=jdbc:h2:mem:shard1-${random.uuid};DB_CLOSE_DELAY=-1,"
+                + "jdbc:h2:mem:shard2-${random.uuid};DB_CLOSE_DELAY=-1",
+        "taskmanager.purge.idle-interval=1h"
+})
+class ShardingIT {
+
+    @Autowired
+    TaskManagerService service;
+
+    @Autowired
+    Shards shards;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Lists are placed round-robin and each list lives with its tasks on the shard its id names")
+    void placementTest() {
+        List<Long> listIds = new ArrayList<>();
+        for (int i = 0; i < 2 * shards.count(); i++) {
+            Long listId = service.createList(new TaskListRequest("Placed " + i)).getId();
+            service.addTasksToList(listId, List.of(new TaskRequest("Task " + i, "First"),
+                    new TaskRequest("Task " + i, "Second")));
+            listIds.add(listId);
+        }
+
+        Set<Integer> used = new HashSet<>();
+        for (Long listId : listIds) {
+            int shard = shards.shardOf(listId);
+            used.add(shard);
+            assertThat(countOn(shard, "select count(*) from task_list where id = ?", listId)).isEqualTo(1);
+            assertThat(countOn(shard, "select count(*) from task where task_list_id = ?", listId)).isEqualTo(2);
+            assertThat(service.getTasks(listId, null, 10).getTasks()).hasSize(2);
+        }
+        assertThat(used).hasSize(shards.count());
+    }
+
+    @Test
+    @DisplayName("Reads over all lists gather every shard and page through them in id order")
+    void scatterGatherTest() {
+        List<Long> created = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            created.add(service.createList(new TaskListRequest("Gathered " + i)).getId());
+        }
+
+        assertThat(service.getAllLists()).extracting(TaskListResponse::getId).containsAll(created).isSorted();
+
+        List<Long> paged = new ArrayList<>();
+        String cursor = null;
+        do {
+            TaskListPageResponse page = service.getLists(cursor, 2, 1);
+            assertThat(page.getLists()).hasSizeLessThanOrEqualTo(2);
+            page.getLists().forEach(list -> paged.add(list.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        assertThat(paged).containsAll(created).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    @DisplayName("Tasks move between lists on different shards, keeping their ids, and are found there afterwards")
+    void crossShardMoveTest() {
+        Long fromListId = service.createList(new TaskListRequest("From")).getId();
+        Long toListId = service.createList(new TaskListRequest("To")).getId();
+        assertThat(shards.shardOf(fromListId)).isNotEqualTo(shards.shardOf(toListId));
+        String word = "moved" + UUID.randomUUID().toString().replace("-", "");
+        List<TaskResponse> tasks = service.addTasksToList(fromListId, List.of(new TaskRequest("Single " + word, "x"),
+                new TaskRequest("Bulk one", "x"), new TaskRequest("Bulk two", "x")));
+        Long singleId = tasks.get(0).getId();
+
+        TaskResponse moved = service.moveTask(fromListId, singleId, toListId, null, tasks.get(0).getVersion());
+        BulkMoveResponse bulk = service.moveTasks(fromListId, new BulkMoveRequest(toListId,
+                List.of(tasks.get(1).getId(), tasks.get(2).getId(), -1L), null));
+
+        assertThat(moved.getId()).isEqualTo(singleId);
+        assertThat(moved.getVersion()).isEqualTo(tasks.get(0).getVersion() + 1);
+        assertThat(bulk.getMoved()).containsExactly(tasks.get(1).getId(), tasks.get(2).getId());
+        assertThat(bulk.getRejected()).containsExactly(-1L);
+        assertThat(service.getTasks(fromListId, null, 10).getTasks()).isEmpty();
+        assertThat(service.getTasks(toListId, null, 10).getTasks()).extracting(TaskResponse::getId)
+                .containsExactly(singleId, tasks.get(1).getId(), tasks.get(2).getId());
+        assertThat(countOn(shards.shardOf(fromListId), "select count(*) from task where id = ?", singleId)).isZero();
+        assertThat(service.searchTasks(word, null, 10).getResults()).extracting(TaskSearchResult::getListId)
+                .containsExactly(toListId);
+
+        TaskResponse updated = service.updateTask(singleId, new TaskRequest("Updated", "y"), moved.getVersion());
+        assertThat(updated.getVersion()).isEqualTo(moved.getVersion() + 1);
+    }
+
+    @Test
+    @DisplayName("A task is updated on the shard that allocated its id without looking it up on the others")
+    void updateOnAllocatingShardTest() {
+        Long listId = null;
+        while (listId == null || shards.shardOf(listId) == ShardRoutingDataSource.HOME_SHARD) {
+            listId = service.createList(new TaskListRequest("Updated")).getId();
+        }
+        TaskResponse task = service.addTaskToList(listId, new TaskRequest("Task", "x"));
+        int shard = shards.shardOf(listId);
+        assertThat(shards.shardOfTask(task.getId())).isEqualTo(shard);
+        double[] before = connections();
+
+        TaskResponse updated = service.updateTask(task.getId(), new TaskRequest("Changed", "y"), task.getVersion());
+
+        assertThat(updated.getVersion()).isEqualTo(task.getVersion() + 1);
+        double[] after = connections();
+        for (int other = 0; other < shards.count(); other++) {
+            assertThat(after[other] - before[other]).isEqualTo(other == shard ? 1 : 0);
+        }
+        assertThatThrownBy(() -> service.updateTask(-1L, new TaskRequest("Missing", "x"), null))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("A cross-shard move of a task that changed since the expected version conflicts and moves nothing")
+    void crossShardConflictTest() {
+        Long fromListId = service.createList(new TaskListRequest("Conflict from")).getId();
+        Long toListId = service.createList(new TaskListRequest("Conflict to")).getId();
+        TaskResponse task = service.addTaskToList(fromListId, new TaskRequest("Contested", "x"));
+        service.updateTask(task.getId(), new TaskRequest("Changed", "x"), null);
+
+        assertThatThrownBy(() -> service.moveTask(fromListId, task.getId(), toListId, null, task.getVersion()))
+                .isInstanceOf(ConflictException.class);
+        assertThat(service.getTasks(fromListId, null, 10).getTasks()).extracting(TaskResponse::getId)
+                .containsExactly(task.getId());
+        assertThat(service.getTasks(toListId, null, 10).getTasks()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Delta sync gathers the changes of every shard; a cross-shard move syncs as a change of list")
+    void deltaSyncTest() {
+        ChangesResponse caughtUp = service.getChanges(null, 1000);
+        while (caughtUp.isHasMore()) {
+            caughtUp = service.getChanges(caughtUp.getNextToken(), 1000);
+        }
+        Long fromListId = service.createList(new TaskListRequest("Sync from")).getId();
+        Long toListId = service.createList(new TaskListRequest("Sync to")).getId();
+        TaskResponse task = service.addTaskToList(fromListId, new TaskRequest("Synced", "x"));
+        service.moveTask(fromListId, task.getId(), toListId, null, null);
+
+        List<TaskChange> taskChanges = new ArrayList<>();
+        List<Long> listChanges = new ArrayList<>();
+        ChangesResponse changes = caughtUp;
+        do {
+            changes = service.getChanges(changes.getNextToken(), 1);
+            changes.getTasks().forEach(taskChanges::add);
+            changes.getLists().forEach(list -> listChanges.add(list.getId()));
+            assertThat(changes.getDeletions()).isEmpty();
+        } while (changes.isHasMore());
+
+        assertThat(listChanges).contains(fromListId, toListId);
+        assertThat(taskChanges.getLast().getId()).isEqualTo(task.getId());
+        assertThat(taskChanges.getLast().getListId()).isEqualTo(toListId);
+    }
+
+    private double[] connections() {
+        double[] connections = new double[shards.count()];
+        for (int shard = 0; shard < connections.length; shard++) {
+            connections[shard] = meterRegistry.get(ShardRoutingDataSource.CONNECTIONS_NAME)
+                    .tag("shard", Integer.toString(shard)).counter().count();
+        }
+        return connections;
+    }
+
+    private long countOn(int shard, String sql, Object... args) {
+        return ShardRoutingDataSource.onShardOf(shard, () -> jdbcTemplate.queryForObject(sql, Long.class, args));
+    }
+}
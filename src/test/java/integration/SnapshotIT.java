@@ -0,0 +1,156 @@
+package integration;
+
+import com.taskmanager.TaskManagerApplication;
+import com.taskmanager.entity.TaskListRepository;
+import com.taskmanager.entity.TaskRepository;
+import com.taskmanager.model.response.SnapshotImportResponse;
+import com.taskmanager.service.SnapshotService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPInputStream;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.reset;
+
+/**
+ * Exports and re-imports a generated store on H2.
+ * The number of tasks defaults to one million and can be changed with {@code -Dsnapshot.tasks=<n>}.
+ */
+@SpringBootTest(classes = TaskManagerApplication.class)
+class SnapshotIT {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotIT.class);
+
+    private static final int TASKS = Integer.getInteger("snapshot.tasks", 1_000_000);
+    private static final int TASKS_PER_LIST = 1_000;
+
+    @Autowired
+    SnapshotService snapshotService;
+
+    @MockitoSpyBean
+    TaskRepository taskRepository;
+
+    @Autowired
+    TaskListRepository taskListRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("delete from task");
+        jdbcTemplate.update("delete from task_list");
+    }
+
+    @Test
+    @DisplayName("Export and import of a large store round-trips every list and task")
+    void exportImportRoundTripTest() throws IOException {
+        int lists = (TASKS + TASKS_PER_LIST - 1) / TASKS_PER_LIST;
+        generateStore(lists);
+
+        Path snapshot = tempDir.resolve("snapshot.ndjson.gz");
+        long exportStart = System.nanoTime();
+        try (OutputStream out = Files.newOutputStream(snapshot)) {
+            snapshotService.exportSnapshot(out);
+        }
+        logger.info("Exported {} lists and {} tasks to {} bytes in {} ms, heap used {} MB", lists, TASKS,
+                Files.size(snapshot), (System.nanoTime() - exportStart) / 1_000_000, usedHeapMegabytes());
+
+        assertEquals(lists + TASKS, countLines(snapshot));
+
+        cleanUp();
+        long importStart = System.nanoTime();
+        SnapshotImportResponse response;
+        try (InputStream in = Files.newInputStream(snapshot)) {
+            response = snapshotService.importSnapshot(in);
+        }
+        logger.info("Imported snapshot in {} ms, heap used {} MB",
+                (System.nanoTime() - importStart) / 1_000_000, usedHeapMegabytes());
+
+        assertEquals(lists, response.getImportedLists());
+        assertEquals(TASKS, response.getImportedTasks());
+        assertEquals(lists, taskListRepository.count());
+        assertEquals(TASKS, taskRepository.count());
+        assertEquals(TASKS_PER_LIST, jdbcTemplate.queryForObject(
+                "select count(*) from task where task_list_id = (select min(id) from task_list)", Integer.class));
+    }
+
+    @Test
+    @DisplayName("Export reads lists and tasks from one snapshot while a list and its task are created")
+    void exportConsistentUnderWritesTest() throws Exception {
+        generateStore(1);
+        doAnswer(invocation -> {
+            CompletableFuture.runAsync(() -> {
+                jdbcTemplate.update("insert into task_list (name) values ('Concurrent')");
+                jdbcTemplate.update("insert into task (id, name, description, task_list_id) "
+                        + "select (select max(id) + 1 from task), 'Concurrent', 'Created during the export', max(id) "
+                        + "from task_list");
+            }).get();
+            return mockingDetails(taskRepository).getMockCreationSettings().getDefaultAnswer().answer(invocation);
+        }).when(taskRepository).streamSnapshots();
+
+        Path snapshot = tempDir.resolve("concurrent.ndjson.gz");
+        try (OutputStream out = Files.newOutputStream(snapshot)) {
+            snapshotService.exportSnapshot(out);
+        }
+        reset(taskRepository);
+
+        cleanUp();
+        SnapshotImportResponse response;
+        try (InputStream in = Files.newInputStream(snapshot)) {
+            response = snapshotService.importSnapshot(in);
+        }
+        assertEquals(1, response.getImportedLists());
+        assertEquals(Math.min(TASKS, TASKS_PER_LIST), response.getImportedTasks());
+    }
+
+    private void generateStore(int lists) {
+        long taskId = 0;
+        int remaining = TASKS;
+        for (int list = 0; list < lists; list++) {
+            jdbcTemplate.update("insert into task_list (name) values (?)", "List " + list);
+            Long listId = jdbcTemplate.queryForObject("select max(id) from task_list", Long.class);
+            List<Object[]> rows = new ArrayList<>(TASKS_PER_LIST);
+            for (int task = 0; task < Math.min(TASKS_PER_LIST, remaining); task++) {
+                rows.add(new Object[]{++taskId, "Task " + task, "Description of task " + task, listId});
+            }
+            jdbcTemplate.batchUpdate("insert into task (id, name, description, task_list_id) values (?, ?, ?, ?)", rows);
+            remaining -= rows.size();
+        }
+    }
+
+    private static long countLines(Path snapshot) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(snapshot)), StandardCharsets.UTF_8))) {
+            return reader.lines().count();
+        }
+    }
+
+    private static long usedHeapMegabytes() {
+        Runtime runtime = Runtime.getRuntime();
+        return (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024);
+    }
+}
@@ -0,0 +1,152 @@
+package integration;
+
+import com.taskmanager.TaskManagerApplication;
+import com.taskmanager.entity.Tombstone;
+import com.taskmanager.exception.NotFoundException;
+import com.taskmanager.model.request.TaskListRequest;
+import com.taskmanager.model.request.TaskRequest;
+import com.taskmanager.model.response.ChangesResponse;
+import com.taskmanager.model.response.Deletion;
+import com.taskmanager.model.response.ListChange;
+import com.taskmanager.model.response.TaskListResponse;
+import com.taskmanager.model.response.TaskResponse;
+import com.taskmanager.model.response.TaskSearchResult;
+import com.taskmanager.service.TaskManagerService;
+import com.taskmanager.service.TaskPurger;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Deletes lists and tasks and checks that they vanish from every read at once, while their rows stay until the
+ * purge removes them. The background purge is kept idle after its first run, so the test drives it with small
+ * chunks itself.
+ */
+@SpringBootTest(classes = TaskManagerApplication.class, properties = {
+        "taskmanager.purge.chunk-size=3",
+        "taskmanager.purge.idle-interval=1h"
+})
+class SoftDeleteIT {
+
+    @Autowired
+    TaskManagerService service;
+
+    @Autowired
+    TaskPurger taskPurger;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Deleted lists and tasks vanish from every read and are purged in chunks later")
+    void deleteAndPurgeTest() {
+        Long listId = service.createList(new TaskListRequest("Doomed")).getId();
+        Long keptId = service.createList(new TaskListRequest("Kept")).getId();
+        List<TaskResponse> doomed = service.addTasksToList(listId, requests("Zephyrine doomed", 5));
+        List<TaskResponse> kept = service.addTasksToList(keptId, requests("Zephyrine kept", 2));
+        String token = catchUp();
+        double purgedBefore = purged("task");
+
+        service.deleteTask(keptId, kept.getFirst().getId(), null);
+        service.deleteList(listId, null);
+
+        assertThat(service.getAllLists()).extracting(TaskListResponse::getId)
+                .contains(keptId).doesNotContain(listId);
+        assertThat(service.getTasks(keptId, null, 10).getTasks()).extracting(TaskResponse::getId)
+                .containsExactly(kept.getLast().getId());
+        assertThatThrownBy(() -> service.getTasks(listId, null, 10)).isInstanceOf(NotFoundException.class);
+        assertThat(service.searchTasks("zephyrine", null, 10).getResults()).extracting(TaskSearchResult::getId)
+                .containsExactly(kept.getLast().getId());
+        assertThatThrownBy(() -> service.updateTask(doomed.getFirst().getId(), new TaskRequest("Back", "Description"), null))
+                .isInstanceOf(NotFoundException.class);
+        assertThatThrownBy(() -> service.addTaskToList(listId, new TaskRequest("Late", "Description")))
+                .isInstanceOf(NotFoundException.class);
+        assertThatThrownBy(() -> service.deleteList(listId, null)).isInstanceOf(NotFoundException.class);
+
+        ChangesResponse changes = service.getChanges(token, 100);
+        assertThat(changes.getLists()).extracting(ListChange::getId).containsExactly(keptId);
+        assertThat(changes.getTasks()).isEmpty();
+        assertThat(changes.getDeletions()).extracting(Deletion::getKind, Deletion::getId).containsExactlyInAnyOrder(
+                tuple(Tombstone.Kind.TASK, kept.getFirst().getId()),
+                tuple(Tombstone.Kind.LIST, listId));
+
+        assertThat(rows("task_list", listId)).isEqualTo(1);
+        assertThat(tasksOf(listId)).isEqualTo(5);
+        assertThat(tasksOf(keptId)).isEqualTo(2);
+
+        int chunks = 0;
+        while (taskPurger.purgeOnce()) {
+            chunks++;
+        }
+
+        assertThat(chunks).isGreaterThanOrEqualTo(1);
+        assertThat(rows("task_list", listId)).isZero();
+        assertThat(tasksOf(listId)).isZero();
+        assertThat(tasksOf(keptId)).isEqualTo(1);
+        assertThat(service.getTasks(keptId, null, 10).getTasks()).hasSize(1);
+        assertThat(purged("task") - purgedBefore).isGreaterThanOrEqualTo(6);
+        assertThat(meterRegistry.get(TaskPurger.BACKLOG_NAME).tag("kind", "task").gauge().value()).isZero();
+        assertThat(meterRegistry.get(TaskPurger.BACKLOG_NAME).tag("kind", "list").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deleted empty lists beyond one chunk are purged in consecutive chunks")
+    void purgeEmptyListsTest() {
+        List<Long> listIds = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            listIds.add(service.createList(new TaskListRequest("Empty " + i)).getId());
+        }
+        listIds.forEach(listId -> service.deleteList(listId, null));
+
+        int chunks = 0;
+        while (taskPurger.purgeOnce()) {
+            chunks++;
+        }
+
+        assertThat(chunks).isGreaterThanOrEqualTo(1);
+        assertThat(listIds).allSatisfy(listId -> assertThat(rows("task_list", listId)).isZero());
+        assertThat(meterRegistry.get(TaskPurger.BACKLOG_NAME).tag("kind", "list").gauge().value()).isZero();
+    }
+
+    private String catchUp() {
+        String token = null;
+        ChangesResponse page;
+        do {
+            page = service.getChanges(token, TaskManagerService.MAX_CHANGES_PAGE_SIZE);
+            token = page.getNextToken();
+        } while (page.isHasMore());
+        return token;
+    }
+
+    private static List<TaskRequest> requests(String name, int count) {
+        List<TaskRequest> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            requests.add(new TaskRequest(name + " " + i, "Description"));
+        }
+        return Collections.unmodifiableList(requests);
+    }
+
+    private double purged(String kind) {
+        return meterRegistry.get(TaskPurger.PURGED_NAME).tag("kind", kind).counter().count();
+    }
+
+    private int rows(String table, Long id) {
+        return jdbcTemplate.queryForObject("select count(*) from " + table + " where id = ?", Integer.class, id);
+    }
+
+    private int tasksOf(Long listId) {
+        return jdbcTemplate.queryForObject("select count(*) from task where task_list_id = ?", Integer.class, listId);
+    }
+}
@@ -0,0 +1,90 @@
+package integration;
+
+import com.taskmanager.TaskManagerApplication;
+import com.taskmanager.model.request.TaskListRequest;
+import com.taskmanager.model.request.TaskRequest;
+import com.taskmanager.service.TaskManagerService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.util.ArrayList;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the insert throughput of the single-task path with the batch path on H2.
+ * The number of tasks per path defaults to 20,000 and can be changed with {@code -Dbatch.tasks=<n>}.
+ */
+@SpringBootTest(classes = TaskManagerApplication.class,
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class TaskBatchInsertIT {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskBatchInsertIT.class);
+
+    private static final int TASKS = Integer.getInteger("batch.tasks", 20_000);
+
+    @Autowired
+    TaskManagerService service;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("delete from task");
+        jdbcTemplate.update("delete from task_list");
+    }
+
+    @Test
+    @DisplayName("Batch path inserts in JDBC batches and beats the single-task path in rows/sec")
+    void batchInsertThroughputTest() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Long singleListId = service.createList(new TaskListRequest("Single")).getId();
+        Long batchListId = service.createList(new TaskListRequest("Batch")).getId();
+
+        statistics.clear();
+        long singleStart = System.nanoTime();
+        for (int i = 0; i < TASKS; i++) {
+            service.addTaskToList(singleListId, new TaskRequest("Task " + i, "Description " + i));
+        }
+        double singleRowsPerSecond = rowsPerSecond(singleStart);
+        long singleStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        long batchStart = System.nanoTime();
+        List<TaskRequest> batch = new ArrayList<>(TaskRequest.BATCH_MAX_SIZE);
+        for (int i = 0; i < TASKS; i++) {
+            batch.add(new TaskRequest("Task " + i, "Description " + i));
+            if (batch.size() == TaskRequest.BATCH_MAX_SIZE || i == TASKS - 1) {
+                service.addTasksToList(batchListId, batch);
+                batch = new ArrayList<>(TaskRequest.BATCH_MAX_SIZE);
+            }
+        }
+        double batchRowsPerSecond = rowsPerSecond(batchStart);
+        long batchStatements = statistics.getPrepareStatementCount();
+
+        logger.info("Single-task path: {} rows/sec, {} statements; batch path: {} rows/sec, {} statements; speedup {}x",
+                Math.round(singleRowsPerSecond), singleStatements, Math.round(batchRowsPerSecond), batchStatements,
+                String.format("%.1f", batchRowsPerSecond / singleRowsPerSecond));
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from task where task_list_id = ?", Integer.class, batchListId))
+                .isEqualTo(TASKS);
+        assertThat(batchStatements).isLessThan(TASKS / 10);
+        assertThat(batchRowsPerSecond).isGreaterThan(singleRowsPerSecond);
+    }
+
+    private static double rowsPerSecond(long startNanos) {
+        return TASKS * 1_000_000_000.0 / (System.nanoTime() - startNanos);
+    }
+}
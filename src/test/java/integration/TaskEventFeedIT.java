@@ -0,0 +1,189 @@
+package integration;
+
+import com.taskmanager.TaskManagerApplication;
+import com.taskmanager.exception.ConflictException;
+import com.taskmanager.feed.TaskEventFeed;
+import com.taskmanager.model.request.TaskListRequest;
+import com.taskmanager.model.request.TaskRequest;
+import com.taskmanager.service.TaskManagerService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Opens many idle Server-Sent Events subscriptions over HTTP and checks that committed changes reach all of them,
+ * that rolled back changes reach none, and that a reconnecting client resumes with {@code Last-Event-ID}.
+ * Logs the heap and threads the idle subscriptions cost and how long one event takes to reach every subscriber.
+ * Tunable with {@code -Dfeed.subscribers}.
+ */
+@SpringBootTest(classes = TaskManagerApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class TaskEventFeedIT {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskEventFeedIT.class);
+
+    private static final int SUBSCRIBERS = Integer.getInteger("feed.subscribers", 1_000);
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    TaskManagerService service;
+
+    @Autowired
+    TaskEventFeed feed;
+
+    @Test
+    @DisplayName("Committed changes reach every idle subscriber and rolled back ones reach none")
+    void fanOutTest() throws InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        int subscribersBefore = feed.getSubscriberCount();
+        long heapBefore = usedHeap();
+        int threadsBefore = Thread.activeCount();
+        List<EventStream> streams = new ArrayList<>(SUBSCRIBERS);
+        for (int i = 0; i < SUBSCRIBERS; i++) {
+            streams.add(EventStream.open(client, uri(), null));
+        }
+        awaitSubscribers(subscribersBefore + SUBSCRIBERS);
+        long heapPerSubscriber = (usedHeap() - heapBefore) / SUBSCRIBERS;
+        int threadsAdded = Thread.activeCount() - threadsBefore;
+
+        long start = System.nanoTime();
+        Long listId = service.createList(new TaskListRequest("Watched")).getId();
+        for (EventStream stream : streams) {
+            stream.await("list-created", 1);
+        }
+        double fanOutMillis = (System.nanoTime() - start) / 1e6;
+
+        assertThatThrownBy(() -> service.deleteList(listId, 99L)).isInstanceOf(ConflictException.class);
+        service.addTaskToList(listId, new TaskRequest("Task", "Description"));
+        for (EventStream stream : streams) {
+            stream.await("tasks-created", 2);
+            assertThat(stream.names).containsExactly("list-created", "tasks-created");
+        }
+
+        logger.info("{} idle subscribers: about {} KB heap each (client and server), {} pooled threads added; "
+                        + "one event reached all of them in {} ms", SUBSCRIBERS, heapPerSubscriber / 1024,
+                threadsAdded, Math.round(fanOutMillis));
+        assertThat(threadsAdded).isLessThan(SUBSCRIBERS / 2);
+
+        streams.forEach(EventStream::cancel);
+        client.shutdownNow();
+        service.deleteList(listId, null);
+    }
+
+    @Test
+    @DisplayName("A client reconnecting with Last-Event-ID receives the events it missed")
+    void resumeTest() throws InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        EventStream first = EventStream.open(client, uri(), null);
+        awaitSubscribers(1);
+        Long listId = service.createList(new TaskListRequest("Resumed")).getId();
+        first.await("list-created", 1);
+        first.cancel();
+
+        service.addTaskToList(listId, new TaskRequest("Missed", "Description"));
+        service.deleteList(listId, null);
+        EventStream resumed = EventStream.open(client, uri(), first.ids.getLast());
+        resumed.await("list-deleted", 2);
+        assertThat(resumed.names).containsExactly("tasks-created", "list-deleted");
+
+        EventStream foreign = EventStream.open(client, uri(), "unknown.1");
+        foreign.await(TaskEventFeed.RESET, 1);
+
+        resumed.cancel();
+        foreign.cancel();
+        client.shutdownNow();
+    }
+
+    private URI uri() {
+        return URI.create("http://localhost:" + port + "/api/v1/task-manager/lists/events");
+    }
+
+    private void awaitSubscribers(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + 60_000_000_000L;
+        while (feed.getSubscriberCount() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(feed.getSubscriberCount()).isGreaterThanOrEqualTo(count);
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Client side of one subscription, collecting the names and ids of the received events without a thread of its
+     * own.
+     */
+    private static final class EventStream implements Flow.Subscriber<String> {
+
+        private final List<String> names = new CopyOnWriteArrayList<>();
+
+        private final List<String> ids = new CopyOnWriteArrayList<>();
+
+        private volatile Flow.Subscription subscription;
+
+        static EventStream open(HttpClient client, URI uri, String lastEventId) {
+            EventStream stream = new EventStream();
+            HttpRequest.Builder request = HttpRequest.newBuilder(uri).header("Accept", "text/event-stream");
+            if (lastEventId != null) {
+                request.header("Last-Event-ID", lastEventId);
+            }
+            client.sendAsync(request.build(), HttpResponse.BodyHandlers.fromLineSubscriber(stream));
+            return stream;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (line.startsWith("event:")) {
+                names.add(line.substring("event:".length()));
+            } else if (line.startsWith("id:")) {
+                ids.add(line.substring("id:".length()));
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        void await(String name, int events) throws InterruptedException {
+            long deadline = System.nanoTime() + 30_000_000_000L;
+            while ((names.size() < events || !names.contains(name)) && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertThat(names).contains(name);
+        }
+
+        void cancel() {
+            if (subscription != null) {
+                subscription.cancel();
+            }
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package integration;
+
+import com.taskmanager.TaskManagerApplication;
+import com.taskmanager.entity.TaskRepository;
+import com.taskmanager.ingest.TaskIngestionService;
+import com.taskmanager.model.request.TaskListRequest;
+import com.taskmanager.model.request.TaskRequest;
+import com.taskmanager.model.response.IngestionResponse;
+import com.taskmanager.service.TaskManagerService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures write-behind ingestion against synchronous inserts and checks that accepted tasks survive a shutdown.
+ * The same number of tasks is added once with a transaction per task and once through the ingestion buffer;
+ * the ingested tasks are only counted as done once their tracking ids report them written.
+ * Tunable with {@code -Dingest.tasks}.
+ */
+@SpringBootTest(classes = TaskManagerApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "taskmanager.ingest.enabled=true")
+class TaskIngestionIT {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskIngestionIT.class);
+
+    private static final String API = "/api/v1/task-manager";
+
+    private static final int TASKS = Integer.getInteger("ingest.tasks", 20_000);
+
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @Autowired
+    TaskManagerService service;
+
+    @Autowired
+    TaskIngestionService ingestionService;
+
+    @Autowired
+    TaskRepository taskRepository;
+
+    @Test
+    @DisplayName("Ingestion over HTTP answers 202 and the tracking id reports the written task")
+    void ingestOverHttpTest() throws InterruptedException {
+        Long listId = service.createList(new TaskListRequest("Ingested")).getId();
+
+        ResponseEntity<IngestionResponse> accepted = restTemplate.postForEntity(
+                API + "/lists/" + listId + "/tasks:ingest", new TaskRequest("Task", "Description"),
+                IngestionResponse.class);
+        assertThat(accepted.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+        assertThat(accepted.getHeaders().getLocation()).hasToString(
+                API + "/ingestions/" + accepted.getBody().getTrackingId());
+
+        IngestionResponse written = awaitFinal(accepted.getBody().getTrackingId());
+        assertThat(written.getState()).isEqualTo(IngestionResponse.State.WRITTEN);
+        assertThat(taskRepository.findResponseById(written.getTaskId()).orElseThrow().getName()).isEqualTo("Task");
+
+        assertThat(restTemplate.postForEntity(API + "/lists/" + listId + "/tasks:ingest",
+                new TaskRequest("", "Description"), String.class).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(restTemplate.getForEntity(API + "/ingestions/unknown", String.class).getStatusCode())
+                .isEqualTo(HttpStatus.NOT_FOUND);
+        service.deleteList(listId, null);
+    }
+
+    @Test
+    @DisplayName("Accepting a task costs a fraction of inserting it and all accepted tasks get written")
+    void throughputTest() throws InterruptedException {
+        Long syncListId = service.createList(new TaskListRequest("Synchronous")).getId();
+        long[] synchronous = new long[TASKS];
+        long start = System.nanoTime();
+        for (int i = 0; i < TASKS; i++) {
+            long before = System.nanoTime();
+            service.addTaskToList(syncListId, new TaskRequest("Task " + i, "Description"));
+            synchronous[i] = System.nanoTime() - before;
+        }
+        double synchronousSeconds = (System.nanoTime() - start) / 1e9;
+
+        Long ingestListId = service.createList(new TaskListRequest("Ingested")).getId();
+        long[] accepting = new long[TASKS];
+        List<String> trackingIds = new ArrayList<>(TASKS);
+        start = System.nanoTime();
+        for (int i = 0; i < TASKS; i++) {
+            long before = System.nanoTime();
+            trackingIds.add(ingestionService.submit(ingestListId, new TaskRequest("Task " + i, "Description"))
+                    .getTrackingId());
+            accepting[i] = System.nanoTime() - before;
+        }
+        double acceptedSeconds = (System.nanoTime() - start) / 1e9;
+        for (String trackingId : trackingIds) {
+            assertThat(awaitFinal(trackingId).getState()).isEqualTo(IngestionResponse.State.WRITTEN);
+        }
+        double writtenSeconds = (System.nanoTime() - start) / 1e9;
+
+        logger.info("{} tasks: synchronous {} tasks/s, p99 {} us; ingested {} tasks/s accepted, {} tasks/s written, "
+                        + "accept p99 {} us", TASKS, Math.round(TASKS / synchronousSeconds),
+                p99(synchronous) / 1000, Math.round(TASKS / acceptedSeconds),
+                Math.round(TASKS / writtenSeconds), p99(accepting) / 1000);
+        assertThat(p99(accepting)).isLessThan(p99(synchronous));
+        assertThat(service.getTasks(ingestListId, null, 1).getTasks()).isNotEmpty();
+
+        service.deleteList(syncListId, null);
+        service.deleteList(ingestListId, null);
+    }
+
+    @Test
+    @DisplayName("Closing the application writes every accepted task before the database goes away")
+    void shutdownFlushTest() throws SQLException {
+        String url = "jdbc:h2:mem:ingest-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(TaskManagerApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + url, "--spring.jpa.hibernate.ddl-auto=create",
+                        "--taskmanager.ingest.enabled=true");
+        TaskManagerService contextService = context.getBean(TaskManagerService.class);
+        TaskIngestionService contextIngestion = context.getBean(TaskIngestionService.class);
+        Long listId = contextService.createList(new TaskListRequest("Flushed")).getId();
+        for (int i = 0; i < TASKS; i++) {
+            contextIngestion.submit(listId, new TaskRequest("Task " + i, "Description"));
+        }
+        context.close();
+
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement();
+             ResultSet count = statement.executeQuery("SELECT COUNT(*) FROM task WHERE task_list_id = " + listId)) {
+            count.next();
+            assertThat(count.getLong(1)).isEqualTo(TASKS);
+            statement.execute("SHUTDOWN");
+        }
+    }
+
+    private static long p99(long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) (sorted.length * 0.99)];
+    }
+
+    private IngestionResponse awaitFinal(String trackingId) throws InterruptedException {
+        long deadline = System.nanoTime() + 60_000_000_000L;
+        while (true) {
+            IngestionResponse state = ingestionService.getState(trackingId);
+            if (state.getState() != IngestionResponse.State.PENDING || System.nanoTime() > deadline) {
+                return state;
+            }
+            Thread.sleep(10);
+        }
+    }
+}
@@ -4,22 +4,31 @@ import com.taskmanager.TaskManagerApplication;
 import com.taskmanager.entity.Task;
 import com.taskmanager.entity.TaskListRepository;
 import com.taskmanager.entity.TaskRepository;
+import com.taskmanager.exception.InvalidRequestException;
+import com.taskmanager.exception.NotFoundException;
+import com.taskmanager.metrics.SqlStatementCounter;
 import com.taskmanager.model.request.TaskListRequest;
 import com.taskmanager.model.request.TaskRequest;
+import com.taskmanager.model.response.TaskListPageResponse;
 import com.taskmanager.model.response.TaskListResponse;
+import com.taskmanager.model.response.TaskPageResponse;
 import com.taskmanager.model.response.TaskResponse;
 import com.taskmanager.service.TaskManagerService;
-import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest(classes = TaskManagerApplication.class)
 @Transactional
@@ -56,24 +65,47 @@ class TaskManagerServiceIT {
         TaskResponse task = service.addTaskToList(taskList.getId(), taskRequest);
 
         TaskRequest update = new TaskRequest("Updated", "Updated Description");
-        TaskResponse updated = service.updateTask(task.getId(), update);
+        TaskResponse updated = service.updateTask(task.getId(), update, null);
         assertEquals("Updated", updated.getName());
         assertEquals("Updated Description", updated.getDescription());
 
-        service.deleteTask(taskList.getId(), task.getId());
+        service.deleteTask(taskList.getId(), task.getId(), null);
         assertFalse(taskRepository.findById(task.getId()).isPresent());
     }
 
     @Test
-    @DisplayName("Delete list removes tasks and list")
+    @DisplayName("Delete list hides the list and its tasks")
     void deleteListTest() {
         TaskListResponse list = service.createList(new TaskListRequest("List 1"));
         TaskResponse task = service.addTaskToList(list.getId(), new TaskRequest("Task 1", "Desc 1"));
 
-        service.deleteList(list.getId());
+        service.deleteList(list.getId(), null);
 
         assertFalse(taskListRepository.findById(list.getId()).isPresent());
-        assertFalse(taskRepository.findById(task.getId()).isPresent());
+        assertThrows(NotFoundException.class, () -> service.getTasks(list.getId(), null, 10));
+        assertThrows(NotFoundException.class,
+                () -> service.updateTask(task.getId(), new TaskRequest("Task 1", "Desc 1"), null));
+    }
+
+    @Test
+    @DisplayName("Delete list runs two statements regardless of the number of tasks")
+    void deleteLargeListTest() {
+        TaskListResponse list = service.createList(new TaskListRequest("List 1"));
+        TaskListResponse other = service.createList(new TaskListRequest("List 2"));
+        List<TaskRequest> batch = new ArrayList<>(Collections.nCopies(TaskRequest.BATCH_MAX_SIZE, new TaskRequest("Task", "Desc")));
+        for (int i = 0; i < 5; i++) {
+            service.addTasksToList(list.getId(), batch);
+        }
+        TaskResponse kept = service.addTaskToList(other.getId(), new TaskRequest("Kept", "Desc"));
+        taskRepository.flush();
+
+        long before = SqlStatementCounter.current();
+        service.deleteList(list.getId(), null);
+        assertEquals(2, SqlStatementCounter.current() - before);
+
+        assertFalse(taskListRepository.existsById(list.getId()));
+        assertEquals(1, taskRepository.findAllRows().size());
+        assertTrue(taskRepository.existsById(kept.getId()));
     }
 
     @Test
@@ -83,7 +115,7 @@ class TaskManagerServiceIT {
         TaskListResponse list2 = service.createList(new TaskListRequest("List 2"));
         TaskResponse task = service.addTaskToList(list1.getId(), new TaskRequest("Task", "Description"));
 
-        TaskResponse moved = service.moveTask(list1.getId(), task.getId(), list2.getId());
+        TaskResponse moved = service.moveTask(list1.getId(), task.getId(), list2.getId(), null, null);
 
         assertNotNull(moved);
 
@@ -93,14 +125,92 @@ class TaskManagerServiceIT {
     }
 
     @Test
-    @DisplayName("Operations on non-existing entities throw EntityNotFoundException")
+    @DisplayName("Update, move and delete run as conditional statements without reading first")
+    void mutationRoundTripsTest() {
+        TaskListResponse list1 = service.createList(new TaskListRequest("List 1"));
+        TaskListResponse list2 = service.createList(new TaskListRequest("List 2"));
+        TaskResponse task = service.addTaskToList(list1.getId(), new TaskRequest("Task", "Description"));
+        taskRepository.flush();
+
+        long before = SqlStatementCounter.current();
+        TaskResponse updated = service.updateTask(task.getId(), new TaskRequest("Updated", "Updated Description"),
+                task.getVersion());
+        assertEquals(2, SqlStatementCounter.current() - before);
+        assertEquals(task.getVersion() + 1, updated.getVersion());
+
+        before = SqlStatementCounter.current();
+        TaskResponse moved = service.moveTask(list1.getId(), task.getId(), list2.getId(), null, updated.getVersion());
+        assertEquals(3, SqlStatementCounter.current() - before);
+        assertEquals("Updated", moved.getName());
+        assertEquals(updated.getVersion() + 1, moved.getVersion());
+
+        InvalidRequestException ex = assertThrows(InvalidRequestException.class,
+                () -> service.deleteTask(list1.getId(), task.getId(), null));
+        assertEquals("Task does not belong to the specified list", ex.getMessage());
+
+        before = SqlStatementCounter.current();
+        service.deleteTask(list2.getId(), task.getId(), moved.getVersion());
+        assertEquals(3, SqlStatementCounter.current() - before);
+        assertFalse(taskRepository.existsById(task.getId()));
+    }
+
+    @Test
+    @DisplayName("Operations on non-existing entities throw NotFoundException")
     void nonExistingEntitiesTest() {
         TaskRequest taskRequest = new TaskRequest("Task", "Description");
 
-        assertThrows(EntityNotFoundException.class, () -> service.addTaskToList(999L, taskRequest));
-        assertThrows(EntityNotFoundException.class, () -> service.updateTask(999L, taskRequest));
-        assertThrows(EntityNotFoundException.class, () -> service.deleteTask(999L, 999L));
-        assertThrows(EntityNotFoundException.class, () -> service.deleteList(999L));
-        assertThrows(EntityNotFoundException.class, () -> service.moveTask(999L, 999L, 999L));
+        assertThrows(NotFoundException.class, () -> service.addTaskToList(999L, taskRequest));
+        assertThrows(NotFoundException.class, () -> service.updateTask(999L, taskRequest, null));
+        assertThrows(NotFoundException.class, () -> service.deleteTask(999L, 999L, null));
+        assertThrows(NotFoundException.class, () -> service.deleteList(999L, null));
+        assertThrows(NotFoundException.class, () -> service.moveTask(999L, 999L, 999L, null, null));
+    }
+
+    @Test
+    @DisplayName("Paging through lists and tasks with cursors visits every element once")
+    void keysetPaginationTest() {
+        TaskListResponse list1 = service.createList(new TaskListRequest("List 1"));
+        TaskListResponse list2 = service.createList(new TaskListRequest("List 2"));
+        TaskListResponse list3 = service.createList(new TaskListRequest("List 3"));
+        for (int i = 0; i < 5; i++) {
+            service.addTaskToList(list1.getId(), new TaskRequest("Task " + i, "Description"));
+        }
+        service.addTaskToList(list3.getId(), new TaskRequest("Task", "Description"));
+
+        TaskListPageResponse first = service.getLists(null, 2, 3);
+        assertEquals(List.of(list1.getId(), list2.getId()), first.getLists().stream().map(TaskListResponse::getId).toList());
+        assertEquals(3, first.getLists().get(0).getTasks().size());
+        assertNotNull(first.getLists().get(0).getNextTaskCursor());
+        assertEquals(0, first.getLists().get(1).getTasks().size());
+        assertNotNull(first.getNextCursor());
+
+        TaskListPageResponse second = service.getLists(first.getNextCursor(), 2, 3);
+        assertEquals(List.of(list3.getId()), second.getLists().stream().map(TaskListResponse::getId).toList());
+        assertEquals(1, second.getLists().getFirst().getTasks().size());
+        assertNull(second.getNextCursor());
+
+        TaskPageResponse remaining = service.getTasks(list1.getId(), first.getLists().get(0).getNextTaskCursor(), 10);
+        assertEquals(2, remaining.getTasks().size());
+        assertNull(remaining.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Task mutations bump the list revision and change the ETags")
+    void revisionETagTest() {
+        TaskListResponse list1 = service.createList(new TaskListRequest("List 1"));
+        TaskListResponse list2 = service.createList(new TaskListRequest("List 2"));
+        String listsETag = service.getListsETag(null, 50, 100);
+        String tasksETag = service.getTasksETag(list1.getId(), null, 100);
+        assertEquals(listsETag, service.getListsETag(null, 50, 100));
+
+        TaskResponse task = service.addTaskToList(list1.getId(), new TaskRequest("Task", "Description"));
+        service.updateTask(task.getId(), new TaskRequest("Updated", "Updated Description"), null);
+        service.moveTask(list1.getId(), task.getId(), list2.getId(), null, null);
+        service.deleteTask(list2.getId(), task.getId(), null);
+
+        assertEquals(3L, taskListRepository.findRevisionById(list1.getId()).orElseThrow());
+        assertEquals(2L, taskListRepository.findRevisionById(list2.getId()).orElseThrow());
+        assertNotEquals(listsETag, service.getListsETag(null, 50, 100));
+        assertNotEquals(tasksETag, service.getTasksETag(list1.getId(), null, 100));
     }
 }
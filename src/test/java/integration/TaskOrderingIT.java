@@ -0,0 +1,194 @@
+package integration;
+
+import com.taskmanager.TaskManagerApplication;
+import com.taskmanager.metrics.SqlStatementCounter;
+import com.taskmanager.model.request.BulkMoveRequest;
+import com.taskmanager.model.request.TaskListRequest;
+import com.taskmanager.model.request.TaskRequest;
+import com.taskmanager.model.response.TaskListResponse;
+import com.taskmanager.model.response.TaskPageResponse;
+import com.taskmanager.model.response.TaskResponse;
+import com.taskmanager.service.RankRebalancer;
+import com.taskmanager.service.TaskManagerService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.util.Collections;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Reorders tasks within and across lists and checks that every read path returns them in list order.
+ */
+@SpringBootTest(classes = TaskManagerApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class TaskOrderingIT {
+
+    private static final String LISTS = "/api/v1/task-manager/lists";
+
+    @Autowired
+    TaskManagerService service;
+
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    RankRebalancer rankRebalancer;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Positioned tasks are read back in list order by the page, list and full reads")
+    void positionTaskTest() {
+        Long listId = service.createList(new TaskListRequest("Ordered")).getId();
+        List<Long> ids = addTasks(listId, 5);
+
+        service.positionTask(listId, ids.get(4), null, null);
+        service.positionTask(listId, ids.get(0), ids.get(2), null);
+        TaskResponse moved = service.positionTask(listId, ids.get(3), ids.get(4), 0L);
+
+        List<Long> expected = List.of(ids.get(4), ids.get(3), ids.get(1), ids.get(2), ids.get(0));
+        assertThat(moved.getVersion()).isEqualTo(1);
+        assertThat(pageIds(service.getTasks(listId, null, 100))).isEqualTo(expected);
+        assertThat(service.getAllLists().stream().filter(list -> list.getId().equals(listId)).findFirst()
+                .orElseThrow().getTasks()).extracting(TaskResponse::getId).isEqualTo(expected);
+        TaskListResponse list = service.getLists(null, TaskManagerService.MAX_LIST_PAGE_SIZE, 2).getLists().stream()
+                .filter(candidate -> candidate.getId().equals(listId)).findFirst().orElseThrow();
+        assertThat(list.getTasks()).extracting(TaskResponse::getId).isEqualTo(expected.subList(0, 2));
+        assertThat(pageIds(service.getTasks(listId, list.getNextTaskCursor(), 100))).isEqualTo(expected.subList(2, 5));
+    }
+
+    @Test
+    @DisplayName("Positioning a task between two others writes that task only")
+    void positionTaskStatementsTest() {
+        Long listId = service.createList(new TaskListRequest("Single write")).getId();
+        List<Long> ids = addTasks(listId, 100);
+
+        long before = SqlStatementCounter.current();
+        service.positionTask(listId, ids.get(99), ids.get(10), null);
+        assertThat(SqlStatementCounter.current() - before).isEqualTo(5);
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from task where task_list_id = ? and version > 0",
+                Integer.class, listId)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Moving a task to another list puts it after the given task or at the end")
+    void moveTaskAfterTest() {
+        Long fromId = service.createList(new TaskListRequest("From")).getId();
+        Long toId = service.createList(new TaskListRequest("To")).getId();
+        List<Long> source = addTasks(fromId, 2);
+        List<Long> target = addTasks(toId, 3);
+
+        service.moveTask(fromId, source.get(0), toId, target.get(0), null);
+        service.moveTask(fromId, source.get(1), toId, null, null);
+
+        assertThat(pageIds(service.getTasks(toId, null, 100)))
+                .containsExactly(target.get(0), source.get(0), target.get(1), target.get(2), source.get(1));
+    }
+
+    @Test
+    @DisplayName("Bulk moved tasks are appended in id order")
+    void bulkMoveAppendsTest() {
+        Long fromId = service.createList(new TaskListRequest("From")).getId();
+        Long toId = service.createList(new TaskListRequest("To")).getId();
+        List<Long> source = addTasks(fromId, 3);
+        List<Long> target = addTasks(toId, 2);
+
+        service.moveTasks(fromId, new BulkMoveRequest(toId, List.of(source.get(2), source.get(0)), null));
+
+        assertThat(pageIds(service.getTasks(toId, null, 100)))
+                .containsExactly(target.get(0), target.get(1), source.get(0), source.get(2));
+    }
+
+    @Test
+    @DisplayName("Repeated inserts into the same gap rebalance the list and keep the order")
+    void rebalanceTest() throws InterruptedException {
+        Long listId = service.createList(new TaskListRequest("Crowded")).getId();
+        List<Long> ids = addTasks(listId, 40);
+        double before = rebalances("inline") + rebalances("background");
+
+        for (int i = 39; i > 0; i--) {
+            service.positionTask(listId, ids.get(i), ids.getFirst(), null);
+        }
+        for (int i = 0; i < 50 && rebalances("inline") + rebalances("background") == before; i++) {
+            Thread.sleep(100);
+        }
+
+        assertThat(pageIds(service.getTasks(listId, null, 100))).isEqualTo(ids);
+        assertThat(rebalances("inline") + rebalances("background")).isGreaterThan(before);
+    }
+
+    @Test
+    @DisplayName("Tasks without ranks keep their id order and can be positioned")
+    void unrankedTasksTest() {
+        Long listId = service.createList(new TaskListRequest("Legacy")).getId();
+        List<Long> ids = addTasks(listId, 3);
+        jdbcTemplate.update("update task set rank = 0 where task_list_id = ?", listId);
+
+        service.positionTask(listId, ids.get(2), ids.get(0), null);
+
+        assertThat(pageIds(service.getTasks(listId, null, 100))).containsExactly(ids.get(0), ids.get(2), ids.get(1));
+    }
+
+    @Test
+    @DisplayName("A page cursor survives a rebalance of the list")
+    void cursorAcrossRebalanceTest() throws InterruptedException {
+        Long listId = service.createList(new TaskListRequest("Paged")).getId();
+        List<Long> ids = addTasks(listId, 6);
+        TaskPageResponse first = service.getTasks(listId, null, 3);
+        double backgroundBefore = rebalances("background");
+
+        rankRebalancer.requestRebalance(listId);
+        for (int i = 0; i < 50 && rebalances("background") == backgroundBefore; i++) {
+            Thread.sleep(100);
+        }
+
+        assertThat(rebalances("background")).isGreaterThan(backgroundBefore);
+        assertThat(pageIds(service.getTasks(listId, first.getNextCursor(), 3))).isEqualTo(ids.subList(3, 6));
+    }
+
+    @Test
+    @DisplayName("The position endpoint moves a task to the top or after another task")
+    void positionEndpointTest() {
+        Long listId = service.createList(new TaskListRequest("Over HTTP")).getId();
+        List<Long> ids = addTasks(listId, 3);
+
+        ResponseEntity<TaskResponse> top = restTemplate.exchange(LISTS + "/" + listId + "/tasks/" + ids.get(2)
+                + "/position", HttpMethod.PUT, HttpEntity.EMPTY, TaskResponse.class);
+        ResponseEntity<TaskResponse> after = restTemplate.exchange(LISTS + "/" + listId + "/tasks/" + ids.get(0)
+                + "/position?afterTaskId=" + ids.get(1), HttpMethod.PUT, HttpEntity.EMPTY, TaskResponse.class);
+        ResponseEntity<String> foreign = restTemplate.exchange(LISTS + "/" + listId + "/tasks/" + ids.get(0)
+                + "/position?afterTaskId=" + Long.MAX_VALUE, HttpMethod.PUT, HttpEntity.EMPTY, String.class);
+
+        assertThat(top.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(after.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(after.getHeaders().getETag()).isEqualTo("\"1\"");
+        assertThat(foreign.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(pageIds(service.getTasks(listId, null, 100))).containsExactly(ids.get(2), ids.get(1), ids.get(0));
+    }
+
+    private List<Long> addTasks(Long listId, int count) {
+        return service.addTasksToList(listId, Collections.nCopies(count, new TaskRequest("Task", "Description")))
+                .stream().map(TaskResponse::getId).toList();
+    }
+
+    private static List<Long> pageIds(TaskPageResponse page) {
+        return page.getTasks().stream().map(TaskResponse::getId).toList();
+    }
+
+    private double rebalances(String trigger) {
+        return meterRegistry.get(RankRebalancer.REBALANCES_NAME).tag("trigger", trigger).counter().count();
+    }
+}
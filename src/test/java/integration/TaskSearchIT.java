@@ -0,0 +1,136 @@
+package integration;
+
+import com.taskmanager.TaskManagerApplication;
+import com.taskmanager.model.request.TaskListRequest;
+import com.taskmanager.model.request.TaskRequest;
+import com.taskmanager.model.response.TaskResponse;
+import com.taskmanager.model.response.TaskSearchPageResponse;
+import com.taskmanager.model.response.TaskSearchResult;
+import com.taskmanager.service.TaskManagerService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Exercises the task search over HTTP against the in-process index and compares query latency at two store sizes.
+ * The larger size defaults to 100,000 tasks and can be changed with {@code -Dsearch.tasks=<n>}; the smaller one
+ * is a tenth of it.
+ */
+@SpringBootTest(classes = TaskManagerApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class TaskSearchIT {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskSearchIT.class);
+
+    private static final String API = "/api/v1/task-manager";
+
+    private static final int TASKS = Integer.getInteger("search.tasks", 100_000);
+
+    private static final int MATCHES = 50;
+
+    private static final int QUERIES = 500;
+
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @Autowired
+    TaskManagerService service;
+
+    @Test
+    @DisplayName("Search reflects added, updated, moved and deleted tasks and pages through ranked results")
+    void searchRoundTripTest() {
+        Long listId = service.createList(new TaskListRequest("Search")).getId();
+        Long otherListId = service.createList(new TaskListRequest("Other")).getId();
+        TaskResponse nameMatch = service.addTaskToList(listId, new TaskRequest("Invoice Acme", "Send it"));
+        TaskResponse descriptionMatch = service.addTaskToList(listId, new TaskRequest("Call", "About the Acme invoice"));
+        service.addTaskToList(listId, new TaskRequest("Invoice", "Someone else"));
+
+        TaskSearchPageResponse first = search("acme invoice", null, 1);
+        assertThat(first.getResults()).extracting(TaskSearchResult::getId).containsExactly(nameMatch.getId());
+        TaskSearchPageResponse second = search("acme invoice", first.getNextCursor(), 1);
+        assertThat(second.getResults()).extracting(TaskSearchResult::getId).containsExactly(descriptionMatch.getId());
+        assertThat(second.getNextCursor()).isNull();
+
+        service.updateTask(nameMatch.getId(), new TaskRequest("Invoice", "Send it"), null);
+        service.moveTask(listId, descriptionMatch.getId(), otherListId, null, null);
+        assertThat(search("acme", null, 10).getResults())
+                .extracting(TaskSearchResult::getId, TaskSearchResult::getListId)
+                .containsExactly(tuple(descriptionMatch.getId(), otherListId));
+
+        service.deleteList(otherListId, null);
+        assertThat(search("acme", null, 10).getResults()).isEmpty();
+
+        ResponseEntity<String> blank = restTemplate.getForEntity(API + "/tasks/search?q= ", String.class);
+        assertThat(blank.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        service.deleteList(listId, null);
+    }
+
+    @Test
+    @DisplayName("Query latency stays flat when the number of tasks grows tenfold")
+    void searchLatencyTest() {
+        Long listId = service.createList(new TaskListRequest("Latency")).getId();
+        Random random = new Random(42);
+        String[] vocabulary = vocabulary(2_000);
+
+        seed(listId, TASKS / 10, vocabulary, random);
+        double smallMicros = medianQueryMicros();
+        seed(listId, TASKS - TASKS / 10, vocabulary, random);
+        double largeMicros = medianQueryMicros();
+
+        logger.info("Median search latency: {} us over {} tasks, {} us over {} tasks",
+                Math.round(smallMicros), TASKS / 10, Math.round(largeMicros), TASKS);
+        assertThat(search("needle haystack", null, 100).getResults()).hasSize(2 * MATCHES);
+        assertThat(largeMicros).isLessThan(smallMicros * 3);
+        service.deleteList(listId, null);
+    }
+
+    private void seed(Long listId, int tasks, String[] vocabulary, Random random) {
+        List<TaskRequest> batch = new ArrayList<>(TaskRequest.BATCH_MAX_SIZE);
+        for (int i = 0; i < tasks; i++) {
+            String name = i < MATCHES ? "Needle " + vocabulary[random.nextInt(vocabulary.length)]
+                    : vocabulary[random.nextInt(vocabulary.length)] + " " + vocabulary[random.nextInt(vocabulary.length)];
+            String description = (i < MATCHES ? "haystack " : "")
+                    + vocabulary[random.nextInt(vocabulary.length)] + " " + vocabulary[random.nextInt(vocabulary.length)];
+            batch.add(new TaskRequest(name, description));
+            if (batch.size() == TaskRequest.BATCH_MAX_SIZE || i == tasks - 1) {
+                service.addTasksToList(listId, batch);
+                batch = new ArrayList<>(TaskRequest.BATCH_MAX_SIZE);
+            }
+        }
+    }
+
+    private double medianQueryMicros() {
+        long[] nanos = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            long start = System.nanoTime();
+            service.searchTasks("needle haystack", null, 20);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos[QUERIES / 2] / 1_000.0;
+    }
+
+    private TaskSearchPageResponse search(String query, String after, int limit) {
+        String uri = API + "/tasks/search?q={q}&limit={limit}" + (after == null ? "" : "&after=" + after);
+        return restTemplate.getForObject(uri, TaskSearchPageResponse.class, query, limit);
+    }
+
+    private static String[] vocabulary(int size) {
+        String[] words = new String[size];
+        for (int i = 0; i < size; i++) {
+            words[i] = "word" + i;
+        }
+        return words;
+    }
+}
@@ -0,0 +1,160 @@
+package integration;
+
+import com.taskmanager.TaskManagerApplication;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares platform-thread and virtual-thread request handling under a slow database with many concurrent clients.
+ * Every JDBC statement is delayed to simulate a slow database, and the connection pool is larger than the default
+ * Tomcat worker pool, so the platform-thread mode is bounded by its worker threads and the virtual-thread mode by
+ * the connection pool. Tunable with {@code -Dload.clients}, {@code -Dload.requests} and {@code -Dload.latencyMillis}.
+ */
+class VirtualThreadLoadIT {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadLoadIT.class);
+
+    private static final int CLIENTS = Integer.getInteger("load.clients", 1_000);
+    private static final int REQUESTS_PER_CLIENT = Integer.getInteger("load.requests", 5);
+    private static final long STATEMENT_LATENCY_MILLIS = Long.getLong("load.latencyMillis", 10);
+    private static final int POOL_SIZE = 400;
+    private static final int WARM_UP_REQUESTS = 500;
+
+    @Test
+    @DisplayName("Virtual threads serve 1k+ concurrent clients on a slow database without errors")
+    void platformVersusVirtualThreadsTest() throws Exception {
+        LoadResult platform = runLoad(false);
+        LoadResult virtual = runLoad(true);
+
+        logger.info("{} clients x {} requests, {} ms per statement, pool {}: platform threads {} req/s (p99 {} ms, {} errors), "
+                        + "virtual threads {} req/s (p99 {} ms, {} errors)",
+                CLIENTS, REQUESTS_PER_CLIENT, STATEMENT_LATENCY_MILLIS, POOL_SIZE,
+                Math.round(platform.requestsPerSecond()), platform.p99Millis(), platform.errors(),
+                Math.round(virtual.requestsPerSecond()), virtual.p99Millis(), virtual.errors());
+
+        assertThat(platform.errors()).isZero();
+        assertThat(virtual.errors()).isZero();
+    }
+
+    private static LoadResult runLoad(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TaskManagerApplication.class,
+                SlowDatabaseConfig.class)
+                .properties("server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        "logging.level.org.springframework.web=INFO")
+                .run()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI uri = URI.create("http://localhost:" + port + "/api/v1/task-manager/lists");
+            AtomicInteger errors = new AtomicInteger();
+            long[] latencies = new long[CLIENTS * REQUESTS_PER_CLIENT];
+            AtomicInteger next = new AtomicInteger();
+
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+                 HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(clients).build()) {
+                for (int request = 0; request < WARM_UP_REQUESTS; request++) {
+                    httpClient.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.discarding());
+                }
+                long start = System.nanoTime();
+                List<Future<?>> futures = new ArrayList<>(CLIENTS);
+                for (int client = 0; client < CLIENTS; client++) {
+                    futures.add(clients.submit(() -> {
+                        for (int request = 0; request < REQUESTS_PER_CLIENT; request++) {
+                            long requestStart = System.nanoTime();
+                            try {
+                                HttpResponse<Void> response = httpClient.send(HttpRequest.newBuilder(uri).GET().build(),
+                                        HttpResponse.BodyHandlers.discarding());
+                                if (response.statusCode() != 200) {
+                                    errors.incrementAndGet();
+                                }
+                            } catch (Exception exception) {
+                                errors.incrementAndGet();
+                            }
+                            latencies[next.getAndIncrement()] = System.nanoTime() - requestStart;
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+                long elapsed = System.nanoTime() - start;
+                Arrays.sort(latencies);
+                return new LoadResult(latencies.length * 1_000_000_000.0 / elapsed,
+                        latencies[(int) (latencies.length * 0.99)] / 1_000_000, errors.get());
+            }
+        }
+    }
+
+    private record LoadResult(double requestsPerSecond, long p99Millis, int errors) {
+    }
+
+    /**
+     * Delays every statement preparation while the connection is held, simulating a slow database.
+     */
+    @Configuration(proxyBeanMethods = false)
+    static class SlowDatabaseConfig {
+
+        @Bean
+        static BeanPostProcessor slowDatabasePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource && !(bean instanceof SlowDataSource)) {
+                        return new SlowDataSource(dataSource);
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    static class SlowDataSource extends DelegatingDataSource {
+
+        SlowDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = super.getConnection();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().startsWith("prepare")) {
+                            Thread.sleep(STATEMENT_LATENCY_MILLIS);
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException exception) {
+                            throw exception.getTargetException();
+                        }
+                    });
+        }
+    }
+}
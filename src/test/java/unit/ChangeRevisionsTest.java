@@ -0,0 +1,84 @@
+package unit;
+
+import com.taskmanager.entity.TaskListRepository;
+import com.taskmanager.entity.TaskRepository;
+import com.taskmanager.entity.TombstoneRepository;
+import com.taskmanager.service.ChangeRevisions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ChangeRevisionsTest {
+
+    private ChangeRevisions changeRevisions;
+
+    @BeforeEach
+    void setUp() {
+        TaskListRepository taskListRepository = mock(TaskListRepository.class);
+        TaskRepository taskRepository = mock(TaskRepository.class);
+        TombstoneRepository tombstoneRepository = mock(TombstoneRepository.class);
+        when(taskListRepository.findMaxChangeRevision()).thenReturn(3L);
+        when(taskRepository.findMaxChangeRevision()).thenReturn(8L);
+        when(tombstoneRepository.findMaxChangeRevision()).thenReturn(5L);
+        changeRevisions = new ChangeRevisions(taskListRepository, taskRepository, tombstoneRepository);
+    }
+
+    @Test
+    @DisplayName("Revisions continue after the highest stored one")
+    void nextTest() {
+        assertThat(changeRevisions.watermark()).isEqualTo(8L);
+
+        Allocation first = allocate();
+        Allocation second = allocate();
+        assertThat(first.revision()).isEqualTo(9L);
+        assertThat(second.revision()).isEqualTo(10L);
+        first.commit();
+        second.commit();
+        assertThat(changeRevisions.watermark()).isEqualTo(10L);
+    }
+
+    @Test
+    @DisplayName("The watermark stays below the oldest revision still in flight")
+    void watermarkTest() {
+        Allocation first = allocate();
+        Allocation second = allocate();
+
+        second.commit();
+        assertThat(changeRevisions.watermark()).isEqualTo(8L);
+        first.commit();
+        assertThat(changeRevisions.watermark()).isEqualTo(10L);
+    }
+
+    @Test
+    @DisplayName("Revisions are only allocated within a transaction")
+    void noTransactionTest() {
+        assertThatThrownBy(changeRevisions::next).isInstanceOf(IllegalStateException.class);
+    }
+
+    /**
+     * Allocates a revision in a stand-in transaction, left open until the allocation is committed.
+     */
+    private Allocation allocate() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            long revision = changeRevisions.next();
+            return new Allocation(revision, TransactionSynchronizationManager.getSynchronizations().getFirst());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private record Allocation(long revision, TransactionSynchronization completion) {
+
+        void commit() {
+            completion.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package unit;
+
+import com.taskmanager.limit.ConcurrencyLimiter;
+import com.taskmanager.limit.GradientLimit;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.concurrent.TimeUnit;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConcurrencyLimiterTest {
+
+    private static final long RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    @DisplayName("The limit grows while latency stays flat and the limit is used")
+    void growsUnderStableLatencyTest() {
+        GradientLimit limit = new GradientLimit(10, 1, 100);
+
+        samples(limit, 200, RTT, 10_000, false);
+
+        assertThat(limit.getLimit()).isGreaterThan(10).isLessThanOrEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("The limit shrinks when latency rises above the long-term latency")
+    void shrinksWhenLatencyRisesTest() {
+        GradientLimit limit = new GradientLimit(50, 1, 100);
+        samples(limit, 20, RTT, 10_000, false);
+        int before = limit.getLimit();
+
+        samples(limit, 200, 5 * RTT, 10_000, false);
+
+        assertThat(limit.getLimit()).isLessThan(before / 2);
+    }
+
+    @Test
+    @DisplayName("A window with a server error cuts the limit multiplicatively")
+    void backsOffOnDropTest() {
+        GradientLimit limit = new GradientLimit(50, 1, 100);
+
+        samples(limit, 9, RTT, 1, false);
+        samples(limit, 1, RTT, 1, true);
+
+        assertThat(limit.getLimit()).isEqualTo(45);
+    }
+
+    @Test
+    @DisplayName("The limit does not grow while most of it is unused")
+    void idleTest() {
+        GradientLimit limit = new GradientLimit(20, 1, 100);
+
+        samples(limit, 200, RTT, 2, false);
+
+        assertThat(limit.getLimit()).isEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("The limit stays within its bounds")
+    void boundsTest() {
+        GradientLimit limit = new GradientLimit(5, 4, 6);
+
+        samples(limit, 500, RTT, 10_000, false);
+        assertThat(limit.getLimit()).isEqualTo(6);
+
+        samples(limit, 500, RTT, 10_000, true);
+        assertThat(limit.getLimit()).isEqualTo(4);
+
+        assertThatThrownBy(() -> new GradientLimit(1, 2, 3)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Requests beyond the limit are rejected and counted until one is released")
+    void limiterTest() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("read", new GradientLimit(2, 1, 10), meterRegistry);
+
+        int first = limiter.tryAcquire();
+        int second = limiter.tryAcquire();
+        int rejected = limiter.tryAcquire();
+        limiter.release(RTT, second, false);
+        int third = limiter.tryAcquire();
+        limiter.releaseWithoutSample();
+
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isEqualTo(2);
+        assertThat(rejected).isZero();
+        assertThat(third).isEqualTo(2);
+        assertThat(limiter.getInflight()).isEqualTo(1);
+        assertThat(meterRegistry.get(ConcurrencyLimiter.REJECTED_NAME).tag("kind", "read").counter().count())
+                .isEqualTo(1.0);
+        assertThat(meterRegistry.get(ConcurrencyLimiter.LIMIT_NAME).tag("kind", "read").gauge().value())
+                .isEqualTo(2.0);
+        assertThat(meterRegistry.get(ConcurrencyLimiter.INFLIGHT_NAME).tag("kind", "read").gauge().value())
+                .isEqualTo(1.0);
+    }
+
+    private static void samples(GradientLimit limit, int count, long rttNanos, int inflight, boolean dropped) {
+        for (int i = 0; i < count; i++) {
+            limit.onSample(rttNanos, Math.min(inflight, limit.getLimit()), dropped);
+        }
+    }
+}
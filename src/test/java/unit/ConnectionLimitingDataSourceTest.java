@@ -0,0 +1,74 @@
+package unit;
+
+import com.taskmanager.config.ConnectionLimitingDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConnectionLimitingDataSourceTest {
+
+    private DataSource target;
+    private Connection connection;
+    private ConnectionLimitingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        target = mock(DataSource.class);
+        connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+        dataSource = new ConnectionLimitingDataSource(target, 2, 10);
+    }
+
+    @Test
+    @DisplayName("Closing a connection releases its permit exactly once")
+    void permitReleasedOnCloseTest() throws SQLException {
+        Connection first = dataSource.getConnection();
+        assertEquals(1, dataSource.getAvailablePermits());
+
+        first.close();
+        first.close();
+
+        assertEquals(2, dataSource.getAvailablePermits());
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    @DisplayName("Getting a connection times out when all permits are in use")
+    void acquireTimeoutTest() throws SQLException {
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        verify(target, times(2)).getConnection();
+    }
+
+    @Test
+    @DisplayName("Permit is released when the target data source fails")
+    void permitReleasedOnFailureTest() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLException("Database down"));
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+        assertEquals(2, dataSource.getAvailablePermits());
+    }
+
+    @Test
+    @DisplayName("Connection calls are delegated to the target connection")
+    void delegationTest() throws SQLException {
+        when(connection.getAutoCommit()).thenReturn(false);
+
+        Connection limited = dataSource.getConnection();
+
+        assertEquals(false, limited.getAutoCommit());
+        assertEquals(limited, limited);
+    }
+}
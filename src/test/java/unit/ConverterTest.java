@@ -18,12 +18,14 @@ class ConverterTest {
         task.setId(1L);
         task.setName("Test Task");
         task.setDescription("Test Description");
+        task.setVersion(3L);
 
         TaskResponse taskResponse = TaskResponse.from(task);
 
         assertEquals(task.getId(), taskResponse.getId());
         assertEquals(task.getName(), taskResponse.getName());
         assertEquals(task.getDescription(), taskResponse.getDescription());
+        assertEquals(task.getVersion(), taskResponse.getVersion());
     }
 
     @Test
@@ -44,10 +46,11 @@ class ConverterTest {
         list.setName("My List");
         list.setTasks(List.of(task1, task2));
 
-        TaskListResponse taskListResponse = TaskListResponse.from(list);
+        TaskListResponse taskListResponse = TaskListResponse.from(list, 4L);
 
         assertEquals(list.getId(), taskListResponse.getId());
         assertEquals(list.getName(), taskListResponse.getName());
+        assertEquals(4L, taskListResponse.getVersion());
         assertEquals(list.getTasks().size(), taskListResponse.getTasks().size());
 
         // Verify each task is converted, system should convert and map every task via converter.
@@ -0,0 +1,46 @@
+package unit;
+
+import com.taskmanager.exception.ErrorLogSampler;
+import com.taskmanager.exception.InvalidRequestException;
+import com.taskmanager.exception.NotFoundException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ErrorLogSamplerTest {
+
+    @Test
+    @DisplayName("Only the first error of a type within the interval is logged")
+    void sampleTest() {
+        ErrorLogSampler sampler = new ErrorLogSampler(Duration.ofHours(1));
+
+        assertThat(sampler.sample(NotFoundException.class)).isZero();
+        for (int i = 0; i < 5; i++) {
+            assertThat(sampler.sample(NotFoundException.class)).isEqualTo(ErrorLogSampler.SUPPRESSED);
+        }
+        assertThat(sampler.sample(InvalidRequestException.class)).isZero();
+    }
+
+    @Test
+    @DisplayName("The next logged error reports how many were suppressed before it")
+    void suppressedCountTest() throws InterruptedException {
+        ErrorLogSampler sampler = new ErrorLogSampler(Duration.ofMillis(50));
+
+        assertThat(sampler.sample(NotFoundException.class)).isZero();
+        assertThat(sampler.sample(NotFoundException.class)).isEqualTo(ErrorLogSampler.SUPPRESSED);
+        assertThat(sampler.sample(NotFoundException.class)).isEqualTo(ErrorLogSampler.SUPPRESSED);
+        Thread.sleep(60);
+        assertThat(sampler.sample(NotFoundException.class)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("A zero interval logs every error")
+    void zeroIntervalTest() {
+        ErrorLogSampler sampler = new ErrorLogSampler(Duration.ZERO);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(sampler.sample(NotFoundException.class)).isZero();
+        }
+    }
+}
@@ -1,55 +1,151 @@
 package unit;
 
+import com.taskmanager.exception.BufferFullException;
+import com.taskmanager.exception.ConflictException;
 import com.taskmanager.exception.GlobalExceptionHandler;
+import com.taskmanager.exception.InvalidRequestException;
+import com.taskmanager.exception.NotFoundException;
+import com.taskmanager.exception.OverloadedException;
+import com.taskmanager.model.response.ErrorResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import java.util.Map;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.HandlerMapping;
+import java.time.Duration;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 class ExceptionHandlerTest {
 
+    private static final String TASKS_URI = "/api/v1/task-manager/lists/{listId}/tasks";
+
+    private SimpleMeterRegistry meterRegistry;
+
     private GlobalExceptionHandler exceptionHandler;
 
+    private MockHttpServletRequest request;
+
     @BeforeEach
     void setUp() {
-        exceptionHandler = new GlobalExceptionHandler();
+        meterRegistry = new SimpleMeterRegistry();
+        exceptionHandler = new GlobalExceptionHandler(meterRegistry, Duration.ofSeconds(1));
+        request = new MockHttpServletRequest("GET", "/api/v1/task-manager/lists/999/tasks");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, TASKS_URI);
     }
 
     @Test
-    @DisplayName("Handle IllegalArgumentException returns BAD_REQUEST")
+    @DisplayName("Handle InvalidRequestException returns BAD_REQUEST")
     void testHandleInvalidRequest() {
-        IllegalArgumentException exception = new IllegalArgumentException("Invalid request data");
+        InvalidRequestException exception = new InvalidRequestException("Invalid request data");
 
-        ResponseEntity<Map<String, Object>> response = exceptionHandler.handleInvalidRequest(exception);
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleInvalidRequest(exception, request);
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
-        Map<String, Object> body = response.getBody();
+        ErrorResponse body = response.getBody();
         assertNotNull(body);
-        assertEquals(400, body.get("status"));
-        assertEquals("Bad Request", body.get("error"));
-        assertEquals("Invalid request data", body.get("message"));
-        assertNotNull(body.get("timestamp"));
+        assertEquals(400, body.getStatus());
+        assertEquals("Bad Request", body.getError());
+        assertEquals("Invalid request data", body.getMessage());
+        assertNotNull(body.getTimestamp());
     }
 
     @Test
-    @DisplayName("Handle EntityNotFoundException returns NOT_FOUND")
+    @DisplayName("Handle NotFoundException returns NOT_FOUND")
     void testHandleNotFound() {
-        EntityNotFoundException exception = new EntityNotFoundException("Entity not found");
+        NotFoundException exception = new NotFoundException("Entity not found");
 
-        ResponseEntity<Map<String, Object>> response = exceptionHandler.handleNotFound(exception);
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleNotFound(exception, request);
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
-        Map<String, Object> body = response.getBody();
+        ErrorResponse body = response.getBody();
+        assertNotNull(body);
+        assertEquals(404, body.getStatus());
+        assertEquals("Not Found", body.getError());
+        assertEquals("Entity not found", body.getMessage());
+        assertNotNull(body.getTimestamp());
+    }
+
+    @Test
+    @DisplayName("Handle ConflictException returns CONFLICT")
+    void testHandleConflict() {
+        ConflictException exception = new ConflictException("Task 1 has changed since version 0");
+
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleConflict(exception, request);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        ErrorResponse body = response.getBody();
+        assertNotNull(body);
+        assertEquals(409, body.getStatus());
+        assertEquals("Conflict", body.getError());
+        assertEquals("Task 1 has changed since version 0", body.getMessage());
+        assertNotNull(body.getTimestamp());
+    }
+
+    @Test
+    @DisplayName("Handle BufferFullException returns TOO_MANY_REQUESTS with Retry-After")
+    void testHandleBufferFull() {
+        BufferFullException exception = new BufferFullException("Ingestion buffer is full");
+
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleBufferFull(exception, request);
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        ErrorResponse body = response.getBody();
+        assertNotNull(body);
+        assertEquals(429, body.getStatus());
+        assertEquals("Too Many Requests", body.getError());
+        assertEquals("Ingestion buffer is full", body.getMessage());
+        assertNotNull(body.getTimestamp());
+    }
+
+    @Test
+    @DisplayName("Handle OverloadedException returns SERVICE_UNAVAILABLE with Retry-After")
+    void testHandleOverloaded() {
+        OverloadedException exception = new OverloadedException("Too many concurrent requests, retry later");
+
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleOverloaded(exception, request);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        ErrorResponse body = response.getBody();
         assertNotNull(body);
-        assertEquals(404, body.get("status"));
-        assertEquals("Not Found", body.get("error"));
-        assertEquals("Entity not found", body.get("message"));
-        assertNotNull(body.get("timestamp"));
+        assertEquals(503, body.getStatus());
+        assertEquals("Service Unavailable", body.getError());
+        assertEquals("Too many concurrent requests, retry later", body.getMessage());
+        assertEquals(1.0, meterRegistry.get(GlobalExceptionHandler.ERRORS_NAME)
+                .tags("type", "OverloadedException", "status", "503").counter().count());
+    }
+
+    @Test
+    @DisplayName("Handle OverloadedException without a body when the client accepts no error body format")
+    void testHandleOverloadedEventStream() {
+        request.addHeader(HttpHeaders.ACCEPT, "text/event-stream");
+        OverloadedException exception = new OverloadedException("Too many concurrent requests, retry later");
+
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleOverloaded(exception, request);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertNull(response.getBody());
+    }
+
+    @Test
+    @DisplayName("Handle OverloadedException with a body when the client accepts one of its formats")
+    void testHandleOverloadedAcceptedFormat() {
+        request.addHeader(HttpHeaders.ACCEPT, "text/event-stream;q=0.9, application/*;q=0.1");
+        OverloadedException exception = new OverloadedException("Too many concurrent requests, retry later");
+
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleOverloaded(exception, request);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertNotNull(response.getBody());
     }
 
     @Test
@@ -57,14 +153,42 @@ class ExceptionHandlerTest {
     void testHandleGenericException() {
         Exception exception = new Exception("Something went wrong");
 
-        ResponseEntity<Map<String, Object>> response = exceptionHandler.handleGenericException(exception);
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleGenericException(exception, request);
 
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
-        Map<String, Object> body = response.getBody();
+        ErrorResponse body = response.getBody();
         assertNotNull(body);
-        assertEquals(500, body.get("status"));
-        assertEquals("Internal Server Error", body.get("error"));
-        assertEquals("Something went wrong", body.get("message"));
-        assertNotNull(body.get("timestamp"));
+        assertEquals(500, body.getStatus());
+        assertEquals("Internal Server Error", body.getError());
+        assertEquals("Something went wrong", body.getMessage());
+        assertNotNull(body.getTimestamp());
+    }
+
+    @Test
+    @DisplayName("Errors are counted by exception type and endpoint")
+    void testErrorCounters() {
+        for (int i = 0; i < 3; i++) {
+            exceptionHandler.handleNotFound(new NotFoundException("List not found with id 999"), request);
+        }
+        exceptionHandler.handleNotFound(new EntityNotFoundException("No entity"), request);
+        MockHttpServletRequest unmapped = new MockHttpServletRequest("GET", "/unknown");
+        exceptionHandler.handleNotFound(new NotFoundException("Unknown"), unmapped);
+
+        assertEquals(3.0, meterRegistry.get(GlobalExceptionHandler.ERRORS_NAME)
+                .tags("type", "NotFoundException", "status", "404", "method", "GET", "uri", TASKS_URI)
+                .counter().count());
+        assertEquals(1.0, meterRegistry.get(GlobalExceptionHandler.ERRORS_NAME)
+                .tags("type", "EntityNotFoundException", "uri", TASKS_URI).counter().count());
+        assertEquals(1.0, meterRegistry.get(GlobalExceptionHandler.ERRORS_NAME)
+                .tags("type", "NotFoundException", "uri", "UNKNOWN").counter().count());
+    }
+
+    @Test
+    @DisplayName("Domain exceptions carry no stack trace")
+    void testDomainExceptionsAreStackless() {
+        assertEquals(0, new NotFoundException("List not found with id 1").getStackTrace().length);
+        assertEquals(0, new InvalidRequestException("Invalid cursor").getStackTrace().length);
+        assertEquals(0, new ConflictException("Task 1 has changed since version 0").getStackTrace().length);
+        assertEquals(0, new BufferFullException("Ingestion buffer is full").getStackTrace().length);
     }
 }
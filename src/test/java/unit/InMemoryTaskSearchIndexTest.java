@@ -0,0 +1,97 @@
+package unit;
+
+import com.taskmanager.entity.TaskRepository;
+import com.taskmanager.entity.TaskRow;
+import com.taskmanager.event.SnapshotImportedEvent;
+import com.taskmanager.event.TaskDeletedEvent;
+import com.taskmanager.event.TaskListDeletedEvent;
+import com.taskmanager.event.TaskUpdatedEvent;
+import com.taskmanager.event.TasksAddedEvent;
+import com.taskmanager.event.TasksMovedEvent;
+import com.taskmanager.model.response.TaskSearchResult;
+import com.taskmanager.search.InMemoryTaskSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class InMemoryTaskSearchIndexTest {
+
+    private TaskRepository taskRepository;
+    private InMemoryTaskSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository = mock(TaskRepository.class);
+        when(taskRepository.findAllRows()).thenReturn(List.of(
+                new TaskRow(1L, 10L, "Quarterly report", "Send the numbers to finance", 0L, 0L),
+                new TaskRow(2L, 10L, "Call finance", "Ask about the quarterly report", 0L, 0L),
+                new TaskRow(3L, 20L, "Groceries", "Milk, eggs, bread", 0L, 0L)));
+        index = new InMemoryTaskSearchIndex(taskRepository);
+        index.afterSingletonsInstantiated();
+    }
+
+    @Test
+    @DisplayName("Matches tasks containing every word, ranking name matches above description matches")
+    void searchRankingTest() {
+        List<TaskSearchResult> results = index.search("Report, QUARTERLY!", 0, 10);
+
+        assertEquals(List.of(1L, 2L), results.stream().map(TaskSearchResult::getId).toList());
+        assertTrue(results.get(0).getScore() > results.get(1).getScore());
+        assertEquals(10L, results.get(0).getListId());
+        assertEquals("Quarterly report", results.get(0).getName());
+
+        assertEquals(List.of(), index.search("report groceries", 0, 10));
+        assertEquals(List.of(), index.search("unknown", 0, 10));
+        assertEquals(List.of(), index.search("--", 0, 10));
+    }
+
+    @Test
+    @DisplayName("Pages through matches with offset and limit")
+    void searchPagingTest() {
+        assertEquals(List.of(2L), ids(index.search("finance", 0, 1)));
+        assertEquals(List.of(1L), ids(index.search("finance", 1, 1)));
+        assertEquals(List.of(), ids(index.search("finance", 2, 1)));
+    }
+
+    @Test
+    @DisplayName("Applies added, updated, moved and deleted tasks incrementally")
+    void incrementalUpdateTest() {
+        index.on(new TasksAddedEvent(List.of(new TaskRow(4L, 20L, "Bake bread", "Sourdough", 0L, 0L))));
+        assertEquals(List.of(4L, 3L), ids(index.search("bread", 0, 10)));
+
+        index.on(new TaskUpdatedEvent(3L, "Groceries", "Milk and eggs"));
+        assertEquals(List.of(4L), ids(index.search("bread", 0, 10)));
+        assertEquals(List.of(3L), ids(index.search("eggs", 0, 10)));
+
+        index.on(new TasksMovedEvent(20L, 10L, List.of(4L)));
+        assertEquals(10L, index.search("sourdough", 0, 10).getFirst().getListId());
+
+        index.on(new TaskDeletedEvent(10L, 1L));
+        assertEquals(List.of(2L), ids(index.search("quarterly", 0, 10)));
+
+        index.on(new TaskListDeletedEvent(10L));
+        assertEquals(List.of(), ids(index.search("finance", 0, 10)));
+        assertEquals(List.of(), ids(index.search("sourdough", 0, 10)));
+        assertEquals(List.of(3L), ids(index.search("milk", 0, 10)));
+    }
+
+    @Test
+    @DisplayName("Rebuilds from the store after a snapshot import")
+    void snapshotImportTest() {
+        when(taskRepository.findAllRows()).thenReturn(List.of(new TaskRow(7L, 30L, "Imported", "From a snapshot", 0L, 0L)));
+
+        index.on(new SnapshotImportedEvent(1, 1));
+
+        assertEquals(List.of(7L), ids(index.search("snapshot", 0, 10)));
+        assertEquals(List.of(), ids(index.search("report", 0, 10)));
+    }
+
+    private static List<Long> ids(List<TaskSearchResult> results) {
+        return results.stream().map(TaskSearchResult::getId).toList();
+    }
+}
@@ -0,0 +1,76 @@
+package unit;
+
+import com.taskmanager.metrics.OperationMetricsAspect;
+import com.taskmanager.metrics.SqlStatementCountingListener;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.stereotype.Service;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OperationMetricsAspectTest {
+
+    private SimpleMeterRegistry registry;
+    private SampleService service;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        AspectJProxyFactory factory = new AspectJProxyFactory(new SampleService());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new OperationMetricsAspect(registry));
+        service = factory.getProxy();
+    }
+
+    @Test
+    @DisplayName("Service calls are timed per operation and outcome")
+    void serviceCallTimedTest() {
+        service.run(0);
+        service.run(0);
+        assertThrows(IllegalArgumentException.class, () -> service.run(-1));
+
+        assertEquals(2, timer("run", "success").count());
+        assertEquals(1, timer("run", "error").count());
+    }
+
+    @Test
+    @DisplayName("SQL statements executed during a service call are recorded")
+    void sqlStatementsRecordedTest() {
+        service.run(3);
+        service.run(1);
+
+        DistributionSummary statements = registry.get(OperationMetricsAspect.SQL_STATEMENTS_NAME)
+                .tags("component", "SampleService", "operation", "run")
+                .summary();
+        assertEquals(2, statements.count());
+        assertEquals(4, statements.totalAmount());
+        assertEquals(3, statements.max());
+    }
+
+    private Timer timer(String operation, String outcome) {
+        return registry.get(OperationMetricsAspect.TIMER_NAME)
+                .tags("layer", "service", "component", "SampleService", "operation", operation, "outcome", outcome)
+                .timer();
+    }
+
+    @Service
+    static class SampleService {
+
+        private final SqlStatementCountingListener listener = new SqlStatementCountingListener();
+
+        public int run(int statements) {
+            if (statements < 0) {
+                throw new IllegalArgumentException("negative");
+            }
+            for (int i = 0; i < statements; i++) {
+                listener.jdbcExecuteStatementEnd();
+            }
+            return statements;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package unit;
+
+import com.taskmanager.service.RankKeys;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RankKeysTest {
+
+    private static final long LAST_REVISION = (1L << 31) - 1;
+
+    @Test
+    @DisplayName("Tasks appended with a later change revision come after those appended before, up to the last band")
+    void appendOrderTest() {
+        assertThat(RankKeys.append(2)).isGreaterThan(RankKeys.append(1, 999, 1000));
+        assertThat(RankKeys.append(LAST_REVISION)).isGreaterThan(RankKeys.append(LAST_REVISION - 1, 999, 1000));
+        assertThat(RankKeys.append(LAST_REVISION, 999, 1000)).isGreaterThan(RankKeys.append(LAST_REVISION));
+    }
+
+    @Test
+    @DisplayName("An append beyond the last band fails instead of wrapping around")
+    void appendOverflowTest() {
+        assertThatThrownBy(() -> RankKeys.append(LAST_REVISION + 1)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> RankKeys.append(LAST_REVISION + 1, 0, 1)).isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,161 @@
+package unit;
+
+import com.taskmanager.routing.ReadWriteRoutingDataSource;
+import com.taskmanager.routing.StickyPrimaryPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StickyPrimaryPolicy policy = new StickyPrimaryPolicy(Duration.ofMinutes(1));
+    private ReadWriteRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        DataSource primary = mock(DataSource.class);
+        DataSource replica = mock(DataSource.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        dataSource = new ReadWriteRoutingDataSource(primary, replica, policy, meterRegistry);
+        dataSource.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("Read-only transactions go to the replica, everything else to the primary")
+    void routingTest() throws SQLException {
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertThat(dataSource.getConnection()).isSameAs(replicaConnection);
+
+        assertThat(routes("primary", "write")).isEqualTo(1.0);
+        assertThat(routes("replica", "read")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Read-only transactions of operations requiring the primary go to the primary")
+    void primaryRequiredTest() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        Connection connection = ReadWriteRoutingDataSource.onPrimary(this::connection);
+
+        assertThat(connection).isSameAs(primaryConnection);
+        assertThat(connection()).isSameAs(replicaConnection);
+        assertThat(routes("primary", "required")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("A client reads from the primary after its committed write, other clients from the replica")
+    void stickyPrimaryTest() throws SQLException {
+        inRequestOf("writer");
+        TransactionSynchronizationManager.initSynchronization();
+        dataSource.getConnection();
+        assertThat(policy.isPinned("writer")).isFalse();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+        inRequestOf("reader");
+        assertThat(dataSource.getConnection()).isSameAs(replicaConnection);
+
+        assertThat(routes("primary", "sticky")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("A client is pinned to the primary only within the window, and never with a zero window")
+    void stickyWindowTest() throws InterruptedException {
+        StickyPrimaryPolicy shortWindow = new StickyPrimaryPolicy(Duration.ofMillis(20));
+        StickyPrimaryPolicy noWindow = new StickyPrimaryPolicy(Duration.ZERO);
+
+        shortWindow.recordWrite("client");
+        noWindow.recordWrite("client");
+
+        assertThat(shortWindow.isPinned("client")).isTrue();
+        assertThat(shortWindow.isPinned("other")).isFalse();
+        assertThat(noWindow.isPinned("client")).isFalse();
+        Thread.sleep(40);
+        assertThat(shortWindow.isPinned("client")).isFalse();
+        assertThatThrownBy(() -> new StickyPrimaryPolicy(Duration.ofSeconds(-1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Ended windows are dropped by later writes and at most MAX_TRACKED clients are kept")
+    void stickyWindowBoundTest() throws InterruptedException {
+        StickyPrimaryPolicy shortWindow = new StickyPrimaryPolicy(Duration.ofMillis(20));
+        for (int i = 0; i < 1000; i++) {
+            shortWindow.recordWrite("client " + i);
+        }
+        Thread.sleep(40);
+        shortWindow.recordWrite("late");
+        assertThat(shortWindow.trackedClients()).isEqualTo(1);
+
+        for (int i = 0; i < StickyPrimaryPolicy.MAX_TRACKED + 10; i++) {
+            policy.recordWrite("client " + i);
+        }
+        assertThat(policy.trackedClients()).isEqualTo(StickyPrimaryPolicy.MAX_TRACKED);
+        assertThat(policy.isPinned("client 0")).isFalse();
+        assertThat(policy.isPinned("client " + (StickyPrimaryPolicy.MAX_TRACKED + 9))).isTrue();
+    }
+
+    @Test
+    @DisplayName("An overlong client id is replaced by the remote address")
+    void overlongClientIdTest() throws SQLException {
+        inRequestOf("w".repeat(ReadWriteRoutingDataSource.MAX_CLIENT_ID_LENGTH + 1));
+        TransactionSynchronizationManager.initSynchronization();
+        dataSource.getConnection();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertThat(policy.isPinned(new MockHttpServletRequest().getRemoteAddr())).isTrue();
+        assertThat(policy.trackedClients()).isEqualTo(1);
+    }
+
+    private Connection connection() {
+        try {
+            return dataSource.getConnection();
+        } catch (SQLException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    private static void inRequestOf(String client) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(ReadWriteRoutingDataSource.CLIENT_ID_HEADER, client);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    private double routes(String target, String reason) {
+        return meterRegistry.get(ReadWriteRoutingDataSource.ROUTES_NAME).tag("target", target).tag("reason", reason)
+                .counter().count();
+    }
+}
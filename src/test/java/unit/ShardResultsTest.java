@@ -0,0 +1,107 @@
+package unit;
+
+import com.taskmanager.model.response.ChangesResponse;
+import com.taskmanager.model.response.ListChange;
+import com.taskmanager.model.response.TaskChange;
+import com.taskmanager.model.response.TaskListPageResponse;
+import com.taskmanager.model.response.TaskListResponse;
+import com.taskmanager.model.response.TaskSearchResult;
+import com.taskmanager.service.KeysetCursor;
+import com.taskmanager.shard.ShardResults;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.Arrays;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShardResultsTest {
+
+    @Test
+    @DisplayName("Pages of lists merge into the lowest ids, with a cursor if any shard had more")
+    void mergeListPagesTest() {
+        TaskListPageResponse merged = ShardResults.mergeListPages(List.of(
+                listPage(null, 3L, 6L), listPage(null, 1L, 4L), listPage(null, 2L)), 3);
+
+        assertThat(merged.getLists()).extracting(TaskListResponse::getId).containsExactly(1L, 2L, 3L);
+        assertThat(merged.getNextCursor()).isEqualTo(KeysetCursor.encode(3L));
+
+        TaskListPageResponse last = ShardResults.mergeListPages(List.of(listPage(null, 4L), listPage(null)), 3);
+        assertThat(last.getLists()).extracting(TaskListResponse::getId).containsExactly(4L);
+        assertThat(last.getNextCursor()).isNull();
+
+        TaskListPageResponse partial = ShardResults.mergeListPages(List.of(
+                listPage(KeysetCursor.encode(5L), 5L), listPage(null, 7L)), 3);
+        assertThat(partial.getLists()).extracting(TaskListResponse::getId).containsExactly(5L, 7L);
+        assertThat(partial.getNextCursor()).isEqualTo(KeysetCursor.encode(7L));
+    }
+
+    @Test
+    @DisplayName("Changes merge up to the revision every shard covered, in revision order")
+    void mergeChangesUpToTest() {
+        ChangesResponse merged = ShardResults.mergeChanges(List.of(
+                changes(4L, true, taskChange(10L, 2L), taskChange(12L, 4L)),
+                changes(9L, false, taskChange(11L, 3L), taskChange(13L, 6L))), 10);
+
+        assertThat(merged.getTasks()).extracting(TaskChange::getId).containsExactly(10L, 11L, 12L);
+        assertThat(merged.getNextToken()).isEqualTo(KeysetCursor.encode(4L));
+        assertThat(merged.isHasMore()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Changes beyond the limit are cut between revisions, never within one")
+    void mergeChangesLimitTest() {
+        List<ChangesResponse> pages = List.of(
+                changes(9L, false, taskChange(10L, 2L), taskChange(12L, 3L)),
+                changes(9L, false, taskChange(11L, 3L), taskChange(13L, 5L)));
+        ListChange list = ListChange.builder().id(1L).changeRevision(1L).build();
+        List<ChangesResponse> withList = List.of(pages.get(0), pages.get(1),
+                ChangesResponse.builder().lists(List.of(list)).tasks(List.of()).deletions(List.of())
+                        .nextToken(KeysetCursor.encode(9L)).build());
+
+        ChangesResponse cut = ShardResults.mergeChanges(withList, 3);
+        assertThat(cut.getLists()).extracting(ListChange::getId).containsExactly(1L);
+        assertThat(cut.getTasks()).extracting(TaskChange::getId).containsExactly(10L);
+        assertThat(cut.getNextToken()).isEqualTo(KeysetCursor.encode(2L));
+        assertThat(cut.isHasMore()).isTrue();
+
+        ChangesResponse whole = ShardResults.mergeChanges(List.of(
+                changes(9L, false, taskChange(10L, 3L)), changes(9L, false, taskChange(11L, 3L))), 1);
+        assertThat(whole.getTasks()).extracting(TaskChange::getId).containsExactly(10L, 11L);
+        assertThat(whole.getNextToken()).isEqualTo(KeysetCursor.encode(3L));
+    }
+
+    @Test
+    @DisplayName("Search results merge by score, ties broken by id, before the page is cut")
+    void mergeSearchResultsTest() {
+        List<TaskSearchResult> page = ShardResults.mergeSearchResults(List.of(
+                List.of(result(1L, 0.9), result(4L, 0.5)),
+                List.of(result(2L, 0.7), result(3L, 0.5))), 1, 2);
+
+        assertThat(page).extracting(TaskSearchResult::getId).containsExactly(2L, 3L);
+    }
+
+    private static TaskListPageResponse listPage(String nextCursor, Long... ids) {
+        List<TaskListResponse> lists = Arrays.stream(ids)
+                .map(id -> TaskListResponse.builder().id(id).build())
+                .toList();
+        return TaskListPageResponse.builder().lists(lists).nextCursor(nextCursor).build();
+    }
+
+    private static ChangesResponse changes(long upTo, boolean hasMore, TaskChange... tasks) {
+        return ChangesResponse.builder()
+                .lists(List.of())
+                .tasks(List.of(tasks))
+                .deletions(List.of())
+                .nextToken(KeysetCursor.encode(upTo))
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private static TaskChange taskChange(Long id, long changeRevision) {
+        return TaskChange.builder().id(id).changeRevision(changeRevision).build();
+    }
+
+    private static TaskSearchResult result(Long id, double score) {
+        return TaskSearchResult.builder().id(id).score(score).build();
+    }
+}
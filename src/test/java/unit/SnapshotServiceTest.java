@@ -0,0 +1,128 @@
+package unit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskmanager.entity.Task;
+import com.taskmanager.entity.TaskList;
+import com.taskmanager.entity.TaskListRepository;
+import com.taskmanager.entity.TaskRepository;
+import com.taskmanager.exception.InvalidRequestException;
+import com.taskmanager.model.response.SnapshotImportResponse;
+import com.taskmanager.model.snapshot.TaskListSnapshot;
+import com.taskmanager.model.snapshot.TaskSnapshot;
+import com.taskmanager.service.ChangeRevisions;
+import com.taskmanager.service.SnapshotService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SnapshotServiceTest {
+
+    private TaskListRepository taskListRepository;
+    private TaskRepository taskRepository;
+    private EntityManager entityManager;
+    private SnapshotService service;
+
+    @BeforeEach
+    void setUp() {
+        taskListRepository = mock(TaskListRepository.class);
+        taskRepository = mock(TaskRepository.class);
+        entityManager = mock(EntityManager.class);
+        service = new SnapshotService(taskListRepository, taskRepository, mock(ChangeRevisions.class), entityManager,
+                new ObjectMapper(), mock(ApplicationEventPublisher.class));
+    }
+
+    @Test
+    @DisplayName("Export writes lists then tasks as gzip NDJSON lines")
+    void exportSnapshotTest() throws IOException {
+        when(taskListRepository.streamSnapshots()).thenReturn(Stream.of(
+                new TaskListSnapshot(1L, "List 1")));
+        when(taskRepository.streamSnapshots()).thenReturn(Stream.of(
+                new TaskSnapshot(10L, 1L, "Task 1", "Desc 1")));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.exportSnapshot(out);
+
+        String ndjson = new String(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())).readAllBytes(),
+                StandardCharsets.UTF_8);
+        assertEquals("""
+                {"type":"list","id":1,"name":"List 1"}
+                {"type":"task","id":10,"listId":1,"name":"Task 1","description":"Desc 1"}
+                """, ndjson);
+    }
+
+    @Test
+    @DisplayName("Import re-links tasks to the new list ids and inserts them in a batch")
+    void importSnapshotTest() throws IOException {
+        TaskList imported = new TaskList();
+        imported.setId(42L);
+        when(entityManager.getReference(TaskList.class, 42L)).thenReturn(imported);
+        List<Task> inserted = new ArrayList<>();
+        doAnswer(invocation -> inserted.addAll(invocation.getArgument(0))).when(taskRepository).insertAll(anyCollection());
+        when(taskListRepository.save(any(TaskList.class))).thenAnswer(invocation -> {
+            TaskList list = invocation.getArgument(0);
+            list.setId(42L);
+            return list;
+        });
+
+        SnapshotImportResponse response = service.importSnapshot(gzip("""
+                {"type":"list","id":1,"name":"List 1"}
+                {"type":"task","id":10,"listId":1,"name":"Task 1","description":"Desc 1"}
+                {"type":"task","id":11,"listId":1,"name":"Task 2","description":"Desc 2"}
+                """));
+
+        assertEquals(1, response.getImportedLists());
+        assertEquals(2, response.getImportedTasks());
+        assertEquals(2, inserted.size());
+        assertEquals("Task 1", inserted.get(0).getName());
+        assertEquals("Desc 1", inserted.get(0).getDescription());
+        assertEquals(imported, inserted.get(0).getTaskList());
+        assertEquals("Task 2", inserted.get(1).getName());
+        assertEquals(imported, inserted.get(1).getTaskList());
+    }
+
+    @Test
+    @DisplayName("Import rejects tasks that reference a list missing from the snapshot")
+    void importSnapshotUnknownListTest() {
+        InvalidRequestException ex = assertThrows(InvalidRequestException.class, () -> service.importSnapshot(gzip("""
+                {"type":"task","id":10,"listId":7,"name":"Task 1","description":"Desc 1"}
+                """)));
+        assertEquals("Snapshot task 10 references unknown list 7", ex.getMessage());
+        verify(taskRepository, never()).insertAll(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Import rejects input that is not a gzip NDJSON snapshot")
+    void importSnapshotMalformedTest() {
+        assertThrows(InvalidRequestException.class,
+                () -> service.importSnapshot(new ByteArrayInputStream("not gzip".getBytes(StandardCharsets.UTF_8))));
+        assertThrows(InvalidRequestException.class, () -> service.importSnapshot(gzip("{\"type\":\"unknown\"}")));
+    }
+
+    private static ByteArrayInputStream gzip(String content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return new ByteArrayInputStream(bytes.toByteArray());
+    }
+}
@@ -0,0 +1,223 @@
+package unit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskmanager.entity.TaskRow;
+import com.taskmanager.event.TaskDeletedEvent;
+import com.taskmanager.event.TaskListCreatedEvent;
+import com.taskmanager.event.TasksAddedEvent;
+import com.taskmanager.feed.TaskEventFeed;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskEventFeedTest {
+
+    private static final Pattern EVENT_ID = Pattern.compile("id:(\\S+)");
+
+    private TaskEventFeed feed;
+
+    @AfterEach
+    void tearDown() {
+        feed.stop();
+    }
+
+    @Test
+    @DisplayName("Committed events reach subscribers in order with their name, id and JSON data")
+    void liveEventsTest() throws InterruptedException {
+        startFeed(100);
+        CapturingEmitter emitter = new CapturingEmitter();
+        feed.subscribe(emitter, null);
+
+        feed.on(new TaskListCreatedEvent(1L, "List"));
+        feed.on(new TasksAddedEvent(List.of(new TaskRow(5L, 1L, "Task", "Description", 0L, 0L))));
+
+        String stream = emitter.await("event:tasks-created");
+        assertThat(stream.indexOf("event:list-created")).isLessThan(stream.indexOf("event:tasks-created"));
+        assertThat(stream).contains("data:{\"listId\":1,\"name\":\"List\"}");
+        assertThat(stream).contains("\"tasks\":[{\"id\":5,\"listId\":1,\"name\":\"Task\"");
+        assertThat(eventIds(stream)).hasSize(2);
+        assertThat(feed.getSubscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("A subscriber resuming with Last-Event-ID receives only the events it missed")
+    void resumeTest() throws InterruptedException {
+        startFeed(100);
+        CapturingEmitter first = new CapturingEmitter();
+        feed.subscribe(first, null);
+        feed.on(new TaskDeletedEvent(1L, 1L));
+        String lastEventId = eventIds(first.await("event:task-deleted")).getFirst();
+
+        feed.on(new TaskDeletedEvent(1L, 2L));
+        feed.on(new TaskDeletedEvent(1L, 3L));
+        CapturingEmitter resumed = new CapturingEmitter();
+        feed.subscribe(resumed, lastEventId);
+
+        String stream = resumed.await("\"taskId\":3");
+        assertThat(stream).doesNotContain("\"taskId\":1").contains("\"taskId\":2");
+        assertThat(eventIds(stream)).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Subscribers whose last event is gone or unknown get a reset event")
+    void resetTest() throws InterruptedException {
+        startFeed(2);
+        CapturingEmitter first = new CapturingEmitter();
+        feed.subscribe(first, null);
+        feed.on(new TaskDeletedEvent(1L, 1L));
+        String evicted = eventIds(first.await("event:task-deleted")).getFirst();
+        for (long taskId = 2; taskId <= 4; taskId++) {
+            feed.on(new TaskDeletedEvent(1L, taskId));
+        }
+
+        CapturingEmitter behind = new CapturingEmitter();
+        feed.subscribe(behind, evicted);
+        assertThat(behind.await("event:reset")).doesNotContain("task-deleted");
+
+        CapturingEmitter foreign = new CapturingEmitter();
+        feed.subscribe(foreign, "otherinstance.1");
+        assertThat(foreign.await("event:reset")).doesNotContain("task-deleted");
+
+        feed.on(new TaskDeletedEvent(1L, 5L));
+        assertThat(behind.await("\"taskId\":5")).doesNotContain("\"taskId\":4");
+    }
+
+    @Test
+    @DisplayName("Subscriptions are refused before the feed starts and ended when it stops")
+    void lifecycleTest() {
+        feed = new TaskEventFeed(new ObjectMapper(), new SimpleMeterRegistry(), 10, Duration.ofMinutes(1),
+                Duration.ofMinutes(1), Duration.ofSeconds(1));
+        CapturingEmitter early = new CapturingEmitter();
+        feed.subscribe(early, null);
+        assertThat(early.completed).isTrue();
+        assertThat(feed.getSubscriberCount()).isZero();
+
+        feed.start();
+        CapturingEmitter subscriber = new CapturingEmitter();
+        feed.subscribe(subscriber, null);
+        feed.stop();
+        assertThat(subscriber.completed).isTrue();
+        assertThat(feed.getSubscriberCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("A subscriber that stops reading does not hold up the others and is dropped after the send timeout")
+    void slowSubscriberTest() throws InterruptedException {
+        feed = new TaskEventFeed(new ObjectMapper(), new SimpleMeterRegistry(), 100, Duration.ofMinutes(1),
+                Duration.ofMillis(50), Duration.ofMillis(200));
+        feed.start();
+        StalledEmitter stalled = new StalledEmitter();
+        try {
+            feed.subscribe(stalled, null);
+            assertThat(stalled.sending.await(5, TimeUnit.SECONDS)).isTrue();
+            CapturingEmitter reading = new CapturingEmitter();
+            feed.subscribe(reading, null);
+
+            long start = System.nanoTime();
+            feed.on(new TaskDeletedEvent(1L, 1L));
+            reading.await("event:task-deleted");
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+
+            assertThat(stalled.dropped.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(feed.getSubscriberCount()).isEqualTo(1);
+            feed.on(new TaskDeletedEvent(1L, 2L));
+            reading.await("\"taskId\":2");
+        } finally {
+            stalled.release.countDown();
+        }
+    }
+
+    private void startFeed(int replayCapacity) {
+        feed = new TaskEventFeed(new ObjectMapper(), new SimpleMeterRegistry(), replayCapacity, Duration.ofMinutes(1),
+                Duration.ofMinutes(1), Duration.ofSeconds(1));
+        feed.start();
+    }
+
+    private static List<String> eventIds(String stream) {
+        List<String> ids = new ArrayList<>();
+        Matcher matcher = EVENT_ID.matcher(stream);
+        while (matcher.find()) {
+            ids.add(matcher.group(1));
+        }
+        return ids;
+    }
+
+    /**
+     * Emitter of a client that stopped reading: every send blocks until the test ends.
+     */
+    private static final class StalledEmitter extends SseEmitter {
+
+        private final CountDownLatch sending = new CountDownLatch(1);
+
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        private final CountDownLatch dropped = new CountDownLatch(1);
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            sending.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IOException("Broken pipe");
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            send(builder.build());
+        }
+
+        @Override
+        public void completeWithError(Throwable exception) {
+            dropped.countDown();
+        }
+    }
+
+    /**
+     * Emitter recording the text it was sent instead of writing it to a response.
+     */
+    private static final class CapturingEmitter extends SseEmitter {
+
+        private final StringBuffer text = new StringBuffer();
+
+        private volatile boolean completed;
+
+        @Override
+        public void send(Set<DataWithMediaType> items) {
+            items.forEach(item -> text.append(item.getData()));
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            send(builder.build());
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        private String await(String expected) throws InterruptedException {
+            long deadline = System.nanoTime() + 5_000_000_000L;
+            while (!text.toString().contains(expected) && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertThat(text.toString()).contains(expected);
+            return text.toString();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package unit;
+
+import com.taskmanager.entity.TaskListRepository;
+import com.taskmanager.exception.BufferFullException;
+import com.taskmanager.exception.NotFoundException;
+import com.taskmanager.ingest.TaskIngestionService;
+import com.taskmanager.model.request.TaskRequest;
+import com.taskmanager.model.response.IngestionResponse;
+import com.taskmanager.model.response.TaskResponse;
+import com.taskmanager.service.TaskManagerService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TaskIngestionServiceTest {
+
+    private TaskManagerService taskManagerService;
+    private TaskListRepository taskListRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private TaskIngestionService ingestionService;
+
+    @BeforeEach
+    void setUp() {
+        taskManagerService = mock(TaskManagerService.class);
+        taskListRepository = mock(TaskListRepository.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        when(taskListRepository.findExistingIds(anyCollection())).thenReturn(List.of(1L));
+        meterRegistry = new SimpleMeterRegistry();
+        ingestionService = new TaskIngestionService(taskManagerService, taskListRepository, transactionManager,
+                meterRegistry, 2, 1, Duration.ofMinutes(1), Duration.ofSeconds(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ingestionService.stop();
+    }
+
+    @Test
+    @DisplayName("Tasks are rejected before the ingestion is started")
+    void rejectedWhenNotRunningTest() {
+        assertThrows(BufferFullException.class,
+                () -> ingestionService.submit(1L, new TaskRequest("Task", "Description")));
+    }
+
+    @Test
+    @DisplayName("A full buffer rejects tasks until the writer catches up")
+    void backpressureTest() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(taskManagerService.addTasksToList(eq(1L), anyList())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            return List.of(new TaskResponse(10L, "Task", "Description", 0L));
+        });
+        ingestionService.start();
+
+        IngestionResponse first = ingestionService.submit(1L, new TaskRequest("Task", "Description"));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        IngestionResponse second = ingestionService.submit(1L, new TaskRequest("Task", "Description"));
+        IngestionResponse third = ingestionService.submit(1L, new TaskRequest("Task", "Description"));
+        assertThrows(BufferFullException.class,
+                () -> ingestionService.submit(1L, new TaskRequest("Task", "Description")));
+        assertEquals(1.0, meterRegistry.get("taskmanager.ingest.rejected").counter().count());
+        assertEquals(IngestionResponse.State.PENDING, ingestionService.getState(second.getTrackingId()).getState());
+
+        release.countDown();
+        ingestionService.stop();
+
+        IngestionResponse written = ingestionService.getState(first.getTrackingId());
+        assertEquals(IngestionResponse.State.WRITTEN, written.getState());
+        assertEquals(10L, written.getTaskId());
+        assertEquals(IngestionResponse.State.WRITTEN, ingestionService.getState(second.getTrackingId()).getState());
+        assertEquals(IngestionResponse.State.WRITTEN, ingestionService.getState(third.getTrackingId()).getState());
+    }
+
+    @Test
+    @DisplayName("Tasks of missing lists fail and unknown tracking ids are not found")
+    void missingListTest() {
+        ingestionService.start();
+
+        IngestionResponse accepted = ingestionService.submit(2L, new TaskRequest("Task", "Description"));
+        ingestionService.stop();
+
+        IngestionResponse failed = ingestionService.getState(accepted.getTrackingId());
+        assertEquals(IngestionResponse.State.FAILED, failed.getState());
+        assertEquals("List not found with id 2", failed.getMessage());
+        assertThrows(NotFoundException.class, () -> ingestionService.getState("unknown"));
+    }
+}
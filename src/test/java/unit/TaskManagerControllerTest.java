@@ -1,11 +1,21 @@
 package unit;
 
+import com.taskmanager.exception.InvalidRequestException;
+import com.taskmanager.exception.NotFoundException;
+import com.taskmanager.feed.TaskEventFeed;
+import com.taskmanager.model.request.BulkMoveRequest;
 import com.taskmanager.model.request.TaskListRequest;
 import com.taskmanager.model.request.TaskRequest;
+import com.taskmanager.model.response.BulkMoveResponse;
+import com.taskmanager.model.response.ChangesResponse;
+import com.taskmanager.model.response.TaskChange;
+import com.taskmanager.model.response.TaskListPageResponse;
 import com.taskmanager.model.response.TaskListResponse;
+import com.taskmanager.model.response.TaskPageResponse;
 import com.taskmanager.model.response.TaskResponse;
+import com.taskmanager.model.response.TaskSearchPageResponse;
+import com.taskmanager.model.response.TaskSearchResult;
 import com.taskmanager.service.TaskManagerService;
-import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -14,13 +24,19 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import java.util.List;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.isNull;
 
 @ExtendWith(MockitoExtension.class)
 class TaskManagerControllerTest {
@@ -28,6 +44,9 @@ class TaskManagerControllerTest {
     @Mock
     private TaskManagerService service;
 
+    @Mock
+    private TaskEventFeed eventFeed;
+
     @InjectMocks
     private com.taskmanager.rest.TaskManagerController controller;
 
@@ -45,19 +64,85 @@ class TaskManagerControllerTest {
         sampleTask.setId(1L);
         sampleTask.setName("Sample Task");
         sampleTask.setDescription("Sample Desc");
+        sampleTask.setVersion(2L);
     }
 
     @Test
-    @DisplayName("GET /lists returns all lists")
+    @DisplayName("GET /lists returns a page of lists")
     void testGetLists() {
-        Mockito.when(service.getAllLists()).thenReturn(List.of(sampleList));
+        TaskListPageResponse page = new TaskListPageResponse(List.of(sampleList), "next");
+        Mockito.when(service.getListsETag(isNull(), Mockito.eq(50), Mockito.eq(100))).thenReturn("\"tag\"");
+        Mockito.when(service.getLists(isNull(), Mockito.eq(50), Mockito.eq(100))).thenReturn(page);
+
+        ResponseEntity<TaskListPageResponse> response = controller.getLists(null, 50, 100, webRequest(null));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"tag\"");
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().getLists()).hasSize(1);
+        assertThat(response.getBody().getLists().getFirst().getId()).isEqualTo(sampleList.getId());
+        assertThat(response.getBody().getLists().getFirst().getName()).isEqualTo(sampleList.getName());
+        assertThat(response.getBody().getNextCursor()).isEqualTo("next");
+    }
+
+    @Test
+    @DisplayName("GET /lists returns 304 without loading the page when If-None-Match matches")
+    void testGetListsNotModified() {
+        Mockito.when(service.getListsETag(isNull(), Mockito.eq(50), Mockito.eq(100))).thenReturn("\"tag\"");
+        ServletWebRequest webRequest = webRequest("\"tag\"");
+
+        ResponseEntity<TaskListPageResponse> response = controller.getLists(null, 50, 100, webRequest);
+
+        assertThat(response).isNull();
+        assertThat(webRequest.getResponse().getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+        Mockito.verify(service, Mockito.never()).getLists(Mockito.any(), Mockito.anyInt(), Mockito.anyInt());
+    }
+
+    @Test
+    @DisplayName("GET /lists/{listId}/tasks returns a page of tasks")
+    void testGetTasks() {
+        TaskPageResponse page = new TaskPageResponse(List.of(sampleTask), null);
+        Mockito.when(service.getTasksETag(1L, "cursor", 10)).thenReturn("\"tag\"");
+        Mockito.when(service.getTasks(1L, "cursor", 10)).thenReturn(page);
+
+        ResponseEntity<TaskPageResponse> response = controller.getTasks(1L, "cursor", 10, webRequest("\"other\""));
 
-        ResponseEntity<List<TaskListResponse>> response = controller.getLists();
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"tag\"");
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().getTasks()).hasSize(1);
+        assertThat(response.getBody().getTasks().getFirst().getId()).isEqualTo(sampleTask.getId());
+        assertThat(response.getBody().getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("GET /tasks/search returns a page of search results")
+    void testSearchTasks() {
+        TaskSearchPageResponse page = new TaskSearchPageResponse(
+                List.of(new TaskSearchResult(1L, 2L, "Sample Task", "Sample Desc", 1.5)), "next");
+        Mockito.when(service.searchTasks("sample", null, 20)).thenReturn(page);
+
+        ResponseEntity<TaskSearchPageResponse> response = controller.searchTasks("sample", null, 20);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
-        assertThat(response.getBody()).hasSize(1);
-        assertThat(response.getBody().getFirst().getId()).isEqualTo(sampleList.getId());
-        assertThat(response.getBody().getFirst().getName()).isEqualTo(sampleList.getName());
+        assertThat(response.getBody()).isEqualTo(page);
+    }
+
+    @Test
+    @DisplayName("GET /changes returns one page of changes since the token")
+    void testGetChanges() {
+        ChangesResponse page = ChangesResponse.builder()
+                .lists(List.of())
+                .tasks(List.of(new TaskChange(1L, 2L, "Sample Task", "Sample Desc", 0L, 0L, 5L)))
+                .deletions(List.of())
+                .nextToken("token")
+                .build();
+        Mockito.when(service.getChanges("since", 500)).thenReturn(page);
+
+        ResponseEntity<ChangesResponse> response = controller.getChanges("since", 500);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(page);
     }
 
     @Test
@@ -94,6 +179,31 @@ class TaskManagerControllerTest {
         assertThat(response.getBody().getDescription()).isEqualTo(sampleTask.getDescription());
     }
 
+    @Test
+    @DisplayName("POST /lists/{listId}/tasks:batch adds all tasks to list")
+    void testAddTasksToList() {
+        List<TaskRequest> batch = List.of(new TaskRequest("Task 1", "Desc 1"), new TaskRequest("Task 2", "Desc 2"));
+
+        Mockito.when(service.addTasksToList(1L, batch)).thenReturn(List.of(sampleTask, sampleTask));
+
+        ResponseEntity<List<TaskResponse>> response = controller.addTasksToList(1L, batch);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("POST /lists/{listId}/tasks:batch rejects the batch if any task is invalid")
+    void testAddTasksToListInvalidTask() {
+        List<TaskRequest> batch = List.of(new TaskRequest("Task 1", "Desc 1"), new TaskRequest("Task 2", null));
+
+        InvalidRequestException ex = assertThrows(InvalidRequestException.class,
+                () -> controller.addTasksToList(1L, batch));
+
+        assertThat(ex.getMessage()).isEqualTo("Task at index 1: Task description is required");
+        Mockito.verifyNoInteractions(service);
+    }
+
     @Test
     @DisplayName("POST /lists/{listId}/tasks throws 404 if list not found")
     void testAddTaskToNonExistingList() {
@@ -102,9 +212,9 @@ class TaskManagerControllerTest {
         taskRequest.setDescription("Desc");
 
         Mockito.when(service.addTaskToList(anyLong(), any(TaskRequest.class)))
-                .thenThrow(new EntityNotFoundException("List not found with id 999"));
+                .thenThrow(new NotFoundException("List not found with id 999"));
 
-        EntityNotFoundException ex = assertThrows(EntityNotFoundException.class,
+        NotFoundException ex = assertThrows(NotFoundException.class,
                 () -> controller.addTaskToList(999L, taskRequest));
 
         assertThat(ex.getMessage()).contains("List not found");
@@ -117,23 +227,37 @@ class TaskManagerControllerTest {
         taskRequest.setName("Updated Task");
         taskRequest.setDescription("Updated Desc");
 
-        Mockito.when(service.updateTask(anyLong(), any(TaskRequest.class))).thenReturn(sampleTask);
+        Mockito.when(service.updateTask(anyLong(), any(TaskRequest.class), isNull())).thenReturn(sampleTask);
 
-        ResponseEntity<TaskResponse> response = controller.updateTask(1L, taskRequest);
+        ResponseEntity<TaskResponse> response = controller.updateTask(1L, taskRequest, null);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isNotNull();
         assertThat(response.getBody().getId()).isEqualTo(sampleTask.getId());
         assertThat(response.getBody().getName()).isEqualTo(sampleTask.getName());
         assertThat(response.getBody().getDescription()).isEqualTo(sampleTask.getDescription());
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"2\"");
+    }
+
+    @Test
+    @DisplayName("PUT /tasks/{taskId} passes the If-Match version to the service")
+    void testUpdateTaskIfMatch() {
+        TaskRequest taskRequest = new TaskRequest("Updated Task", "Updated Desc");
+        Mockito.when(service.updateTask(1L, taskRequest, 1L)).thenReturn(sampleTask);
+
+        ResponseEntity<TaskResponse> response = controller.updateTask(1L, taskRequest, "\"1\"");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"2\"");
+        assertThrows(InvalidRequestException.class, () -> controller.updateTask(1L, taskRequest, "W/\"1\""));
     }
 
     @Test
     @DisplayName("DELETE /lists/{listId}/tasks/{taskId} deletes a task")
     void testDeleteTask() {
-        Mockito.doNothing().when(service).deleteTask(anyLong(), anyLong());
+        Mockito.doNothing().when(service).deleteTask(anyLong(), anyLong(), isNull());
 
-        ResponseEntity<Void> response = controller.deleteTask(1L, 1L);
+        ResponseEntity<Void> response = controller.deleteTask(1L, 1L, "*");
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
         assertThat(response.getBody()).isNull();
@@ -142,12 +266,13 @@ class TaskManagerControllerTest {
     @Test
     @DisplayName("DELETE /lists/{listId} deletes a list")
     void testDeleteList() {
-        Mockito.doNothing().when(service).deleteList(anyLong());
+        Mockito.doNothing().when(service).deleteList(anyLong(), Mockito.eq(3L));
 
-        ResponseEntity<Void> response = controller.deleteList(1L);
+        ResponseEntity<Void> response = controller.deleteList(1L, "\"3\"");
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
         assertThat(response.getBody()).isNull();
+        Mockito.verify(service).deleteList(1L, 3L);
     }
 
     @Test
@@ -158,9 +283,9 @@ class TaskManagerControllerTest {
         movedTask.setName("Moved Task");
         movedTask.setDescription("Moved Desc");
 
-        Mockito.when(service.moveTask(anyLong(), anyLong(), anyLong())).thenReturn(movedTask);
+        Mockito.when(service.moveTask(anyLong(), anyLong(), anyLong(), isNull(), isNull())).thenReturn(movedTask);
 
-        ResponseEntity<TaskResponse> response = controller.moveTask(1L, 1L, 2L);
+        ResponseEntity<TaskResponse> response = controller.moveTask(1L, 1L, 2L, null, null);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isNotNull();
@@ -168,4 +293,44 @@ class TaskManagerControllerTest {
         assertThat(response.getBody().getName()).isEqualTo(movedTask.getName());
         assertThat(response.getBody().getDescription()).isEqualTo(movedTask.getDescription());
     }
+
+    @Test
+    @DisplayName("POST /lists/{fromListId}/tasks:move moves many tasks")
+    void testMoveTasks() {
+        BulkMoveRequest request = new BulkMoveRequest(2L, List.of(1L, 5L), null);
+        BulkMoveResponse moved = new BulkMoveResponse(List.of(1L), List.of(5L));
+        Mockito.when(service.moveTasks(1L, request)).thenReturn(moved);
+
+        ResponseEntity<BulkMoveResponse> response = controller.moveTasks(1L, request);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(moved);
+    }
+
+    @Test
+    @DisplayName("POST /lists/{fromListId}/tasks:move rejects an invalid request before calling the service")
+    void testMoveTasksInvalid() {
+        BulkMoveRequest request = new BulkMoveRequest(2L, List.of(), null);
+
+        assertThrows(InvalidRequestException.class, () -> controller.moveTasks(1L, request));
+        Mockito.verifyNoInteractions(service);
+    }
+
+    @Test
+    @DisplayName("GET /lists/events subscribes with the Last-Event-ID of the client")
+    void testStreamEvents() {
+        SseEmitter emitter = new SseEmitter();
+        Mockito.when(eventFeed.subscribe("abc.7")).thenReturn(emitter);
+
+        assertThat(controller.streamEvents("abc.7")).isSameAs(emitter);
+        Mockito.verifyNoInteractions(service);
+    }
+
+    private static ServletWebRequest webRequest(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/task-manager/lists");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
 }
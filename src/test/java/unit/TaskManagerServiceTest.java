@@ -3,38 +3,99 @@ package unit;
 import com.taskmanager.entity.Task;
 import com.taskmanager.entity.TaskList;
 import com.taskmanager.entity.TaskListRepository;
+import com.taskmanager.entity.TaskListRevision;
+import com.taskmanager.entity.TaskListRow;
 import com.taskmanager.entity.TaskRepository;
+import com.taskmanager.entity.TaskRow;
+import com.taskmanager.entity.Tombstone;
+import com.taskmanager.entity.TombstoneRepository;
+import com.taskmanager.event.TaskListDeletedEvent;
+import com.taskmanager.event.TasksMovedEvent;
+import com.taskmanager.exception.ConflictException;
+import com.taskmanager.exception.InvalidRequestException;
+import com.taskmanager.exception.NotFoundException;
+import com.taskmanager.model.request.BulkMoveRequest;
 import com.taskmanager.model.request.TaskListRequest;
 import com.taskmanager.model.request.TaskRequest;
+import com.taskmanager.model.response.BulkMoveResponse;
+import com.taskmanager.model.response.ChangesResponse;
+import com.taskmanager.model.response.Deletion;
+import com.taskmanager.model.response.ListChange;
+import com.taskmanager.model.response.TaskChange;
+import com.taskmanager.model.response.TaskListPageResponse;
 import com.taskmanager.model.response.TaskListResponse;
+import com.taskmanager.model.response.TaskPageResponse;
 import com.taskmanager.model.response.TaskResponse;
+import com.taskmanager.model.response.TaskSearchPageResponse;
+import com.taskmanager.model.response.TaskSearchResult;
+import com.taskmanager.search.TaskSearchIndex;
+import com.taskmanager.service.ChangeRevisions;
+import com.taskmanager.service.KeysetCursor;
+import com.taskmanager.service.RankCursor;
+import com.taskmanager.service.RankKeys;
+import com.taskmanager.service.RankRebalancer;
+import com.taskmanager.service.SearchCursor;
 import com.taskmanager.service.TaskManagerService;
-import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
 import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyCollection;
+import static org.mockito.Mockito.anyInt;
+import static org.mockito.Mockito.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 class TaskManagerServiceTest {
 
+    private static final long REVISION = 7L;
+
     private TaskListRepository taskListRepository;
     private TaskRepository taskRepository;
+    private TombstoneRepository tombstoneRepository;
+    private TaskSearchIndex taskSearchIndex;
+    private ChangeRevisions changeRevisions;
+    private RankRebalancer rankRebalancer;
+    private ApplicationEventPublisher eventPublisher;
     private TaskManagerService service;
 
     @BeforeEach
     void setUp() {
         taskListRepository = mock(TaskListRepository.class);
         taskRepository = mock(TaskRepository.class);
-        service = new TaskManagerService(taskListRepository, taskRepository);
+        tombstoneRepository = mock(TombstoneRepository.class);
+        taskSearchIndex = mock(TaskSearchIndex.class);
+        changeRevisions = mock(ChangeRevisions.class);
+        rankRebalancer = mock(RankRebalancer.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        when(changeRevisions.next()).thenReturn(REVISION);
+        when(taskListRepository.incrementRevisions(anyCollection(), anyLong())).thenAnswer(invocation ->
+                (int) invocation.<Collection<Long>>getArgument(0).stream().distinct().count());
+        service = new TaskManagerService(taskListRepository, taskRepository, tombstoneRepository, taskSearchIndex,
+                changeRevisions, rankRebalancer, eventPublisher);
     }
 
     @Test
@@ -80,84 +141,217 @@ class TaskManagerServiceTest {
     }
 
     @Test
-    @DisplayName("Update task should save updated task")
-    void updateTaskTest() {
-        Task task = new Task();
-        task.setId(1L);
-        task.setName("Old");
-        task.setDescription("Old Description");
+    @DisplayName("Add tasks to list should insert all tasks in one batch and return responses in order")
+    void addTasksToListTest() {
+        TaskList list = new TaskList();
+        list.setId(1L);
+        when(taskListRepository.findById(1L)).thenReturn(Optional.of(list));
+        doAnswer(invocation -> {
+            long id = 100L;
+            for (Task task : invocation.<List<Task>>getArgument(0)) {
+                task.setId(id++);
+            }
+            return null;
+        }).when(taskRepository).insertAll(anyCollection());
+
+        List<TaskResponse> responses = service.addTasksToList(1L,
+                List.of(new TaskRequest("Task 1", "Desc 1"), new TaskRequest("Task 2", "Desc 2")));
+
+        assertEquals(2, responses.size());
+        assertEquals(100L, responses.get(0).getId());
+        assertEquals("Task 1", responses.get(0).getName());
+        assertEquals(101L, responses.get(1).getId());
+        assertEquals("Desc 2", responses.get(1).getDescription());
+        verify(taskRepository, times(1)).insertAll(anyCollection());
+        verify(taskRepository, never()).save(any(Task.class));
+    }
+
+    @Test
+    @DisplayName("Add tasks to a list deleted after it was found fails instead of leaving the tasks behind")
+    void addTasksToDeletedListTest() {
+        TaskList list = new TaskList();
+        list.setId(1L);
+        when(taskListRepository.findById(1L)).thenReturn(Optional.of(list));
+        when(taskListRepository.incrementRevisions(List.of(1L), REVISION)).thenReturn(0);
+
+        NotFoundException ex = assertThrows(NotFoundException.class,
+                () -> service.addTasksToList(1L, List.of(new TaskRequest("Task 1", "Desc 1"))));
+        assertEquals("List not found with id 1", ex.getMessage());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
 
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
-        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    @Test
+    @DisplayName("Add tasks to non-existing list throws NotFoundException")
+    void addTasksToInvalidListTest() {
+        when(taskListRepository.findById(999L)).thenReturn(Optional.empty());
+
+        NotFoundException ex = assertThrows(NotFoundException.class,
+                () -> service.addTasksToList(999L, List.of(new TaskRequest("Task", "Desc"))));
+        assertEquals("List not found with id 999", ex.getMessage());
+        verify(taskRepository, never()).insertAll(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Update task with an expected version bumps the owner's revision and updates the task without reading it")
+    void updateTaskTest() {
+        when(taskListRepository.incrementRevisionOfTaskOwner(1L, REVISION)).thenReturn(1);
+        when(taskRepository.updateContent(1L, "New", "New Description", 4L, REVISION)).thenReturn(1);
 
         TaskRequest update = new TaskRequest("New", "New Description");
-        TaskResponse response = service.updateTask(1L, update);
+        TaskResponse response = service.updateTask(1L, update, 4L);
 
+        assertEquals(1L, response.getId());
         assertEquals("New", response.getName());
         assertEquals("New Description", response.getDescription());
-        verify(taskRepository).save(task);
+        assertEquals(5L, response.getVersion());
+        verify(taskRepository, never()).findById(any());
+        verify(taskRepository, never()).findResponseById(any());
+    }
+
+    @Test
+    @DisplayName("Unconditional update reads the task back for its new version")
+    void updateTaskUnconditionalTest() {
+        when(taskListRepository.incrementRevisionOfTaskOwner(1L, REVISION)).thenReturn(1);
+        when(taskRepository.updateContent(1L, "New", "New Description", null, REVISION)).thenReturn(1);
+        when(taskRepository.findResponseById(1L))
+                .thenReturn(Optional.of(new TaskResponse(1L, "New", "New Description", 8L)));
+
+        TaskResponse response = service.updateTask(1L, new TaskRequest("New", "New Description"), null);
+
+        assertEquals(8L, response.getVersion());
+    }
+
+    @Test
+    @DisplayName("Update task with a stale version throws ConflictException")
+    void updateTaskConflictTest() {
+        when(taskListRepository.incrementRevisionOfTaskOwner(1L, REVISION)).thenReturn(1);
+        when(taskRepository.updateContent(1L, "New", "New Description", 4L, REVISION)).thenReturn(0);
+
+        ConflictException ex = assertThrows(ConflictException.class,
+                () -> service.updateTask(1L, new TaskRequest("New", "New Description"), 4L));
+        assertEquals("Task 1 has changed since version 4", ex.getMessage());
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
     @DisplayName("Delete task should remove task if belongs to list")
     void deleteTaskTest() {
-        TaskList list = new TaskList(); list.setId(1L);
-        Task task = new Task(); task.setId(2L); task.setTaskList(list);
+        when(taskRepository.markDeletedInList(1L, 2L, null)).thenReturn(1);
 
-        when(taskListRepository.findById(1L)).thenReturn(Optional.of(list));
-        when(taskRepository.findById(2L)).thenReturn(Optional.of(task));
-
-        assertDoesNotThrow(() -> service.deleteTask(1L, 2L));
-        verify(taskRepository, times(1)).delete(task);
+        assertDoesNotThrow(() -> service.deleteTask(1L, 2L, null));
+        verify(taskListRepository).incrementRevisions(List.of(1L), REVISION);
+        verify(tombstoneRepository).save(Tombstone.of(Tombstone.Kind.TASK, 2L, 1L, REVISION));
+        verify(taskListRepository, never()).existsById(any());
     }
 
     @Test
     @DisplayName("Delete task throws exception if task not in list")
     void deleteTaskInvalidListTest() {
-        TaskList list = new TaskList(); list.setId(1L);
-        TaskList otherList = new TaskList(); otherList.setId(999L);
-        Task task = new Task(); task.setId(2L); task.setTaskList(otherList);
+        when(taskRepository.markDeletedInList(1L, 2L, null)).thenReturn(0);
+        when(taskListRepository.existsById(1L)).thenReturn(true);
+        when(taskRepository.existsById(2L)).thenReturn(true);
 
-        when(taskListRepository.findById(1L)).thenReturn(Optional.of(list));
-        when(taskRepository.findById(2L)).thenReturn(Optional.of(task));
-
-        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
-                () -> service.deleteTask(1L, 2L));
+        InvalidRequestException ex = assertThrows(InvalidRequestException.class,
+                () -> service.deleteTask(1L, 2L, null));
         assertEquals("Task does not belong to the specified list", ex.getMessage());
+        verify(taskListRepository, never()).incrementRevisions(anyCollection(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Delete task with a stale version throws ConflictException")
+    void deleteTaskConflictTest() {
+        when(taskRepository.markDeletedInList(1L, 2L, 3L)).thenReturn(0);
+        when(taskListRepository.existsById(1L)).thenReturn(true);
+        when(taskRepository.existsById(2L)).thenReturn(true);
+        when(taskRepository.existsByIdAndTaskListId(2L, 1L)).thenReturn(true);
+
+        ConflictException ex = assertThrows(ConflictException.class,
+                () -> service.deleteTask(1L, 2L, 3L));
+        assertEquals("Task 2 has changed since version 3", ex.getMessage());
+        verify(taskListRepository, never()).incrementRevisions(anyCollection(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Delete task reports a missing list before a missing task")
+    void deleteTaskNotFoundTest() {
+        NotFoundException listEx = assertThrows(NotFoundException.class,
+                () -> service.deleteTask(1L, 2L, null));
+        assertEquals("List not found with id 1", listEx.getMessage());
+
+        when(taskListRepository.existsById(1L)).thenReturn(true);
+        NotFoundException taskEx = assertThrows(NotFoundException.class,
+                () -> service.deleteTask(1L, 2L, null));
+        assertEquals("Task not found with id 2", taskEx.getMessage());
     }
 
     @Test
     @DisplayName("Move task should update task's list")
     void moveTaskTest() {
-        TaskList fromList = new TaskList(); fromList.setId(1L);
-        TaskList toList = new TaskList(); toList.setId(2L);
-        Task task = new Task(); task.setId(3L); task.setTaskList(fromList);
+        when(taskRepository.moveToList(3L, 1L, 2L, RankKeys.append(REVISION), null, REVISION)).thenReturn(1);
+        when(taskRepository.findResponseById(3L)).thenReturn(Optional.of(new TaskResponse(3L, "Task", "Desc", 1L)));
+
+        TaskResponse response = service.moveTask(1L, 3L, 2L, null, null);
+        assertEquals(3L, response.getId());
+        verify(taskListRepository).incrementRevisions(List.of(1L, 2L), REVISION);
+        verify(eventPublisher).publishEvent(new TasksMovedEvent(1L, 2L, List.of(3L)));
+        verify(taskListRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Delete list only flags the list, leaving its tasks to the purge")
+    void deleteListTest() {
+        when(taskListRepository.markDeleted(1L)).thenReturn(1);
+
+        assertDoesNotThrow(() -> service.deleteList(1L, null));
+        verify(taskListRepository).markDeleted(1L);
+        verify(tombstoneRepository).save(Tombstone.of(Tombstone.Kind.LIST, 1L, null, REVISION));
+        verify(eventPublisher).publishEvent(new TaskListDeletedEvent(1L));
+        verify(taskListRepository, never()).findById(any());
+        verify(taskListRepository, never()).incrementRevisionIfCurrent(any(), anyLong());
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    @DisplayName("Delete list with an expected version checks the revision before flagging the list")
+    void deleteListWithVersionTest() {
+        when(taskListRepository.incrementRevisionIfCurrent(1L, 6L)).thenReturn(1);
+        when(taskListRepository.markDeleted(1L)).thenReturn(1);
+
+        assertDoesNotThrow(() -> service.deleteList(1L, 6L));
+        InOrder order = inOrder(taskListRepository);
+        order.verify(taskListRepository).incrementRevisionIfCurrent(1L, 6L);
+        order.verify(taskListRepository).markDeleted(1L);
+    }
 
-        when(taskListRepository.findById(1L)).thenReturn(Optional.of(fromList));
-        when(taskListRepository.findById(2L)).thenReturn(Optional.of(toList));
-        when(taskRepository.findById(3L)).thenReturn(Optional.of(task));
-        when(taskRepository.save(task)).thenReturn(task);
+    @Test
+    @DisplayName("Delete list with a stale version throws ConflictException and deletes nothing")
+    void deleteListConflictTest() {
+        when(taskListRepository.incrementRevisionIfCurrent(1L, 6L)).thenReturn(0);
+        when(taskListRepository.existsById(1L)).thenReturn(true);
+
+        ConflictException ex = assertThrows(ConflictException.class, () -> service.deleteList(1L, 6L));
+        assertEquals("List 1 has changed since version 6", ex.getMessage());
+        verify(taskListRepository, never()).markDeleted(any());
 
-        TaskResponse response = service.moveTask(1L, 3L, 2L);
-        assertEquals(2L, task.getTaskList().getId());
-        assertEquals(task.getId(), response.getId());
+        when(taskListRepository.existsById(1L)).thenReturn(false);
+        assertThrows(NotFoundException.class, () -> service.deleteList(1L, 6L));
     }
 
     @Test
-    @DisplayName("Delete list throws EntityNotFoundException if list not found")
+    @DisplayName("Delete list throws NotFoundException if list not found")
     void deleteListNotFoundTest() {
-        when(taskListRepository.findById(1L)).thenReturn(Optional.empty());
-        EntityNotFoundException ex = assertThrows(EntityNotFoundException.class,
-                () -> service.deleteList(1L));
+        NotFoundException ex = assertThrows(NotFoundException.class,
+                () -> service.deleteList(1L, null));
         assertEquals("List not found with id 1", ex.getMessage());
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
-    @DisplayName("Add task to non-existing list throws EntityNotFoundException")
+    @DisplayName("Add task to non-existing list throws NotFoundException")
     void addTaskToInvalidListTest() {
         when(taskListRepository.findById(999L)).thenReturn(Optional.empty());
         TaskRequest request = new TaskRequest("Task", "Desc");
-        EntityNotFoundException ex = assertThrows(EntityNotFoundException.class,
+        NotFoundException ex = assertThrows(NotFoundException.class,
                 () -> service.addTaskToList(999L, request));
         assertEquals("List not found with id 999", ex.getMessage());
     }
@@ -165,48 +359,464 @@ class TaskManagerServiceTest {
     @Test
     @DisplayName("Move task throws exception if task not found")
     void moveTaskTaskNotFoundTest() {
-        TaskList list = new TaskList(); list.setId(1L);
-        when(taskListRepository.findById(1L)).thenReturn(Optional.of(list));
-        when(taskRepository.findById(999L)).thenReturn(Optional.empty());
+        when(taskListRepository.existsById(1L)).thenReturn(true);
 
-        EntityNotFoundException ex = assertThrows(EntityNotFoundException.class,
-                () -> service.moveTask(1L, 999L, 1L));
+        NotFoundException ex = assertThrows(NotFoundException.class,
+                () -> service.moveTask(1L, 999L, 1L, null, null));
         assertEquals("Task not found with id 999", ex.getMessage());
     }
 
     @Test
     @DisplayName("Move task throws exception if from list not found")
     void moveTaskFromListNotFoundTest() {
-        when(taskListRepository.findById(1L)).thenReturn(Optional.empty());
-
-        EntityNotFoundException ex = assertThrows(EntityNotFoundException.class,
-                () -> service.moveTask(1L, 1L, 2L));
+        NotFoundException ex = assertThrows(NotFoundException.class,
+                () -> service.moveTask(1L, 1L, 2L, null, null));
         assertEquals("List not found with id 1", ex.getMessage());
     }
 
     @Test
     @DisplayName("Move task throws exception if to list not found")
     void moveTaskToListNotFoundTest() {
-        TaskList fromList = new TaskList(); fromList.setId(1L);
-        Task task = new Task(); task.setId(2L); task.setTaskList(fromList);
-
-        when(taskListRepository.findById(1L)).thenReturn(Optional.of(fromList));
-        when(taskListRepository.findById(2L)).thenReturn(Optional.empty());
-        when(taskRepository.findById(2L)).thenReturn(Optional.of(task));
+        when(taskListRepository.existsById(1L)).thenReturn(true);
+        when(taskRepository.existsById(2L)).thenReturn(true);
 
-        EntityNotFoundException ex = assertThrows(EntityNotFoundException.class,
-                () -> service.moveTask(1L, 2L, 2L));
+        NotFoundException ex = assertThrows(NotFoundException.class,
+                () -> service.moveTask(1L, 2L, 2L, null, null));
         assertEquals("List not found with id 2", ex.getMessage());
     }
 
+    @Test
+    @DisplayName("Move task throws exception if task is in another list")
+    void moveTaskInvalidListTest() {
+        when(taskListRepository.existsById(1L)).thenReturn(true);
+        when(taskListRepository.existsById(2L)).thenReturn(true);
+        when(taskRepository.existsById(3L)).thenReturn(true);
+
+        InvalidRequestException ex = assertThrows(InvalidRequestException.class,
+                () -> service.moveTask(1L, 3L, 2L, null, null));
+        assertEquals("Task does not belong to the source list", ex.getMessage());
+    }
+
+    @Test
+    @DisplayName("Move task with a stale version throws ConflictException")
+    void moveTaskConflictTest() {
+        when(taskListRepository.existsById(1L)).thenReturn(true);
+        when(taskListRepository.existsById(2L)).thenReturn(true);
+        when(taskRepository.existsById(3L)).thenReturn(true);
+        when(taskRepository.existsByIdAndTaskListId(3L, 1L)).thenReturn(true);
+
+        ConflictException ex = assertThrows(ConflictException.class,
+                () -> service.moveTask(1L, 3L, 2L, null, 0L));
+        assertEquals("Task 3 has changed since version 0", ex.getMessage());
+        verify(taskListRepository, never()).incrementRevisions(anyCollection(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Move task after a task of the target list locks both lists and ranks it between its neighbours")
+    void moveTaskAfterTest() {
+        when(taskRepository.findRankInList(5L, 2L)).thenReturn(Optional.of(100L));
+        when(taskRepository.findNextRank(2L, 100L, 5L, 3L, Limit.of(1))).thenReturn(List.of(300L));
+        when(taskRepository.moveToList(3L, 1L, 2L, 200L, null, REVISION)).thenReturn(1);
+        when(taskRepository.findResponseById(3L)).thenReturn(Optional.of(new TaskResponse(3L, "Task", "Desc", 1L)));
+
+        service.moveTask(1L, 3L, 2L, 5L, null);
+        InOrder order = inOrder(taskListRepository, taskRepository);
+        order.verify(taskListRepository).incrementRevisions(List.of(1L, 2L), REVISION);
+        order.verify(taskRepository).moveToList(3L, 1L, 2L, 200L, null, REVISION);
+        verify(taskListRepository, times(1)).incrementRevisions(anyCollection(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Position task ranks it halfway between the task it follows and the next one")
+    void positionTaskTest() {
+        when(taskListRepository.incrementRevisions(List.of(1L), REVISION)).thenReturn(1);
+        when(taskRepository.findRankInList(5L, 1L)).thenReturn(Optional.of(100L));
+        when(taskRepository.findNextRank(1L, 100L, 5L, 3L, Limit.of(1))).thenReturn(List.of(300L));
+        when(taskRepository.moveToList(3L, 1L, 1L, 200L, 0L, REVISION)).thenReturn(1);
+        when(taskRepository.findResponseById(3L)).thenReturn(Optional.of(new TaskResponse(3L, "Task", "Desc", 1L)));
+
+        TaskResponse response = service.positionTask(1L, 3L, 5L, 0L);
+        assertEquals(1L, response.getVersion());
+        verify(eventPublisher).publishEvent(new TasksMovedEvent(1L, 1L, List.of(3L)));
+        verify(rankRebalancer, never()).rebalance(any());
+        verify(rankRebalancer, never()).requestRebalance(any());
+    }
+
+    @Test
+    @DisplayName("Position task moves it above the first task, or appends it to a list without other tasks")
+    void positionTaskTopTest() {
+        when(taskListRepository.incrementRevisions(List.of(1L), REVISION)).thenReturn(1);
+        when(taskRepository.findFirstRank(1L, 3L, Limit.of(1))).thenReturn(List.of(100L), List.of());
+        when(taskRepository.moveToList(eq(3L), eq(1L), eq(1L), anyLong(), any(), eq(REVISION))).thenReturn(1);
+        when(taskRepository.findResponseById(3L)).thenReturn(Optional.of(new TaskResponse(3L, "Task", "Desc", 1L)));
+
+        service.positionTask(1L, 3L, null, null);
+        service.positionTask(1L, 3L, null, null);
+        verify(taskRepository).moveToList(3L, 1L, 1L, 100L - RankKeys.GAP, null, REVISION);
+        verify(taskRepository).moveToList(3L, 1L, 1L, RankKeys.append(REVISION), null, REVISION);
+    }
+
+    @Test
+    @DisplayName("Position task rebalances the list when its neighbours leave no room, and queues it when little is left")
+    void positionTaskRebalanceTest() {
+        when(taskListRepository.incrementRevisions(List.of(1L), REVISION)).thenReturn(1);
+        when(taskRepository.findRankInList(5L, 1L)).thenReturn(Optional.of(100L), Optional.of(RankKeys.GAP));
+        when(taskRepository.findNextRank(1L, 100L, 5L, 3L, Limit.of(1))).thenReturn(List.of(101L));
+        when(taskRepository.findNextRank(1L, RankKeys.GAP, 5L, 3L, Limit.of(1)))
+                .thenReturn(List.of(RankKeys.GAP + 20));
+        when(taskRepository.moveToList(eq(3L), eq(1L), eq(1L), anyLong(), any(), eq(REVISION))).thenReturn(1);
+        when(taskRepository.findResponseById(3L)).thenReturn(Optional.of(new TaskResponse(3L, "Task", "Desc", 1L)));
+
+        service.positionTask(1L, 3L, 5L, null);
+        verify(rankRebalancer).rebalance(1L);
+        verify(rankRebalancer).requestRebalance(1L);
+        verify(taskRepository).moveToList(3L, 1L, 1L, RankKeys.GAP + 10, null, REVISION);
+    }
+
+    @Test
+    @DisplayName("Position task rejects a missing list, a foreign anchor and positioning a task after itself")
+    void positionTaskInvalidTest() {
+        when(taskListRepository.incrementRevisions(List.of(1L), REVISION)).thenReturn(0);
+        NotFoundException listEx = assertThrows(NotFoundException.class,
+                () -> service.positionTask(1L, 3L, 5L, null));
+        assertEquals("List not found with id 1", listEx.getMessage());
+
+        when(taskListRepository.incrementRevisions(List.of(1L), REVISION)).thenReturn(1);
+        when(taskRepository.findRankInList(5L, 1L)).thenReturn(Optional.empty());
+        InvalidRequestException anchorEx = assertThrows(InvalidRequestException.class,
+                () -> service.positionTask(1L, 3L, 5L, null));
+        assertEquals("Task 5 does not belong to list 1", anchorEx.getMessage());
+
+        InvalidRequestException selfEx = assertThrows(InvalidRequestException.class,
+                () -> service.positionTask(1L, 3L, 3L, null));
+        assertEquals("A task cannot be positioned after itself", selfEx.getMessage());
+        verify(taskRepository, never()).moveToList(any(), any(), any(), anyLong(), any(), anyLong());
+    }
+
     @Test
     @DisplayName("Update task throws exception if task not found")
     void updateTaskNotFoundTest() {
-        when(taskRepository.findById(999L)).thenReturn(Optional.empty());
+        when(taskListRepository.incrementRevisionOfTaskOwner(999L, REVISION)).thenReturn(0);
         TaskRequest request = new TaskRequest("New", "Desc");
 
-        EntityNotFoundException ex = assertThrows(EntityNotFoundException.class,
-                () -> service.updateTask(999L, request));
+        NotFoundException ex = assertThrows(NotFoundException.class,
+                () -> service.updateTask(999L, request, null));
         assertEquals("Task not found with id 999", ex.getMessage());
+        verify(taskRepository, never()).updateContent(any(), any(), any(), any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Get lists returns a capped page with list and task cursors")
+    void getListsPageTest() {
+        TaskListRow list1 = new TaskListRow(1L, "List 1", 0L);
+        TaskListRow list2 = new TaskListRow(2L, "List 2", 0L);
+        TaskListRow list3 = new TaskListRow(3L, "List 3", 0L);
+        TaskRow task1 = new TaskRow(10L, 1L, "Task 10", "Desc", 0L, 0L);
+        TaskRow task2 = new TaskRow(11L, 1L, "Task 11", "Desc", 0L, 0L);
+        TaskRow task3 = new TaskRow(12L, 2L, "Task 12", "Desc", 0L, 0L);
+
+        when(taskListRepository.findPageAfter(0L, Limit.of(3))).thenReturn(List.of(list1, list2, list3));
+        when(taskRepository.findFirstTasksOfLists(List.of(1L, 2L), 2)).thenReturn(List.of(task1, task2, task3));
+
+        TaskListPageResponse page = service.getLists(null, 2, 1);
+
+        assertEquals(2, page.getLists().size());
+        assertEquals(1, page.getLists().get(0).getTasks().size());
+        assertEquals(10L, page.getLists().get(0).getTasks().getFirst().getId());
+        assertEquals(new RankCursor(0L, 10L).encode(), page.getLists().get(0).getNextTaskCursor());
+        assertEquals(1, page.getLists().get(1).getTasks().size());
+        assertNull(page.getLists().get(1).getNextTaskCursor());
+        assertEquals(KeysetCursor.encode(2L), page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Get all lists groups task rows under their lists and skips rows of unknown lists")
+    void getAllListsTest() {
+        when(taskListRepository.findAllRows()).thenReturn(List.of(new TaskListRow(2L, "List 2", 0L),
+                new TaskListRow(4L, "List 4", 0L), new TaskListRow(5L, "List 5", 0L)));
+        when(taskRepository.findAllRows()).thenReturn(List.of(new TaskRow(20L, 1L, "Orphan", "Desc", 0L, 0L),
+                new TaskRow(10L, 2L, "Task 10", "Desc", 0L, 0L), new TaskRow(11L, 2L, "Task 11", "Desc", 0L, 0L),
+                new TaskRow(30L, 3L, "Orphan", "Desc", 0L, 0L), new TaskRow(12L, 5L, "Task 12", "Desc", 0L, 0L)));
+
+        List<TaskListResponse> lists = service.getAllLists();
+
+        assertEquals(3, lists.size());
+        assertEquals(List.of(10L, 11L), lists.get(0).getTasks().stream().map(TaskResponse::getId).toList());
+        assertEquals(List.of(), lists.get(1).getTasks());
+        assertEquals(List.of(12L), lists.get(2).getTasks().stream().map(TaskResponse::getId).toList());
+        assertNull(lists.get(0).getNextTaskCursor());
+    }
+
+    @Test
+    @DisplayName("Get lists continues after the cursor and ends without a next cursor")
+    void getListsLastPageTest() {
+        TaskListRow list = new TaskListRow(5L, "List 5", 0L);
+
+        when(taskListRepository.findPageAfter(4L, Limit.of(11))).thenReturn(List.of(list));
+        when(taskRepository.findFirstTasksOfLists(List.of(5L), 101)).thenReturn(List.of());
+
+        TaskListPageResponse page = service.getLists(KeysetCursor.encode(4L), 10, 100);
+
+        assertEquals(1, page.getLists().size());
+        assertEquals(List.of(), page.getLists().getFirst().getTasks());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Get lists rejects malformed cursors and out of range limits")
+    void getListsInvalidParametersTest() {
+        InvalidRequestException cursorEx = assertThrows(InvalidRequestException.class,
+                () -> service.getLists("not a cursor", 10, 10));
+        assertEquals("Invalid cursor", cursorEx.getMessage());
+
+        InvalidRequestException limitEx = assertThrows(InvalidRequestException.class,
+                () -> service.getLists(null, 0, 10));
+        assertEquals("limit must be between 1 and 500", limitEx.getMessage());
+
+        InvalidRequestException taskLimitEx = assertThrows(InvalidRequestException.class,
+                () -> service.getLists(null, 10, 1001));
+        assertEquals("taskLimit must be between 1 and 1000", taskLimitEx.getMessage());
+        verify(taskListRepository, never()).findPageAfter(anyLong(), any(Limit.class));
+    }
+
+    @Test
+    @DisplayName("Get tasks returns a page of a list's tasks")
+    void getTasksPageTest() {
+        TaskRow task1 = new TaskRow(10L, 1L, "Task 10", "Desc", 0L, 5L);
+        TaskRow task2 = new TaskRow(11L, 1L, "Task 11", "Desc", 0L, 9L);
+
+        when(taskListRepository.findByIdWithoutCaching(1L)).thenReturn(Optional.of(new TaskList()));
+        when(taskRepository.findPageOfList(1L, Long.MIN_VALUE, 0L, Limit.of(2))).thenReturn(List.of(task1, task2));
+
+        TaskPageResponse page = service.getTasks(1L, null, 1);
+
+        assertEquals(1, page.getTasks().size());
+        assertEquals(10L, page.getTasks().getFirst().getId());
+        assertEquals(new RankCursor(5L, 10L).encode(), page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Search returns a page of the index results and a cursor to the next page")
+    void searchTasksTest() {
+        TaskSearchResult first = new TaskSearchResult(3L, 1L, "Report", "Quarterly report", 2.0);
+        TaskSearchResult second = new TaskSearchResult(4L, 1L, "Draft", "Report draft", 1.0);
+        when(taskSearchIndex.search("report", 0, 2)).thenReturn(List.of(first, second));
+        when(taskSearchIndex.search("report", 1, 2)).thenReturn(List.of(second));
+
+        TaskSearchPageResponse page = service.searchTasks("report", null, 1);
+        assertEquals(List.of(first), page.getResults());
+        assertEquals(SearchCursor.encode(1), page.getNextCursor());
+
+        TaskSearchPageResponse last = service.searchTasks("report", page.getNextCursor(), 1);
+        assertEquals(List.of(second), last.getResults());
+        assertNull(last.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Get changes without changes since the token runs no query")
+    void getChangesUpToDateTest() {
+        when(changeRevisions.watermark()).thenReturn(12L);
+
+        ChangesResponse page = service.getChanges(KeysetCursor.encode(12), 100);
+        assertTrue(page.getLists().isEmpty() && page.getTasks().isEmpty() && page.getDeletions().isEmpty());
+        assertEquals(KeysetCursor.encode(12), page.getNextToken());
+        assertFalse(page.isHasMore());
+        verify(taskRepository, never()).findChanges(anyLong(), anyLong(), any());
+        verify(tombstoneRepository, never()).findChanges(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Get changes reads up to the watermark and skips deletions on a full sync")
+    void getChangesFullSyncTest() {
+        when(changeRevisions.watermark()).thenReturn(12L);
+        ListChange list = new ListChange(1L, "List", 2L, 3L);
+        TaskChange task = new TaskChange(5L, 1L, "Task", "Description", 0L, 0L, 4L);
+        when(taskListRepository.findChanges(-1L, 12L, Limit.of(101))).thenReturn(List.of(list));
+        when(taskRepository.findChanges(-1L, 12L, Limit.of(101))).thenReturn(List.of(task));
+
+        ChangesResponse page = service.getChanges(null, 100);
+        assertEquals(List.of(list), page.getLists());
+        assertEquals(List.of(task), page.getTasks());
+        assertTrue(page.getDeletions().isEmpty());
+        assertEquals(KeysetCursor.encode(12), page.getNextToken());
+        assertFalse(page.isHasMore());
+        verify(tombstoneRepository, never()).findChanges(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Get changes ends a full page before the revision it would have to split")
+    void getChangesPagingTest() {
+        when(changeRevisions.watermark()).thenReturn(20L);
+        TaskChange first = new TaskChange(5L, 1L, "First", "Description", 0L, 0L, 11L);
+        TaskChange second = new TaskChange(6L, 1L, "Second", "Description", 0L, 0L, 13L);
+        Deletion deletion = new Deletion(Tombstone.Kind.TASK, 7L, 1L, 13L);
+        when(taskListRepository.findChanges(10L, 20L, Limit.of(3))).thenReturn(List.of());
+        when(taskRepository.findChanges(10L, 20L, Limit.of(3))).thenReturn(List.of(first, second));
+        when(tombstoneRepository.findChanges(10L, 20L, Limit.of(3))).thenReturn(List.of(deletion));
+
+        ChangesResponse page = service.getChanges(KeysetCursor.encode(10), 2);
+        assertEquals(List.of(first), page.getTasks());
+        assertTrue(page.getDeletions().isEmpty());
+        assertEquals(KeysetCursor.encode(12), page.getNextToken());
+        assertTrue(page.isHasMore());
+    }
+
+    @Test
+    @DisplayName("Get changes returns all changes of a revision larger than the page at once")
+    void getChangesLargeRevisionTest() {
+        when(changeRevisions.watermark()).thenReturn(20L);
+        TaskChange first = new TaskChange(5L, 1L, "First", "Description", 0L, 0L, 11L);
+        TaskChange second = new TaskChange(6L, 1L, "Second", "Description", 0L, 0L, 11L);
+        TaskChange third = new TaskChange(7L, 1L, "Third", "Description", 0L, 0L, 11L);
+        when(taskRepository.findChanges(10L, 20L, Limit.of(3))).thenReturn(List.of(first, second, third));
+        when(taskRepository.findChanges(10L, 11L, Limit.unlimited())).thenReturn(List.of(first, second, third));
+
+        ChangesResponse page = service.getChanges(KeysetCursor.encode(10), 2);
+        assertEquals(List.of(first, second, third), page.getTasks());
+        assertEquals(KeysetCursor.encode(11), page.getNextToken());
+        assertTrue(page.isHasMore());
+    }
+
+    @Test
+    @DisplayName("Get changes rejects a token ahead of the committed changes and an out-of-range limit")
+    void getChangesInvalidTest() {
+        when(changeRevisions.watermark()).thenReturn(12L);
+
+        assertEquals("Invalid sync token", assertThrows(InvalidRequestException.class,
+                () -> service.getChanges(KeysetCursor.encode(13), 100)).getMessage());
+        assertThrows(InvalidRequestException.class, () -> service.getChanges(null, 0));
+        assertThrows(InvalidRequestException.class,
+                () -> service.getChanges(null, TaskManagerService.MAX_CHANGES_PAGE_SIZE + 1));
+    }
+
+    @Test
+    @DisplayName("Search rejects a blank or too long query and an out-of-range limit")
+    void searchTasksInvalidTest() {
+        assertEquals("Search query is required",
+                assertThrows(InvalidRequestException.class, () -> service.searchTasks(" ", null, 10)).getMessage());
+        assertEquals("Search query must be at most 128 characters", assertThrows(InvalidRequestException.class,
+                () -> service.searchTasks("a".repeat(129), null, 10)).getMessage());
+        assertEquals("limit must be between 1 and 100", assertThrows(InvalidRequestException.class,
+                () -> service.searchTasks("report", null, 101)).getMessage());
+        verify(taskSearchIndex, never()).search(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Get tasks of non-existing list throws NotFoundException")
+    void getTasksListNotFoundTest() {
+        when(taskListRepository.findByIdWithoutCaching(999L)).thenReturn(Optional.empty());
+
+        NotFoundException ex = assertThrows(NotFoundException.class,
+                () -> service.getTasks(999L, null, 10));
+        assertEquals("List not found with id 999", ex.getMessage());
+    }
+
+    @Test
+    @DisplayName("Lists ETag depends on list revisions and paging parameters only")
+    void getListsETagTest() {
+        when(taskListRepository.findRevisionsAfter(0L, Limit.of(11)))
+                .thenReturn(List.of(revision(1L, 3L), revision(2L, 0L)));
+        String eTag = service.getListsETag(null, 10, 5);
+
+        assertEquals(eTag, service.getListsETag(null, 10, 5));
+        assertNotEquals(eTag, service.getListsETag(null, 10, 6));
+
+        when(taskListRepository.findRevisionsAfter(0L, Limit.of(11)))
+                .thenReturn(List.of(revision(1L, 4L), revision(2L, 0L)));
+        assertNotEquals(eTag, service.getListsETag(null, 10, 5));
+        verify(taskRepository, never()).findFirstTasksOfLists(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Tasks ETag of non-existing list throws NotFoundException")
+    void getTasksETagListNotFoundTest() {
+        when(taskListRepository.findRevisionById(999L)).thenReturn(Optional.empty());
+
+        NotFoundException ex = assertThrows(NotFoundException.class,
+                () -> service.getTasksETag(999L, null, 10));
+        assertEquals("List not found with id 999", ex.getMessage());
+    }
+
+    @Test
+    @DisplayName("Bulk move by id moves the tasks of the source list and rejects the others")
+    void moveTasksByIdTest() {
+        when(taskListRepository.findExistingIds(List.of(1L, 2L))).thenReturn(List.of(1L, 2L));
+        when(taskRepository.lockIdsOfList(1L, Set.of(3L, 4L, 9L))).thenReturn(List.of(3L, 4L));
+
+        BulkMoveResponse response = service.moveTasks(1L, new BulkMoveRequest(2L, List.of(9L, 4L, 3L, 9L), null));
+
+        assertEquals(List.of(3L, 4L), response.getMoved());
+        assertEquals(List.of(9L), response.getRejected());
+        verify(taskRepository).moveAllToList(List.of(3L, 4L), 2L, RankKeys.append(REVISION), 3L, RankKeys.GAP, REVISION);
+        verify(taskListRepository).incrementRevisions(List.of(1L, 2L), REVISION);
+    }
+
+    @Test
+    @DisplayName("Bulk move by name filter escapes the filter and moves every match")
+    void moveTasksByNameTest() {
+        when(taskListRepository.findExistingIds(List.of(1L, 2L))).thenReturn(List.of(2L, 1L));
+        when(taskRepository.lockIdsOfListByName(1L, "%50\\%\\_done%", Limit.of(BulkMoveRequest.MAX_TASKS + 1)))
+                .thenReturn(List.of(7L));
+
+        BulkMoveResponse response = service.moveTasks(1L, new BulkMoveRequest(2L, null, "50%_Done"));
+
+        assertEquals(List.of(7L), response.getMoved());
+        assertEquals(List.of(), response.getRejected());
+        verify(taskRepository).moveAllToList(List.of(7L), 2L, RankKeys.append(REVISION), 7L, RankKeys.GAP, REVISION);
+    }
+
+    @Test
+    @DisplayName("Bulk move by name filter fails if the filter matches too many tasks")
+    void moveTasksByNameTooManyTest() {
+        when(taskListRepository.findExistingIds(List.of(1L, 2L))).thenReturn(List.of(1L, 2L));
+        when(taskRepository.lockIdsOfListByName(anyLong(), any(), any()))
+                .thenReturn(Collections.nCopies(BulkMoveRequest.MAX_TASKS + 1, 7L));
+
+        InvalidRequestException ex = assertThrows(InvalidRequestException.class,
+                () -> service.moveTasks(1L, new BulkMoveRequest(2L, null, "task")));
+        assertEquals("Name filter matches more than 1000 tasks", ex.getMessage());
+        verify(taskRepository, never()).moveAllToList(any(), any(), anyLong(), anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Bulk move with nothing to move skips the update")
+    void moveTasksNothingMatchedTest() {
+        when(taskListRepository.findExistingIds(List.of(1L, 2L))).thenReturn(List.of(1L, 2L));
+        when(taskRepository.lockIdsOfList(anyLong(), anyCollection())).thenReturn(List.of());
+
+        BulkMoveResponse response = service.moveTasks(1L, new BulkMoveRequest(2L, List.of(5L), null));
+
+        assertEquals(List.of(), response.getMoved());
+        assertEquals(List.of(5L), response.getRejected());
+        verify(taskRepository, never()).moveAllToList(any(), any(), anyLong(), anyLong(), anyLong(), anyLong());
+        verify(taskListRepository, never()).incrementRevisions(any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Bulk move throws if a list is missing or both lists are the same")
+    void moveTasksInvalidListsTest() {
+        when(taskListRepository.findExistingIds(List.of(1L, 2L))).thenReturn(List.of(1L));
+
+        NotFoundException notFound = assertThrows(NotFoundException.class,
+                () -> service.moveTasks(1L, new BulkMoveRequest(2L, List.of(3L), null)));
+        assertEquals("List not found with id 2", notFound.getMessage());
+
+        InvalidRequestException sameList = assertThrows(InvalidRequestException.class,
+                () -> service.moveTasks(1L, new BulkMoveRequest(1L, List.of(3L), null)));
+        assertEquals("Source and target list must be different", sameList.getMessage());
+    }
+
+    private static TaskListRevision revision(Long id, long revision) {
+        return new TaskListRevision() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public long getRevision() {
+                return revision;
+            }
+        };
     }
-}
\ No newline at end of file
+}
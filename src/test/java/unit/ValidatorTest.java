@@ -1,10 +1,18 @@
 package unit;
 
+import com.taskmanager.exception.InvalidRequestException;
+import com.taskmanager.model.request.BulkMoveRequest;
 import com.taskmanager.model.request.TaskListRequest;
 import com.taskmanager.model.request.TaskRequest;
+import com.taskmanager.service.VersionETag;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class ValidatorTest {
@@ -15,7 +23,7 @@ class ValidatorTest {
         TaskRequest task = new TaskRequest();
         task.setName("");
 
-        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, task::validate);
+        InvalidRequestException ex = assertThrows(InvalidRequestException.class, task::validate);
         assertEquals("Task name is required", ex.getMessage());
     }
 
@@ -25,7 +33,7 @@ class ValidatorTest {
         TaskRequest task = new TaskRequest();
         task.setName(null);
 
-        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, task::validate);
+        InvalidRequestException ex = assertThrows(InvalidRequestException.class, task::validate);
         assertEquals("Task name is required", ex.getMessage());
     }
 
@@ -35,7 +43,7 @@ class ValidatorTest {
         TaskRequest task = new TaskRequest();
         task.setName("A".repeat(129));
 
-        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, task::validate);
+        InvalidRequestException ex = assertThrows(InvalidRequestException.class, task::validate);
         assertEquals("Task name must be at most 128 characters", ex.getMessage());
     }
 
@@ -46,7 +54,7 @@ class ValidatorTest {
         task.setName("Valid Name");
         task.setDescription("");
 
-        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, task::validate);
+        InvalidRequestException ex = assertThrows(InvalidRequestException.class, task::validate);
         assertEquals("Task description is required", ex.getMessage());
     }
 
@@ -57,7 +65,7 @@ class ValidatorTest {
         task.setName("Valid Name");
         task.setDescription(null);
 
-        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, task::validate);
+        InvalidRequestException ex = assertThrows(InvalidRequestException.class, task::validate);
         assertEquals("Task description is required", ex.getMessage());
     }
 
@@ -68,7 +76,7 @@ class ValidatorTest {
         task.setName("Valid Name");
         task.setDescription("x".repeat(129));
 
-        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, task::validate);
+        InvalidRequestException ex = assertThrows(InvalidRequestException.class, task::validate);
         assertEquals("Task description must be at most 128 characters", ex.getMessage());
     }
 
@@ -78,7 +86,7 @@ class ValidatorTest {
         TaskListRequest list = new TaskListRequest();
         list.setName("");
 
-        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, list::validate);
+        InvalidRequestException ex = assertThrows(InvalidRequestException.class, list::validate);
         assertEquals("List name is required", ex.getMessage());
     }
 
@@ -88,7 +96,91 @@ class ValidatorTest {
         TaskListRequest list = new TaskListRequest();
         list.setName("x".repeat(129));
 
-        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, list::validate);
+        InvalidRequestException ex = assertThrows(InvalidRequestException.class, list::validate);
         assertEquals("List name must be at most 128 characters", ex.getMessage());
     }
+
+    @Test
+    @DisplayName("TaskRequest batch with an invalid task should report its index")
+    void testBatchWithInvalidTask() {
+        List<TaskRequest> batch = List.of(new TaskRequest("Task 1", "Desc 1"), new TaskRequest("", "Desc 2"));
+
+        InvalidRequestException ex = assertThrows(InvalidRequestException.class, () -> TaskRequest.validateBatch(batch));
+        assertEquals("Task at index 1: Task name is required", ex.getMessage());
+    }
+
+    @Test
+    @DisplayName("TaskRequest batch that is empty or too large should throw exception")
+    void testBatchSize() {
+        InvalidRequestException emptyEx = assertThrows(InvalidRequestException.class,
+                () -> TaskRequest.validateBatch(List.of()));
+        assertEquals("At least one task is required", emptyEx.getMessage());
+
+        List<TaskRequest> tooLarge = new ArrayList<>(Collections.nCopies(1001, new TaskRequest("Task", "Desc")));
+        InvalidRequestException largeEx = assertThrows(InvalidRequestException.class,
+                () -> TaskRequest.validateBatch(tooLarge));
+        assertEquals("A batch must contain at most 1000 tasks", largeEx.getMessage());
+    }
+
+    @Test
+    @DisplayName("BulkMoveRequest without target list should throw exception")
+    void testBulkMoveWithoutTarget() {
+        BulkMoveRequest request = new BulkMoveRequest(null, List.of(1L), null);
+
+        InvalidRequestException ex = assertThrows(InvalidRequestException.class, request::validate);
+        assertEquals("Target list id is required", ex.getMessage());
+    }
+
+    @Test
+    @DisplayName("BulkMoveRequest must select tasks either by id or by name filter")
+    void testBulkMoveSelection() {
+        BulkMoveRequest neither = new BulkMoveRequest(2L, null, null);
+        BulkMoveRequest both = new BulkMoveRequest(2L, List.of(1L), "urgent");
+
+        assertEquals("Exactly one of taskIds or nameContains is required",
+                assertThrows(InvalidRequestException.class, neither::validate).getMessage());
+        assertEquals("Exactly one of taskIds or nameContains is required",
+                assertThrows(InvalidRequestException.class, both::validate).getMessage());
+    }
+
+    @Test
+    @DisplayName("BulkMoveRequest with empty, too large or null task ids should throw exception")
+    void testBulkMoveTaskIds() {
+        BulkMoveRequest empty = new BulkMoveRequest(2L, List.of(), null);
+        BulkMoveRequest tooLarge = new BulkMoveRequest(2L, new ArrayList<>(Collections.nCopies(1001, 1L)), null);
+        BulkMoveRequest withNull = new BulkMoveRequest(2L, Arrays.asList(1L, null), null);
+
+        assertEquals("At least one task id is required",
+                assertThrows(InvalidRequestException.class, empty::validate).getMessage());
+        assertEquals("A bulk move must contain at most 1000 tasks",
+                assertThrows(InvalidRequestException.class, tooLarge::validate).getMessage());
+        assertEquals("Task ids must not be null",
+                assertThrows(InvalidRequestException.class, withNull::validate).getMessage());
+    }
+
+    @Test
+    @DisplayName("BulkMoveRequest with blank or too long name filter should throw exception")
+    void testBulkMoveNameFilter() {
+        BulkMoveRequest blank = new BulkMoveRequest(2L, null, " ");
+        BulkMoveRequest tooLong = new BulkMoveRequest(2L, null, "A".repeat(129));
+
+        assertEquals("Name filter must not be blank",
+                assertThrows(InvalidRequestException.class, blank::validate).getMessage());
+        assertEquals("Name filter must be at most 128 characters",
+                assertThrows(InvalidRequestException.class, tooLong::validate).getMessage());
+    }
+
+    @Test
+    @DisplayName("If-Match accepts * or a single quoted version and rejects anything else")
+    void testIfMatchVersion() {
+        assertNull(VersionETag.parseIfMatch(null));
+        assertNull(VersionETag.parseIfMatch("*"));
+        assertEquals(7L, VersionETag.parseIfMatch(" \"7\" "));
+        assertEquals("\"7\"", VersionETag.of(7L));
+
+        for (String invalid : List.of("7", "W/\"7\"", "\"\"", "\"-1\"", "\"7\", \"8\"", "\"abc\"")) {
+            assertEquals("If-Match must be * or a single quoted version, e.g. \"3\"",
+                    assertThrows(InvalidRequestException.class, () -> VersionETag.parseIfMatch(invalid)).getMessage());
+        }
+    }
 }